@@ -1,14 +1,21 @@
 package edu.ewu.cscd211.conceptmap;
 
 import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
 import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
 import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.DatasetRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -27,6 +34,22 @@ import java.util.Objects;
  * HTTP methods indicate actions. The concept map is treated as a single, cacheable 
  * resource that clients can retrieve and process locally for visualization.</p>
  * 
+ * <h3>Conditional Requests</h3>
+ * <p>Responses carry a strong {@code ETag} and a {@code Last-Modified} header. Clients that
+ * send a matching {@code If-None-Match} header receive {@code 304 Not Modified} with no body,
+ * and the request is answered from cached metadata without parsing any JSON.</p>
+ * 
+ * <h3>Content Negotiation</h3>
+ * <p>Snapshots are precompressed when they are built. The controller only selects the stored
+ * variant that best matches {@code Accept-Encoding} and writes it as-is, setting
+ * {@code Content-Encoding} and {@code Vary: Accept-Encoding} accordingly.</p>
+ * 
+ * <h3>Multiple Datasets</h3>
+ * <p>{@code /api/datasets} lists every dataset in the manifest and
+ * {@code /api/concept-maps/{dataset}} serves one of them. Datasets are loaded on first request
+ * through the {@link DatasetRegistry} and share the same caching and negotiation rules as the
+ * default concept map.</p>
+ * 
  * <h3>Error Response Format</h3>
  * <pre>{@code
  * {
@@ -45,13 +68,15 @@ import java.util.Objects;
 public class ConceptMapController {
     
     private final ConceptMapService conceptMapService;
+    private final DatasetRegistry datasetRegistry;
     
     // Constants following CSCD211 standards
-    private static final String HEADER_CONTENT_TYPE = "Content-Type";
-    private static final String MEDIA_TYPE_JSON = "application/json";
-    private static final String ERROR_NOT_FOUND = "{\"error\":\"concept map not found\"}";
-    private static final String ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}";
+    private static final byte[] ERROR_NOT_FOUND = "{\"error\":\"concept map not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_DATASET_NOT_FOUND = "{\"error\":\"dataset not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_CATALOG_FAILURE = "{\"error\":\"failed to read dataset manifest\"}".getBytes(StandardCharsets.UTF_8);
     private static final String ERROR_NULL_SERVICE = "ConceptMapService cannot be null";
+    private static final String ERROR_NULL_REGISTRY = "DatasetRegistry cannot be null";
     
     /**
      * Initializes the controller with required dependencies using constructor injection.
@@ -65,12 +90,14 @@ public class ConceptMapController {
      * </ul>
      * 
      * @param conceptMapService service layer for concept map business operations
-     * @throws IllegalArgumentException if conceptMapService is null, preventing runtime failures
+     * @param datasetRegistry registry of the datasets listed in the manifest
+     * @throws NullPointerException if either dependency is null, preventing runtime failures
      * 
      * @see <a href="https://docs.spring.io/spring-framework/docs/current/reference/html/core.html#beans-constructor-injection">Spring Constructor Injection</a>
      */
-    public ConceptMapController(final ConceptMapService conceptMapService) {
+    public ConceptMapController(final ConceptMapService conceptMapService, final DatasetRegistry datasetRegistry) {
         this.conceptMapService = Objects.requireNonNull(conceptMapService, ERROR_NULL_SERVICE);
+        this.datasetRegistry = Objects.requireNonNull(datasetRegistry, ERROR_NULL_REGISTRY);
     }
     
     /**
@@ -113,42 +140,85 @@ public class ConceptMapController {
      * <ul>
      *   <li><strong>404 Not Found</strong>: When the concept map resource doesn't exist</li>
      *   <li><strong>500 Internal Server Error</strong>: When file reading or parsing fails</li>
+     *   <li><strong>304 Not Modified</strong>: When {@code If-None-Match} matches the current ETag</li>
      *   <li><strong>200 OK</strong>: When data is successfully retrieved and validated</li>
      * </ul>
      * 
-     * @return ResponseEntity containing concept map JSON data with appropriate HTTP status
-     *         and Content-Type headers for optimal browser compatibility
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return ResponseEntity containing concept map JSON data with appropriate HTTP status,
+     *         Content-Type and caching headers for optimal browser compatibility
      * 
      * @see <a href="https://developer.mozilla.org/en-US/docs/Web/HTTP/Status">HTTP Status Codes Reference</a>
-     * @see <a href="https://tools.ietf.org/html/rfc7231#section-6">RFC 7231 Response Status Codes</a>
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9110#name-if-none-match">RFC 9110 If-None-Match</a>
      */
     @GetMapping("/concept-map")
-    public ResponseEntity<String> getConceptMap() {
+    public ResponseEntity<Resource> getConceptMap(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
         try {
-            final String conceptMapJson = this.conceptMapService.getConceptMapJson();
-            
-            // Additional validation to ensure JSON is not empty
-            if (!this.conceptMapService.isValidJson(conceptMapJson)) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                        .body(ERROR_READ_FAILURE);
-            }
-            
-            return ResponseEntity.ok()
-                    .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                    .body(conceptMapJson);
+            return SnapshotResponses.serve(this.conceptMapService.getConceptMapSnapshot(), ifNoneMatch, acceptEncoding);
                     
         } catch (ConceptMapNotFoundException e) {
             // Resource not found -> 404 with deterministic JSON error body
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                    .body(ERROR_NOT_FOUND);
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_NOT_FOUND);
                     
         } catch (ConceptMapReadException e) {
             // Read failure -> 500 with deterministic JSON error body
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
-                    .body(ERROR_READ_FAILURE);
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+    
+    /**
+     * Lists the datasets available from {@code /api/concept-maps/{dataset}}.
+     * 
+     * <h3>Response Structure</h3>
+     * <pre>{@code
+     * {
+     *   "datasets": [
+     *     { "id": "concept-map", "name": "Programming Concepts", "file": "concept-map.json" }
+     *   ]
+     * }
+     * }</pre>
+     * 
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the dataset catalog, 304 if unchanged, or 500 if the manifest cannot be read
+     */
+    @GetMapping("/datasets")
+    public ResponseEntity<Resource> getDatasets(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetRegistry.getCatalogSnapshot(), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_CATALOG_FAILURE);
+        }
+    }
+    
+    /**
+     * Retrieves one dataset from the manifest by its id.
+     * 
+     * <p>The first request for a dataset reads and snapshots it; later requests are served from
+     * the registry's bounded cache with the same ETag, {@code Last-Modified} and
+     * {@code Content-Encoding} handling as {@link #getConceptMap(String, String)}.</p>
+     * 
+     * @param dataset the dataset id, i.e. the manifest file name without {@code .json}
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the dataset JSON, 304 if unchanged, 404 for unknown datasets, or 500 on read failure
+     */
+    @GetMapping("/concept-maps/{dataset}")
+    public ResponseEntity<Resource> getDataset(
+            @PathVariable("dataset") final String dataset,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetRegistry.getSnapshot(dataset), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
         }
     }
 }
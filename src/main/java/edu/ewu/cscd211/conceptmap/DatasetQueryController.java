@@ -0,0 +1,298 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapExporter;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.DatasetGraph;
+import edu.ewu.cscd211.conceptmap.service.DatasetQueryService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * REST Controller for focused queries inside one dataset.
+ *
+ * <p>Where {@link ConceptMapController} serves whole documents, this controller serves the
+ * small pieces a client needs for a focused view, so it does not have to download and scan
+ * the entire map first. Every response is pre-serialized and cached by
+ * {@link DatasetQueryService} and carries the same ETag, {@code Last-Modified} and
+ * {@code Content-Encoding} handling as the full documents.</p>
+ *
+ * <h3>Summary and Detail Views</h3>
+ * <p>A client can render its first frame from the skeleton or a {@code ?fields=} projection,
+ * which leave out the rich teaching fields, and then fetch single nodes or links in full when
+ * the user opens them.</p>
+ *
+ * <h3>Exports</h3>
+ * <p>{@code /export?format=} streams a whole dataset as JSON, NDJSON, GraphML, Graphviz DOT or
+ * a CSV edge list for analysis in other tools. Exports are written from the dataset's graph
+ * while the response is sent, so they are neither cached nor held in memory.</p>
+ *
+ * <h3>Error Responses</h3>
+ * <ul>
+ *   <li><strong>400 Bad Request</strong>: Query parameters out of range or an unknown export format</li>
+ *   <li><strong>404 Not Found</strong>: Unknown dataset or node</li>
+ *   <li><strong>500 Internal Server Error</strong>: The dataset cannot be read</li>
+ * </ul>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see DatasetQueryService
+ */
+@RestController
+@RequestMapping("/api/concept-maps/{dataset}")
+public class DatasetQueryController {
+
+    private final DatasetQueryService datasetQueryService;
+
+    private static final String DEFAULT_DEPTH = "1";
+    private static final byte[] ERROR_NOT_FOUND = "{\"error\":\"dataset or node not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_DATASET_NOT_FOUND = "{\"error\":\"dataset not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_LINK_NOT_FOUND = "{\"error\":\"dataset or link not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BAD_NEIGHBORHOOD = ("{\"error\":\"depth must be between 0 and "
+            + DatasetQueryService.MAX_NEIGHBORHOOD_DEPTH + " and direction one of in, out or both\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BAD_EXPORT_FORMAT = "{\"error\":\"unsupported export format\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String DEFAULT_EXPORT_FORMAT = "json";
+    private static final String ERROR_NULL_SERVICE = "DatasetQueryService cannot be null";
+
+    /**
+     * Initializes the controller with its query service.
+     *
+     * @param datasetQueryService answers the dataset queries
+     * @throws NullPointerException if datasetQueryService is null
+     */
+    public DatasetQueryController(final DatasetQueryService datasetQueryService) {
+        this.datasetQueryService = Objects.requireNonNull(datasetQueryService, ERROR_NULL_SERVICE);
+    }
+
+    /**
+     * Retrieves the k-hop neighborhood of one node as an induced subgraph.
+     *
+     * <h3>Request</h3>
+     * <pre>{@code
+     * GET /api/concept-maps/concept-map/nodes/recursion/neighborhood?depth=2&direction=out&types=prerequisite
+     * }</pre>
+     *
+     * <h3>Response Structure</h3>
+     * <pre>{@code
+     * {
+     *   "dataset": "concept-map",
+     *   "center": "recursion",
+     *   "depth": 2,
+     *   "direction": "out",
+     *   "types": ["prerequisite"],
+     *   "nodes": [ { "id": "recursion", ... }, ... ],
+     *   "links": [ { "source": "recursion", "target": "call-stack", ... }, ... ]
+     * }
+     * }</pre>
+     *
+     * @param dataset the dataset id
+     * @param nodeId the center node id
+     * @param depth the number of hops to follow (default 1)
+     * @param direction {@code in}, {@code out} or {@code both} (default both)
+     * @param types relationship types to follow, comma separated; all types if absent
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the neighborhood, 304 if unchanged, 400 for invalid parameters, 404 for unknown
+     *         datasets or nodes, or 500 on read failure
+     */
+    @GetMapping("/nodes/{nodeId}/neighborhood")
+    public ResponseEntity<Resource> getNeighborhood(
+            @PathVariable("dataset") final String dataset,
+            @PathVariable("nodeId") final String nodeId,
+            @RequestParam(value = "depth", defaultValue = DEFAULT_DEPTH) final int depth,
+            @RequestParam(value = "direction", required = false) final String direction,
+            @RequestParam(value = "types", required = false) final List<String> types,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        // Only the parameters are the client's fault; any other IllegalArgumentException is a bug
+        final Direction followed;
+        try {
+            followed = Direction.fromParameter(direction);
+        } catch (IllegalArgumentException e) {
+            return SnapshotResponses.error(HttpStatus.BAD_REQUEST, ERROR_BAD_NEIGHBORHOOD);
+        }
+        if (depth < 0 || depth > DatasetQueryService.MAX_NEIGHBORHOOD_DEPTH) {
+            return SnapshotResponses.error(HttpStatus.BAD_REQUEST, ERROR_BAD_NEIGHBORHOOD);
+        }
+        try {
+            return SnapshotResponses.serve(
+                    this.datasetQueryService.getNeighborhood(dataset, nodeId, depth, followed, types),
+                    ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+
+    /**
+     * Retrieves a dataset with every node and link reduced to the requested fields.
+     *
+     * <p>This mapping applies only when the {@code fields} parameter is present; otherwise
+     * {@link ConceptMapController#getDataset} serves the complete document.</p>
+     *
+     * <pre>{@code
+     * GET /api/concept-maps/concept-map?fields=name,level,type
+     * }</pre>
+     *
+     * @param dataset the dataset id
+     * @param fields the fields to keep, comma separated; node {@code id} and link
+     *               {@code source}/{@code target} are always kept
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the projected dataset, 304 if unchanged, 404 for unknown datasets, or 500 on read failure
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<Resource> getProjection(
+            @PathVariable("dataset") final String dataset,
+            @RequestParam("fields") final List<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetQueryService.getProjection(dataset, fields), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+
+    /**
+     * Retrieves the compact skeleton of a dataset for the first render: node
+     * {@code id, name, level, group, size} and link {@code source, target, type, strength}.
+     *
+     * @param dataset the dataset id
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the skeleton, 304 if unchanged, 404 for unknown datasets, or 500 on read failure
+     */
+    @GetMapping("/skeleton")
+    public ResponseEntity<Resource> getSkeleton(
+            @PathVariable("dataset") final String dataset,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetQueryService.getSkeleton(dataset), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+
+    /**
+     * Retrieves one node with all of its fields.
+     *
+     * @param dataset the dataset id
+     * @param nodeId the node id
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the node object, 304 if unchanged, 404 for unknown datasets or nodes, or 500 on read failure
+     */
+    @GetMapping("/nodes/{nodeId}")
+    public ResponseEntity<Resource> getNode(
+            @PathVariable("dataset") final String dataset,
+            @PathVariable("nodeId") final String nodeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetQueryService.getNodeDetail(dataset, nodeId), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+
+    /**
+     * Retrieves one link with all of its fields.
+     *
+     * @param dataset the dataset id
+     * @param linkIndex the link's position in the {@code links} array of the skeleton or a projection
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the link object, 304 if unchanged, 404 for unknown datasets or links, or 500 on read failure
+     */
+    @GetMapping("/links/{linkIndex}")
+    public ResponseEntity<Resource> getLink(
+            @PathVariable("dataset") final String dataset,
+            @PathVariable("linkIndex") final int linkIndex,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        try {
+            return SnapshotResponses.serve(this.datasetQueryService.getLinkDetail(dataset, linkIndex), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_LINK_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+
+    /**
+     * Exports a whole dataset in an interchange format.
+     *
+     * <h3>Request</h3>
+     * <pre>{@code
+     * GET /api/concept-maps/concept-map/export?format=graphml
+     * }</pre>
+     *
+     * <p>The document is sent as an attachment named after the dataset and the format, and is
+     * written straight from the dataset's graph into the response, one node or link at a time.</p>
+     *
+     * @param dataset the dataset id
+     * @param format {@code json}, {@code ndjson}, {@code graphml}, {@code dot} or {@code csv}
+     *               (default json)
+     * @return the streamed document, 400 for unknown formats, 404 for unknown datasets, or 500
+     *         on read failure
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable("dataset") final String dataset,
+            @RequestParam(value = "format", defaultValue = DEFAULT_EXPORT_FORMAT) final String format) {
+        final ConceptMapExporter exporter;
+        try {
+            exporter = this.datasetQueryService.getExporter(format);
+        } catch (IllegalArgumentException e) {
+            return exportError(HttpStatus.BAD_REQUEST, ERROR_BAD_EXPORT_FORMAT);
+        }
+        final DatasetGraph graph;
+        try {
+            graph = this.datasetQueryService.getGraph(dataset);
+        } catch (ConceptMapNotFoundException e) {
+            return exportError(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return exportError(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exporter.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(dataset + "." + exporter.getFormat())
+                        .build()
+                        .toString())
+                .body(output -> graph.export(exporter, output));
+    }
+
+    /** Builds an error response of an endpoint that otherwise streams its body. */
+    private static ResponseEntity<StreamingResponseBody> exportError(final HttpStatus status, final byte[] body) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .body(output -> output.write(body));
+    }
+}
@@ -0,0 +1,117 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.layout.LayoutOptions;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.LayoutService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * REST Controller for server-side layouts.
+ *
+ * <p>Serves a dataset with {@code x}, {@code y} and {@code _radius} already set on every node,
+ * so the client can skip most or all of its force simulation. Layouts are computed once per
+ * dataset, canvas size and anchor, and cached by {@link LayoutService}, which rounds the canvas
+ * to {@code layout.width} and {@code layout.height} in the response.</p>
+ *
+ * <h3>Error Responses</h3>
+ * <ul>
+ *   <li><strong>400 Bad Request</strong>: Unknown engine or canvas size out of range</li>
+ *   <li><strong>404 Not Found</strong>: Unknown dataset or anchor node</li>
+ *   <li><strong>500 Internal Server Error</strong>: The dataset cannot be read</li>
+ * </ul>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see LayoutService
+ */
+@RestController
+public class LayoutController {
+
+    private final LayoutService layoutService;
+
+    private static final String DEFAULT_WIDTH = "" + LayoutService.DEFAULT_WIDTH;
+    private static final String DEFAULT_HEIGHT = "" + LayoutService.DEFAULT_HEIGHT;
+    private static final byte[] ERROR_BAD_LAYOUT = ("{\"error\":\"width and height must be between "
+            + LayoutOptions.MIN_SIZE + " and " + LayoutOptions.MAX_SIZE + " and engine a known layout engine\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_NOT_FOUND = "{\"error\":\"dataset or anchor node not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String ERROR_NULL_SERVICE = "LayoutService cannot be null";
+
+    /**
+     * Initializes the controller with its layout service.
+     *
+     * @param layoutService computes and caches layouts
+     * @throws NullPointerException if layoutService is null
+     */
+    public LayoutController(final LayoutService layoutService) {
+        this.layoutService = Objects.requireNonNull(layoutService, ERROR_NULL_SERVICE);
+    }
+
+    /**
+     * Retrieves a dataset laid out for a canvas.
+     *
+     * <h3>Request</h3>
+     * <pre>{@code
+     * GET /api/concept-maps/concept-map/layout?width=1600&height=900&anchor=recursion
+     * }</pre>
+     *
+     * <h3>Response Structure</h3>
+     * <pre>{@code
+     * {
+     *   "metadata": { ... },
+     *   "layout": { "engine": "force", "width": 1600, "height": 900, "anchor": "recursion" },
+     *   "nodes": [ { "id": "recursion", ..., "x": 812.4, "y": 447.9, "_radius": 21.5 }, ... ],
+     *   "links": [ ... ]
+     * }
+     * }</pre>
+     *
+     * @param dataset the dataset id
+     * @param width the canvas width in pixels (default 2000)
+     * @param height the canvas height in pixels (default 1200)
+     * @param engine the layout engine: {@code force} (default) or {@code multilevel} for very large graphs
+     * @param anchor a node to pull to the canvas center, or absent for none
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the laid-out dataset, 304 if unchanged, 400 for invalid parameters, 404 for unknown
+     *         datasets or anchors, or 500 on read failure
+     */
+    @GetMapping("/api/concept-maps/{dataset}/layout")
+    public ResponseEntity<Resource> getLayout(
+            @PathVariable("dataset") final String dataset,
+            @RequestParam(value = "width", defaultValue = DEFAULT_WIDTH) final int width,
+            @RequestParam(value = "height", defaultValue = DEFAULT_HEIGHT) final int height,
+            @RequestParam(value = "engine", required = false) final String engine,
+            @RequestParam(value = "anchor", required = false) final String anchor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        // Only the parameters are the client's fault; any other IllegalArgumentException is a bug
+        if (width < LayoutOptions.MIN_SIZE || width > LayoutOptions.MAX_SIZE
+                || height < LayoutOptions.MIN_SIZE || height > LayoutOptions.MAX_SIZE
+                || engine != null && !this.layoutService.getEngineNames().contains(engine)) {
+            return SnapshotResponses.error(HttpStatus.BAD_REQUEST, ERROR_BAD_LAYOUT);
+        }
+        try {
+            return SnapshotResponses.serve(
+                    this.layoutService.getLayout(dataset, engine, new LayoutOptions(width, height, anchor)),
+                    ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+}
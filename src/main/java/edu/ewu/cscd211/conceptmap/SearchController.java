@@ -0,0 +1,111 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.SearchService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * REST Controller for full-text search across the nodes of a dataset.
+ *
+ * <p>The frontend's quick search can only scan the nodes it has already downloaded. This
+ * endpoint searches the whole dataset on the server, ranked by relevance, and returns a
+ * highlighted snippet per hit so the client can show results before loading any node.</p>
+ *
+ * <h3>Error Responses</h3>
+ * <ul>
+ *   <li><strong>400 Bad Request</strong>: Query without searchable terms, or limit out of range</li>
+ *   <li><strong>404 Not Found</strong>: Unknown dataset</li>
+ *   <li><strong>500 Internal Server Error</strong>: The dataset cannot be read</li>
+ * </ul>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see SearchService
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    private static final String DEFAULT_LIMIT = "" + SearchService.DEFAULT_LIMIT;
+    private static final byte[] ERROR_BAD_QUERY = ("{\"error\":\"q must contain a letter or digit and limit be between 1 and "
+            + SearchService.MAX_LIMIT + "\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_DATASET_NOT_FOUND = "{\"error\":\"dataset not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String ERROR_NULL_SERVICE = "SearchService cannot be null";
+
+    /**
+     * Initializes the controller with its search service.
+     *
+     * @param searchService answers the search queries
+     * @throws NullPointerException if searchService is null
+     */
+    public SearchController(final SearchService searchService) {
+        this.searchService = Objects.requireNonNull(searchService, ERROR_NULL_SERVICE);
+    }
+
+    /**
+     * Searches node names, descriptions and rich teaching fields.
+     *
+     * <h3>Request</h3>
+     * <pre>{@code
+     * GET /api/search?q=binary+search&dataset=concept-map&limit=5
+     * }</pre>
+     *
+     * <h3>Response Structure</h3>
+     * <pre>{@code
+     * {
+     *   "dataset": "concept-map",
+     *   "query": "binary search",
+     *   "count": 5,
+     *   "hits": [
+     *     { "id": "binary-search", "name": "Binary Search", "score": 7.412,
+     *       "field": "description", "snippet": "Searching a sorted array by ...",
+     *       "highlights": [[0, 9], [35, 41]] },
+     *     ...
+     *   ]
+     * }
+     * }</pre>
+     *
+     * @param query the free-text query; terms are matched case-insensitively
+     * @param dataset the dataset id; the first dataset of the manifest if absent
+     * @param limit the maximum number of hits (default 10)
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the ranked hits, 304 if unchanged, 400 for an invalid query, 404 for unknown
+     *         datasets, or 500 on read failure
+     */
+    @GetMapping
+    public ResponseEntity<Resource> search(
+            @RequestParam(value = "q", required = false) final String query,
+            @RequestParam(value = "dataset", required = false) final String dataset,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        // Only the parameters are the client's fault; any other IllegalArgumentException is a bug
+        if (!SearchService.hasTerms(query) || limit < 1 || limit > SearchService.MAX_LIMIT) {
+            return SnapshotResponses.error(HttpStatus.BAD_REQUEST, ERROR_BAD_QUERY);
+        }
+        try {
+            return SnapshotResponses.serve(this.searchService.search(dataset, query, limit), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+}
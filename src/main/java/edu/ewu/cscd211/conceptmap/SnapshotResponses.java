@@ -0,0 +1,79 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.ContentEncoding;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Shared HTTP response building for every endpoint that serves a {@link ConceptMapSnapshot}.
+ *
+ * <p>Keeping conditional-request and content-negotiation handling in one place guarantees that
+ * whole datasets and query results behave identically for caches and browsers.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class SnapshotResponses {
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final String MEDIA_TYPE_JSON = "application/json";
+
+    private SnapshotResponses() {
+        // Static helpers only
+    }
+
+    /**
+     * Writes a snapshot as a cacheable response, answering conditional requests with 304.
+     *
+     * @param snapshot the snapshot to serve
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return a 200 response with the negotiated variant, or a 304 response with no body
+     */
+    static ResponseEntity<Resource> serve(final ConceptMapSnapshot snapshot,
+                                          final String ifNoneMatch,
+                                          final String acceptEncoding) {
+        final ContentEncoding encoding = snapshot.selectEncoding(acceptEncoding);
+
+        // Conditional GET: the client already has this exact representation
+        if (snapshot.matchesETag(ifNoneMatch, encoding)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getETag(encoding))
+                    .lastModified(snapshot.getLastModified())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
+                .eTag(snapshot.getETag(encoding))
+                .lastModified(snapshot.getLastModified())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentLength(snapshot.getContentLength(encoding));
+        if (encoding != ContentEncoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+        }
+        return response.body(snapshot.asResource(encoding));
+    }
+
+    /**
+     * Builds a JSON error response from a pre-encoded constant body.
+     *
+     * @param status the HTTP status to return
+     * @param body the UTF-8 encoded JSON error document
+     * @return the error response
+     */
+    static ResponseEntity<Resource> error(final HttpStatus status, final byte[] body) {
+        return ResponseEntity.status(status)
+                .header(HEADER_CONTENT_TYPE, MEDIA_TYPE_JSON)
+                .body(new ByteArrayResource(body));
+    }
+}
@@ -0,0 +1,111 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.SuggestService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * REST Controller for typo-tolerant autocompletion of concept names.
+ *
+ * <p>Clients call this endpoint on every keystroke of a search box. It accepts partial and
+ * misspelled input such as {@code encapsu} or {@code polymorhism} and answers with the most
+ * central matching concepts first.</p>
+ *
+ * <h3>Error Responses</h3>
+ * <ul>
+ *   <li><strong>400 Bad Request</strong>: Prefix without letters or digits, prefix too long, or
+ *       limit out of range</li>
+ *   <li><strong>404 Not Found</strong>: Unknown dataset</li>
+ *   <li><strong>500 Internal Server Error</strong>: The dataset cannot be read</li>
+ * </ul>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see SuggestService
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private final SuggestService suggestService;
+
+    private static final String DEFAULT_LIMIT = "" + SuggestService.DEFAULT_LIMIT;
+    private static final byte[] ERROR_BAD_PREFIX = ("{\"error\":\"prefix must contain a letter or digit and at most "
+            + SuggestService.MAX_PREFIX_LENGTH + " characters, and limit be between 1 and "
+            + SuggestService.MAX_LIMIT + "\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_DATASET_NOT_FOUND = "{\"error\":\"dataset not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_READ_FAILURE = "{\"error\":\"failed to read concept map\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String ERROR_NULL_SERVICE = "SuggestService cannot be null";
+
+    /**
+     * Initializes the controller with its suggestion service.
+     *
+     * @param suggestService answers the suggestion queries
+     * @throws NullPointerException if suggestService is null
+     */
+    public SuggestController(final SuggestService suggestService) {
+        this.suggestService = Objects.requireNonNull(suggestService, ERROR_NULL_SERVICE);
+    }
+
+    /**
+     * Suggests concepts whose name or id starts with the typed prefix, allowing for typos.
+     *
+     * <h3>Request</h3>
+     * <pre>{@code
+     * GET /api/suggest?prefix=polymorhism&dataset=concept-map
+     * }</pre>
+     *
+     * <h3>Response Structure</h3>
+     * <pre>{@code
+     * {
+     *   "dataset": "concept-map",
+     *   "prefix": "polymorhism",
+     *   "maxEdits": 2,
+     *   "suggestions": [
+     *     { "id": "polymorphism", "name": "Polymorphism", "distance": 1, "degree": 9 },
+     *     ...
+     *   ]
+     * }
+     * }</pre>
+     *
+     * @param prefix the typed text
+     * @param dataset the dataset id; the first dataset of the manifest if absent
+     * @param limit the maximum number of suggestions (default 8)
+     * @param ifNoneMatch the optional {@code If-None-Match} request header
+     * @param acceptEncoding the optional {@code Accept-Encoding} request header
+     * @return the suggestions, 304 if unchanged, 400 for an invalid prefix, 404 for unknown
+     *         datasets, or 500 on read failure
+     */
+    @GetMapping
+    public ResponseEntity<Resource> suggest(
+            @RequestParam(value = "prefix", required = false) final String prefix,
+            @RequestParam(value = "dataset", required = false) final String dataset,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        // Only the parameters are the client's fault; any other IllegalArgumentException is a bug
+        if (!SuggestService.isValidPrefix(prefix) || limit < 1 || limit > SuggestService.MAX_LIMIT) {
+            return SnapshotResponses.error(HttpStatus.BAD_REQUEST, ERROR_BAD_PREFIX);
+        }
+        try {
+            return SnapshotResponses.serve(this.suggestService.suggest(dataset, prefix, limit), ifNoneMatch, acceptEncoding);
+        } catch (ConceptMapNotFoundException e) {
+            return SnapshotResponses.error(HttpStatus.NOT_FOUND, ERROR_DATASET_NOT_FOUND);
+        } catch (ConceptMapReadException e) {
+            return SnapshotResponses.error(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_READ_FAILURE);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Read-only adjacency index over the nodes and links of a {@link ConceptMap}.
+ *
+ * <p>The concept map itself only stores flat node and link lists, so answering "what is
+ * connected to this concept?" means scanning every link. This index is built once per loaded
+ * map and turns that question into a hash lookup followed by a walk over the node's own links.</p>
+ *
+ * <h3>Data Layout</h3>
+ * <p>The structure lives in a {@link CsrGraph}: node numbers, compressed outgoing and
+ * incoming rows, and primitive link type and strength columns. Queries run on that graph
+ * only, keeping traversal state in flat arrays instead of sets of strings, and turn node and
+ * link numbers back into {@link Node} and {@link Link} objects when they assemble their
+ * result. Links whose endpoints are not nodes of the map are left out of the rows.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>The index is immutable after construction and can be shared between request threads.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.3
+ * @since 2.1
+ */
+public final class AdjacencyIndex {
+
+    private final List<Node> nodes;
+    private final List<Link> links;
+    private final CsrGraph graph;
+
+    private AdjacencyIndex(final List<Node> nodes, final List<Link> links, final CsrGraph graph) {
+        this.nodes = nodes;
+        this.links = links;
+        this.graph = graph;
+    }
+
+    /**
+     * Builds the index for a concept map.
+     *
+     * @param conceptMap the map to index
+     * @return a new index reflecting the map's current nodes and links
+     * @throws NullPointerException if conceptMap is null
+     */
+    public static AdjacencyIndex of(final ConceptMap conceptMap) {
+        return of(conceptMap, Link::getStrength, false);
+    }
+
+    /**
+     * Builds the index for a concept map, with link strengths and a choice of storage.
+     *
+     * @param conceptMap the map to index
+     * @param strength gives each link's strength, or null if links have none
+     * @param offHeap whether the graph columns are allocated outside the Java heap
+     * @return a new index reflecting the map's current nodes and links
+     * @throws NullPointerException if conceptMap is null
+     */
+    public static AdjacencyIndex of(final ConceptMap conceptMap, final ToDoubleFunction<? super Link> strength,
+                                    final boolean offHeap) {
+        Objects.requireNonNull(conceptMap, "Concept map cannot be null");
+        final List<Node> nodes = List.copyOf(conceptMap.getNodes());
+        final List<Link> links = List.copyOf(conceptMap.getLinks());
+        return new AdjacencyIndex(nodes, links, CsrGraph.of(nodes, links, strength, offHeap));
+    }
+
+    /**
+     * Wraps an existing graph, such as one mapped from a file, with the objects it numbers.
+     *
+     * @param nodes the nodes by node number; may decode them on demand
+     * @param links the links by link number; may decode them on demand
+     * @param graph the graph over these nodes and links
+     * @return a new index over the graph
+     * @throws IllegalArgumentException if the counts of the lists and the graph differ
+     */
+    public static AdjacencyIndex of(final List<Node> nodes, final List<Link> links, final CsrGraph graph) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null");
+        Objects.requireNonNull(links, "Links cannot be null");
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        if (nodes.size() != graph.nodeCount() || links.size() != graph.linkCount()) {
+            throw new IllegalArgumentException("Nodes and links do not match " + graph);
+        }
+        return new AdjacencyIndex(nodes, links, graph);
+    }
+
+    /**
+     * Returns the graph store that queries run on; node and link numbers are positions in
+     * {@link #getNodes()} and {@link #getLinks()}.
+     *
+     * @return the graph
+     */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the indexed nodes in concept map order.
+     *
+     * @return an unmodifiable list of nodes
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the indexed links in concept map order; a link's position in this list is its
+     * index in API responses.
+     *
+     * @return an unmodifiable list of links
+     */
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    public int linkCount() {
+        return links.size();
+    }
+
+    /**
+     * Checks whether a node is part of the indexed map.
+     *
+     * @param nodeId the node id
+     * @return true if the node exists
+     */
+    public boolean contains(final String nodeId) {
+        return graph.indexOf(nodeId) != CsrGraph.NO_NODE;
+    }
+
+    /**
+     * Returns the position of a link in {@link #getLinks()}, found by a scan of its source
+     * node's outgoing row.
+     *
+     * @param link the link
+     * @return the first position of an equal link, or -1 if the index holds none
+     */
+    public int indexOf(final Link link) {
+        final int source = graph.indexOf(link.getSourceId());
+        final int target = graph.indexOf(link.getTargetId());
+        final int type = graph.typeSymbol(link.getRelationshipType());
+        if (source == CsrGraph.NO_NODE || target == CsrGraph.NO_NODE || type == SymbolTable.NO_SYMBOL) {
+            return -1;
+        }
+        for (int e = graph.outgoingStart(source); e < graph.outgoingEnd(source); e++) {
+            if (graph.outgoingNeighbor(e) == target && graph.type(graph.outgoingLink(e)) == type) {
+                return graph.outgoingLink(e);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of indexed links that touch a node in the given direction.
+     *
+     * @param nodeId the node id
+     * @param direction which links to count
+     * @return the degree, or 0 for unknown nodes
+     */
+    public int degree(final String nodeId, final Direction direction) {
+        final int node = graph.indexOf(nodeId);
+        if (node == CsrGraph.NO_NODE) {
+            return 0;
+        }
+        int degree = 0;
+        if (direction.followsOutgoing()) {
+            degree += graph.outDegree(node);
+        }
+        if (direction.followsIncoming()) {
+            degree += graph.inDegree(node);
+        }
+        return degree;
+    }
+
+    /**
+     * Collects the k-hop neighborhood of a node as an induced subgraph.
+     *
+     * <p>A breadth-first search starts at the center node and follows up to {@code depth} links
+     * in the requested direction, restricted to the given relationship types. The result holds
+     * every node reached and every link of an allowed type whose two endpoints were both
+     * reached, whatever its direction.</p>
+     *
+     * @param centerId the id of the node to start from
+     * @param depth the maximum number of hops, zero for the center node alone
+     * @param direction which links the search may follow
+     * @param types the relationship types to follow and return; empty for all types
+     * @return the induced neighborhood subgraph
+     * @throws IllegalArgumentException if the node is unknown or depth is negative
+     */
+    public Subgraph neighborhood(final String centerId, final int depth, final Direction direction,
+                                 final Set<String> types) {
+        Objects.requireNonNull(direction, "Direction cannot be null");
+        Objects.requireNonNull(types, "Types cannot be null");
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative");
+        }
+        final int center = graph.indexOf(centerId);
+        if (center == CsrGraph.NO_NODE) {
+            throw new IllegalArgumentException("Node " + centerId + " not found");
+        }
+        final boolean[] allowed = allowedTypes(types);
+
+        // Sized to the nodes reached, not the graph, so a shallow query allocates little
+        final NodeSet reached = new NodeSet();
+        reached.add(center);
+
+        int levelStart = 0;
+        for (int hop = 0; hop < depth && levelStart < reached.size(); hop++) {
+            final int levelEnd = reached.size();
+            for (int i = levelStart; i < levelEnd; i++) {
+                final int node = reached.get(i);
+                if (direction.followsOutgoing()) {
+                    for (int e = graph.outgoingStart(node); e < graph.outgoingEnd(node); e++) {
+                        if (allows(allowed, graph.outgoingLink(e))) {
+                            reached.add(graph.outgoingNeighbor(e));
+                        }
+                    }
+                }
+                if (direction.followsIncoming()) {
+                    for (int e = graph.incomingStart(node); e < graph.incomingEnd(node); e++) {
+                        if (allows(allowed, graph.incomingLink(e))) {
+                            reached.add(graph.incomingNeighbor(e));
+                        }
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+
+        final List<Node> subgraphNodes = new ArrayList<>(reached.size());
+        int[] linkPositions = new int[Math.min(graph.linkCount(), 16)];
+        int linkCount = 0;
+        for (int i = 0; i < reached.size(); i++) {
+            final int node = reached.get(i);
+            subgraphNodes.add(nodes.get(node));
+            for (int e = graph.outgoingStart(node); e < graph.outgoingEnd(node); e++) {
+                final int link = graph.outgoingLink(e);
+                if (reached.contains(graph.outgoingNeighbor(e)) && allows(allowed, link)) {
+                    if (linkCount == linkPositions.length) {
+                        linkPositions = Arrays.copyOf(linkPositions, linkCount * 2);
+                    }
+                    linkPositions[linkCount++] = link;
+                }
+            }
+        }
+        Arrays.sort(linkPositions, 0, linkCount);
+        final List<Link> subgraphLinks = new ArrayList<>(linkCount);
+        for (int i = 0; i < linkCount; i++) {
+            subgraphLinks.add(links.get(linkPositions[i]));
+        }
+        return new Subgraph(centerId, depth, subgraphNodes, subgraphLinks);
+    }
+
+    /**
+     * Translates a type filter into one flag per type symbol, or null to allow every type.
+     * Types that no link has are ignored.
+     */
+    private boolean[] allowedTypes(final Set<String> requested) {
+        if (requested.isEmpty()) {
+            return null;
+        }
+        final boolean[] allowed = new boolean[graph.typeCount()];
+        for (final String type : requested) {
+            final int symbol = graph.typeSymbol(type);
+            if (symbol != SymbolTable.NO_SYMBOL) {
+                allowed[symbol] = true;
+            }
+        }
+        return allowed;
+    }
+
+    private boolean allows(final boolean[] allowed, final int link) {
+        return allowed == null || allowed[graph.type(link)];
+    }
+
+    @Override
+    public String toString() {
+        return "AdjacencyIndex{nodes=" + nodes.size() + ", links=" + links.size()
+                + ", indexed=" + graph.outgoingStart(graph.nodeCount()) + '}';
+    }
+
+    /**
+     * Node numbers in the order they were added, with an open-addressing hash set over them.
+     * Both grow with the number of nodes added rather than being sized to the graph.
+     */
+    private static final class NodeSet {
+
+        private static final int FREE = -1;
+        private static final int INITIAL_SLOTS = 16;
+
+        private int[] slots = free(INITIAL_SLOTS);
+        private int[] order = new int[INITIAL_SLOTS / 2];
+        private int size;
+
+        /** Adds a node, returning false if it was already present. */
+        boolean add(final int node) {
+            if (2 * (size + 1) > slots.length) {
+                rehash(slots.length * 2);
+            }
+            final int mask = slots.length - 1;
+            for (int slot = slot(node, mask); ; slot = (slot + 1) & mask) {
+                if (slots[slot] == node) {
+                    return false;
+                }
+                if (slots[slot] == FREE) {
+                    slots[slot] = node;
+                    if (size == order.length) {
+                        order = Arrays.copyOf(order, size * 2);
+                    }
+                    order[size++] = node;
+                    return true;
+                }
+            }
+        }
+
+        boolean contains(final int node) {
+            final int mask = slots.length - 1;
+            for (int slot = slot(node, mask); ; slot = (slot + 1) & mask) {
+                if (slots[slot] == node) {
+                    return true;
+                }
+                if (slots[slot] == FREE) {
+                    return false;
+                }
+            }
+        }
+
+        /** Returns the node added {@code index}-th. */
+        int get(final int index) {
+            return order[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void rehash(final int capacity) {
+            slots = free(capacity);
+            final int mask = capacity - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = slot(order[i], mask);
+                while (slots[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = order[i];
+            }
+        }
+
+        private static int slot(final int node, final int mask) {
+            final int hash = node * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private static int[] free(final int capacity) {
+            final int[] slots = new int[capacity];
+            Arrays.fill(slots, FREE);
+            return slots;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Read-optimized graph store in compressed sparse row form, for traversals and analytics over
+ * maps with up to millions of links.
+ *
+ * <p>Nodes and links are numbered by their position in the concept map. Everything a traversal
+ * touches is a primitive column indexed by those numbers, so scanning a node's links reads
+ * consecutive ints instead of following references to {@link Link} objects and their strings.</p>
+ *
+ * <h3>Columns</h3>
+ * <ul>
+ *   <li><strong>Per link</strong>: source and target node ({@code int}, {@value #NO_NODE} if the
+ *       endpoint is not a node of the map), relationship type as an unsigned {@code short}
+ *       symbol, and strength ({@code float}, NaN if the link has none)</li>
+ *   <li><strong>Outgoing rows</strong>: for every node, the range {@link #outgoingStart} to
+ *       {@link #outgoingEnd} of the outgoing edge columns, which hold each edge's link and
+ *       target node next to each other in link order</li>
+ *   <li><strong>Incoming rows</strong>: the same for the links that point at each node</li>
+ *   <li><strong>Id table</strong>: an open addressing hash table of node numbers, probed by
+ *       {@link #indexOf}</li>
+ * </ul>
+ * <p>A link costs 30 bytes across all columns. Node ids are only needed to enter and leave the
+ * graph: {@link #indexOf} and {@link #id} translate at the API edge.</p>
+ *
+ * <h3>Storage</h3>
+ * <p>All columns are views of one buffer, which can be allocated directly. It then lives
+ * outside the Java heap, which keeps the heap small and the garbage collector out of the
+ * picture for very large graphs; the memory is released when the graph becomes unreachable.
+ * The buffer is self-describing, so {@link #writeTo} saves it as it is and {@link #map} turns a
+ * memory-mapped copy back into a graph without reading it.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>The graph is immutable after construction and can be shared between request threads. All
+ * column reads are absolute, so no buffer position is ever changed.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.1
+ * @since 2.1
+ * @see AdjacencyIndex
+ */
+public final class CsrGraph {
+
+    /** Returned by {@link #indexOf}, {@link #source} and {@link #target} for unknown nodes. */
+    public static final int NO_NODE = -1;
+
+    // Types are stored as unsigned shorts
+    private static final int MAX_TYPES = 1 << Short.SIZE;
+    // Node, link, outgoing edge and incoming edge counts precede the columns
+    private static final int HEADER_INTS = 4;
+
+    private final List<String> ids;
+    private final SymbolTable typeSymbols;
+    private final ByteBuffer storage;
+
+    private final IntBuffer linkSources;
+    private final IntBuffer linkTargets;
+    private final FloatBuffer linkStrengths;
+    private final IntBuffer outOffsets;
+    private final IntBuffer outLinks;
+    private final IntBuffer outNeighbors;
+    private final IntBuffer inOffsets;
+    private final IntBuffer inLinks;
+    private final IntBuffer inNeighbors;
+    private final IntBuffer idSlots;
+    private final ShortBuffer linkTypes;
+
+    /**
+     * Slices the columns out of a storage buffer whose header holds their lengths; see
+     * {@link #storageBytes} for the layout.
+     */
+    private CsrGraph(final List<String> ids, final SymbolTable typeSymbols, final ByteBuffer storage) {
+        this.ids = ids;
+        this.typeSymbols = typeSymbols;
+        this.storage = storage;
+        final int nodeCount = storage.getInt(0);
+        final int linkCount = storage.getInt(Integer.BYTES);
+        final int outEdges = storage.getInt(2 * Integer.BYTES);
+        final int inEdges = storage.getInt(3 * Integer.BYTES);
+        if (nodeCount != ids.size() || storage.capacity() != storageBytes(nodeCount, linkCount, outEdges, inEdges)) {
+            throw new IllegalArgumentException("Graph storage does not match " + ids.size() + " nodes");
+        }
+        final Columns columns = new Columns(storage, HEADER_INTS * Integer.BYTES);
+        this.linkSources = columns.ints(linkCount);
+        this.linkTargets = columns.ints(linkCount);
+        this.linkStrengths = columns.next(linkCount, Float.BYTES).asFloatBuffer();
+        this.outOffsets = columns.ints(nodeCount + 1);
+        this.outLinks = columns.ints(outEdges);
+        this.outNeighbors = columns.ints(outEdges);
+        this.inOffsets = columns.ints(nodeCount + 1);
+        this.inLinks = columns.ints(inEdges);
+        this.inNeighbors = columns.ints(inEdges);
+        this.idSlots = columns.ints(slotCount(nodeCount));
+        this.linkTypes = columns.next(linkCount, Short.BYTES).asShortBuffer();
+    }
+
+    /**
+     * Returns the size of the storage buffer of a graph. It holds a header of four ints (node,
+     * link, outgoing edge and incoming edge count) followed by the int and float columns in
+     * declaration order and the short type column last, so every column is aligned.
+     */
+    private static int storageBytes(final int nodeCount, final int linkCount, final int outEdges, final int inEdges) {
+        final long ints = HEADER_INTS + 3L * linkCount + 2L * (nodeCount + 1) + 2L * outEdges + 2L * inEdges
+                + slotCount(nodeCount);
+        return Math.toIntExact(ints * Integer.BYTES + (long) linkCount * Short.BYTES);
+    }
+
+    /** Sizes the open addressing id table to at most half full. */
+    private static int slotCount(final int nodeCount) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, nodeCount)) << 2);
+    }
+
+    private static int firstSlot(final String id, final int mask) {
+        // String.hashCode is specified, so slots stay valid in stored graphs
+        final int hash = id.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Builds the graph of a concept map on the heap, with the strengths its links carry.
+     *
+     * @param conceptMap the map
+     * @return a new graph
+     * @throws NullPointerException if conceptMap is null
+     */
+    public static CsrGraph of(final ConceptMap conceptMap) {
+        Objects.requireNonNull(conceptMap, "Concept map cannot be null");
+        return of(conceptMap.getNodes(), conceptMap.getLinks(), Link::getStrength, false);
+    }
+
+    /**
+     * Builds a graph from nodes and links.
+     *
+     * @param nodes the nodes; the first of several with the same id is the one found by id
+     * @param links the links; links to unknown nodes are kept but belong to no row
+     * @param strength gives each link's strength, or null if links have none
+     * @param offHeap whether to allocate the columns outside the Java heap
+     * @return a new graph
+     * @throws NullPointerException if nodes or links is null
+     * @throws IllegalArgumentException if the links have more than 65536 relationship types
+     */
+    public static CsrGraph of(final List<Node> nodes, final List<Link> links,
+                              final ToDoubleFunction<? super Link> strength, final boolean offHeap) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null");
+        Objects.requireNonNull(links, "Links cannot be null");
+        final int nodeCount = nodes.size();
+        final int linkCount = links.size();
+
+        final List<String> ids = new ArrayList<>(nodeCount);
+        final Map<String, Integer> positions = new HashMap<>(Math.max(16, nodeCount * 2));
+        for (final Node node : nodes) {
+            ids.add(node.getId());
+            positions.putIfAbsent(node.getId(), ids.size() - 1);
+        }
+        final SymbolTable typeSymbols = new SymbolTable();
+        final int[] sources = new int[linkCount];
+        final int[] targets = new int[linkCount];
+        final int[] outDegree = new int[nodeCount];
+        final int[] inDegree = new int[nodeCount];
+        int edges = 0;
+        for (int l = 0; l < linkCount; l++) {
+            final Link link = links.get(l);
+            sources[l] = positions.getOrDefault(link.getSourceId(), NO_NODE);
+            targets[l] = positions.getOrDefault(link.getTargetId(), NO_NODE);
+            if (typeSymbols.intern(link.getRelationshipType()) >= MAX_TYPES) {
+                throw new IllegalArgumentException("More than " + MAX_TYPES + " relationship types");
+            }
+            if (sources[l] != NO_NODE && targets[l] != NO_NODE) {
+                outDegree[sources[l]]++;
+                inDegree[targets[l]]++;
+                edges++;
+            }
+        }
+
+        final int bytes = storageBytes(nodeCount, linkCount, edges, edges);
+        final ByteBuffer storage = (offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes))
+                .order(ByteOrder.nativeOrder());
+        storage.putInt(0, nodeCount).putInt(Integer.BYTES, linkCount)
+                .putInt(2 * Integer.BYTES, edges).putInt(3 * Integer.BYTES, edges);
+        final CsrGraph graph = new CsrGraph(Collections.unmodifiableList(ids), typeSymbols, storage);
+        graph.fill(links, strength, sources, targets, outDegree, inDegree);
+        return graph;
+    }
+
+    /**
+     * Maps a graph onto storage written by {@link #writeTo}, typically a memory-mapped file
+     * region. No column is copied; reads go straight to the buffer.
+     *
+     * @param storage the stored columns, positioned at their first byte, in the byte order they
+     *                were written in
+     * @param ids the node ids by node number
+     * @param typeNames the relationship types by symbol, as returned by {@link #typeName}
+     * @return a graph backed by the buffer
+     * @throws IllegalArgumentException if the storage does not hold a graph of these nodes
+     */
+    public static CsrGraph map(final ByteBuffer storage, final List<String> ids, final List<String> typeNames) {
+        Objects.requireNonNull(storage, "Storage cannot be null");
+        Objects.requireNonNull(ids, "Ids cannot be null");
+        final SymbolTable typeSymbols = new SymbolTable();
+        for (final String type : typeNames) {
+            typeSymbols.intern(type);
+        }
+        if (typeSymbols.size() != typeNames.size()) {
+            throw new IllegalArgumentException("Relationship types must be distinct");
+        }
+        if (storage.remaining() < HEADER_INTS * Integer.BYTES) {
+            throw new IllegalArgumentException("Graph storage is truncated");
+        }
+        final ByteBuffer view = storage.slice().order(storage.order());
+        final int bytes = storageBytes(view.getInt(0), view.getInt(Integer.BYTES), view.getInt(2 * Integer.BYTES),
+                view.getInt(3 * Integer.BYTES));
+        if (bytes > view.capacity()) {
+            throw new IllegalArgumentException("Graph storage is truncated");
+        }
+        return new CsrGraph(ids, typeSymbols, view.slice(0, bytes).order(storage.order()));
+    }
+
+    private void fill(final List<Link> links, final ToDoubleFunction<? super Link> strength, final int[] sources,
+                      final int[] targets, final int[] outDegree, final int[] inDegree) {
+        final int nodeCount = ids.size();
+        for (int l = 0; l < sources.length; l++) {
+            final Link link = links.get(l);
+            linkSources.put(l, sources[l]);
+            linkTargets.put(l, targets[l]);
+            linkTypes.put(l, (short) typeSymbols.lookup(link.getRelationshipType()));
+            linkStrengths.put(l, strength == null ? Float.NaN : (float) strength.applyAsDouble(link));
+        }
+        // Degrees become fill cursors; visiting links in order keeps every row in link order
+        int outTotal = 0;
+        int inTotal = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            outOffsets.put(i, outTotal);
+            inOffsets.put(i, inTotal);
+            outTotal += outDegree[i];
+            inTotal += inDegree[i];
+            outDegree[i] = outOffsets.get(i);
+            inDegree[i] = inOffsets.get(i);
+        }
+        outOffsets.put(nodeCount, outTotal);
+        inOffsets.put(nodeCount, inTotal);
+        for (int l = 0; l < sources.length; l++) {
+            if (sources[l] != NO_NODE && targets[l] != NO_NODE) {
+                final int out = outDegree[sources[l]]++;
+                outLinks.put(out, l);
+                outNeighbors.put(out, targets[l]);
+                final int in = inDegree[targets[l]]++;
+                inLinks.put(in, l);
+                inNeighbors.put(in, sources[l]);
+            }
+        }
+        final int mask = idSlots.capacity() - 1;
+        for (int slot = 0; slot <= mask; slot++) {
+            idSlots.put(slot, NO_NODE);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            final String id = ids.get(node);
+            int slot = firstSlot(id, mask);
+            while (idSlots.get(slot) != NO_NODE && !ids.get(idSlots.get(slot)).equals(id)) {
+                slot = (slot + 1) & mask;
+            }
+            // The first node with an id keeps its slot
+            if (idSlots.get(slot) == NO_NODE) {
+                idSlots.put(slot, node);
+            }
+        }
+    }
+
+    /**
+     * Writes the column storage, for {@link #map} to read back. The bytes are in the byte order
+     * returned by {@link #byteOrder()}.
+     *
+     * @param out the channel to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final WritableByteChannel out) throws IOException {
+        final ByteBuffer bytes = storage.duplicate();
+        bytes.clear();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+
+    public ByteOrder byteOrder() {
+        return storage.order();
+    }
+
+    public int nodeCount() {
+        return ids.size();
+    }
+
+    public int linkCount() {
+        return linkSources.capacity();
+    }
+
+    /**
+     * Returns the number of a node.
+     *
+     * @param nodeId the node id
+     * @return the node number, or {@value #NO_NODE} if unknown or null
+     */
+    public int indexOf(final String nodeId) {
+        if (nodeId == null) {
+            return NO_NODE;
+        }
+        final int mask = idSlots.capacity() - 1;
+        for (int slot = firstSlot(nodeId, mask); ; slot = (slot + 1) & mask) {
+            final int node = idSlots.get(slot);
+            if (node == NO_NODE || ids.get(node).equals(nodeId)) {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of a node.
+     *
+     * @param node the node number
+     * @return the node id
+     */
+    public String id(final int node) {
+        return ids.get(node);
+    }
+
+    /** Returns the source node of a link, or {@value #NO_NODE} if it is not in the map. */
+    public int source(final int link) {
+        return linkSources.get(link);
+    }
+
+    /** Returns the target node of a link, or {@value #NO_NODE} if it is not in the map. */
+    public int target(final int link) {
+        return linkTargets.get(link);
+    }
+
+    /** Returns the relationship type symbol of a link, from 0 to {@link #typeCount()} - 1. */
+    public int type(final int link) {
+        return Short.toUnsignedInt(linkTypes.get(link));
+    }
+
+    /** Returns the strength of a link, or NaN if it has none. */
+    public float strength(final int link) {
+        return linkStrengths.get(link);
+    }
+
+    /** Returns the number of distinct relationship types. */
+    public int typeCount() {
+        return typeSymbols.size();
+    }
+
+    /**
+     * Returns the symbol of a relationship type.
+     *
+     * @param type the relationship type
+     * @return the symbol, or {@link SymbolTable#NO_SYMBOL} if no link has this type
+     */
+    public int typeSymbol(final String type) {
+        return typeSymbols.lookup(type);
+    }
+
+    /** Returns the relationship type a symbol stands for. */
+    public String typeName(final int symbol) {
+        return typeSymbols.name(symbol);
+    }
+
+    public int outDegree(final int node) {
+        return outOffsets.get(node + 1) - outOffsets.get(node);
+    }
+
+    public int inDegree(final int node) {
+        return inOffsets.get(node + 1) - inOffsets.get(node);
+    }
+
+    /** Returns the first outgoing edge of a node. */
+    public int outgoingStart(final int node) {
+        return outOffsets.get(node);
+    }
+
+    /** Returns the edge after the last outgoing edge of a node. */
+    public int outgoingEnd(final int node) {
+        return outOffsets.get(node + 1);
+    }
+
+    /** Returns the link an outgoing edge stands for. */
+    public int outgoingLink(final int edge) {
+        return outLinks.get(edge);
+    }
+
+    /** Returns the node an outgoing edge points at. */
+    public int outgoingNeighbor(final int edge) {
+        return outNeighbors.get(edge);
+    }
+
+    /** Returns the first incoming edge of a node. */
+    public int incomingStart(final int node) {
+        return inOffsets.get(node);
+    }
+
+    /** Returns the edge after the last incoming edge of a node. */
+    public int incomingEnd(final int node) {
+        return inOffsets.get(node + 1);
+    }
+
+    /** Returns the link an incoming edge stands for. */
+    public int incomingLink(final int edge) {
+        return inLinks.get(edge);
+    }
+
+    /** Returns the node an incoming edge comes from. */
+    public int incomingNeighbor(final int edge) {
+        return inNeighbors.get(edge);
+    }
+
+    /**
+     * Checks whether the columns live outside the Java heap, in direct or mapped memory.
+     *
+     * @return true for off-heap columns
+     */
+    public boolean isOffHeap() {
+        return storage.isDirect();
+    }
+
+    /**
+     * Returns the bytes held by the primitive columns, on or off the heap.
+     *
+     * @return the column size in bytes
+     */
+    public long columnBytes() {
+        return storage.capacity();
+    }
+
+    /** Hands out consecutive column views of the storage. */
+    private static final class Columns {
+
+        private final ByteBuffer storage;
+        private int position;
+
+        private Columns(final ByteBuffer storage, final int position) {
+            this.storage = storage;
+            this.position = position;
+        }
+
+        private IntBuffer ints(final int size) {
+            return next(size, Integer.BYTES).asIntBuffer();
+        }
+
+        private ByteBuffer next(final int size, final int bytesPerValue) {
+            final ByteBuffer column = storage.slice(position, size * bytesPerValue).order(storage.order());
+            position += size * bytesPerValue;
+            return column;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CsrGraph{nodes=" + nodeCount() + ", links=" + linkCount() + ", types=" + typeCount()
+                + (isOffHeap() ? ", off-heap" : "") + '}';
+    }
+}
@@ -0,0 +1,57 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import java.util.Locale;
+
+/**
+ * Which links a graph traversal may follow from a node.
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public enum Direction {
+
+    /** Follow links that point at the node, from target back to source. */
+    IN,
+
+    /** Follow links that leave the node, from source to target. */
+    OUT,
+
+    /** Follow links in either direction. */
+    BOTH;
+
+    /**
+     * Parses a request parameter such as {@code in}, {@code out} or {@code both}.
+     *
+     * @param value the parameter value, case-insensitive; null means {@link #BOTH}
+     * @return the matching direction
+     * @throws IllegalArgumentException if the value names no direction
+     */
+    public static Direction fromParameter(final String value) {
+        if (value == null || value.isBlank()) {
+            return BOTH;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Direction must be one of in, out or both: " + value, e);
+        }
+    }
+
+    /**
+     * Returns the lowercase form used in request parameters and responses.
+     *
+     * @return the parameter token
+     */
+    public String toParameter() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    boolean followsOutgoing() {
+        return this != IN;
+    }
+
+    boolean followsIncoming() {
+        return this != OUT;
+    }
+}
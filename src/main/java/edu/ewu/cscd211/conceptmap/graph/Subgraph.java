@@ -0,0 +1,55 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable induced subgraph returned by a neighborhood query.
+ *
+ * <p>Nodes are listed in breadth-first order starting with the center node, so a client can
+ * render the focus first. Links appear in the same order as in the source concept map.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see AdjacencyIndex#neighborhood(String, int, Direction, java.util.Set)
+ */
+public final class Subgraph {
+
+    private final String centerId;
+    private final int depth;
+    private final List<Node> nodes;
+    private final List<Link> links;
+
+    Subgraph(final String centerId, final int depth, final List<Node> nodes, final List<Link> links) {
+        this.centerId = Objects.requireNonNull(centerId, "Center ID cannot be null");
+        this.depth = depth;
+        this.nodes = List.copyOf(nodes);
+        this.links = List.copyOf(links);
+    }
+
+    public String getCenterId() {
+        return centerId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    @Override
+    public String toString() {
+        return "Subgraph{center='" + centerId + "', depth=" + depth
+                + ", nodes=" + nodes.size() + ", links=" + links.size() + '}';
+    }
+}
@@ -0,0 +1,598 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Force-directed layout with a Barnes–Hut many-body force, computed on the server.
+ *
+ * <p>This engine reproduces the simulation the frontend builds in {@code createSimulation}
+ * ({@code forceGraph.js}) so that clients can start from its result instead of running the
+ * whole simulation themselves. The forces, constants and integration follow d3-force:</p>
+ * <ul>
+ *   <li><strong>Link springs</strong>: rest length {@code 200 + 80 * |level difference|},
+ *       strength 0.3, with d3's degree-based bias between the two ends</li>
+ *   <li><strong>Many-body</strong>: repulsion of {@code -40 * radius} per node, between 20
+ *       and 2000 pixels, approximated with a quadtree (Barnes–Hut, theta 0.9)</li>
+ *   <li><strong>Collision</strong>: a personal space of {@code radius + 15} per node, strength 0.9</li>
+ *   <li><strong>Radial orbits</strong>: each level on a ring of radius {@code 120 + 160 * level}
+ *       around the canvas center, strength 0.06</li>
+ *   <li><strong>Gravity</strong>: a gentle inverse-square pull toward the canvas center</li>
+ *   <li><strong>Anchor</strong>: optionally pulls one node toward the center, as
+ *       {@code createAnchorForce} does</li>
+ * </ul>
+ *
+ * <h3>Why Barnes–Hut?</h3>
+ * <p>Exact repulsion compares every pair of nodes, O(n²) per tick. The quadtree lets a node
+ * treat a far-away cell as one combined charge at its centroid whenever the cell looks small
+ * from the node (side / distance &lt; theta), which brings a tick down to O(n log n).</p>
+ *
+ * <h3>Determinism</h3>
+ * <p>The client's diffusion and Brownian forces are left out: the first is a quadratic
+ * clean-up pass and the second is deliberate random motion. Initial positions use d3's
+ * phyllotaxis arrangement and the tie-breaking jitter comes from a fixed seed, so the same
+ * input always produces the same layout.</p>
+ *
+ * <h3>Parallel Ticks</h3>
+ * <p>{@link MultilevelLayout} runs the same simulation with the per-node passes (many-body,
+ * collision, orbits and integration) split over a {@link ForkJoinPool}. In that mode every
+ * pass only writes the velocity of the node it visits, and jitter is derived from node
+ * indexes instead of a shared generator, so the result does not depend on the number of
+ * threads.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.1
+ * @since 2.1
+ */
+public final class BarnesHutLayout implements LayoutEngine {
+
+    /** Engine name used in requests. */
+    public static final String NAME = "force";
+
+    /** Ticks of a full simulation, the d3 default for alpha to fall from 1 to 0.001. */
+    public static final int DEFAULT_TICKS = 300;
+
+    private static final double ALPHA_MIN = 0.001;
+    private static final double VELOCITY_RETAINED = 1 - 0.25;
+    private static final double LINK_BASE_DISTANCE = 200;
+    private static final double LINK_LEVEL_DISTANCE = 80;
+    private static final double LINK_STRENGTH = 0.3;
+    private static final double CHARGE_PER_RADIUS = -40;
+    private static final double CHARGE_DISTANCE_MIN_SQUARED = 20 * 20;
+    private static final double CHARGE_DISTANCE_MAX_SQUARED = 2000.0 * 2000.0;
+    private static final double THETA_SQUARED = 0.9 * 0.9;
+    static final double COLLISION_PADDING = 15;
+    private static final double COLLISION_STRENGTH = 0.9;
+    private static final double ORBIT_BASE = 120;
+    private static final double ORBIT_PER_LEVEL = 160;
+    private static final double ORBIT_STRENGTH = 0.06;
+    private static final double GRAVITY = 0.08;
+    private static final double ANCHOR_STRENGTH = 0.15;
+    private static final double INITIAL_RADIUS = 10;
+    static final double INITIAL_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    private static final long SEED = 211L;
+    // Smaller graphs finish a tick faster than the pool can hand out the work
+    private static final int PARALLEL_THRESHOLD = 2048;
+    private static final int PARALLEL_CHUNK = 512;
+
+    private final int ticks;
+
+    /**
+     * Creates an engine that runs the full {@value #DEFAULT_TICKS}-tick simulation.
+     */
+    public BarnesHutLayout() {
+        this(DEFAULT_TICKS);
+    }
+
+    /**
+     * Creates an engine that runs a given number of ticks; alpha always decays from 1 to
+     * 0.001, so fewer ticks cool faster.
+     *
+     * @param ticks the number of simulation ticks
+     * @throws IllegalArgumentException if ticks is not positive
+     */
+    public BarnesHutLayout(final int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Ticks must be positive");
+        }
+        this.ticks = ticks;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Layout compute(final LayoutGraph graph, final LayoutOptions options) {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(options, "Options cannot be null");
+        final Simulation simulation = new Simulation(graph, options);
+        simulation.placeInitially();
+        simulation.run(1.0, ticks);
+        return new Layout(simulation.x, simulation.y);
+    }
+
+    /**
+     * The mutable state of one simulation run: positions, velocities and the per-node and
+     * per-link constants derived from the graph.
+     */
+    static final class Simulation {
+
+        final LayoutGraph graph;
+        final int n;
+        final double[] x;
+        final double[] y;
+        final double[] vx;
+        final double[] vy;
+        private final double centerX;
+        private final double centerY;
+        private final int anchor;
+        private final double[] charges;
+        private final double[] collisionRadii;
+        private final double[] orbits;
+        private final double[] linkDistances;
+        private final double[] linkBiases;
+        private final double[] predictedX;
+        private final double[] predictedY;
+        private final QuadTree tree = new QuadTree();
+        private final Random random = new Random(SEED);
+
+        Simulation(final LayoutGraph graph, final LayoutOptions options) {
+            this.graph = graph;
+            this.n = graph.nodeCount();
+            this.x = new double[n];
+            this.y = new double[n];
+            this.vx = new double[n];
+            this.vy = new double[n];
+            this.centerX = options.getWidth() / 2.0;
+            this.centerY = options.getHeight() / 2.0;
+            this.anchor = options.getAnchorId() == null ? -1 : graph.indexOf(options.getAnchorId());
+            if (options.getAnchorId() != null && anchor < 0) {
+                throw new IllegalArgumentException("Anchor " + options.getAnchorId() + " is not a node of the graph");
+            }
+
+            this.charges = new double[n];
+            this.collisionRadii = new double[n];
+            this.orbits = new double[n];
+            for (int i = 0; i < n; i++) {
+                charges[i] = CHARGE_PER_RADIUS * graph.radius(i);
+                collisionRadii[i] = graph.radius(i) + COLLISION_PADDING;
+                orbits[i] = ORBIT_BASE + safeLevel(graph, i) * ORBIT_PER_LEVEL;
+            }
+
+            final int links = graph.linkCount();
+            final int[] degree = new int[n];
+            for (int l = 0; l < links; l++) {
+                degree[graph.source(l)]++;
+                degree[graph.target(l)]++;
+            }
+            this.linkDistances = new double[links];
+            this.linkBiases = new double[links];
+            for (int l = 0; l < links; l++) {
+                final int source = graph.source(l);
+                final int target = graph.target(l);
+                linkDistances[l] = LINK_BASE_DISTANCE
+                        + Math.abs(safeLevel(graph, source) - safeLevel(graph, target)) * LINK_LEVEL_DISTANCE;
+                linkBiases[l] = degree[source] / (double) (degree[source] + degree[target]);
+            }
+            this.predictedX = new double[n];
+            this.predictedY = new double[n];
+        }
+
+        /**
+         * Places nodes on d3's phyllotaxis spiral around the canvas center.
+         */
+        void placeInitially() {
+            for (int i = 0; i < n; i++) {
+                final double radius = INITIAL_RADIUS * Math.sqrt(0.5 + i);
+                final double angle = i * INITIAL_ANGLE;
+                x[i] = centerX + radius * Math.cos(angle);
+                y[i] = centerY + radius * Math.sin(angle);
+            }
+        }
+
+        /**
+         * Runs ticks while alpha decays from its start value toward 0.001.
+         *
+         * @param alphaStart the starting temperature, above 0.001; 1 for a fresh layout, lower to refine
+         * @param tickCount the number of ticks
+         */
+        void run(final double alphaStart, final int tickCount) {
+            final double decay = 1 - Math.pow(ALPHA_MIN / alphaStart, 1.0 / tickCount);
+            double alpha = alphaStart;
+            for (int tick = 0; tick < tickCount; tick++) {
+                alpha -= alpha * decay;
+                tick(alpha);
+            }
+        }
+
+        /**
+         * Runs ticks like {@link #run(double, int)}, splitting the per-node passes of large
+         * graphs over a pool.
+         *
+         * @param alphaStart the starting temperature, above 0.001
+         * @param tickCount the number of ticks
+         * @param pool the pool for the per-node passes
+         */
+        void run(final double alphaStart, final int tickCount, final ForkJoinPool pool) {
+            if (n < PARALLEL_THRESHOLD) {
+                run(alphaStart, tickCount);
+                return;
+            }
+            final double decay = 1 - Math.pow(ALPHA_MIN / alphaStart, 1.0 / tickCount);
+            double alpha = alphaStart;
+            for (int tick = 0; tick < tickCount; tick++) {
+                alpha -= alpha * decay;
+                tick(alpha, pool);
+            }
+        }
+
+        void tick(final double alpha) {
+            applyLinks(alpha);
+            tree.build(x, y, n, charges, null);
+            for (int i = 0; i < n; i++) {
+                applyCharge(i, alpha);
+            }
+            applyCollision();
+            for (int i = 0; i < n; i++) {
+                applyCenterForces(i, alpha);
+            }
+            if (anchor >= 0) {
+                vx[anchor] += (centerX - x[anchor]) * ANCHOR_STRENGTH * alpha;
+                vy[anchor] += (centerY - y[anchor]) * ANCHOR_STRENGTH * alpha;
+            }
+            for (int i = 0; i < n; i++) {
+                vx[i] *= VELOCITY_RETAINED;
+                vy[i] *= VELOCITY_RETAINED;
+                x[i] += vx[i];
+                y[i] += vy[i];
+            }
+        }
+
+        /**
+         * One tick with the same forces as {@link #tick(double)}. Links stay sequential because
+         * they write both ends; collisions are resolved per node, so each pair is evaluated
+         * from both sides and each side applies its own share.
+         */
+        void tick(final double alpha, final ForkJoinPool pool) {
+            applyLinks(alpha);
+            tree.build(x, y, n, charges, null);
+            forEachNode(pool, (i, stack) -> applyCharge(i, alpha, tree, stack));
+            forEachNode(pool, (i, stack) -> {
+                predictedX[i] = x[i] + vx[i];
+                predictedY[i] = y[i] + vy[i];
+            });
+            tree.build(predictedX, predictedY, n, null, collisionRadii);
+            forEachNode(pool, this::collide);
+            forEachNode(pool, (i, stack) -> applyCenterForces(i, alpha));
+            if (anchor >= 0) {
+                vx[anchor] += (centerX - x[anchor]) * ANCHOR_STRENGTH * alpha;
+                vy[anchor] += (centerY - y[anchor]) * ANCHOR_STRENGTH * alpha;
+            }
+            forEachNode(pool, (i, stack) -> {
+                vx[i] *= VELOCITY_RETAINED;
+                vy[i] *= VELOCITY_RETAINED;
+                x[i] += vx[i];
+                y[i] += vy[i];
+            });
+        }
+
+        private void forEachNode(final ForkJoinPool pool, final NodeTask task) {
+            pool.invoke(new NodeRange(task, 0, n, tree.stackCapacity()));
+        }
+
+        private void applyLinks(final double alpha) {
+            for (int l = 0; l < linkDistances.length; l++) {
+                final int source = graph.source(l);
+                final int target = graph.target(l);
+                double dx = x[target] + vx[target] - x[source] - vx[source];
+                double dy = y[target] + vy[target] - y[source] - vy[source];
+                if (dx == 0) {
+                    dx = jiggle();
+                }
+                if (dy == 0) {
+                    dy = jiggle();
+                }
+                final double length = Math.sqrt(dx * dx + dy * dy);
+                final double k = (length - linkDistances[l]) / length * alpha * LINK_STRENGTH;
+                dx *= k;
+                dy *= k;
+                vx[target] -= dx * linkBiases[l];
+                vy[target] -= dy * linkBiases[l];
+                vx[source] += dx * (1 - linkBiases[l]);
+                vy[source] += dy * (1 - linkBiases[l]);
+            }
+        }
+
+        /**
+         * Applies the many-body force on one node from a tree built over the current positions.
+         * Only the node's own velocity is written, so different nodes may be processed in parallel
+         * as long as each thread walks with its own stack.
+         */
+        void applyCharge(final int i, final double alpha) {
+            applyCharge(i, alpha, tree, tree.stack());
+        }
+
+        void applyCharge(final int i, final double alpha, final QuadTree chargeTree, final int[] stack) {
+            if (chargeTree.cellCount() == 0) {
+                return;
+            }
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                final int cell = stack[--top];
+                final double dx = chargeTree.centerX(cell) - x[i];
+                final double dy = chargeTree.centerY(cell) - y[i];
+                final double distanceSquared = dx * dx + dy * dy;
+                final double side = chargeTree.size(cell);
+
+                if (side * side / THETA_SQUARED < distanceSquared) {
+                    // Far enough: the whole cell acts as one charge at its centroid
+                    if (distanceSquared < CHARGE_DISTANCE_MAX_SQUARED) {
+                        push(i, dx, dy, distanceSquared, chargeTree.charge(cell) * alpha);
+                    }
+                    continue;
+                }
+                if (chargeTree.isInternal(cell)) {
+                    for (int quadrant = 0; quadrant < 4; quadrant++) {
+                        final int child = chargeTree.child(cell, quadrant);
+                        if (child != QuadTree.NONE) {
+                            stack[top++] = child;
+                        }
+                    }
+                    continue;
+                }
+                if (distanceSquared >= CHARGE_DISTANCE_MAX_SQUARED) {
+                    continue;
+                }
+                for (int point = chargeTree.firstPoint(cell); point != QuadTree.NONE; point = chargeTree.nextPoint(point)) {
+                    if (point != i) {
+                        push(i, dx, dy, distanceSquared, charges[point] * alpha);
+                    }
+                }
+            }
+        }
+
+        private void push(final int i, final double dx, final double dy, final double distanceSquared,
+                          final double weightedCharge) {
+            double ddx = dx;
+            double ddy = dy;
+            double l = distanceSquared;
+            if (ddx == 0) {
+                ddx = nodeJiggle(i, 0);
+                l += ddx * ddx;
+            }
+            if (ddy == 0) {
+                ddy = nodeJiggle(i, 1);
+                l += ddy * ddy;
+            }
+            if (l < CHARGE_DISTANCE_MIN_SQUARED) {
+                l = Math.sqrt(CHARGE_DISTANCE_MIN_SQUARED * l);
+            }
+            vx[i] += ddx * weightedCharge / l;
+            vy[i] += ddy * weightedCharge / l;
+        }
+
+        /**
+         * Separates overlapping nodes, using the positions they are about to move to.
+         */
+        void applyCollision() {
+            for (int i = 0; i < n; i++) {
+                predictedX[i] = x[i] + vx[i];
+                predictedY[i] = y[i] + vy[i];
+            }
+            tree.build(predictedX, predictedY, n, null, collisionRadii);
+            final int[] stack = tree.stack();
+            for (int i = 0; i < n; i++) {
+                final double ri = collisionRadii[i];
+                final double xi = predictedX[i];
+                final double yi = predictedY[i];
+                int top = 0;
+                stack[top++] = 0;
+                while (top > 0) {
+                    final int cell = stack[--top];
+                    final double reach = ri + tree.maxRadius(cell);
+                    if (xi < tree.x0(cell) - reach || xi > tree.x0(cell) + tree.size(cell) + reach
+                            || yi < tree.y0(cell) - reach || yi > tree.y0(cell) + tree.size(cell) + reach) {
+                        continue;
+                    }
+                    if (tree.isInternal(cell)) {
+                        for (int quadrant = 0; quadrant < 4; quadrant++) {
+                            final int child = tree.child(cell, quadrant);
+                            if (child != QuadTree.NONE) {
+                                stack[top++] = child;
+                            }
+                        }
+                        continue;
+                    }
+                    for (int j = tree.firstPoint(cell); j != QuadTree.NONE; j = tree.nextPoint(j)) {
+                        if (j > i) {
+                            separate(i, j);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Applies node i's share of every collision it takes part in; only writes node i.
+         */
+        private void collide(final int i, final int[] stack) {
+            final double ri = collisionRadii[i];
+            final double xi = predictedX[i];
+            final double yi = predictedY[i];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                final int cell = stack[--top];
+                final double reach = ri + tree.maxRadius(cell);
+                if (xi < tree.x0(cell) - reach || xi > tree.x0(cell) + tree.size(cell) + reach
+                        || yi < tree.y0(cell) - reach || yi > tree.y0(cell) + tree.size(cell) + reach) {
+                    continue;
+                }
+                if (tree.isInternal(cell)) {
+                    for (int quadrant = 0; quadrant < 4; quadrant++) {
+                        final int child = tree.child(cell, quadrant);
+                        if (child != QuadTree.NONE) {
+                            stack[top++] = child;
+                        }
+                    }
+                    continue;
+                }
+                for (int j = tree.firstPoint(cell); j != QuadTree.NONE; j = tree.nextPoint(j)) {
+                    if (j != i) {
+                        separateFrom(i, j);
+                    }
+                }
+            }
+        }
+
+        private void separateFrom(final int i, final int j) {
+            final double ri = collisionRadii[i];
+            final double rj = collisionRadii[j];
+            final double minimum = ri + rj;
+            double dx = predictedX[i] - predictedX[j];
+            double dy = predictedY[i] - predictedY[j];
+            double l = dx * dx + dy * dy;
+            if (l >= minimum * minimum) {
+                return;
+            }
+            if (dx == 0) {
+                dx = pairJiggle(i, j, 0);
+                l += dx * dx;
+            }
+            if (dy == 0) {
+                dy = pairJiggle(i, j, 1);
+                l += dy * dy;
+            }
+            l = Math.sqrt(l);
+            final double k = (minimum - l) / l * COLLISION_STRENGTH;
+            final double share = rj * rj / (ri * ri + rj * rj);
+            vx[i] += dx * k * share;
+            vy[i] += dy * k * share;
+        }
+
+        private void separate(final int i, final int j) {
+            final double ri = collisionRadii[i];
+            final double rj = collisionRadii[j];
+            final double minimum = ri + rj;
+            double dx = predictedX[i] - predictedX[j];
+            double dy = predictedY[i] - predictedY[j];
+            double l = dx * dx + dy * dy;
+            if (l >= minimum * minimum) {
+                return;
+            }
+            if (dx == 0) {
+                dx = jiggle();
+                l += dx * dx;
+            }
+            if (dy == 0) {
+                dy = jiggle();
+                l += dy * dy;
+            }
+            l = Math.sqrt(l);
+            final double k = (minimum - l) / l * COLLISION_STRENGTH;
+            dx *= k;
+            dy *= k;
+            // The smaller node gives way more
+            final double share = rj * rj / (ri * ri + rj * rj);
+            vx[i] += dx * share;
+            vy[i] += dy * share;
+            vx[j] -= dx * (1 - share);
+            vy[j] -= dy * (1 - share);
+        }
+
+        /**
+         * Applies the radial orbit and gravity forces on one node; both only write that node.
+         */
+        void applyCenterForces(final int i, final double alpha) {
+            double dx = x[i] - centerX;
+            double dy = y[i] - centerY;
+            if (dx == 0 && dy == 0) {
+                dx = 1e-6;
+            }
+            final double distance = Math.sqrt(dx * dx + dy * dy);
+            final double k = (orbits[i] - distance) * ORBIT_STRENGTH * alpha / distance;
+            vx[i] += dx * k;
+            vy[i] += dy * k;
+
+            final double f = GRAVITY * alpha / Math.max(distance * distance, 1);
+            vx[i] -= dx * f;
+            vy[i] -= dy * f;
+        }
+
+        private double jiggle() {
+            return (random.nextDouble() - 0.5) * 1e-6;
+        }
+
+        /**
+         * Jitter for one node that does not depend on evaluation order, for the parallel passes.
+         */
+        private static double nodeJiggle(final int i, final int axis) {
+            return (unitHash(SEED * 31 + 2L * i + axis) - 0.5) * 1e-6;
+        }
+
+        /**
+         * Jitter for a pair of nodes, with opposite signs as seen from either node, so both
+         * sides of a parallel collision push apart along the same line.
+         */
+        private static double pairJiggle(final int i, final int j, final int axis) {
+            final long low = Math.min(i, j);
+            final long high = Math.max(i, j);
+            final double jitter = (unitHash((low << 32 | high) * 2 + axis) - 0.5) * 1e-6;
+            return i < j ? jitter : -jitter;
+        }
+
+        /** SplitMix64 finalizer, scaled to [0, 1). */
+        private static double unitHash(final long value) {
+            long z = value + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z ^= z >>> 31;
+            return (z >>> 11) * 0x1.0p-53;
+        }
+
+        private static double safeLevel(final LayoutGraph graph, final int node) {
+            final double level = graph.level(node);
+            return Double.isFinite(level) ? level : 0;
+        }
+    }
+
+    /** Work on one node, with a scratch stack owned by the current chunk. */
+    @FunctionalInterface
+    private interface NodeTask {
+        void apply(int node, int[] stack);
+    }
+
+    /** Splits a node range in halves until the pieces are small enough to run directly. */
+    private static final class NodeRange extends RecursiveAction {
+
+        private final NodeTask task;
+        private final int from;
+        private final int to;
+        private final int stackCapacity;
+
+        NodeRange(final NodeTask task, final int from, final int to, final int stackCapacity) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.stackCapacity = stackCapacity;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                final int[] stack = new int[stackCapacity];
+                for (int i = from; i < to; i++) {
+                    task.apply(i, stack);
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new NodeRange(task, from, middle, stackCapacity), new NodeRange(task, middle, to, stackCapacity));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One coarsening step of a multilevel layout: a matching that merges nodes in pairs, and the
+ * smaller graph it produces.
+ *
+ * <h3>Matching</h3>
+ * <ol>
+ *   <li><strong>Heavy edges</strong>: nodes are visited from the lowest degree up, and each
+ *       unmatched node merges with the unmatched neighbor it shares the most links with,
+ *       preferring light neighbors so that merged nodes stay balanced</li>
+ *   <li><strong>Two hops</strong>: nodes left over, typically the leaves of a hub whose
+ *       neighbors were all taken, merge with another leftover attached to the same hub</li>
+ *   <li><strong>Isolated nodes</strong>: merge with each other in index order</li>
+ * </ol>
+ *
+ * <p>Merged nodes keep the combined collision area of their parts, so a coarse layout takes
+ * up about as much room as the fine layout it seeds. Each coarse node is named after its
+ * lowest-indexed member, and links between merged nodes collapse into one link whose weight
+ * counts the fine links it stands for.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class GraphCoarsening {
+
+    private static final int UNMATCHED = -1;
+
+    private final LayoutGraph coarse;
+    private final int[] parent;
+    private final int[] partner;
+    private final int[] linkWeights;
+    private final double[] masses;
+
+    private GraphCoarsening(final LayoutGraph coarse, final int[] parent, final int[] partner,
+                            final int[] linkWeights, final double[] masses) {
+        this.coarse = coarse;
+        this.parent = parent;
+        this.partner = partner;
+        this.linkWeights = linkWeights;
+        this.masses = masses;
+    }
+
+    /**
+     * Coarsens a graph by one level.
+     *
+     * @param graph the fine graph
+     * @param linkWeights the number of original links behind each link, or null for all ones
+     * @param masses the number of original nodes behind each node, or null for all ones
+     * @return the coarsening
+     */
+    static GraphCoarsening of(final LayoutGraph graph, final int[] linkWeights, final double[] masses) {
+        final int n = graph.nodeCount();
+        final int links = graph.linkCount();
+
+        // Undirected adjacency in compressed rows, with the weight of each entry
+        final int[] offsets = new int[n + 1];
+        for (int l = 0; l < links; l++) {
+            offsets[graph.source(l) + 1]++;
+            offsets[graph.target(l) + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        final int[] neighbors = new int[2 * links];
+        final int[] weights = new int[2 * links];
+        final int[] fill = Arrays.copyOf(offsets, n);
+        for (int l = 0; l < links; l++) {
+            final int weight = linkWeights == null ? 1 : linkWeights[l];
+            neighbors[fill[graph.source(l)]] = graph.target(l);
+            weights[fill[graph.source(l)]++] = weight;
+            neighbors[fill[graph.target(l)]] = graph.source(l);
+            weights[fill[graph.target(l)]++] = weight;
+        }
+
+        final int[] order = byDegree(offsets, n);
+        final int[] partner = new int[n];
+        Arrays.fill(partner, UNMATCHED);
+        for (final int u : order) {
+            if (partner[u] != UNMATCHED) {
+                continue;
+            }
+            int best = UNMATCHED;
+            double bestScore = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                final int v = neighbors[e];
+                if (partner[v] != UNMATCHED) {
+                    continue;
+                }
+                final double score = weights[e] / (mass(masses, u) + mass(masses, v));
+                if (score > bestScore || (score == bestScore && v < best)) {
+                    best = v;
+                    bestScore = score;
+                }
+            }
+            if (best != UNMATCHED) {
+                partner[u] = best;
+                partner[best] = u;
+            }
+        }
+
+        final int[] waitingAtHub = new int[n];
+        Arrays.fill(waitingAtHub, UNMATCHED);
+        int waitingIsolated = UNMATCHED;
+        for (final int u : order) {
+            if (partner[u] != UNMATCHED) {
+                continue;
+            }
+            if (offsets[u] == offsets[u + 1]) {
+                if (waitingIsolated == UNMATCHED) {
+                    waitingIsolated = u;
+                } else {
+                    partner[u] = waitingIsolated;
+                    partner[waitingIsolated] = u;
+                    waitingIsolated = UNMATCHED;
+                }
+                continue;
+            }
+            final int hub = neighbors[offsets[u]];
+            final int waiting = waitingAtHub[hub];
+            if (waiting == UNMATCHED) {
+                waitingAtHub[hub] = u;
+            } else {
+                partner[u] = waiting;
+                partner[waiting] = u;
+                waitingAtHub[hub] = UNMATCHED;
+            }
+        }
+
+        return contract(graph, partner, neighbors, weights, offsets, masses);
+    }
+
+    private static GraphCoarsening contract(final LayoutGraph graph, final int[] partner, final int[] neighbors,
+                                            final int[] weights, final int[] offsets, final double[] masses) {
+        final int n = graph.nodeCount();
+        final int[] parent = new int[n];
+        Arrays.fill(parent, UNMATCHED);
+        final List<String> ids = new ArrayList<>();
+        final double[] radii = new double[n];
+        final double[] levels = new double[n];
+        final double[] coarseMasses = new double[n];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            if (parent[u] != UNMATCHED) {
+                continue;
+            }
+            final int c = count++;
+            ids.add(graph.id(u));
+            parent[u] = c;
+            final int v = partner[u];
+            final double massU = mass(masses, u);
+            if (v == UNMATCHED) {
+                radii[c] = graph.radius(u);
+                levels[c] = graph.level(u);
+                coarseMasses[c] = massU;
+                continue;
+            }
+            parent[v] = c;
+            final double massV = mass(masses, v);
+            radii[c] = mergedRadius(graph.radius(u), graph.radius(v));
+            levels[c] = (finiteLevel(graph, u) * massU + finiteLevel(graph, v) * massV) / (massU + massV);
+            coarseMasses[c] = massU + massV;
+        }
+
+        // Collapse parallel links, keeping the first occurrence's position
+        final List<int[]> coarseLinks = new ArrayList<>();
+        final int[] lastSeen = new int[count];
+        final int[] slotOf = new int[count];
+        Arrays.fill(lastSeen, UNMATCHED);
+        for (int c = 0, u = 0; u < n; u++) {
+            if (parent[u] != c) {
+                continue;
+            }
+            for (final int member : partner[u] == UNMATCHED ? new int[] {u} : new int[] {u, partner[u]}) {
+                for (int e = offsets[member]; e < offsets[member + 1]; e++) {
+                    final int d = parent[neighbors[e]];
+                    if (d <= c) {
+                        continue;
+                    }
+                    if (lastSeen[d] == c) {
+                        coarseLinks.get(slotOf[d])[2] += weights[e];
+                    } else {
+                        lastSeen[d] = c;
+                        slotOf[d] = coarseLinks.size();
+                        coarseLinks.add(new int[] {c, d, weights[e]});
+                    }
+                }
+            }
+            c++;
+        }
+
+        final int[] sources = new int[coarseLinks.size()];
+        final int[] targets = new int[coarseLinks.size()];
+        final int[] linkWeights = new int[coarseLinks.size()];
+        for (int l = 0; l < coarseLinks.size(); l++) {
+            sources[l] = coarseLinks.get(l)[0];
+            targets[l] = coarseLinks.get(l)[1];
+            linkWeights[l] = coarseLinks.get(l)[2];
+        }
+        final LayoutGraph coarse = new LayoutGraph(ids, Arrays.copyOf(radii, count), Arrays.copyOf(levels, count),
+                sources, targets);
+        return new GraphCoarsening(coarse, parent, partner, linkWeights, Arrays.copyOf(coarseMasses, count));
+    }
+
+    /**
+     * Returns the radius whose collision disc, padding included, has the area of both parts'
+     * discs; merging the bare radii would lose the padding and squeeze the coarse layout.
+     */
+    private static double mergedRadius(final double first, final double second) {
+        final double padding = BarnesHutLayout.COLLISION_PADDING;
+        return Math.hypot(first + padding, second + padding) - padding;
+    }
+
+    /** Orders nodes by ascending degree, then index, with a counting sort. */
+    private static int[] byDegree(final int[] offsets, final int n) {
+        int maxDegree = 0;
+        for (int i = 0; i < n; i++) {
+            maxDegree = Math.max(maxDegree, offsets[i + 1] - offsets[i]);
+        }
+        final int[] starts = new int[maxDegree + 2];
+        for (int i = 0; i < n; i++) {
+            starts[offsets[i + 1] - offsets[i] + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            starts[d + 1] += starts[d];
+        }
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[starts[offsets[i + 1] - offsets[i]]++] = i;
+        }
+        return order;
+    }
+
+    private static double mass(final double[] masses, final int node) {
+        return masses == null ? 1 : masses[node];
+    }
+
+    private static double finiteLevel(final LayoutGraph graph, final int node) {
+        final double level = graph.level(node);
+        return Double.isFinite(level) ? level : 0;
+    }
+
+    /** Returns the coarse graph. */
+    LayoutGraph coarse() {
+        return coarse;
+    }
+
+    /** Returns the coarse node each fine node was merged into. */
+    int parent(final int fineNode) {
+        return parent[fineNode];
+    }
+
+    /** Returns the fine node merged with the given one, or -1 if it was not merged. */
+    int partner(final int fineNode) {
+        return partner[fineNode];
+    }
+
+    /** Returns the number of fine links behind each coarse link. */
+    int[] linkWeights() {
+        return linkWeights;
+    }
+
+    /** Returns the number of original nodes behind each coarse node. */
+    double[] masses() {
+        return masses;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.Objects;
+
+/**
+ * Computed node coordinates, indexed by node position in the {@link LayoutGraph}.
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class Layout {
+
+    private final double[] x;
+    private final double[] y;
+
+    /**
+     * Creates a layout.
+     *
+     * @param x the x coordinate of each node
+     * @param y the y coordinate of each node
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public Layout(final double[] x, final double[] y) {
+        Objects.requireNonNull(x, "X coordinates cannot be null");
+        Objects.requireNonNull(y, "Y coordinates cannot be null");
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Every node needs exactly one x and one y coordinate");
+        }
+        this.x = x.clone();
+        this.y = y.clone();
+    }
+
+    public int nodeCount() {
+        return x.length;
+    }
+
+    public double x(final int node) {
+        return x[node];
+    }
+
+    public double y(final int node) {
+        return y[node];
+    }
+
+    /**
+     * Returns a copy with every coordinate rounded to a multiple of the given step.
+     *
+     * <p>Rounded layouts serialize compactly and read back identically, so a persisted layout
+     * produces the same response, and the same ETag, as the one it was computed from.</p>
+     *
+     * @param step the rounding step, for example 0.1
+     * @return the rounded layout
+     */
+    public Layout rounded(final double step) {
+        final double[] roundedX = new double[x.length];
+        final double[] roundedY = new double[y.length];
+        // Dividing by the inverse step yields the double nearest the decimal, e.g. 484.9 rather than 484.90000000000003
+        final double inverse = 1 / step;
+        for (int i = 0; i < x.length; i++) {
+            roundedX[i] = Math.round(x[i] * inverse) / inverse;
+            roundedY[i] = Math.round(y[i] * inverse) / inverse;
+        }
+        return new Layout(roundedX, roundedY);
+    }
+
+    @Override
+    public String toString() {
+        return "Layout{nodes=" + x.length + '}';
+    }
+}
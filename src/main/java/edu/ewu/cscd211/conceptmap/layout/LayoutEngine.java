@@ -0,0 +1,31 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+/**
+ * Computes node coordinates for a graph.
+ *
+ * <p>Engines are stateless and deterministic: the same graph and options always produce the
+ * same layout, which is what allows layouts to be cached and persisted.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public interface LayoutEngine {
+
+    /**
+     * Returns the name clients use to select this engine.
+     *
+     * @return the engine name
+     */
+    String getName();
+
+    /**
+     * Computes a layout.
+     *
+     * @param graph the graph to lay out
+     * @param options the canvas and anchor
+     * @return coordinates for every node of the graph
+     * @throws IllegalArgumentException if the anchor is not a node of the graph
+     */
+    Layout compute(LayoutGraph graph, LayoutOptions options);
+}
@@ -0,0 +1,120 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The input of a layout: nodes with a radius and an academic level, and links between them.
+ *
+ * <p>Layout engines work on dense int positions rather than on the domain model, so the graph
+ * is reduced to parallel arrays once and then shared by every layout computed for a dataset.
+ * Links must connect two different known nodes; duplicates are allowed.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class LayoutGraph {
+
+    private final String[] ids;
+    private final double[] radii;
+    private final double[] levels;
+    private final int[] sources;
+    private final int[] targets;
+    private final Map<String, Integer> positions;
+
+    /**
+     * Creates a layout graph.
+     *
+     * @param ids the node ids, in layout order
+     * @param radii the drawn radius of each node
+     * @param levels the academic level of each node, used for orbits and spring lengths
+     * @param sources the source position of each link
+     * @param targets the target position of each link
+     * @throws IllegalArgumentException if the array lengths disagree, an id repeats, or a link
+     *                                  refers to an unknown position or loops on one node
+     */
+    public LayoutGraph(final List<String> ids, final double[] radii, final double[] levels,
+                       final int[] sources, final int[] targets) {
+        this.ids = ids.toArray(new String[0]);
+        this.radii = radii.clone();
+        this.levels = levels.clone();
+        this.sources = sources.clone();
+        this.targets = targets.clone();
+        if (radii.length != this.ids.length || levels.length != this.ids.length) {
+            throw new IllegalArgumentException("Every node needs exactly one radius and one level");
+        }
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("Every link needs exactly one source and one target");
+        }
+        this.positions = new HashMap<>(this.ids.length * 2);
+        for (int i = 0; i < this.ids.length; i++) {
+            if (positions.put(Objects.requireNonNull(this.ids[i], "Node id cannot be null"), i) != null) {
+                throw new IllegalArgumentException("Duplicate node id " + this.ids[i]);
+            }
+        }
+        for (int l = 0; l < sources.length; l++) {
+            if (sources[l] < 0 || sources[l] >= this.ids.length || targets[l] < 0
+                    || targets[l] >= this.ids.length || sources[l] == targets[l]) {
+                throw new IllegalArgumentException("Link " + l + " does not connect two distinct nodes");
+            }
+        }
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    public int linkCount() {
+        return sources.length;
+    }
+
+    public String id(final int node) {
+        return ids[node];
+    }
+
+    public double radius(final int node) {
+        return radii[node];
+    }
+
+    public double level(final int node) {
+        return levels[node];
+    }
+
+    public int source(final int link) {
+        return sources[link];
+    }
+
+    public int target(final int link) {
+        return targets[link];
+    }
+
+    /**
+     * Returns the position of a node.
+     *
+     * @param id the node id
+     * @return the position, or -1 if the node is unknown
+     */
+    public int indexOf(final String id) {
+        final Integer position = id == null ? null : positions.get(id);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Returns the node ids in layout order.
+     *
+     * @return an unmodifiable list of ids
+     */
+    public List<String> ids() {
+        return List.of(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutGraph{nodes=" + ids.length + ", links=" + sources.length
+                + ", maxRadius=" + Arrays.stream(radii).max().orElse(0) + '}';
+    }
+}
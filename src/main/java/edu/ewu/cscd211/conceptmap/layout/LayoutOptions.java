@@ -0,0 +1,76 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.Objects;
+
+/**
+ * The canvas a layout is computed for, and an optional node to pull to its center.
+ *
+ * <p>Options are compared by value, so they can be part of cache keys.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class LayoutOptions {
+
+    /** Smallest accepted canvas side in pixels. */
+    public static final int MIN_SIZE = 100;
+
+    /** Largest accepted canvas side in pixels. */
+    public static final int MAX_SIZE = 20000;
+
+    private final int width;
+    private final int height;
+    private final String anchorId;
+
+    /**
+     * Creates layout options.
+     *
+     * @param width the canvas width in pixels
+     * @param height the canvas height in pixels
+     * @param anchorId the node to pull toward the canvas center, or null for none
+     * @throws IllegalArgumentException if a side is outside {@value #MIN_SIZE} to {@value #MAX_SIZE}
+     */
+    public LayoutOptions(final int width, final int height, final String anchorId) {
+        if (width < MIN_SIZE || width > MAX_SIZE || height < MIN_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Canvas sides must be between " + MIN_SIZE + " and " + MAX_SIZE);
+        }
+        this.width = width;
+        this.height = height;
+        this.anchorId = anchorId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getAnchorId() {
+        return anchorId;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LayoutOptions)) {
+            return false;
+        }
+        final LayoutOptions other = (LayoutOptions) o;
+        return width == other.width && height == other.height && Objects.equals(anchorId, other.anchorId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(width, height, anchorId);
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + (anchorId == null ? "" : " anchored at " + anchorId);
+    }
+}
@@ -0,0 +1,162 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multilevel force-directed layout for very large graphs: coarsen, lay out, refine.
+ *
+ * <p>A force simulation needs a few hundred ticks to untangle a graph from its initial
+ * placement, and even at O(n log n) per tick that is too slow for a hundred thousand nodes.
+ * Most of those ticks move whole regions of the graph, though, and regions can be moved far
+ * more cheaply as single nodes. This engine therefore works on a hierarchy of graphs:</p>
+ * <ol>
+ *   <li><strong>Coarsen</strong>: merge matched pairs of nodes ({@link GraphCoarsening})
+ *       until at most {@value #COARSEST_SIZE} nodes remain or merging stops paying off</li>
+ *   <li><strong>Lay out</strong>: run the full {@link BarnesHutLayout} simulation on the
+ *       coarsest graph</li>
+ *   <li><strong>Refine</strong>: place each node next to the coarse node it was merged into,
+ *       then run a short, cool simulation on that level, down to the original graph</li>
+ * </ol>
+ *
+ * <p>Only the finest levels are large, and there the simulation starts from a nearly
+ * finished layout, so a few dozen ticks suffice. The total work is a small multiple of a
+ * single tick on the full graph.</p>
+ *
+ * <h3>Parallelism</h3>
+ * <p>The per-node passes of each tick on large levels are split over a {@link ForkJoinPool}.
+ * Every node's forces are computed in a fixed order regardless of how the range is split, so
+ * the layout is the same for any pool size.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * LayoutEngine engine = new MultilevelLayout(ForkJoinPool.commonPool());
+ * Layout layout = engine.compute(graph, new LayoutOptions(4000, 4000, null));
+ * }</pre>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see BarnesHutLayout
+ */
+public final class MultilevelLayout implements LayoutEngine {
+
+    /** Engine name used in requests. */
+    public static final String NAME = "multilevel";
+
+    /** Coarsening stops once a level has at most this many nodes. */
+    static final int COARSEST_SIZE = 64;
+
+    // A level that shrinks by less than this is mostly unmatched hubs; further passes gain little
+    private static final double MIN_SHRINK = 0.9;
+    private static final double REFINE_ALPHA = 0.2;
+    private static final int REFINE_TICKS = 40;
+    // Large levels start from a finer projection and dominate the cost, so they get fewer ticks
+    private static final int LARGE_LEVEL = 4096;
+    private static final int LARGE_LEVEL_TICKS = 20;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an engine that runs on the common pool.
+     */
+    public MultilevelLayout() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine that runs its parallel passes on the given pool.
+     *
+     * @param pool the pool for per-node force passes
+     * @throws NullPointerException if pool is null
+     */
+    public MultilevelLayout(final ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Layout compute(final LayoutGraph graph, final LayoutOptions options) {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(options, "Options cannot be null");
+        if (options.getAnchorId() != null && graph.indexOf(options.getAnchorId()) < 0) {
+            throw new IllegalArgumentException("Anchor " + options.getAnchorId() + " is not a node of the graph");
+        }
+
+        final List<LayoutGraph> graphs = new ArrayList<>();
+        final List<GraphCoarsening> steps = new ArrayList<>();
+        graphs.add(graph);
+        int[] linkWeights = null;
+        double[] masses = null;
+        while (graphs.get(graphs.size() - 1).nodeCount() > COARSEST_SIZE) {
+            final LayoutGraph fine = graphs.get(graphs.size() - 1);
+            final GraphCoarsening step = GraphCoarsening.of(fine, linkWeights, masses);
+            if (step.coarse().nodeCount() > fine.nodeCount() * MIN_SHRINK) {
+                break;
+            }
+            steps.add(step);
+            graphs.add(step.coarse());
+            linkWeights = step.linkWeights();
+            masses = step.masses();
+        }
+
+        final int coarsest = graphs.size() - 1;
+        BarnesHutLayout.Simulation simulation =
+                new BarnesHutLayout.Simulation(graphs.get(coarsest), optionsFor(graphs, steps, coarsest, options));
+        simulation.placeInitially();
+        simulation.run(1.0, BarnesHutLayout.DEFAULT_TICKS, pool);
+
+        for (int level = coarsest - 1; level >= 0; level--) {
+            final BarnesHutLayout.Simulation finer =
+                    new BarnesHutLayout.Simulation(graphs.get(level), optionsFor(graphs, steps, level, options));
+            project(steps.get(level), simulation, finer);
+            finer.run(REFINE_ALPHA, finer.n > LARGE_LEVEL ? LARGE_LEVEL_TICKS : REFINE_TICKS, pool);
+            simulation = finer;
+        }
+        return new Layout(simulation.x, simulation.y);
+    }
+
+    /**
+     * Places every fine node at its coarse node; merged pairs are split along a fixed direction
+     * per pair so that they start apart, half a coarse radius from the center each.
+     */
+    private static void project(final GraphCoarsening step, final BarnesHutLayout.Simulation coarse,
+                                final BarnesHutLayout.Simulation fine) {
+        final LayoutGraph coarseGraph = step.coarse();
+        for (int u = 0; u < fine.n; u++) {
+            final int c = step.parent(u);
+            final int v = step.partner(u);
+            double offsetX = 0;
+            double offsetY = 0;
+            if (v >= 0) {
+                final double angle = c * BarnesHutLayout.INITIAL_ANGLE;
+                final double distance = coarseGraph.radius(c) / 2 * (u < v ? 1 : -1);
+                offsetX = Math.cos(angle) * distance;
+                offsetY = Math.sin(angle) * distance;
+            }
+            fine.x[u] = coarse.x[c] + offsetX;
+            fine.y[u] = coarse.y[c] + offsetY;
+        }
+    }
+
+    /**
+     * Maps the anchor to the node that contains it on the given level.
+     */
+    private static LayoutOptions optionsFor(final List<LayoutGraph> graphs, final List<GraphCoarsening> steps,
+                                            final int level, final LayoutOptions options) {
+        if (options.getAnchorId() == null || level == 0) {
+            return options;
+        }
+        int node = graphs.get(0).indexOf(options.getAnchorId());
+        for (int i = 0; i < level; i++) {
+            node = steps.get(i).parent(node);
+        }
+        return new LayoutOptions(options.getWidth(), options.getHeight(), graphs.get(level).id(node));
+    }
+}
@@ -0,0 +1,83 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+/**
+ * Computes the drawn radius of a concept node.
+ *
+ * <p>This is the server-side twin of {@code computeNodeRadius} in the frontend's
+ * {@code forceGraph.js}. The many-body and collision forces depend on node radii, so a server
+ * layout only matches what the client draws when both sides size nodes the same way. The
+ * radius is published with the layout as {@code _radius}, which the client then uses as-is.</p>
+ *
+ * <h3>Sizing Rules</h3>
+ * <ul>
+ *   <li><strong>Base</strong>: from the JSON {@code size} when positive, otherwise from the degree</li>
+ *   <li><strong>Scaffolding</strong>: high and medium cognitive scaffolding enlarge a node</li>
+ *   <li><strong>Focus</strong>: theoretical foundations and practical applications enlarge a node</li>
+ *   <li><strong>Level</strong>: advanced levels shrink a node, down to 60%</li>
+ * </ul>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class NodeRadius {
+
+    /** Smallest drawn radius. */
+    public static final double MIN = 8;
+
+    /** Largest drawn radius. */
+    public static final double MAX = 35;
+
+    private NodeRadius() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Computes a node radius.
+     *
+     * @param explicitRadius a precomputed {@code _radius}, or NaN if absent
+     * @param size the JSON {@code size}, or NaN if absent
+     * @param degree the number of links the node takes part in
+     * @param scaffolding the {@code cognitive_scaffolding} value, or null
+     * @param focus the {@code pedagogical_focus} value, or null
+     * @param level the academic level, or NaN if absent
+     * @return the radius, between {@link #MIN} and {@link #MAX}
+     */
+    public static double compute(final double explicitRadius, final double size, final int degree,
+                                 final String scaffolding, final String focus, final double level) {
+        if (Double.isFinite(explicitRadius)) {
+            return clamp(explicitRadius);
+        }
+        double radius = Double.isFinite(size) && size > 0
+                ? MIN + Math.sqrt(size) * 0.8
+                : MIN + 4 * Math.sqrt(Math.max(0, degree));
+        radius *= scaffoldingWeight(scaffolding) * focusWeight(focus);
+        radius *= levelFactor(level);
+        return clamp(radius);
+    }
+
+    private static double scaffoldingWeight(final String scaffolding) {
+        if ("high".equalsIgnoreCase(scaffolding)) {
+            return 1.4;
+        }
+        return "medium".equalsIgnoreCase(scaffolding) ? 1.2 : 1.0;
+    }
+
+    private static double focusWeight(final String focus) {
+        if ("theoretical foundation".equalsIgnoreCase(focus)) {
+            return 1.3;
+        }
+        return "practical application".equalsIgnoreCase(focus) ? 1.1 : 1.0;
+    }
+
+    private static double levelFactor(final double level) {
+        if (!Double.isFinite(level) || level < 0) {
+            return 1;
+        }
+        return Math.max(0.6, 1 - 0.1 * Math.min(5, level));
+    }
+
+    private static double clamp(final double radius) {
+        return Math.max(MIN, Math.min(MAX, radius));
+    }
+}
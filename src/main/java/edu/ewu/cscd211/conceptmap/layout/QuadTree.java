@@ -0,0 +1,255 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import java.util.Arrays;
+
+/**
+ * Point quadtree over node positions, stored in flat arrays and rebuilt on every tick.
+ *
+ * <p>Each cell is a square. A leaf holds one point, or a chain of points that share the same
+ * position; an internal cell has up to four children. After a build every cell knows the
+ * total charge and the charge-weighted centroid of its points, which is what the Barnes–Hut
+ * approximation uses in place of the points themselves, and the largest radius below it,
+ * which bounds collision searches.</p>
+ *
+ * <p>The arrays are kept between builds and only grow, so a simulation allocates nothing per
+ * tick once the tree has reached its working size. Instances are not thread-safe.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class QuadTree {
+
+    static final int NONE = -1;
+    private static final int INTERNAL = -2;
+    // Below this side length, distinct points share a leaf instead of splitting forever
+    private static final double MIN_CELL_SIZE = 1e-6;
+
+    private int[] children = new int[0];
+    private int[] firstPoint = new int[0];
+    private double[] cellX0 = new double[0];
+    private double[] cellY0 = new double[0];
+    private double[] cellSize = new double[0];
+    private double[] charge = new double[0];
+    private double[] centerX = new double[0];
+    private double[] centerY = new double[0];
+    private double[] maxRadius = new double[0];
+    private int[] nextPoint = new int[0];
+    private int[] stack = new int[0];
+    private int cellCount;
+    private int depth;
+    private double[] xs;
+    private double[] ys;
+
+    /**
+     * Rebuilds the tree over the given points.
+     *
+     * @param xs the x coordinates
+     * @param ys the y coordinates
+     * @param count the number of points to insert, from position 0
+     * @param charges the charge of each point, or null
+     * @param radii the radius of each point, or null
+     */
+    void build(final double[] xs, final double[] ys, final int count, final double[] charges, final double[] radii) {
+        this.xs = xs;
+        this.ys = ys;
+        if (nextPoint.length < count) {
+            nextPoint = new int[count];
+        }
+        cellCount = 0;
+        depth = 0;
+        if (count == 0) {
+            return;
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        newCell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), MIN_CELL_SIZE) * (1 + 1e-9));
+        for (int i = 0; i < count; i++) {
+            insert(i);
+        }
+        accumulate(charges, radii);
+        if (stack.length < stackCapacity()) {
+            stack = new int[stackCapacity()];
+        }
+    }
+
+    int cellCount() {
+        return cellCount;
+    }
+
+    boolean isInternal(final int cell) {
+        return firstPoint[cell] == INTERNAL;
+    }
+
+    /** Returns the first point of a leaf, or {@link #NONE} for internal or empty cells. */
+    int firstPoint(final int cell) {
+        return firstPoint[cell] == INTERNAL ? NONE : firstPoint[cell];
+    }
+
+    int nextPoint(final int point) {
+        return nextPoint[point];
+    }
+
+    int child(final int cell, final int quadrant) {
+        return children[4 * cell + quadrant];
+    }
+
+    double x0(final int cell) {
+        return cellX0[cell];
+    }
+
+    double y0(final int cell) {
+        return cellY0[cell];
+    }
+
+    double size(final int cell) {
+        return cellSize[cell];
+    }
+
+    double charge(final int cell) {
+        return charge[cell];
+    }
+
+    double centerX(final int cell) {
+        return centerX[cell];
+    }
+
+    double centerY(final int cell) {
+        return centerY[cell];
+    }
+
+    double maxRadius(final int cell) {
+        return maxRadius[cell];
+    }
+
+    /**
+     * Returns a scratch stack large enough for a depth-first walk of the whole tree. The
+     * stack is shared, so only one walk may use it at a time.
+     */
+    int[] stack() {
+        return stack;
+    }
+
+    /**
+     * Returns the stack size a depth-first walk needs: each level replaces one cell with at
+     * most four children, so the stack never holds more than three cells per level plus the root.
+     */
+    int stackCapacity() {
+        return 3 * depth + 4;
+    }
+
+    private void insert(final int point) {
+        int cell = 0;
+        int level = 0;
+        while (true) {
+            final int first = firstPoint[cell];
+            if (first == NONE) {
+                firstPoint[cell] = point;
+                nextPoint[point] = NONE;
+                return;
+            }
+            if (first >= 0) {
+                if ((xs[first] == xs[point] && ys[first] == ys[point]) || cellSize[cell] < MIN_CELL_SIZE) {
+                    nextPoint[point] = first;
+                    firstPoint[cell] = point;
+                    return;
+                }
+                // Split the leaf: its chain moves down into one child, then retry this cell
+                firstPoint[cell] = INTERNAL;
+                final int moved = childFor(cell, xs[first], ys[first]);
+                firstPoint[moved] = first;
+                continue;
+            }
+            cell = childFor(cell, xs[point], ys[point]);
+            depth = Math.max(depth, ++level);
+        }
+    }
+
+    private int childFor(final int cell, final double x, final double y) {
+        final double half = cellSize[cell] / 2;
+        final int right = x >= cellX0[cell] + half ? 1 : 0;
+        final int bottom = y >= cellY0[cell] + half ? 1 : 0;
+        final int slot = 4 * cell + 2 * bottom + right;
+        if (children[slot] == NONE) {
+            final int child = newCell(cellX0[cell] + right * half, cellY0[cell] + bottom * half, half);
+            children[slot] = child;
+        }
+        return children[slot];
+    }
+
+    private int newCell(final double x0, final double y0, final double size) {
+        if (cellCount == firstPoint.length) {
+            grow();
+        }
+        final int cell = cellCount++;
+        Arrays.fill(children, 4 * cell, 4 * cell + 4, NONE);
+        firstPoint[cell] = NONE;
+        cellX0[cell] = x0;
+        cellY0[cell] = y0;
+        cellSize[cell] = size;
+        return cell;
+    }
+
+    private void grow() {
+        final int capacity = Math.max(64, firstPoint.length * 2);
+        children = Arrays.copyOf(children, 4 * capacity);
+        firstPoint = Arrays.copyOf(firstPoint, capacity);
+        cellX0 = Arrays.copyOf(cellX0, capacity);
+        cellY0 = Arrays.copyOf(cellY0, capacity);
+        cellSize = Arrays.copyOf(cellSize, capacity);
+        charge = Arrays.copyOf(charge, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        maxRadius = Arrays.copyOf(maxRadius, capacity);
+    }
+
+    /**
+     * Computes the charge, centroid and largest radius of every cell. Children are always
+     * created after their parent, so walking the cells backwards visits children first.
+     */
+    private void accumulate(final double[] charges, final double[] radii) {
+        for (int cell = cellCount - 1; cell >= 0; cell--) {
+            double total = 0;
+            double weight = 0;
+            double weightedX = 0;
+            double weightedY = 0;
+            double radius = 0;
+            if (firstPoint[cell] == INTERNAL) {
+                for (int quadrant = 0; quadrant < 4; quadrant++) {
+                    final int child = children[4 * cell + quadrant];
+                    if (child != NONE) {
+                        final double w = Math.abs(charge[child]);
+                        total += charge[child];
+                        weight += w;
+                        weightedX += w * centerX[child];
+                        weightedY += w * centerY[child];
+                        radius = Math.max(radius, maxRadius[child]);
+                    }
+                }
+            } else {
+                for (int point = firstPoint[cell]; point != NONE; point = nextPoint[point]) {
+                    final double c = charges == null ? 0 : charges[point];
+                    final double w = Math.abs(c);
+                    total += c;
+                    weight += w;
+                    weightedX += w * xs[point];
+                    weightedY += w * ys[point];
+                    radius = Math.max(radius, radii == null ? 0 : radii[point]);
+                }
+            }
+            charge[cell] = total;
+            centerX[cell] = weight > 0 ? weightedX / weight : cellX0[cell] + cellSize[cell] / 2;
+            centerY[cell] = weight > 0 ? weightedY / weight : cellY0[cell] + cellSize[cell] / 2;
+            maxRadius[cell] = radius;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package edu.ewu.cscd211.conceptmap.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The complete JSON object of a node or link, kept as compact UTF-8 bytes and decoded only
+ * when a field is asked for.
+ *
+ * <p>Datasets give their elements many more fields than the typed ones of {@link Node} and
+ * {@link Link}: teaching notes, prerequisites, examples and whatever a dataset author adds.
+ * Those fields are not worth an object each, yet they must survive a round trip. An element
+ * therefore keeps its whole object as a blob; the typed fields are read from it once, at
+ * parse time, and anything else is found by scanning the blob on demand.</p>
+ *
+ * <p>The bytes may be a region of a larger buffer, such as the mapped dataset file an element
+ * was read from, so that loading a dataset does not copy its rich fields onto the heap.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * Attributes attributes = Attributes.ofJson("{\"id\":\"loops\",\"_radius\":\"12\",\"notes\":\"...\"}");
+ * attributes.getNumber("_radius");   // 12.0
+ * attributes.getString("notes");     // "..."
+ * attributes.toJson();               // the object as given
+ * }</pre>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>Instances are immutable. Every lookup parses the bytes afresh, so nothing decoded is
+ * retained between calls.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.1
+ * @since 2.1
+ */
+public final class Attributes {
+
+    /** Attributes of an element that has no fields beyond its typed ones. */
+    public static final Attributes EMPTY = new Attributes(ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8)));
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // RFC 8259 number grammar; Double.parseDouble alone also takes "1d", "0x1p3" and "Infinity"
+    private static final Pattern JSON_NUMBER = Pattern.compile("-?(?:0|[1-9][0-9]*)(?:\\.[0-9]+)?(?:[eE][+-]?[0-9]+)?");
+
+    // Never written; position 0 and limit at the end of the object
+    private final ByteBuffer json;
+
+    private Attributes(final ByteBuffer json) {
+        this.json = json;
+    }
+
+    /**
+     * Wraps the JSON object of an element.
+     *
+     * @param json a minified JSON object
+     * @return the attributes
+     * @throws IllegalArgumentException if json is null or not an object
+     */
+    public static Attributes ofJson(final String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("Attributes JSON cannot be null");
+        }
+        if (!json.startsWith("{")) {
+            throw new IllegalArgumentException("Attributes must be a JSON object");
+        }
+        return new Attributes(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Wraps the JSON object held in the remaining bytes of a buffer, without copying them. The
+     * buffer's content must not change afterwards.
+     *
+     * @param json the UTF-8 bytes of a JSON object
+     * @return the attributes
+     * @throws IllegalArgumentException if json is null or does not start an object
+     */
+    public static Attributes ofJson(final ByteBuffer json) {
+        if (json == null) {
+            throw new IllegalArgumentException("Attributes JSON cannot be null");
+        }
+        if (!json.hasRemaining() || json.get(json.position()) != '{') {
+            throw new IllegalArgumentException("Attributes must be a JSON object");
+        }
+        return new Attributes(json.slice());
+    }
+
+    /**
+     * Returns the JSON object.
+     *
+     * @return the object exactly as it was given
+     */
+    public String toJson() {
+        return StandardCharsets.UTF_8.decode(json.duplicate()).toString();
+    }
+
+    /**
+     * Returns the size of the stored object.
+     *
+     * @return the number of UTF-8 bytes
+     */
+    public int byteSize() {
+        return json.remaining();
+    }
+
+    /**
+     * Returns the names of the object's fields.
+     *
+     * @return the field names in object order
+     */
+    public List<String> fieldNames() {
+        final List<String> names = new ArrayList<>();
+        try (JsonParser parser = open()) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                names.add(parser.currentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return names;
+    }
+
+    public boolean has(final String name) {
+        return fieldNames().contains(name);
+    }
+
+    /**
+     * Passes every field of the object to a visitor, in object order, without building a tree.
+     *
+     * @param visitor receives each field name with a parser on its value
+     * @throws IOException if the visitor fails
+     */
+    public void forEachField(final FieldVisitor visitor) throws IOException {
+        try (JsonParser parser = open()) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                parser.nextToken();
+                visitor.visit(name, parser);
+                // Skips the value if the visitor did not read it; a no-op on its last token
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Returns a string field.
+     *
+     * @param name the field name
+     * @return the value, or null if the field is missing or not a string
+     */
+    public String getString(final String name) {
+        try (JsonParser parser = seek(name)) {
+            return parser != null && parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a numeric field, counting strings that hold a JSON number, such as {@code "12"},
+     * as numbers.
+     *
+     * @param name the field name
+     * @return the value, or NaN if the field is missing or not a number
+     */
+    public double getNumber(final String name) {
+        try (JsonParser parser = seek(name)) {
+            return parser == null ? Double.NaN : number(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the current value of a parser as a number, for the typed fields that are taken
+     * from the same objects. Strings count if they hold a JSON number, see {@link #parseNumber}.
+     *
+     * @param parser a parser positioned on a value
+     * @return the number, or NaN for anything that is not one
+     * @throws IOException if the value cannot be read
+     */
+    public static double number(final JsonParser parser) throws IOException {
+        final JsonToken value = parser.currentToken();
+        if (value != null && value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return parseNumber(parser.getText());
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+
+    /**
+     * Parses a string that holds a number in JSON syntax, ignoring surrounding whitespace.
+     *
+     * <p>Only the JSON number grammar is accepted. Java and JavaScript literals beyond it, such
+     * as {@code "1d"}, {@code "0x1p3"}, {@code "Infinity"} or {@code ".5"}, are not numbers here,
+     * and neither is the empty string.</p>
+     *
+     * @param text the string, may be null
+     * @return the number, or NaN if text does not hold one
+     */
+    public static double parseNumber(final String text) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        final String trimmed = text.strip();
+        return JSON_NUMBER.matcher(trimmed).matches() ? Double.parseDouble(trimmed) : Double.NaN;
+    }
+
+    private JsonParser open() throws IOException {
+        final JsonParser parser = json.hasArray()
+                ? JSON_FACTORY.createParser(json.array(), json.arrayOffset(), json.remaining())
+                : JSON_FACTORY.createParser(new ByteBufferBackedInputStream(json.duplicate()));
+        parser.nextToken();
+        return parser;
+    }
+
+    /** Returns a parser on the value of a field, or null after closing it if there is none. */
+    private JsonParser seek(final String name) throws IOException {
+        final JsonParser parser = open();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final boolean found = parser.currentName().equals(name);
+            parser.nextToken();
+            if (found) {
+                return parser;
+            }
+            parser.skipChildren();
+        }
+        parser.close();
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return json.equals(((Attributes) o).json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Attributes{bytes=" + json.remaining() + '}';
+    }
+
+    /**
+     * Receives the fields of an object from {@link #forEachField}.
+     */
+    @FunctionalInterface
+    public interface FieldVisitor {
+
+        /**
+         * Visits one field. The visitor may read the value, for example with
+         * {@link com.fasterxml.jackson.core.JsonGenerator#copyCurrentStructure}, and must leave
+         * the parser on the value or on its last token.
+         *
+         * @param name the field name
+         * @param value a parser positioned on the field's value
+         * @throws IOException if the value cannot be read or written
+         */
+        void visit(String name, JsonParser value) throws IOException;
+    }
+
+    /**
+     * Stores attributes in a text column as their JSON object.
+     */
+    @Converter
+    public static class JsonConverter implements AttributeConverter<Attributes, String> {
+
+        @Override
+        public String convertToDatabaseColumn(final Attributes attributes) {
+            return Objects.requireNonNullElse(attributes, EMPTY).toJson();
+        }
+
+        @Override
+        public Attributes convertToEntityAttribute(final String json) {
+            return json == null ? EMPTY : ofJson(json);
+        }
+    }
+}
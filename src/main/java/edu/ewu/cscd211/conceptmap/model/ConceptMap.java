@@ -4,12 +4,54 @@ import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * ConceptMap aggregate root containing metadata, nodes, and links.
  * Enterprise-ready JPA entity with proper validation and database mapping.
+ *
+ * <h3>Indexes</h3>
+ * <p>The node and link lists are what JPA persists. Next to them the map keeps transient
+ * hash indexes, so that adding a node or link, finding a node and walking a node's links
+ * never scan the lists:</p>
+ * <ul>
+ *   <li><strong>Nodes by id</strong>: backs {@link #findNodeById} and duplicate checks</li>
+ *   <li><strong>Link set</strong>: backs duplicate link checks</li>
+ *   <li><strong>Adjacency</strong>: each node's outgoing and incoming links, grouped by
+ *       relationship type, in insertion order</li>
+ * </ul>
+ * <p>The indexes are only changed together with the lists, in {@link #addNode},
+ * {@link #addLink} and {@link Builder#build}. An entity loaded by JPA starts without them;
+ * they are built from the lists on first use, once, under the map's lock, and published
+ * through a volatile field, so that concurrent first readers never see them half built.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>A map is not safe to modify while other threads read it. Once loaded, call
+ * {@link #freeze()}: the map then never changes, and its getters hand out read-only views of
+ * the same lists instead of copies, so any number of threads can read it without locks. Edits
+ * go through {@link #toBuilder()} and produce a new map, which the owner publishes in place
+ * of the old one.</p>
+ *
+ * <h3>Bulk Loading</h3>
+ * <p>{@link #addLink} throws at the first dangling reference. To load a whole document, use
+ * a {@link Builder}: it checks every node and link, reports all problems at once, and
+ * publishes the lists and indexes together.</p>
+ * <pre>{@code
+ * ConceptMap map = ConceptMap.builder(metadata)
+ *     .addNodes(nodes)
+ *     .addLinks(links)
+ *     .build();
+ * }</pre>
  */
 @Entity
 @Table(name = "concept_maps")
@@ -35,6 +77,13 @@ public class ConceptMap {
     @Version
     private Long version;
 
+    // Null until built; replaced only as a whole, so readers see both indexes or neither
+    @Transient
+    private volatile Indexes indexes;
+
+    @Transient
+    private boolean frozen;
+
     // Default constructor for JPA
     protected ConceptMap() {}
 
@@ -44,6 +93,17 @@ public class ConceptMap {
         this.links = new ArrayList<>();
     }
 
+    /**
+     * Returns a builder for a map with the given metadata.
+     * 
+     * @param metadata the map's metadata
+     * @return an empty builder
+     * @throws NullPointerException if metadata is null
+     */
+    public static Builder builder(Metadata metadata) {
+        return new Builder(metadata);
+    }
+
     public Long getId() {
         return id;
     }
@@ -52,12 +112,24 @@ public class ConceptMap {
         return metadata;
     }
 
+    /**
+     * Returns the nodes in insertion order.
+     * 
+     * @return a read-only view of the node list; it reflects later additions unless the map is
+     *         frozen
+     */
     public List<Node> getNodes() {
-        return new ArrayList<>(nodes); // Return defensive copy
+        return Collections.unmodifiableList(nodes);
     }
 
+    /**
+     * Returns the links in insertion order.
+     * 
+     * @return a read-only view of the link list; it reflects later additions unless the map is
+     *         frozen
+     */
     public List<Link> getLinks() {
-        return new ArrayList<>(links); // Return defensive copy
+        return Collections.unmodifiableList(links);
     }
     
     public Long getVersion() {
@@ -66,24 +138,75 @@ public class ConceptMap {
 
     public void addNode(Node node) {
         Objects.requireNonNull(node, "Node cannot be null");
-        if (!nodes.contains(node)) {
+        checkNotFrozen();
+        Map<String, NodeEntry> index = indexes().nodes();
+        if (!index.containsKey(node.getId())) {
             nodes.add(node);
+            index.put(node.getId(), new NodeEntry(node));
         }
     }
 
     public void addLink(Link link) {
         Objects.requireNonNull(link, "Link cannot be null");
+        checkNotFrozen();
+        Indexes built = indexes();
+        Map<String, NodeEntry> index = built.nodes();
         
         // Domain validation: ensure referenced nodes exist
-        if (findNodeById(link.getSourceId()) == null) {
+        NodeEntry source = index.get(link.getSourceId());
+        if (source == null) {
             throw new IllegalArgumentException("Source node " + link.getSourceId() + " not found");
         }
-        if (findNodeById(link.getTargetId()) == null) {
+        NodeEntry target = index.get(link.getTargetId());
+        if (target == null) {
             throw new IllegalArgumentException("Target node " + link.getTargetId() + " not found");
         }
         
-        if (!links.contains(link)) {
+        if (built.links().add(link)) {
             links.add(link);
+            connect(source, target, link);
+        }
+    }
+
+    /**
+     * Makes this map read-only, so that it can be shared between threads without locking.
+     * 
+     * <p>Builds the indexes if they are missing, then rejects any further {@link #addNode} or
+     * {@link #addLink}. A frozen map must be published safely, for example through a final or
+     * volatile field; readers then see the same lists and indexes for as long as they hold it.
+     * To change a frozen map, derive a new one with {@link #toBuilder()}.</p>
+     * 
+     * @return this map
+     */
+    public ConceptMap freeze() {
+        indexes();
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Checks whether {@link #freeze()} has been called.
+     * 
+     * @return true if the map rejects additions
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Returns a builder holding this map's metadata, nodes and links, for deriving an edited
+     * copy. The copy shares the immutable node and link objects with this map; only the lists
+     * and indexes are rebuilt.
+     * 
+     * @return a builder with this map's contents
+     */
+    public Builder toBuilder() {
+        return builder(metadata).addNodes(nodes).addLinks(links);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Concept map is frozen; derive a new one with toBuilder()");
         }
     }
 
@@ -97,10 +220,345 @@ public class ConceptMap {
         if (nodeId == null) {
             return null;
         }
-        return nodes.stream()
-            .filter(node -> nodeId.equals(node.getId()))
-            .findFirst()
-            .orElse(null);
+        NodeEntry entry = indexes().nodes().get(nodeId);
+        return entry == null ? null : entry.node;
+    }
+
+    /**
+     * Checks whether the map contains a link.
+     * 
+     * @param link the link to look for
+     * @return true if an equal link has been added
+     */
+    public boolean containsLink(Link link) {
+        if (link == null) {
+            return false;
+        }
+        return indexes().links().contains(link);
+    }
+
+    /**
+     * Returns the links that leave a node, grouped by relationship type in insertion order.
+     * 
+     * @param nodeId the source node ID
+     * @return an unmodifiable list of links, empty for unknown nodes
+     */
+    public List<Link> getOutgoingLinks(String nodeId) {
+        NodeEntry entry = entry(nodeId);
+        return entry == null ? List.of() : flatten(entry.outgoing);
+    }
+
+    /**
+     * Returns the links of one relationship type that leave a node.
+     * 
+     * @param nodeId the source node ID
+     * @param relationshipType the relationship type
+     * @return an unmodifiable list of links in insertion order, empty if there are none
+     */
+    public List<Link> getOutgoingLinks(String nodeId, String relationshipType) {
+        NodeEntry entry = entry(nodeId);
+        return entry == null ? List.of() : unmodifiable(entry.outgoing.get(relationshipType));
+    }
+
+    /**
+     * Returns the links that point at a node, grouped by relationship type in insertion order.
+     * 
+     * @param nodeId the target node ID
+     * @return an unmodifiable list of links, empty for unknown nodes
+     */
+    public List<Link> getIncomingLinks(String nodeId) {
+        NodeEntry entry = entry(nodeId);
+        return entry == null ? List.of() : flatten(entry.incoming);
+    }
+
+    /**
+     * Returns the links of one relationship type that point at a node.
+     * 
+     * @param nodeId the target node ID
+     * @param relationshipType the relationship type
+     * @return an unmodifiable list of links in insertion order, empty if there are none
+     */
+    public List<Link> getIncomingLinks(String nodeId, String relationshipType) {
+        NodeEntry entry = entry(nodeId);
+        return entry == null ? List.of() : unmodifiable(entry.incoming.get(relationshipType));
+    }
+
+    /**
+     * Returns the number of links a node takes part in, in either direction.
+     * 
+     * @param nodeId the node ID
+     * @return the degree, or 0 for unknown nodes
+     */
+    public int getDegree(String nodeId) {
+        NodeEntry entry = entry(nodeId);
+        if (entry == null) {
+            return 0;
+        }
+        int degree = 0;
+        for (List<Link> typed : entry.outgoing.values()) {
+            degree += typed.size();
+        }
+        for (List<Link> typed : entry.incoming.values()) {
+            degree += typed.size();
+        }
+        return degree;
+    }
+
+    private NodeEntry entry(String nodeId) {
+        return nodeId == null ? null : indexes().nodes().get(nodeId);
+    }
+
+    /**
+     * Returns the indexes, building them from the lists if this entity was loaded by JPA and
+     * has not been indexed yet. Concurrent first callers build them only once.
+     */
+    private Indexes indexes() {
+        Indexes built = indexes;
+        if (built == null) {
+            synchronized (this) {
+                built = indexes;
+                if (built == null) {
+                    Map<String, NodeEntry> index = new HashMap<>(Math.max(16, nodes.size() * 2));
+                    for (Node node : nodes) {
+                        index.putIfAbsent(node.getId(), new NodeEntry(node));
+                    }
+                    Set<Link> linkSet = new HashSet<>(Math.max(16, links.size() * 2));
+                    for (Link link : links) {
+                        NodeEntry source = index.get(link.getSourceId());
+                        NodeEntry target = index.get(link.getTargetId());
+                        if (linkSet.add(link) && source != null && target != null) {
+                            connect(source, target, link);
+                        }
+                    }
+                    built = new Indexes(index, linkSet);
+                    indexes = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    private static void connect(NodeEntry source, NodeEntry target, Link link) {
+        source.outgoing.computeIfAbsent(link.getRelationshipType(), type -> new ArrayList<>()).add(link);
+        target.incoming.computeIfAbsent(link.getRelationshipType(), type -> new ArrayList<>()).add(link);
+    }
+
+    private static List<Link> flatten(Map<String, List<Link>> byType) {
+        if (byType.isEmpty()) {
+            return List.of();
+        }
+        if (byType.size() == 1) {
+            return unmodifiable(byType.values().iterator().next());
+        }
+        List<Link> all = new ArrayList<>();
+        for (List<Link> typed : byType.values()) {
+            all.addAll(typed);
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    private static List<Link> unmodifiable(List<Link> links) {
+        return links == null ? List.of() : Collections.unmodifiableList(links);
+    }
+
+    /**
+     * The node index with each node's links, and the set of links, published together.
+     */
+    private record Indexes(Map<String, NodeEntry> nodes, Set<Link> links) {
+    }
+
+    /**
+     * A node with its links, grouped by relationship type.
+     */
+    private static final class NodeEntry {
+        private final Node node;
+        private final Map<String, List<Link>> outgoing = new LinkedHashMap<>(2);
+        private final Map<String, List<Link>> incoming = new LinkedHashMap<>(2);
+
+        private NodeEntry(Node node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * Collects nodes and links and turns them into a map in one step.
+     * 
+     * <p>{@link #build} validates every input before it publishes anything:</p>
+     * <ol>
+     *   <li>Node and link suppliers run, in parallel for large inputs, so their constructor
+     *       checks are reported instead of thrown</li>
+     *   <li>Nodes are indexed by id; as with {@link ConceptMap#addNode}, the first node with a
+     *       given id wins</li>
+     *   <li>Every link's source and target are looked up in that index, and duplicate links
+     *       are dropped</li>
+     * </ol>
+     * <p>If any input is invalid, {@link ConceptMapValidationException} lists all of them with
+     * their positions. Otherwise the new map receives its lists and indexes at once. A builder
+     * can be built more than once; it is not thread-safe.</p>
+     */
+    public static final class Builder {
+
+        // Below this many inputs the fork/join overhead outweighs the checks themselves
+        private static final int PARALLEL_THRESHOLD = 4096;
+
+        private Metadata metadata;
+        // Each input is a Node or Link, a Supplier of one, or null; suppliers run in build()
+        private final List<Object> nodeInputs = new ArrayList<>();
+        private final List<Object> linkInputs = new ArrayList<>();
+
+        private Builder(Metadata metadata) {
+            this.metadata = Objects.requireNonNull(metadata, "Metadata cannot be null");
+        }
+
+        /**
+         * Replaces the metadata, for sources that name it only after some of their nodes and
+         * links.
+         * 
+         * @param metadata the map's metadata
+         * @return this builder
+         * @throws NullPointerException if metadata is null
+         */
+        public Builder metadata(Metadata metadata) {
+            this.metadata = Objects.requireNonNull(metadata, "Metadata cannot be null");
+            return this;
+        }
+
+        public Builder addNode(Node node) {
+            nodeInputs.add(node);
+            return this;
+        }
+
+        /**
+         * Adds a node that is created during validation, so that its construction runs in
+         * parallel and an {@link IllegalArgumentException} it throws is reported with the
+         * node's position.
+         * 
+         * @param factory creates the node; must be safe to call from any thread
+         * @return this builder
+         */
+        public Builder addNode(Supplier<Node> factory) {
+            Objects.requireNonNull(factory, "Node factory cannot be null");
+            nodeInputs.add(factory);
+            return this;
+        }
+
+        public Builder addNodes(Collection<? extends Node> nodes) {
+            Objects.requireNonNull(nodes, "Nodes cannot be null");
+            nodeInputs.addAll(nodes);
+            return this;
+        }
+
+        public Builder addLink(Link link) {
+            linkInputs.add(link);
+            return this;
+        }
+
+        /**
+         * Adds a link that is created during validation, like {@link #addNode(Supplier)}.
+         * 
+         * @param factory creates the link; must be safe to call from any thread
+         * @return this builder
+         */
+        public Builder addLink(Supplier<Link> factory) {
+            Objects.requireNonNull(factory, "Link factory cannot be null");
+            linkInputs.add(factory);
+            return this;
+        }
+
+        public Builder addLinks(Collection<? extends Link> links) {
+            Objects.requireNonNull(links, "Links cannot be null");
+            linkInputs.addAll(links);
+            return this;
+        }
+
+        /**
+         * Validates all inputs and creates the map.
+         * 
+         * @return a new map holding every distinct valid node and link, in input order
+         * @throws ConceptMapValidationException if any node or link is invalid
+         */
+        public ConceptMap build() {
+            Node[] builtNodes = new Node[nodeInputs.size()];
+            String[] nodeProblems = new String[builtNodes.length];
+            Link[] builtLinks = new Link[linkInputs.size()];
+            String[] linkProblems = new String[builtLinks.length];
+            // Each index writes only its own slots, so the arrays need no locking
+            indices(builtNodes.length + builtLinks.length).forEach(i -> {
+                if (i < builtNodes.length) {
+                    builtNodes[i] = create(nodeInputs.get(i), Node.class, nodeProblems, i);
+                } else {
+                    int l = i - builtNodes.length;
+                    builtLinks[l] = create(linkInputs.get(l), Link.class, linkProblems, l);
+                }
+            });
+
+            Map<String, NodeEntry> index = new HashMap<>(Math.max(16, builtNodes.length * 2));
+            List<Node> nodeList = new ArrayList<>(builtNodes.length);
+            for (Node node : builtNodes) {
+                if (node != null && !index.containsKey(node.getId())) {
+                    index.put(node.getId(), new NodeEntry(node));
+                    nodeList.add(node);
+                }
+            }
+            Set<Link> linkSet = new HashSet<>(Math.max(16, builtLinks.length * 2));
+            List<Link> linkList = new ArrayList<>(builtLinks.length);
+            for (int l = 0; l < builtLinks.length; l++) {
+                Link link = builtLinks[l];
+                if (link == null) {
+                    continue;
+                }
+                NodeEntry source = index.get(link.getSourceId());
+                NodeEntry target = index.get(link.getTargetId());
+                if (source == null) {
+                    linkProblems[l] = "Source node " + link.getSourceId() + " not found";
+                } else if (target == null) {
+                    linkProblems[l] = "Target node " + link.getTargetId() + " not found";
+                } else if (linkSet.add(link)) {
+                    linkList.add(link);
+                    connect(source, target, link);
+                }
+            }
+
+            List<ConceptMapValidationException.Problem> problems = new ArrayList<>();
+            collect(ConceptMapValidationException.Problem.NODES, nodeProblems, problems);
+            collect(ConceptMapValidationException.Problem.LINKS, linkProblems, problems);
+            if (!problems.isEmpty()) {
+                throw new ConceptMapValidationException(problems);
+            }
+
+            ConceptMap conceptMap = new ConceptMap(metadata);
+            conceptMap.nodes = nodeList;
+            conceptMap.links = linkList;
+            conceptMap.indexes = new Indexes(index, linkSet);
+            return conceptMap;
+        }
+
+        private static IntStream indices(int count) {
+            IntStream range = IntStream.range(0, count);
+            return count < PARALLEL_THRESHOLD ? range : range.parallel();
+        }
+
+        private static <T> T create(Object input, Class<T> type, String[] problems, int position) {
+            try {
+                Object value = input instanceof Supplier<?> factory ? factory.get() : input;
+                if (value == null) {
+                    problems[position] = type.getSimpleName() + " cannot be null";
+                }
+                return type.cast(value);
+            } catch (IllegalArgumentException e) {
+                problems[position] = e.getMessage() == null ? e.toString() : e.getMessage();
+                return null;
+            }
+        }
+
+        private static void collect(String section, String[] messages,
+                                    List<ConceptMapValidationException.Problem> problems) {
+            for (int i = 0; i < messages.length; i++) {
+                if (messages[i] != null) {
+                    problems.add(new ConceptMapValidationException.Problem(section, i, messages[i]));
+                }
+            }
+        }
     }
 
     /**
@@ -0,0 +1,140 @@
+package edu.ewu.cscd211.conceptmap.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Exception thrown when a bulk load of nodes and links into a {@link ConceptMap} is invalid.
+ *
+ * <p>Unlike {@link ConceptMap#addLink}, which stops at the first dangling reference, a
+ * {@link ConceptMap.Builder} checks every node and link before it gives up, so this exception
+ * carries all of the problems it found, each with the position of the offending input. A
+ * document that does not match the concept map schema is reported the same way.</p>
+ *
+ * <h3>Example Message</h3>
+ * <pre>
+ * 2 problems in concept map: nodes[3]: Name cannot be empty; links[17]: Target node recursion not found
+ * </pre>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.1
+ * @since 2.1
+ */
+public class ConceptMapValidationException extends IllegalArgumentException {
+
+    /** Number of problems spelled out in the message; all of them are in {@link #getProblems()}. */
+    static final int MAX_PROBLEMS_IN_MESSAGE = 10;
+
+    private final List<Problem> problems;
+
+    /**
+     * Creates an exception for the given problems.
+     *
+     * @param problems the problems, in input order
+     * @throws IllegalArgumentException if problems is null or empty
+     */
+    public ConceptMapValidationException(final List<Problem> problems) {
+        super(describe(problems));
+        this.problems = List.copyOf(problems);
+    }
+
+    /**
+     * Returns every problem found, nodes first, each section in input order.
+     *
+     * @return an unmodifiable list of problems
+     */
+    public List<Problem> getProblems() {
+        return this.problems;
+    }
+
+    private static String describe(final List<Problem> problems) {
+        if (problems == null || problems.isEmpty()) {
+            throw new IllegalArgumentException("Problems cannot be null or empty");
+        }
+        final StringBuilder message = new StringBuilder()
+                .append(problems.size())
+                .append(problems.size() == 1 ? " problem" : " problems")
+                .append(" in concept map: ");
+        final int shown = Math.min(problems.size(), MAX_PROBLEMS_IN_MESSAGE);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                message.append("; ");
+            }
+            message.append(problems.get(i));
+        }
+        if (problems.size() > shown) {
+            message.append("; and ").append(problems.size() - shown).append(" more");
+        }
+        return message.toString();
+    }
+
+    /**
+     * One invalid input: where it is and what is wrong with it. Problems found by the schema may
+     * concern any top-level field, such as the metadata, and have no index when they concern the
+     * field as a whole.
+     */
+    public static final class Problem {
+
+        /** Section name for problems with nodes. */
+        public static final String NODES = "nodes";
+
+        /** Section name for problems with links. */
+        public static final String LINKS = "links";
+
+        private final String section;
+        private final int index;
+        private final String message;
+
+        /**
+         * Creates a problem.
+         *
+         * @param section {@value #NODES}, {@value #LINKS} or another top-level field
+         * @param index the position of the input within its section, or -1 for the section itself
+         * @param message what is wrong
+         * @throws NullPointerException if section or message is null
+         */
+        public Problem(final String section, final int index, final String message) {
+            this.section = Objects.requireNonNull(section, "Section cannot be null");
+            this.index = index;
+            this.message = Objects.requireNonNull(message, "Message cannot be null");
+        }
+
+        public String getSection() {
+            return this.section;
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public String getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Problem problem = (Problem) o;
+            return this.index == problem.index
+                    && this.section.equals(problem.section)
+                    && this.message.equals(problem.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.section, this.index, this.message);
+        }
+
+        /**
+         * Formats the problem as {@code section[index]: message}, or {@code section: message}
+         * without an index, as in the exception message.
+         */
+        @Override
+        public String toString() {
+            return this.index < 0
+                    ? this.section + ": " + this.message
+                    : this.section + "[" + this.index + "]: " + this.message;
+        }
+    }
+}
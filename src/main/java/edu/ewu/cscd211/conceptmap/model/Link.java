@@ -2,11 +2,16 @@ package edu.ewu.cscd211.conceptmap.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import java.util.Objects;
 
 /**
  * Link entity representing a relationship between two nodes in the concept map.
  * Enterprise-ready JPA entity with proper validation and database mapping.
+ * 
+ * <p>Links parsed from a dataset also carry their {@code strength} as a typed field and their
+ * complete JSON object as {@link Attributes}. Neither takes part in equality: a link is
+ * identified by its endpoints and relationship type.</p>
  */
 @Entity
 @Table(name = "links",
@@ -33,6 +38,16 @@ public class Link {
     @Column(name = "relationship_type", length = 100, nullable = false)
     private String relationshipType;
     
+    // NaN when the dataset does not give one
+    @Convert(converter = NanAsNullConverter.class)
+    @Column(name = "strength")
+    private double strength = Double.NaN;
+    
+    @NotNull(message = "Attributes cannot be null")
+    @Convert(converter = Attributes.JsonConverter.class)
+    @Column(name = "attributes", columnDefinition = "TEXT")
+    private Attributes attributes = Attributes.EMPTY;
+    
     @Version
     private Long version;
 
@@ -40,6 +55,20 @@ public class Link {
     protected Link() {}
 
     public Link(String sourceId, String targetId, String relationshipType) {
+        this(sourceId, targetId, relationshipType, Double.NaN, Attributes.EMPTY);
+    }
+
+    /**
+     * Creates a link with its strength and the full object it was read from.
+     *
+     * @param sourceId the source node id
+     * @param targetId the target node id
+     * @param relationshipType the relationship type
+     * @param strength the strength, or NaN if none
+     * @param attributes the link's complete JSON object
+     * @throws IllegalArgumentException if a required value is null or empty
+     */
+    public Link(String sourceId, String targetId, String relationshipType, double strength, Attributes attributes) {
         // Null validation with proper exception type
         if (sourceId == null) {
             throw new IllegalArgumentException("Source ID cannot be null");
@@ -50,6 +79,9 @@ public class Link {
         if (relationshipType == null) {
             throw new IllegalArgumentException("Relationship type cannot be null");
         }
+        if (attributes == null) {
+            throw new IllegalArgumentException("Attributes cannot be null");
+        }
         
         // Domain validation
         if (sourceId.trim().isEmpty()) {
@@ -66,6 +98,8 @@ public class Link {
         this.sourceId = sourceId;
         this.targetId = targetId;
         this.relationshipType = relationshipType;
+        this.strength = strength;
+        this.attributes = attributes;
     }
 
     public Long getId() {
@@ -84,6 +118,16 @@ public class Link {
         return relationshipType;
     }
     
+    /** Returns the strength, or NaN if the link has none. */
+    public double getStrength() {
+        return strength;
+    }
+    
+    /** Returns the link's complete JSON object, including fields without a getter. */
+    public Attributes getAttributes() {
+        return attributes;
+    }
+    
     public Long getVersion() {
         return version;
     }
@@ -0,0 +1,26 @@
+package edu.ewu.cscd211.conceptmap.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the NaN that marks a missing optional number as SQL {@code NULL}, and reads
+ * {@code NULL} back as NaN, so optional numbers can be primitive fields.
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+@Converter
+public class NanAsNullConverter implements AttributeConverter<Double, Double> {
+
+    @Override
+    public Double convertToDatabaseColumn(final Double value) {
+        return value == null || value.isNaN() ? null : value;
+    }
+
+    @Override
+    public Double convertToEntityAttribute(final Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
@@ -59,8 +59,13 @@ import java.util.Objects;
  * String nodeName = variablesNode.getName();
  * }</pre>
  * 
+ * <h3>Dataset Attributes</h3>
+ * <p>Nodes parsed from a dataset also carry its {@code level}, {@code size} and {@code group}
+ * as typed fields, and their complete JSON object as {@link Attributes}, so that the rich
+ * teaching fields are kept without an object per field.</p>
+ * 
  * @author CSCD211 Development Team
- * @version 2.0.0
+ * @version 2.1.0
  * @since 2025-01-20
  * 
  * @see <a href="https://martinfowler.com/eaaCatalog/domainModel.html">Domain Model Pattern</a>
@@ -84,6 +89,23 @@ public class Node {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
     
+    // Optional numbers are NaN when the dataset does not give them
+    @Convert(converter = NanAsNullConverter.class)
+    @Column(name = "node_level")
+    private double level = Double.NaN;
+    
+    @Convert(converter = NanAsNullConverter.class)
+    @Column(name = "node_size")
+    private double size = Double.NaN;
+    
+    @Column(name = "group_name", length = 100)
+    private String group;
+    
+    @NotNull(message = "Attributes cannot be null")
+    @Convert(converter = Attributes.JsonConverter.class)
+    @Column(name = "attributes", columnDefinition = "TEXT")
+    private Attributes attributes = Attributes.EMPTY;
+    
     @Version
     private Long version;
 
@@ -91,6 +113,23 @@ public class Node {
     protected Node() {}
 
     public Node(String id, String name, String description) {
+        this(id, name, description, Double.NaN, Double.NaN, null, Attributes.EMPTY);
+    }
+
+    /**
+     * Creates a node with its typed optional fields and the full object it was read from.
+     *
+     * @param id the node id
+     * @param name the display name
+     * @param description the description, may be empty
+     * @param level the curriculum level, or NaN if none
+     * @param size the drawing size, or NaN if none
+     * @param group the group, or null if none
+     * @param attributes the node's complete JSON object
+     * @throws IllegalArgumentException if a required value is null or empty
+     */
+    public Node(String id, String name, String description, double level, double size, String group,
+                Attributes attributes) {
         // Null validation with proper exception type
         if (id == null) {
             throw new IllegalArgumentException("ID cannot be null");
@@ -101,6 +140,9 @@ public class Node {
         if (description == null) {
             throw new IllegalArgumentException("Description cannot be null");
         }
+        if (attributes == null) {
+            throw new IllegalArgumentException("Attributes cannot be null");
+        }
         
         // Domain validation
         if (id.trim().isEmpty()) {
@@ -115,6 +157,10 @@ public class Node {
         this.name = name;
         this.description = description;
         // Description can be empty but not null
+        this.level = level;
+        this.size = size;
+        this.group = group;
+        this.attributes = attributes;
     }
 
     public String getId() {
@@ -129,6 +175,26 @@ public class Node {
         return description;
     }
     
+    /** Returns the curriculum level, or NaN if the node has none. */
+    public double getLevel() {
+        return level;
+    }
+    
+    /** Returns the drawing size, or NaN if the node has none. */
+    public double getSize() {
+        return size;
+    }
+    
+    /** Returns the group, or null if the node has none. */
+    public String getGroup() {
+        return group;
+    }
+    
+    /** Returns the node's complete JSON object, including fields without a getter. */
+    public Attributes getAttributes() {
+        return attributes;
+    }
+    
     public Long getVersion() {
         return version;
     }
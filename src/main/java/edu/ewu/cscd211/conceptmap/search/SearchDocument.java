@@ -0,0 +1,74 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The searchable text of one concept node.
+ *
+ * <p>Documents are value objects: two documents with the same text are equal. When an index
+ * is rebuilt, the analysis of each document that is equal to one in the previous index is
+ * reused instead of being tokenized again.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class SearchDocument {
+
+    private final String id;
+    private final String name;
+    private final String description;
+    private final List<String> richText;
+
+    /**
+     * Creates a document.
+     *
+     * @param id the node id
+     * @param name the node name
+     * @param description the node description, may be empty
+     * @param richText the strings found in the node's array-valued rich fields
+     * @throws NullPointerException if any argument is null
+     */
+    public SearchDocument(final String id, final String name, final String description, final List<String> richText) {
+        this.id = Objects.requireNonNull(id, "ID cannot be null");
+        this.name = Objects.requireNonNull(name, "Name cannot be null");
+        this.description = Objects.requireNonNull(description, "Description cannot be null");
+        this.richText = List.copyOf(richText);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getRichText() {
+        return richText;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final SearchDocument that = (SearchDocument) o;
+        return id.equals(that.id) && name.equals(that.name)
+                && description.equals(that.description) && richText.equals(that.richText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, description, richText);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchDocument{id='" + id + "', name='" + name + "'}";
+    }
+}
@@ -0,0 +1,74 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One ranked search result with a highlighted snippet.
+ *
+ * <p>The snippet is plain text. Highlights are {@code [start, end)} character ranges within the
+ * snippet that matched a query term, which lets clients render them without trusting the text
+ * as markup.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class SearchHit {
+
+    private final String id;
+    private final String name;
+    private final double score;
+    private final String field;
+    private final String snippet;
+    private final List<int[]> highlights;
+
+    SearchHit(final String id, final String name, final double score, final String field,
+              final String snippet, final List<int[]> highlights) {
+        this.id = Objects.requireNonNull(id, "ID cannot be null");
+        this.name = Objects.requireNonNull(name, "Name cannot be null");
+        this.score = score;
+        this.field = Objects.requireNonNull(field, "Field cannot be null");
+        this.snippet = Objects.requireNonNull(snippet, "Snippet cannot be null");
+        this.highlights = List.copyOf(highlights);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the field the snippet was taken from.
+     *
+     * @return {@code name}, {@code description} or {@code details}
+     */
+    public String getField() {
+        return field;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Returns the matched character ranges within the snippet.
+     *
+     * @return pairs of {@code [start, end)} offsets; the arrays must not be modified
+     */
+    public List<int[]> getHighlights() {
+        return highlights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchHit{id='%s', score=%.3f}", id, score);
+    }
+}
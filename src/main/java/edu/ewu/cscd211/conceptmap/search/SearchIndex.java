@@ -0,0 +1,384 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable inverted index over concept nodes with BM25 ranking.
+ *
+ * <p>This class demonstrates the classic search-engine design: at build time each document is
+ * tokenized once and every term is mapped to a <em>postings list</em> of the documents that
+ * contain it. At query time only the postings of the query terms are visited, so the cost of a
+ * search depends on how common its terms are rather than on the size of the catalog.</p>
+ *
+ * <h3>Ranking</h3>
+ * <p>Documents are scored with Okapi BM25, using a weighted term frequency across the three
+ * fields (a simplified BM25F):</p>
+ * <pre>
+ *   score(d, q) = sum over t in q of  idf(t) * tf(t, d) * (k1 + 1) / (tf(t, d) + k1 * (1 - b + b * |d| / avgdl))
+ *   idf(t)      = ln(1 + (N - df(t) + 0.5) / (df(t) + 0.5))
+ * </pre>
+ * <p>where a match in the name counts {@value #NAME_WEIGHT} times, one in the description once,
+ * and one in an array-valued rich field {@value #RICH_WEIGHT} times.</p>
+ *
+ * <h3>Incremental Rebuilds</h3>
+ * <p>An index can be built from a previous one. Documents whose text has not changed reuse
+ * their previous analysis, so reloading a dataset only tokenizes the nodes that were edited.
+ * Only the postings lists, which are cheap to assemble from the analyses, are rebuilt.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class SearchIndex {
+
+    static final double NAME_WEIGHT = 3.0;
+    static final double RICH_WEIGHT = 0.5;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 40;
+
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_DETAILS = "details";
+
+    private final List<SearchDocument> documents;
+    private final Analysis[] analyses;
+    private final Map<String, Postings> postings;
+    private final double averageLength;
+    private final int reusedCount;
+
+    private SearchIndex(final List<SearchDocument> documents, final SearchIndex previous) {
+        this.documents = List.copyOf(documents);
+        this.analyses = new Analysis[this.documents.size()];
+        final Map<SearchDocument, Analysis> reusable = previous == null ? Map.of() : previous.analysesByDocument();
+
+        int reused = 0;
+        double totalLength = 0;
+        final Map<String, PostingsBuilder> builders = new HashMap<>();
+        for (int doc = 0; doc < analyses.length; doc++) {
+            Analysis analysis = reusable.get(this.documents.get(doc));
+            if (analysis == null) {
+                analysis = Analysis.of(this.documents.get(doc));
+            } else {
+                reused++;
+            }
+            analyses[doc] = analysis;
+            totalLength += analysis.length;
+            for (int t = 0; t < analysis.terms.length; t++) {
+                builders.computeIfAbsent(analysis.terms[t], key -> new PostingsBuilder()).add(doc, analysis.frequencies[t]);
+            }
+        }
+
+        this.postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> this.postings.put(term, builder.build()));
+        this.averageLength = analyses.length == 0 ? 0 : totalLength / analyses.length;
+        this.reusedCount = reused;
+    }
+
+    /**
+     * Builds an index from scratch.
+     *
+     * @param documents the documents to index, in result tie-break order
+     * @return the new index
+     */
+    public static SearchIndex build(final List<SearchDocument> documents) {
+        return build(documents, null);
+    }
+
+    /**
+     * Builds an index, reusing the analysis of every document unchanged since a previous index.
+     *
+     * @param documents the documents to index, in result tie-break order
+     * @param previous an earlier index of the same dataset, or null
+     * @return the new index
+     */
+    public static SearchIndex build(final List<SearchDocument> documents, final SearchIndex previous) {
+        Objects.requireNonNull(documents, "Documents cannot be null");
+        return new SearchIndex(documents, previous);
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns how many documents were taken over from the previous index without re-analysis.
+     *
+     * @return the reused document count
+     */
+    public int reusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * Finds the best matching documents for a free-text query.
+     *
+     * @param query the query text; its terms are combined with OR semantics
+     * @param limit the maximum number of hits to return
+     * @return hits ordered by descending score, ties in document order
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public List<SearchHit> search(final String query, final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        final Set<String> queryTerms = new LinkedHashSet<>(Tokenizer.terms(query));
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+
+        final double[] scores = new double[documents.size()];
+        final int[] matched = new int[documents.size()];
+        int matchedCount = 0;
+        for (final String term : queryTerms) {
+            final Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            final double idf = Math.log(1 + (documents.size() - list.docs.length + 0.5) / (list.docs.length + 0.5));
+            for (int i = 0; i < list.docs.length; i++) {
+                final int doc = list.docs[i];
+                final double tf = list.frequencies[i];
+                final double norm = K1 * (1 - B + B * analyses[doc].length / averageLength);
+                if (scores[doc] == 0) {
+                    matched[matchedCount++] = doc;
+                }
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        final int[] top = topK(matched, matchedCount, scores, limit);
+        final List<SearchHit> hits = new ArrayList<>(top.length);
+        for (final int doc : top) {
+            hits.add(toHit(documents.get(doc), scores[doc], queryTerms));
+        }
+        return hits;
+    }
+
+    /**
+     * Selects the best {@code limit} documents with a bounded min-heap whose root is the worst
+     * document kept so far, which avoids sorting every match of a common term.
+     */
+    private static int[] topK(final int[] matched, final int matchedCount, final double[] scores, final int limit) {
+        final int[] heap = new int[Math.min(limit, matchedCount)];
+        int size = 0;
+        for (int i = 0; i < matchedCount; i++) {
+            final int doc = matched[i];
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores);
+            } else if (ranksBefore(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+        // Repeatedly moving the worst remaining document to the back leaves the best first
+        for (int end = size - 1; end > 0; end--) {
+            final int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, end, scores);
+        }
+        return heap;
+    }
+
+    private static void siftUp(final int[] heap, final int index, final double[] scores) {
+        int child = index;
+        while (child > 0) {
+            final int parent = (child - 1) / 2;
+            if (!ranksBefore(heap[parent], heap[child], scores)) {
+                return;
+            }
+            swap(heap, parent, child);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(final int[] heap, final int size, final double[] scores) {
+        int parent = 0;
+        while (true) {
+            int worst = parent;
+            final int left = 2 * parent + 1;
+            if (left < size && ranksBefore(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (left + 1 < size && ranksBefore(heap[worst], heap[left + 1], scores)) {
+                worst = left + 1;
+            }
+            if (worst == parent) {
+                return;
+            }
+            swap(heap, parent, worst);
+            parent = worst;
+        }
+    }
+
+    private static boolean ranksBefore(final int a, final int b, final double[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void swap(final int[] heap, final int i, final int j) {
+        final int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static SearchHit toHit(final SearchDocument document, final double score, final Set<String> queryTerms) {
+        List<int[]> matches = matchesIn(document.getDescription(), queryTerms);
+        if (!matches.isEmpty()) {
+            return snippetHit(document, score, FIELD_DESCRIPTION, document.getDescription(), matches);
+        }
+        matches = matchesIn(document.getName(), queryTerms);
+        if (!matches.isEmpty()) {
+            return new SearchHit(document.getId(), document.getName(), score, FIELD_NAME, document.getName(), matches);
+        }
+        for (final String text : document.getRichText()) {
+            matches = matchesIn(text, queryTerms);
+            if (!matches.isEmpty()) {
+                return snippetHit(document, score, FIELD_DETAILS, text, matches);
+            }
+        }
+        return snippetHit(document, score, FIELD_DESCRIPTION, document.getDescription(), List.of());
+    }
+
+    /**
+     * Cuts a window of about {@value #SNIPPET_LENGTH} characters around the first match, on
+     * word boundaries, and shifts the highlight ranges into the window.
+     */
+    private static SearchHit snippetHit(final SearchDocument document, final double score, final String field,
+                                        final String text, final List<int[]> matches) {
+        int start = matches.isEmpty() ? 0 : Math.max(0, matches.get(0)[0] - SNIPPET_LEAD);
+        if (start > 0) {
+            final int space = text.indexOf(' ', start);
+            start = space < 0 || space >= matches.get(0)[0] ? matches.get(0)[0] : space + 1;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        if (end < text.length()) {
+            final int space = text.lastIndexOf(' ', end);
+            if (space > start) {
+                end = space;
+            }
+        }
+        final List<int[]> highlights = new ArrayList<>();
+        for (final int[] match : matches) {
+            if (match[0] >= start && match[1] <= end) {
+                highlights.add(new int[] {match[0] - start, match[1] - start});
+            }
+        }
+        return new SearchHit(document.getId(), document.getName(), score, field, text.substring(start, end), highlights);
+    }
+
+    private static List<int[]> matchesIn(final String text, final Set<String> queryTerms) {
+        final List<int[]> matches = new ArrayList<>();
+        Tokenizer.tokenize(text, (term, start, end) -> {
+            if (queryTerms.contains(term)) {
+                matches.add(new int[] {start, end});
+            }
+        });
+        return matches;
+    }
+
+    private Map<SearchDocument, Analysis> analysesByDocument() {
+        final Map<SearchDocument, Analysis> byDocument = new HashMap<>(documents.size() * 2);
+        for (int doc = 0; doc < analyses.length; doc++) {
+            byDocument.put(documents.get(doc), analyses[doc]);
+        }
+        return byDocument;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchIndex{documents=" + documents.size() + ", terms=" + postings.size() + '}';
+    }
+
+    /**
+     * Weighted term frequencies and weighted length of one document.
+     */
+    private static final class Analysis {
+
+        private final String[] terms;
+        private final float[] frequencies;
+        private final double length;
+
+        private Analysis(final String[] terms, final float[] frequencies, final double length) {
+            this.terms = terms;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+
+        static Analysis of(final SearchDocument document) {
+            final Map<String, Double> weighted = new HashMap<>();
+            final double[] length = new double[1];
+            final Tokenizer.TermConsumer name = (term, start, end) -> count(weighted, length, term, NAME_WEIGHT);
+            final Tokenizer.TermConsumer description = (term, start, end) -> count(weighted, length, term, DESCRIPTION_WEIGHT);
+            final Tokenizer.TermConsumer rich = (term, start, end) -> count(weighted, length, term, RICH_WEIGHT);
+            Tokenizer.tokenize(document.getName(), name);
+            Tokenizer.tokenize(document.getDescription(), description);
+            for (final String text : document.getRichText()) {
+                Tokenizer.tokenize(text, rich);
+            }
+
+            final String[] terms = new String[weighted.size()];
+            final float[] frequencies = new float[weighted.size()];
+            int i = 0;
+            for (final Map.Entry<String, Double> entry : weighted.entrySet()) {
+                terms[i] = entry.getKey();
+                frequencies[i++] = entry.getValue().floatValue();
+            }
+            return new Analysis(terms, frequencies, length[0]);
+        }
+
+        private static void count(final Map<String, Double> weighted, final double[] length,
+                                  final String term, final double weight) {
+            weighted.merge(term, weight, Double::sum);
+            length[0] += weight;
+        }
+    }
+
+    /**
+     * Documents containing a term, in ascending order, with the term's weighted frequency.
+     */
+    private static final class Postings {
+
+        private final int[] docs;
+        private final float[] frequencies;
+
+        Postings(final int[] docs, final float[] frequencies) {
+            this.docs = docs;
+            this.frequencies = frequencies;
+        }
+    }
+
+    private static final class PostingsBuilder {
+
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(final int doc, final float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Typo-tolerant prefix index for autocompleting concept names.
+ *
+ * <p>Every concept contributes a few <em>keys</em>: its normalized name, its id, and its name
+ * starting at each significant word, so {@code "pol"} finds "Inheritance and Polymorphism".
+ * The keys are stored in a trie whose nodes are laid out breadth first in flat arrays, so a
+ * node's children are a contiguous block and the keys below a node are a contiguous range of
+ * the sorted key list.</p>
+ *
+ * <h3>Fuzzy Matching</h3>
+ * <p>A lookup walks the trie while computing one row of the edit-distance table per character
+ * (optimal string alignment: insertions, deletions, substitutions and swaps of neighboring
+ * characters). A branch is abandoned as soon as every entry of its row exceeds the allowed
+ * distance, so only the small part of the trie near the typed prefix is visited. The allowed
+ * distance grows with the prefix length: none below {@value #ONE_EDIT_LENGTH} characters, one
+ * edit below {@value #TWO_EDIT_LENGTH}, then two.</p>
+ *
+ * <h3>Ranking</h3>
+ * <p>Suggestions are ordered by edit distance, then by centrality (the number of links a
+ * concept takes part in), then by name. Central concepts are the ones students most often
+ * navigate to.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class SuggestIndex {
+
+    /** A concept that can be suggested. */
+    public static final class Entry {
+
+        private final String id;
+        private final String name;
+        private final int centrality;
+
+        /**
+         * Creates an entry.
+         *
+         * @param id the node id
+         * @param name the node name
+         * @param centrality the ranking weight, higher first
+         * @throws NullPointerException if id or name is null
+         */
+        public Entry(final String id, final String name, final int centrality) {
+            this.id = Objects.requireNonNull(id, "ID cannot be null");
+            this.name = Objects.requireNonNull(name, "Name cannot be null");
+            this.centrality = centrality;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCentrality() {
+            return centrality;
+        }
+    }
+
+    /** A suggested concept and the number of edits between the prefix and the concept. */
+    public static final class Suggestion {
+
+        private final Entry entry;
+        private final int distance;
+
+        Suggestion(final Entry entry, final int distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return "Suggestion{" + entry.getId() + ", distance=" + distance + '}';
+        }
+    }
+
+    static final int ONE_EDIT_LENGTH = 3;
+    static final int TWO_EDIT_LENGTH = 6;
+    // Prefixes are rarely typed past this, and it bounds the trie size
+    private static final int MAX_KEY_LENGTH = 32;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "as", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    private final Entry[] entries;
+    // Each entry's position when ordered by centrality, then name
+    private final int[] rankOf;
+    private final int[] keyEntries;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childEnd;
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+
+    private SuggestIndex(final List<Entry> entryList) {
+        this.entries = entryList.toArray(new Entry[0]);
+        final Integer[] byRank = new Integer[entries.length];
+        for (int i = 0; i < byRank.length; i++) {
+            byRank[i] = i;
+        }
+        Arrays.sort(byRank, (a, b) -> entries[a].centrality != entries[b].centrality
+                ? Integer.compare(entries[b].centrality, entries[a].centrality)
+                : entries[a].name.compareToIgnoreCase(entries[b].name));
+        this.rankOf = new int[entries.length];
+        for (int rank = 0; rank < byRank.length; rank++) {
+            rankOf[byRank[rank]] = rank;
+        }
+
+        final List<Key> keyList = new ArrayList<>();
+        for (int i = 0; i < entries.length; i++) {
+            for (final String key : keysOf(entries[i])) {
+                keyList.add(new Key(key, i));
+            }
+        }
+        keyList.sort(null);
+        final String[] keys = new String[keyList.size()];
+        this.keyEntries = new int[keyList.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyList.get(i).text;
+            keyEntries[i] = keyList.get(i).entry;
+        }
+
+        // Breadth-first construction: each node's children are appended as one block
+        final TrieBuilder trie = new TrieBuilder();
+        trie.add('\0', 0, 0, keys.length);
+        for (int node = 0; node < trie.size; node++) {
+            final int depth = trie.depths[node];
+            int j = trie.rangeStart[node];
+            final int end = trie.rangeEnd[node];
+            while (j < end && keys[j].length() == depth) {
+                j++;
+            }
+            trie.firstChild[node] = trie.size;
+            while (j < end) {
+                final char c = keys[j].charAt(depth);
+                int k = j + 1;
+                while (k < end && keys[k].charAt(depth) == c) {
+                    k++;
+                }
+                trie.add(c, depth + 1, j, k);
+                j = k;
+            }
+            trie.childEnd[node] = trie.size;
+        }
+        this.labels = Arrays.copyOf(trie.labels, trie.size);
+        this.firstChild = Arrays.copyOf(trie.firstChild, trie.size);
+        this.childEnd = Arrays.copyOf(trie.childEnd, trie.size);
+        this.rangeStart = Arrays.copyOf(trie.rangeStart, trie.size);
+        this.rangeEnd = Arrays.copyOf(trie.rangeEnd, trie.size);
+    }
+
+    /**
+     * Builds the index for a set of concepts.
+     *
+     * @param entries the concepts to suggest
+     * @return the new index
+     */
+    public static SuggestIndex build(final List<Entry> entries) {
+        Objects.requireNonNull(entries, "Entries cannot be null");
+        return new SuggestIndex(entries);
+    }
+
+    /**
+     * Normalizes text the way keys and prefixes are compared: lowercase terms separated by
+     * single spaces.
+     *
+     * @param text the text to normalize
+     * @return the normalized text, empty if it has no letters or digits
+     */
+    public static String normalize(final String text) {
+        return String.join(" ", Tokenizer.terms(text));
+    }
+
+    /**
+     * Returns the maximum number of edits tolerated for a normalized prefix.
+     *
+     * @param normalizedPrefix the prefix
+     * @return 0, 1 or 2
+     */
+    public static int maxEdits(final String normalizedPrefix) {
+        final int length = normalizedPrefix.length();
+        return length < ONE_EDIT_LENGTH ? 0 : length < TWO_EDIT_LENGTH ? 1 : 2;
+    }
+
+    public int entryCount() {
+        return entries.length;
+    }
+
+    public int trieNodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Suggests concepts whose keys start with the prefix, allowing for typos.
+     *
+     * @param prefix the typed text
+     * @param limit the maximum number of suggestions
+     * @return suggestions ordered by distance, centrality and name
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public List<Suggestion> suggest(final String prefix, final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        final String query = normalize(prefix);
+        if (query.isEmpty() || entries.length == 0) {
+            return List.of();
+        }
+        final int maxEdits = maxEdits(query);
+        final int[] bestDistance = new int[entries.length];
+        Arrays.fill(bestDistance, Integer.MAX_VALUE);
+        final Walk walk = new Walk(query, maxEdits, bestDistance);
+        final int[] firstRow = walk.rows[0];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        for (int child = firstChild[0]; child < childEnd[0]; child++) {
+            walk.visit(child, 1, '\0');
+        }
+
+        // Distance first, then rank: both fit in one sortable long per matched entry
+        final long[] order = new long[walk.matchedCount];
+        for (int i = 0; i < walk.matchedCount; i++) {
+            final int entry = walk.matched[i];
+            order[i] = ((long) bestDistance[entry] * entries.length + rankOf[entry]) * entries.length + entry;
+        }
+        Arrays.sort(order);
+        final List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && i < limit; i++) {
+            final int entry = (int) (order[i] % entries.length);
+            suggestions.add(new Suggestion(entries[entry], bestDistance[entry]));
+        }
+        return suggestions;
+    }
+
+    private static Set<String> keysOf(final Entry entry) {
+        final Set<String> keys = new LinkedHashSet<>();
+        addKey(keys, normalize(entry.id));
+        final List<String> words = Tokenizer.terms(entry.name);
+        for (int start = 0; start < words.size(); start++) {
+            if (start == 0 || !STOP_WORDS.contains(words.get(start))) {
+                addKey(keys, String.join(" ", words.subList(start, words.size())));
+            }
+        }
+        return keys;
+    }
+
+    private static void addKey(final Set<String> keys, final String key) {
+        if (!key.isEmpty()) {
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestIndex{entries=" + entries.length + ", keys=" + keyEntries.length + ", trieNodes=" + labels.length + '}';
+    }
+
+    /**
+     * State of one lookup: the edit-distance rows along the current trie path and the best
+     * distance found so far for every entry.
+     */
+    private final class Walk {
+
+        private final String query;
+        private final int maxEdits;
+        private final int[][] rows;
+        private final int[] bestDistance;
+        private final int[] matched;
+        private int matchedCount;
+
+        Walk(final String query, final int maxEdits, final int[] bestDistance) {
+            this.query = query;
+            this.maxEdits = maxEdits;
+            // Below this depth the first column alone exceeds maxEdits
+            this.rows = new int[query.length() + maxEdits + 2][query.length() + 1];
+            this.bestDistance = bestDistance;
+            this.matched = new int[bestDistance.length];
+        }
+
+        void visit(final int node, final int depth, final char parentLabel) {
+            final char label = labels[node];
+            final int[] previous = rows[depth - 1];
+            final int[] row = rows[depth];
+            final int length = query.length();
+            row[0] = depth;
+            int rowMin = row[0];
+            for (int j = 1; j <= length; j++) {
+                final char expected = query.charAt(j - 1);
+                int cost = Math.min(row[j - 1] + 1, previous[j] + 1);
+                cost = Math.min(cost, previous[j - 1] + (expected == label ? 0 : 1));
+                if (j > 1 && depth > 1 && expected == parentLabel && query.charAt(j - 2) == label) {
+                    cost = Math.min(cost, rows[depth - 2][j - 2] + 1);
+                }
+                row[j] = cost;
+                rowMin = Math.min(rowMin, cost);
+            }
+
+            final int distance = row[length];
+            if (distance <= maxEdits) {
+                collect(node, distance);
+            }
+            // Deeper nodes can only help if they could still lower the distance
+            if (rowMin <= maxEdits && rowMin < Math.min(distance, maxEdits + 1) && depth + 1 < rows.length) {
+                for (int child = firstChild[node]; child < childEnd[node]; child++) {
+                    visit(child, depth + 1, label);
+                }
+            }
+        }
+
+        private void collect(final int node, final int distance) {
+            for (int key = rangeStart[node]; key < rangeEnd[node]; key++) {
+                final int entry = keyEntries[key];
+                if (bestDistance[entry] == Integer.MAX_VALUE) {
+                    matched[matchedCount++] = entry;
+                }
+                if (distance < bestDistance[entry]) {
+                    bestDistance[entry] = distance;
+                }
+            }
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final String text;
+        private final int entry;
+
+        Key(final String text, final int entry) {
+            this.text = text;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(final Key other) {
+            final int byText = text.compareTo(other.text);
+            return byText != 0 ? byText : Integer.compare(entry, other.entry);
+        }
+    }
+
+    private static final class TrieBuilder {
+
+        private char[] labels = new char[64];
+        private int[] firstChild = new int[64];
+        private int[] childEnd = new int[64];
+        private int[] rangeStart = new int[64];
+        private int[] rangeEnd = new int[64];
+        private int[] depths = new int[64];
+        private int size;
+
+        void add(final char label, final int depth, final int start, final int end) {
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+                firstChild = Arrays.copyOf(firstChild, size * 2);
+                childEnd = Arrays.copyOf(childEnd, size * 2);
+                rangeStart = Arrays.copyOf(rangeStart, size * 2);
+                rangeEnd = Arrays.copyOf(rangeEnd, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            labels[size] = label;
+            depths[size] = depth;
+            rangeStart[size] = start;
+            rangeEnd[size] = end;
+            size++;
+        }
+    }
+}
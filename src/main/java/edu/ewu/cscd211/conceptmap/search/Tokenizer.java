@@ -0,0 +1,71 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into lowercase search terms.
+ *
+ * <p>A term is a maximal run of letters and digits, so {@code "ArrayList<T>"} yields
+ * {@code arraylist} and {@code t}, and {@code "O(n log n)"} yields {@code o}, {@code n},
+ * {@code log} and {@code n}. The same rules are applied to documents at index time and to
+ * queries at search time, which is what makes their terms comparable.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class Tokenizer {
+
+    /**
+     * Receives each term together with its character range in the source text.
+     */
+    @FunctionalInterface
+    public interface TermConsumer {
+        void accept(String term, int start, int end);
+    }
+
+    private Tokenizer() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Tokenizes text, reporting every term and where it occurs.
+     *
+     * @param text the text to split; null is treated as empty
+     * @param consumer receives the terms in order of appearance
+     */
+    public static void tokenize(final CharSequence text, final TermConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        final int length = text.length();
+        final StringBuilder term = new StringBuilder();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            final char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+                term.append(Character.toLowerCase(c));
+            } else if (start >= 0) {
+                consumer.accept(term.toString(), start, i);
+                term.setLength(0);
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the terms of a text in order of appearance, including repeats.
+     *
+     * @param text the text to split
+     * @return the list of terms
+     */
+    public static List<String> terms(final CharSequence text) {
+        final List<String> terms = new ArrayList<>();
+        tokenize(text, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+}
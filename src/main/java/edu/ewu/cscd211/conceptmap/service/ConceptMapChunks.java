@@ -0,0 +1,302 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The top-level layout of a concept map document, with its {@code nodes} and {@code links}
+ * arrays split into runs of whole elements that can be parsed independently.
+ *
+ * <p>The scan looks at bytes only: it follows strings and bracket depth, and cuts an array at
+ * the first element separator after every {@code chunkBytes}. It does not check the JSON;
+ * whoever parses the spans does. A document whose layout the scan cannot follow exactly, such
+ * as a root that is not an object, an escaped field name, a comment or a single-quoted string,
+ * has no chunks.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * ConceptMapChunks chunks = ConceptMapChunks.scan(bytes, 1 << 20);
+ * if (chunks != null) {
+ *     for (ConceptMapChunks.Span chunk : chunks.nodes()) {
+ *         // parse "[" + bytes[chunk.from(), chunk.to()) + "]"
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class ConceptMapChunks {
+
+    private static final byte[] METADATA_FIELD = "metadata".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NODES_FIELD = "nodes".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINKS_FIELD = "links".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * A range of bytes of the document.
+     *
+     * @param from the index of the first byte
+     * @param to the index after the last byte
+     */
+    record Span(int from, int to) {
+    }
+
+    private final List<Span> metadata = new ArrayList<>(1);
+    private final List<Span> otherValues = new ArrayList<>();
+    private final List<Span> nodes = new ArrayList<>();
+    private final List<Span> links = new ArrayList<>();
+
+    private final ByteBuffer json;
+    private final int limit;
+    private final int chunkBytes;
+    private int position;
+
+    private ConceptMapChunks(final ByteBuffer json, final int chunkBytes) {
+        this.json = json;
+        this.limit = json.limit();
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Scans a document.
+     *
+     * @param json the document, from index 0 to its limit
+     * @param chunkBytes the size from which an array is cut at its next element
+     * @return the layout, or null if the document cannot be split
+     */
+    static ConceptMapChunks scan(final ByteBuffer json, final int chunkBytes) {
+        final ConceptMapChunks chunks = new ConceptMapChunks(json, Math.max(1, chunkBytes));
+        return chunks.scanRoot() ? chunks : null;
+    }
+
+    /** The values of the {@code metadata} fields, in document order. */
+    List<Span> metadata() {
+        return metadata;
+    }
+
+    /** The values of all other top-level fields, including nodes and links that are not arrays. */
+    List<Span> otherValues() {
+        return otherValues;
+    }
+
+    /** Runs of whole node objects, without the brackets of their array. */
+    List<Span> nodes() {
+        return nodes;
+    }
+
+    /** Runs of whole link objects, without the brackets of their array. */
+    List<Span> links() {
+        return links;
+    }
+
+    private boolean scanRoot() {
+        if (skipWhitespace() != '{') {
+            return false;
+        }
+        position++;
+        if (skipWhitespace() == '}') {
+            return true;
+        }
+        while (true) {
+            if (skipWhitespace() != '"') {
+                return false;
+            }
+            final int nameStart = position + 1;
+            if (!skipString() || indexOf('\\', nameStart, position - 1) >= 0) {
+                return false;
+            }
+            final int nameEnd = position - 1;
+            if (skipWhitespace() != ':') {
+                return false;
+            }
+            position++;
+            final int valueStart = position;
+            final int first = skipWhitespace();
+            final boolean scanned;
+            if (first == '[' && named(nameStart, nameEnd, NODES_FIELD)) {
+                scanned = scanArray(nodes);
+            } else if (first == '[' && named(nameStart, nameEnd, LINKS_FIELD)) {
+                scanned = scanArray(links);
+            } else {
+                scanned = skipValue();
+                final Span value = new Span(valueStart, position);
+                (named(nameStart, nameEnd, METADATA_FIELD) ? metadata : otherValues).add(value);
+            }
+            if (!scanned) {
+                return false;
+            }
+            final int separator = skipWhitespace();
+            position++;
+            if (separator == '}') {
+                return true;
+            }
+            if (separator != ',') {
+                return false;
+            }
+        }
+    }
+
+    /** Splits the array at the position into chunks; leaves the position after its bracket. */
+    private boolean scanArray(final List<Span> chunks) {
+        position++;
+        if (skipWhitespace() == ']') {
+            position++;
+            return true;
+        }
+        int chunkStart = position;
+        int depth = 0;
+        // Whether the current chunk has anything but whitespace; an empty chunk would hide a
+        // stray comma from the parser
+        boolean content = false;
+        while (position < limit) {
+            final byte b = json.get(position);
+            switch (b) {
+                case '"' -> {
+                    if (!skipString()) {
+                        return false;
+                    }
+                    content = true;
+                    continue;
+                }
+                case '{', '[' -> depth++;
+                case '}' -> {
+                    if (--depth < 0) {
+                        return false;
+                    }
+                }
+                case ']' -> {
+                    if (depth-- == 0) {
+                        if (!content) {
+                            return false;
+                        }
+                        chunks.add(new Span(chunkStart, position));
+                        position++;
+                        return true;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 0 && position - chunkStart >= chunkBytes) {
+                        if (!content) {
+                            return false;
+                        }
+                        chunks.add(new Span(chunkStart, position));
+                        chunkStart = ++position;
+                        content = false;
+                        continue;
+                    }
+                }
+                case '/', '\'' -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+            if (!isWhitespace(b)) {
+                content = true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /** Moves the position past one value of any kind. */
+    private boolean skipValue() {
+        final int first = skipWhitespace();
+        if (first == '"') {
+            return skipString();
+        }
+        if (first != '{' && first != '[') {
+            // A scalar ends at the next separator; the parser checks what it is
+            while (position < limit) {
+                final byte b = json.get(position);
+                if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                    break;
+                }
+                if (b == '/' || b == '\'' || b == '"' || b == '{' || b == '[') {
+                    return false;
+                }
+                position++;
+            }
+            return true;
+        }
+        int depth = 0;
+        while (position < limit) {
+            final byte b = json.get(position);
+            switch (b) {
+                case '"' -> {
+                    if (!skipString()) {
+                        return false;
+                    }
+                    continue;
+                }
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    if (--depth == 0) {
+                        position++;
+                        return true;
+                    }
+                }
+                case '/', '\'' -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /** Moves the position from an opening quote past the closing one. */
+    private boolean skipString() {
+        position++;
+        while (position < limit) {
+            final byte b = json.get(position++);
+            if (b == '"') {
+                return true;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        return false;
+    }
+
+    /** Moves the position to the next non-whitespace byte and returns it, or -1 at the end. */
+    private int skipWhitespace() {
+        while (position < limit) {
+            final byte b = json.get(position);
+            if (!isWhitespace(b)) {
+                return b;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    private int indexOf(final char c, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (json.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean named(final int from, final int to, final byte[] name) {
+        if (to - from != name.length) {
+            return false;
+        }
+        final byte[] bytes = new byte[name.length];
+        json.get(from, bytes);
+        return Arrays.equals(bytes, name);
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -0,0 +1,355 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Hand-written JSON codecs for {@link Metadata}, {@link Node}, {@link Link} and the concept map
+ * document, so that the model is never read or written through reflective data binding.
+ *
+ * <p>Decoders take the typed fields of an object from the token stream by switching on the
+ * field name, and skip every other field without decoding it; {@link ConceptMapReader} frames
+ * them with the document layout, error locations and the capture of each object's bytes.
+ * Encoders write field names from pre-encoded {@link SerializedString}s, whose quoted UTF-8
+ * bytes are computed once, and values through the generator's typed writers.</p>
+ *
+ * <h3>Stored Objects</h3>
+ * <p>An element's {@link Attributes} hold its complete object, so an element is encoded as its
+ * stored fields, copied token by token, followed by those typed fields the stored object lacks.
+ * A node or link built in code has no stored fields and is written from its typed fields alone.
+ * Decoding an encoded element gives an equal element with the same typed fields.</p>
+ *
+ * <p>The decoders read exactly what {@link ConceptMapService#parseNode} and
+ * {@link ConceptMapService#parseLink} read from a tree: numbers as
+ * {@link Attributes#number(JsonParser)} does, a missing type as
+ * {@value #DEFAULT_RELATIONSHIP_TYPE}, and a missing or non-string id, name, source or target
+ * as an error.</p>
+ *
+ * <p>Codecs hold no state between elements; an {@link Encoder} belongs to one generator.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class ConceptMapCodec {
+
+    static final String DEFAULT_RELATIONSHIP_TYPE = "RELATED_TO";
+
+    static final SerializedString METADATA = new SerializedString("metadata");
+    static final SerializedString NODES = new SerializedString("nodes");
+    static final SerializedString LINKS = new SerializedString("links");
+    static final SerializedString VERSION = new SerializedString("version");
+    static final SerializedString DESCRIPTION = new SerializedString("description");
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString LEVEL = new SerializedString("level");
+    static final SerializedString SIZE = new SerializedString("size");
+    static final SerializedString GROUP = new SerializedString("group");
+    static final SerializedString SOURCE = new SerializedString("source");
+    static final SerializedString TARGET = new SerializedString("target");
+    static final SerializedString TYPE = new SerializedString("type");
+    static final SerializedString STRENGTH = new SerializedString("strength");
+
+    // Typed fields as bits, to note which of them an element's stored object has
+    private static final int ID_BIT = 1;
+    private static final int NAME_BIT = 1 << 1;
+    private static final int DESCRIPTION_BIT = 1 << 2;
+    private static final int LEVEL_BIT = 1 << 3;
+    private static final int SIZE_BIT = 1 << 4;
+    private static final int GROUP_BIT = 1 << 5;
+    private static final int SOURCE_BIT = 1 << 6;
+    private static final int TARGET_BIT = 1 << 7;
+    private static final int TYPE_BIT = 1 << 8;
+    private static final int STRENGTH_BIT = 1 << 9;
+
+    private ConceptMapCodec() {
+    }
+
+    /**
+     * Decodes a metadata object, leaving the parser on its last token.
+     *
+     * @param parser a parser on the value
+     * @return the metadata
+     * @throws IOException if the value cannot be read
+     * @throws IllegalArgumentException if the version or description is missing or not a string
+     */
+    static Metadata readMetadata(final JsonParser parser) throws IOException {
+        String version = null;
+        String description = null;
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "version" -> version = string(parser, value);
+                    case "description" -> description = string(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return new Metadata(required(version, VERSION), required(description, DESCRIPTION));
+    }
+
+    /**
+     * Decodes a node object, leaving the parser on its last token.
+     *
+     * @param parser a parser on the value
+     * @param symbols interns the id and group
+     * @param capture returns the stored object once the parser is on its last token
+     * @return the node
+     * @throws IOException if the value cannot be read
+     * @throws IllegalArgumentException if the id or name is missing or not a string
+     */
+    static Node readNode(final JsonParser parser, final SymbolTable symbols,
+                         final Function<JsonParser, Attributes> capture) throws IOException {
+        String id = null;
+        String name = null;
+        String description = "";
+        String group = null;
+        double level = Double.NaN;
+        double size = Double.NaN;
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = string(parser, value);
+                    case "name" -> name = string(parser, value);
+                    case "description" -> description = text(parser, value);
+                    case "group" -> group = value == JsonToken.VALUE_NULL ? null : scalar(parser, value);
+                    case "level" -> level = Attributes.number(parser);
+                    case "size" -> size = Attributes.number(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        final Attributes attributes = capture.apply(parser);
+        return new Node(symbols.canonical(required(id, ID)), required(name, NAME), description, level, size,
+                group == null ? null : symbols.canonical(group), attributes);
+    }
+
+    /**
+     * Decodes a link object, leaving the parser on its last token.
+     *
+     * @param parser a parser on the value
+     * @param symbols interns the endpoints and type
+     * @param capture returns the stored object once the parser is on its last token
+     * @return the link
+     * @throws IOException if the value cannot be read
+     * @throws IllegalArgumentException if the source or target is missing or not a string
+     */
+    static Link readLink(final JsonParser parser, final SymbolTable symbols,
+                         final Function<JsonParser, Attributes> capture) throws IOException {
+        String source = null;
+        String target = null;
+        String type = DEFAULT_RELATIONSHIP_TYPE;
+        double strength = Double.NaN;
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "source" -> source = string(parser, value);
+                    case "target" -> target = string(parser, value);
+                    case "type" -> type = text(parser, value);
+                    case "strength" -> strength = Attributes.number(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        final Attributes attributes = capture.apply(parser);
+        return new Link(symbols.canonical(required(source, SOURCE)), symbols.canonical(required(target, TARGET)),
+                symbols.canonical(type), strength, attributes);
+    }
+
+    /**
+     * Encodes a metadata object.
+     *
+     * @param generator receives the object
+     * @param metadata the metadata
+     * @throws IOException if the generator fails
+     */
+    static void writeMetadata(final JsonGenerator generator, final Metadata metadata) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(VERSION);
+        generator.writeString(metadata.getVersion());
+        if (metadata.getDescription() != null) {
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(metadata.getDescription());
+        }
+        generator.writeEndObject();
+    }
+
+    /** A required string field, null unless the value is a string. */
+    private static String string(final JsonParser parser, final JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /** The text of a scalar value, or "" for an array or object, as {@code JsonNode.asText()}. */
+    private static String text(final JsonParser parser, final JsonToken value) throws IOException {
+        final String text = scalar(parser, value);
+        return text == null ? "" : text;
+    }
+
+    private static String scalar(final JsonParser parser, final JsonToken value) throws IOException {
+        if (value.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static String required(final String value, final SerializedString field) {
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Required field '%s' is missing or not a string",
+                    field.getValue()));
+        }
+        return value;
+    }
+
+    /**
+     * Encodes nodes, links and whole documents on one generator: each element's stored fields,
+     * then the typed fields those lack.
+     */
+    static final class Encoder implements Attributes.FieldVisitor {
+
+        private final JsonGenerator generator;
+        // Typed fields found among the stored fields of the current element
+        private int stored;
+
+        Encoder(final JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        /**
+         * Encodes the concept map document layout, {@code {"metadata", "nodes", "links"}}.
+         *
+         * @param conceptMap the concept map
+         * @throws IOException if the generator fails
+         */
+        void writeConceptMap(final ConceptMap conceptMap) throws IOException {
+            writeConceptMap(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks());
+        }
+
+        /**
+         * Encodes the concept map document layout of a map given by its parts.
+         *
+         * @param metadata the map's metadata
+         * @param nodes the nodes, in order
+         * @param links the links, in order
+         * @throws IOException if the generator fails
+         */
+        void writeConceptMap(final Metadata metadata, final List<Node> nodes, final List<Link> links)
+                throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName(METADATA);
+            writeMetadata(generator, metadata);
+            generator.writeFieldName(NODES);
+            generator.writeStartArray();
+            for (final Node node : nodes) {
+                writeNode(node);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName(LINKS);
+            generator.writeStartArray();
+            for (final Link link : links) {
+                writeLink(link);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        void writeNode(final Node node) throws IOException {
+            generator.writeStartObject();
+            stored = 0;
+            node.getAttributes().forEachField(this);
+            if ((stored & ID_BIT) == 0) {
+                generator.writeFieldName(ID);
+                generator.writeString(node.getId());
+            }
+            if ((stored & NAME_BIT) == 0) {
+                generator.writeFieldName(NAME);
+                generator.writeString(node.getName());
+            }
+            if ((stored & DESCRIPTION_BIT) == 0 && !node.getDescription().isEmpty()) {
+                generator.writeFieldName(DESCRIPTION);
+                generator.writeString(node.getDescription());
+            }
+            writeNumber(LEVEL, LEVEL_BIT, node.getLevel());
+            writeNumber(SIZE, SIZE_BIT, node.getSize());
+            if ((stored & GROUP_BIT) == 0 && node.getGroup() != null && !node.getGroup().isEmpty()) {
+                generator.writeFieldName(GROUP);
+                generator.writeString(node.getGroup());
+            }
+            generator.writeEndObject();
+        }
+
+        void writeLink(final Link link) throws IOException {
+            generator.writeStartObject();
+            stored = 0;
+            link.getAttributes().forEachField(this);
+            if ((stored & SOURCE_BIT) == 0) {
+                generator.writeFieldName(SOURCE);
+                generator.writeString(link.getSourceId());
+            }
+            if ((stored & TARGET_BIT) == 0) {
+                generator.writeFieldName(TARGET);
+                generator.writeString(link.getTargetId());
+            }
+            if ((stored & TYPE_BIT) == 0) {
+                generator.writeFieldName(TYPE);
+                generator.writeString(link.getRelationshipType());
+            }
+            writeNumber(STRENGTH, STRENGTH_BIT, link.getStrength());
+            generator.writeEndObject();
+        }
+
+        private void writeNumber(final SerializedString name, final int bit, final double value) throws IOException {
+            if ((stored & bit) == 0 && !Double.isNaN(value)) {
+                generator.writeFieldName(name);
+                generator.writeNumber(value);
+            }
+        }
+
+        @Override
+        public void visit(final String name, final JsonParser value) throws IOException {
+            stored |= switch (name) {
+                case "id" -> ID_BIT;
+                case "name" -> NAME_BIT;
+                case "description" -> DESCRIPTION_BIT;
+                case "level" -> LEVEL_BIT;
+                case "size" -> SIZE_BIT;
+                case "group" -> GROUP_BIT;
+                case "source" -> SOURCE_BIT;
+                case "target" -> TARGET_BIT;
+                case "type" -> TYPE_BIT;
+                case "strength" -> STRENGTH_BIT;
+                default -> 0;
+            };
+            generator.writeFieldName(name);
+            generator.copyCurrentStructure(value);
+        }
+    }
+}
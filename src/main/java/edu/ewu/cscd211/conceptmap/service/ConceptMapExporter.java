@@ -0,0 +1,72 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a {@link ConceptMap} in one interchange format, such as GraphML or a CSV edge list.
+ *
+ * <p>Exporters write straight from the model to the stream, one node or link at a time, with a
+ * generator of their format; no document is assembled first, so memory stays the same however
+ * large the map is. The service ships exporters for the concept map JSON layout,
+ * newline-delimited JSON, GraphML, Graphviz DOT and CSV edge lists; further exporters declared
+ * as Spring beans are preferred to those.</p>
+ *
+ * <p>Exporters must be thread-safe; each call to {@link #write} writes one document.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see ConceptMapImporter
+ */
+public interface ConceptMapExporter {
+
+    /**
+     * Returns the name of the format, as accepted by
+     * {@link ConceptMapService#exportConceptMap(ConceptMap, String, OutputStream)}. It is also
+     * the file extension of exported documents.
+     *
+     * @return a short lower-case name such as {@code graphml}
+     */
+    String getFormat();
+
+    /**
+     * Returns the media type of exported documents.
+     *
+     * @return a {@code Content-Type} value such as {@code application/graphml+xml}
+     */
+    String getContentType();
+
+    /**
+     * Writes a concept map. The stream is flushed but not closed.
+     *
+     * @param conceptMap the concept map
+     * @param output receives the document
+     * @throws IOException if the stream cannot be written
+     */
+    void write(ConceptMap conceptMap, OutputStream output) throws IOException;
+
+    /**
+     * Writes a concept map given by its parts, the way a {@link DatasetGraph} holds them. A
+     * graph mapped from a file decodes each element as the list is read, so an exporter that
+     * walks the lists once never has the whole map in memory. The default builds the map and
+     * writes it with {@link #write(ConceptMap, OutputStream)}; the shipped exporters write
+     * straight from the lists.
+     *
+     * @param metadata the map's metadata
+     * @param nodes the nodes of a valid concept map, in order
+     * @param links the links of a valid concept map, in order
+     * @param output receives the document
+     * @throws IOException if the stream cannot be written
+     */
+    default void write(Metadata metadata, List<Node> nodes, List<Link> links, OutputStream output)
+            throws IOException {
+        write(ConceptMap.builder(metadata).addNodes(nodes).addLinks(links).build(), output);
+    }
+}
@@ -0,0 +1,147 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * The exporters {@link ConceptMapService} ships, and the two that write JSON.
+ *
+ * <p>Both JSON formats write elements with the {@link ConceptMapCodec.Encoder}: each element's
+ * stored {@link edu.ewu.cscd211.conceptmap.model.Attributes}, so the rich teaching fields of a
+ * dataset survive the round trip unchanged, followed by those typed fields of the
+ * {@link Node} or {@link Link} that the stored object lacks.</p>
+ */
+final class ConceptMapExporters {
+
+    static final String JSON_FORMAT = "json";
+    static final String NDJSON_FORMAT = "ndjson";
+
+    // Largest magnitude below which every integral double is printed without a fraction
+    private static final double MAX_PLAIN_INTEGER = 1e15;
+
+    private ConceptMapExporters() {
+    }
+
+    /**
+     * Returns the shipped exporters.
+     *
+     * @param factory creates the JSON generators, so the application's Jackson settings apply
+     * @return the JSON, NDJSON, GraphML, DOT and CSV exporters
+     */
+    static List<ConceptMapExporter> defaults(final JsonFactory factory) {
+        return List.of(new Json(factory), new Ndjson(factory), new GraphMlExporter(), new DotExporter(),
+                new CsvEdgeListExporter());
+    }
+
+    /**
+     * Formats a number for the text formats the way JavaScript prints it where that matters:
+     * integral values have no fraction.
+     *
+     * @param value a finite number
+     * @return its shortest decimal form
+     */
+    static String number(final double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_PLAIN_INTEGER) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static JsonGenerator createGenerator(final JsonFactory factory, final OutputStream output)
+            throws IOException {
+        final JsonGenerator generator = factory.createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /** Writes the concept map document layout. */
+    static final class Json implements ConceptMapExporter {
+
+        private final JsonFactory factory;
+
+        Json(final JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public String getFormat() {
+            return JSON_FORMAT;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/json";
+        }
+
+        @Override
+        public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+            write(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks(), output);
+        }
+
+        @Override
+        public void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                          final OutputStream output) throws IOException {
+            try (JsonGenerator generator = createGenerator(factory, output)) {
+                new ConceptMapCodec.Encoder(generator).writeConceptMap(metadata, nodes, links);
+            }
+        }
+    }
+
+    /**
+     * Writes newline-delimited JSON: a {@code {"metadata": ...}} record, then one record per
+     * node and one per link, as {@link ConceptMapReader#readRecords} reads them.
+     */
+    static final class Ndjson implements ConceptMapExporter {
+
+        private final JsonFactory factory;
+
+        Ndjson(final JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public String getFormat() {
+            return NDJSON_FORMAT;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/x-ndjson";
+        }
+
+        @Override
+        public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+            write(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks(), output);
+        }
+
+        @Override
+        public void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                          final OutputStream output) throws IOException {
+            try (JsonGenerator generator = createGenerator(factory, output)) {
+                generator.setRootValueSeparator(null);
+                final ConceptMapCodec.Encoder elements = new ConceptMapCodec.Encoder(generator);
+                generator.writeStartObject();
+                generator.writeFieldName(ConceptMapCodec.METADATA);
+                ConceptMapCodec.writeMetadata(generator, metadata);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                for (final Node node : nodes) {
+                    elements.writeNode(node);
+                    generator.writeRaw('\n');
+                }
+                for (final Link link : links) {
+                    elements.writeLink(link);
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads one interchange format, such as GraphML or a CSV edge list, into a {@link ConceptMap}.
+ *
+ * <p>{@link ConceptMapService#importConceptMap(InputStream)} offers the first bytes of a
+ * document to every importer in turn and lets the first that {@linkplain #detects detects} its
+ * format read it. Importers read their input record by record into a
+ * {@link ConceptMap.Builder}, so that memory holds the map being built and not the document.
+ * The service ships importers for the concept map JSON layout, newline-delimited JSON, GraphML
+ * and CSV edge lists; further importers declared as Spring beans are consulted before those.</p>
+ *
+ * <h3>Errors</h3>
+ * <p>Input that is not well-formed in its format fails with an {@link IOException} naming the
+ * line. Records that are well-formed but invalid, such as a link to an unknown node, are
+ * collected into one {@link edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException}
+ * whose messages name their lines.</p>
+ *
+ * <p>Importers must be thread-safe; each call to {@link #read} reads one document.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public interface ConceptMapImporter {
+
+    /**
+     * Returns the name of the format, as accepted by
+     * {@link ConceptMapService#importConceptMap(InputStream, String)}.
+     *
+     * @return a short lower-case name such as {@code graphml}
+     */
+    String getFormat();
+
+    /**
+     * Checks whether a document looks like this format.
+     *
+     * @param head the first bytes of the document
+     * @param length the number of valid bytes in head; less than its length only if the
+     *        document is that short
+     * @return true if this importer should read the document
+     */
+    boolean detects(byte[] head, int length);
+
+    /**
+     * Reads a document. The stream is not closed.
+     *
+     * @param input the document
+     * @return the concept map, not frozen
+     * @throws IOException if the stream cannot be read or the document is malformed
+     * @throws IllegalArgumentException if the document is not a valid concept map
+     */
+    ConceptMap read(InputStream input) throws IOException;
+}
@@ -0,0 +1,142 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * The importers {@link ConceptMapService} ships, and the two that read JSON with
+ * {@link ConceptMapReader}.
+ *
+ * <p>Both JSON formats start with an object, so they are told apart by what follows it: a
+ * concept map document is one object, usually with {@code nodes} and {@code links} arrays,
+ * while newline-delimited JSON is a run of objects. A head that ends inside its first object is
+ * taken for a document.</p>
+ */
+final class ConceptMapImporters {
+
+    /** Bytes of a document offered to {@link ConceptMapImporter#detects}. */
+    static final int HEAD_BYTES = 64 * 1024;
+
+    static final String JSON_FORMAT = "json";
+    static final String NDJSON_FORMAT = "ndjson";
+
+    private ConceptMapImporters() {
+    }
+
+    /**
+     * Returns the shipped importers in the order they are asked to detect a format.
+     *
+     * @param factory creates the JSON parsers, so the application's Jackson settings apply
+     * @return the JSON, NDJSON, GraphML and CSV importers
+     */
+    static List<ConceptMapImporter> defaults(final JsonFactory factory) {
+        return List.of(new Json(factory), new Ndjson(factory), new GraphMlImporter(), new CsvEdgeListImporter());
+    }
+
+    /** Checks whether the head starts with an object, after a byte order mark and whitespace. */
+    private static boolean startsWithObject(final byte[] head, final int length) {
+        int i = contentStart(head, length);
+        while (i < length && isWhitespace(head[i])) {
+            i++;
+        }
+        return i < length && head[i] == '{';
+    }
+
+    /**
+     * Checks whether the head holds a whole object followed by another value, or a whole object
+     * without any of the document's top-level fields.
+     */
+    private static boolean isRecordStream(final JsonFactory factory, final byte[] head, final int length) {
+        final int start = contentStart(head, length);
+        boolean documentField = false;
+        int end;
+        try (JsonParser parser = factory.createParser(head, start, length - start)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                documentField |= "metadata".equals(field) || "nodes".equals(field) || "links".equals(field);
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            end = start + Math.toIntExact(parser.currentTokenLocation().getByteOffset()) + 1;
+        } catch (IOException e) {
+            // The head ends inside the first object, or the object is malformed and the
+            // document reader reports where
+            return false;
+        }
+        for (int i = end; i < length; i++) {
+            if (!isWhitespace(head[i])) {
+                return true;
+            }
+        }
+        return !documentField;
+    }
+
+    /** Skips a UTF-8 byte order mark. */
+    private static int contentStart(final byte[] head, final int length) {
+        return length >= 3 && head[0] == (byte) 0xEF && head[1] == (byte) 0xBB && head[2] == (byte) 0xBF ? 3 : 0;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /** Reads the concept map document layout. */
+    static final class Json implements ConceptMapImporter {
+
+        private final JsonFactory factory;
+
+        Json(final JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public String getFormat() {
+            return JSON_FORMAT;
+        }
+
+        @Override
+        public boolean detects(final byte[] head, final int length) {
+            return startsWithObject(head, length) && !isRecordStream(factory, head, length);
+        }
+
+        @Override
+        public ConceptMap read(final InputStream input) throws IOException {
+            return new ConceptMapReader(factory, new SymbolTable()).read(input);
+        }
+    }
+
+    /** Reads newline-delimited JSON, one node, link or metadata record per object. */
+    static final class Ndjson implements ConceptMapImporter {
+
+        private final JsonFactory factory;
+
+        Ndjson(final JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public String getFormat() {
+            return NDJSON_FORMAT;
+        }
+
+        @Override
+        public boolean detects(final byte[] head, final int length) {
+            return startsWithObject(head, length);
+        }
+
+        @Override
+        public ConceptMap read(final InputStream input) throws IOException {
+            return new ConceptMapReader(factory, new SymbolTable())
+                    .readRecords(input, new Metadata("1.0", "Imported from NDJSON"));
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Token-streaming reader that builds a {@link ConceptMap} straight from the bytes of a concept
+ * map document, without a JSON tree or a String copy of the document.
+ *
+ * <p>The typed fields of every node and link are read from the token stream as it passes, by
+ * the decoders of {@link ConceptMapCodec}; every other field is skipped. The element's complete
+ * object becomes its {@link Attributes}:</p>
+ * <ul>
+ *   <li><strong>Buffer sources</strong>, a mapped file or a snapshot's bytes, are sliced: the
+ *       attributes are a region of the source, so rich fields never reach the heap.</li>
+ *   <li><strong>Stream sources</strong> are copied element by element into minified arrays.</li>
+ * </ul>
+ *
+ * <p>Node and link fields are read exactly as {@link ConceptMapService#parseNode} and
+ * {@link ConceptMapService#parseLink} read them from a tree. Every error names the line and
+ * column of the offending object: malformed JSON fails with Jackson's own location, invalid
+ * elements are collected into one {@link ConceptMapValidationException} whose messages end with
+ * theirs.</p>
+ *
+ * <h3>Parallel Ingest</h3>
+ * <p>A buffer source can also be read on a {@link ForkJoinPool}. {@link ConceptMapChunks} cuts
+ * the {@code nodes} and {@code links} arrays into runs of whole elements, every run is parsed
+ * by its own task, and the results are added to the {@link ConceptMap.Builder} in document
+ * order, so the map equals the one read sequentially. Only valid documents take this path: on
+ * any error the document is read again sequentially, which reports the error as usual.</p>
+ *
+ * <h3>Record Streams</h3>
+ * <p>{@link #readRecords} reads newline-delimited JSON instead: a sequence of objects, each of
+ * them one node, one link or the metadata. Records are copied like the elements of any other
+ * stream, so memory holds the map and one record at a time.</p>
+ *
+ * <p>A reader is used for one document and is not thread-safe.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class ConceptMapReader {
+
+    private static final String METADATA_FIELD = "metadata";
+    private static final String NODES_FIELD = "nodes";
+    private static final String LINKS_FIELD = "links";
+    private static final String SOURCE_FIELD = "source";
+    private static final String TARGET_FIELD = "target";
+    private static final String ID_FIELD = "id";
+    private static final int BYTE_ORDER_MARK_LENGTH = 3;
+    // Parallel ingest cuts every array into about this many chunks per worker, at least this big
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+
+    private final JsonFactory factory;
+    private final SymbolTable symbols;
+
+    private ByteBuffer source;
+    // Whether attributes of a buffer source are copied out of it rather than sliced
+    private boolean copyAttributes;
+    // Added to the parser's byte offsets to index the source
+    private int offset;
+    private ByteArrayBuilder copyBuffer;
+    // The value last copied from a stream source
+    private byte[] copy;
+    private String metadataJson;
+    private final Elements<Node> nodes = new Elements<>();
+    private final Elements<Link> links = new Elements<>();
+
+    /**
+     * Creates a reader.
+     *
+     * @param factory creates the parser, so the application's Jackson settings apply
+     * @param symbols interns node ids, groups and relationship types
+     */
+    ConceptMapReader(final JsonFactory factory, final SymbolTable symbols) {
+        this.factory = factory;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Makes this reader copy the node and link objects of a buffer source onto the heap instead
+     * of keeping regions of the buffer, so the maps it returns do not hold on to the buffer.
+     *
+     * @return this reader
+     */
+    ConceptMapReader copyingAttributes() {
+        this.copyAttributes = true;
+        return this;
+    }
+
+    /**
+     * Reads a document held in the remaining bytes of a buffer. Unless the reader is
+     * {@linkplain #copyingAttributes() copying attributes}, they keep referring to the buffer,
+     * whose content must therefore not change.
+     *
+     * @param json the UTF-8 document
+     * @return the concept map
+     * @throws IOException if the document is not well-formed JSON
+     * @throws IllegalArgumentException if it is not a valid concept map
+     */
+    ConceptMap read(final ByteBuffer json) throws IOException {
+        useSource(json);
+        try (JsonParser parser = createParser(source)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a document held in the remaining bytes of a buffer, parsing its nodes and links in
+     * parallel. The result is the one {@link #read(ByteBuffer)} returns.
+     *
+     * @param json the UTF-8 document
+     * @param pool runs the chunk parsers
+     * @return the concept map
+     * @throws IOException if the document is not well-formed JSON
+     * @throws IllegalArgumentException if it is not a valid concept map
+     */
+    ConceptMap read(final ByteBuffer json, final ForkJoinPool pool) throws IOException {
+        final long chunkBytes = (long) json.remaining() / ((long) pool.getParallelism() * CHUNKS_PER_WORKER);
+        return read(json, pool, (int) Math.max(MIN_CHUNK_BYTES, chunkBytes));
+    }
+
+    /** Reads in parallel with chunks of the given size; visible for tests. */
+    ConceptMap read(final ByteBuffer json, final ForkJoinPool pool, final int chunkBytes) throws IOException {
+        useSource(json);
+        // Duplicate fields would be reported by the parser, which never sees the whole document
+        final ConceptMapChunks chunks = factory.isEnabled(JsonParser.Feature.STRICT_DUPLICATE_DETECTION)
+                ? null : ConceptMapChunks.scan(source, chunkBytes);
+        if (chunks != null) {
+            try {
+                return readChunks(chunks, pool);
+            } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+                // Read again below, which fails with the located error of a sequential read
+            }
+        }
+        final ConceptMapReader sequential = new ConceptMapReader(factory, symbols);
+        sequential.copyAttributes = copyAttributes;
+        final ConceptMap conceptMap = sequential.read(json);
+        this.metadataJson = sequential.metadataJson;
+        return conceptMap;
+    }
+
+    /**
+     * Reads a document from a stream, copying each node and link object. The stream is not
+     * closed.
+     *
+     * @param json the UTF-8 document
+     * @return the concept map
+     * @throws IOException if the stream cannot be read or is not well-formed JSON
+     * @throws IllegalArgumentException if it is not a valid concept map
+     */
+    ConceptMap read(final InputStream json) throws IOException {
+        this.copyBuffer = new ByteArrayBuilder();
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a stream of records, one JSON object each, usually one per line. The first field
+     * tells them apart: {@code metadata} starts the map's metadata, {@code source} or
+     * {@code target} a link and {@code id} a node. A record that starts with another field is
+     * metadata if it has a {@code metadata} field, a link if it has a {@code source} field and a
+     * node otherwise. The fields of each are those of the document layout. The stream is not
+     * closed.
+     *
+     * @param json the UTF-8 records
+     * @param defaultMetadata the metadata if no record gives it
+     * @return the concept map
+     * @throws IOException if the stream cannot be read or a record is not well-formed JSON
+     * @throws IllegalArgumentException if a record is not an object or the records do not form a
+     *         valid concept map
+     */
+    ConceptMap readRecords(final InputStream json, final Metadata defaultMetadata) throws IOException {
+        this.copyBuffer = new ByteArrayBuilder();
+        Metadata metadata = defaultMetadata;
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                final JsonLocation start = parser.currentTokenLocation();
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Every record must be a JSON object" + at(start));
+                }
+                final String kind = copyRecord(parser);
+                try (JsonParser record = factory.createParser(copy)) {
+                    record.nextToken();
+                    if (METADATA_FIELD.equals(kind)) {
+                        while (record.nextToken() == JsonToken.FIELD_NAME && !METADATA_FIELD.equals(record.currentName())) {
+                            record.nextToken();
+                            record.skipChildren();
+                        }
+                        record.nextToken();
+                        try {
+                            metadata = readValue(record, this::readMetadata);
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException(e.getMessage() + at(start), e);
+                        }
+                    } else if (LINKS_FIELD.equals(kind)) {
+                        links.add(start, record, this::readLink);
+                    } else {
+                        nodes.add(start, record, this::readNode);
+                    }
+                }
+            }
+        }
+        return build(metadata);
+    }
+
+    /**
+     * Copies the record at the parser's current token into {@link #copy}, minified, and names
+     * its section from the first field seen on the way. Only a record whose first field does
+     * not tell is parsed again, by {@link #recordKind()}.
+     */
+    private String copyRecord(final JsonParser parser) throws IOException {
+        copyBuffer.reset();
+        String first = null;
+        try (JsonGenerator generator = factory.createGenerator(copyBuffer)) {
+            generator.writeStartObject();
+            for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                if (first == null) {
+                    first = parser.currentName();
+                }
+                generator.copyCurrentStructure(parser);
+            }
+            generator.writeEndObject();
+        }
+        this.copy = copyBuffer.toByteArray();
+        if (METADATA_FIELD.equals(first)) {
+            return METADATA_FIELD;
+        }
+        if (SOURCE_FIELD.equals(first) || TARGET_FIELD.equals(first)) {
+            return LINKS_FIELD;
+        }
+        return first == null || ID_FIELD.equals(first) ? NODES_FIELD : recordKind();
+    }
+
+    /** Names the section of the record last copied, by the first field that tells it apart. */
+    private String recordKind() throws IOException {
+        String kind = NODES_FIELD;
+        try (JsonParser record = factory.createParser(copy)) {
+            record.nextToken();
+            while (record.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = record.currentName();
+                if (METADATA_FIELD.equals(field)) {
+                    return METADATA_FIELD;
+                }
+                if (SOURCE_FIELD.equals(field)) {
+                    kind = LINKS_FIELD;
+                }
+                record.nextToken();
+                record.skipChildren();
+            }
+        }
+        return kind;
+    }
+
+    /**
+     * Returns the metadata object of the document last read.
+     *
+     * @return the metadata object as it appears in the source
+     */
+    String getMetadataJson() {
+        return metadataJson;
+    }
+
+    private void useSource(final ByteBuffer json) {
+        this.source = json.slice();
+        // Byte offsets are counted after a byte order mark, so the source starts there too
+        if (source.remaining() >= BYTE_ORDER_MARK_LENGTH && source.get(0) == (byte) 0xEF
+                && source.get(1) == (byte) 0xBB && source.get(2) == (byte) 0xBF) {
+            this.source = source.slice(BYTE_ORDER_MARK_LENGTH, source.remaining() - BYTE_ORDER_MARK_LENGTH);
+        }
+    }
+
+    private JsonParser createParser(final ByteBuffer bytes) throws IOException {
+        return bytes.hasArray()
+                ? factory.createParser(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining())
+                : factory.createParser(new ByteBufferBackedInputStream(bytes.duplicate()));
+    }
+
+    private ConceptMap readChunks(final ConceptMapChunks chunks, final ForkJoinPool pool) throws IOException {
+        final List<ForkJoinTask<List<Node>>> nodeTasks = new ArrayList<>(chunks.nodes().size());
+        final List<ForkJoinTask<List<Link>>> linkTasks = new ArrayList<>(chunks.links().size());
+        try {
+            for (final ConceptMapChunks.Span chunk : chunks.nodes()) {
+                nodeTasks.add(pool.submit(() -> readChunk(chunk, reader -> reader::readNode)));
+            }
+            for (final ConceptMapChunks.Span chunk : chunks.links()) {
+                linkTasks.add(pool.submit(() -> readChunk(chunk, reader -> reader::readLink)));
+            }
+
+            // The other top-level values are checked while the chunks are parsed
+            Metadata metadata = null;
+            for (final ConceptMapChunks.Span value : chunks.metadata()) {
+                metadata = readSpan(value, this::readMetadata);
+            }
+            for (final ConceptMapChunks.Span value : chunks.otherValues()) {
+                readSpan(value, parser -> parser.skipChildren());
+            }
+            if (metadata == null) {
+                throw new IllegalArgumentException("JSON must contain metadata section");
+            }
+
+            final ConceptMap.Builder builder = ConceptMap.builder(metadata);
+            for (final ForkJoinTask<List<Node>> task : nodeTasks) {
+                builder.addNodes(task.join());
+            }
+            for (final ForkJoinTask<List<Link>> task : linkTasks) {
+                builder.addLinks(task.join());
+            }
+            return builder.build();
+        } catch (IOException | RuntimeException e) {
+            nodeTasks.forEach(task -> task.cancel(false));
+            linkTasks.forEach(task -> task.cancel(false));
+            throw e;
+        }
+    }
+
+    /** Reads one top-level value, which must be the only content of its span. */
+    private <E> E readSpan(final ConceptMapChunks.Span span, final ValueReader<E> reader) throws IOException {
+        this.offset = span.from();
+        try (JsonParser parser = createParser(source.slice(span.from(), span.to() - span.from()))) {
+            if (parser.nextToken() == null) {
+                throw new IllegalArgumentException("Missing value");
+            }
+            final E value = reader.read(parser);
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after value");
+            }
+            return value;
+        } finally {
+            this.offset = 0;
+        }
+    }
+
+    /** Parses a run of elements on a pool thread with a reader of its own. */
+    private <E> List<E> readChunk(final ConceptMapChunks.Span chunk,
+                                  final Function<ConceptMapReader, ValueReader<E>> element) {
+        final ConceptMapReader reader = new ConceptMapReader(factory, symbols);
+        reader.source = source;
+        reader.copyAttributes = copyAttributes;
+        // The run is parsed as an array, one bracket ahead of its place in the source
+        reader.offset = chunk.from() - ARRAY_START.length;
+        final InputStream run = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(ARRAY_START),
+                new ByteBufferBackedInputStream(source.slice(chunk.from(), chunk.to() - chunk.from())),
+                new ByteArrayInputStream(ARRAY_END))));
+        try (JsonParser parser = factory.createParser(run)) {
+            final ValueReader<E> elementReader = element.apply(reader);
+            final List<E> elements = new ArrayList<>();
+            parser.nextToken();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Chunk ends inside its array");
+                }
+                elements.add(elementReader.read(parser));
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Chunk closes its array early");
+            }
+            return elements;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ConceptMap read(final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("JSON must be an object containing a metadata section"
+                    + at(parser.currentTokenLocation()));
+        }
+        Metadata metadata = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            final JsonToken value = parser.nextToken();
+            if (METADATA_FIELD.equals(field)) {
+                final JsonLocation start = parser.currentTokenLocation();
+                try {
+                    metadata = readValue(parser, this::readMetadata);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(e.getMessage() + at(start), e);
+                }
+            } else if (NODES_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    nodes.add(parser, this::readNode);
+                }
+            } else if (LINKS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    links.add(parser, this::readLink);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (metadata == null) {
+            throw new IllegalArgumentException("JSON must contain metadata section");
+        }
+        return build(metadata);
+    }
+
+    /** Builds the map from the elements read, naming the line and column of every problem. */
+    private ConceptMap build(final Metadata metadata) {
+        final ConceptMap.Builder builder = ConceptMap.builder(metadata);
+        nodes.addTo(builder::addNode, builder::addNode);
+        links.addTo(builder::addLink, builder::addLink);
+        try {
+            return builder.build();
+        } catch (ConceptMapValidationException e) {
+            final List<ConceptMapValidationException.Problem> located = new ArrayList<>(e.getProblems().size());
+            for (final ConceptMapValidationException.Problem problem : e.getProblems()) {
+                final Elements<?> section = problem.getSection().equals(ConceptMapValidationException.Problem.NODES)
+                        ? nodes : links;
+                located.add(new ConceptMapValidationException.Problem(problem.getSection(), problem.getIndex(),
+                        problem.getMessage() + section.at(problem.getIndex())));
+            }
+            throw new ConceptMapValidationException(located);
+        }
+    }
+
+    /**
+     * Reads the value at the parser's current token. Values of a stream source are read from a
+     * minified {@link #copy}, which {@link #capture} then keeps.
+     */
+    private <E> E readValue(final JsonParser parser, final ValueReader<E> reader) throws IOException {
+        if (copyBuffer == null) {
+            return reader.read(parser);
+        }
+        copyValue(parser);
+        try (JsonParser copyParser = factory.createParser(copy)) {
+            copyParser.nextToken();
+            return reader.read(copyParser);
+        }
+    }
+
+    /** Copies the value at the parser's current token into {@link #copy}, minified. */
+    private void copyValue(final JsonParser parser) throws IOException {
+        copyBuffer.reset();
+        try (JsonGenerator generator = factory.createGenerator(copyBuffer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        this.copy = copyBuffer.toByteArray();
+    }
+
+    private Metadata readMetadata(final JsonParser parser) throws IOException {
+        final JsonLocation start = parser.currentTokenLocation();
+        final Metadata metadata = ConceptMapCodec.readMetadata(parser);
+        metadataJson = capture(parser, start).toJson();
+        return metadata;
+    }
+
+    private Node readNode(final JsonParser parser) throws IOException {
+        final JsonLocation start = parser.currentTokenLocation();
+        return ConceptMapCodec.readNode(parser, symbols, end -> capture(end, start));
+    }
+
+    private Link readLink(final JsonParser parser) throws IOException {
+        final JsonLocation start = parser.currentTokenLocation();
+        return ConceptMapCodec.readLink(parser, symbols, end -> capture(end, start));
+    }
+
+    /**
+     * Returns the object that ends at the parser's current token. Buffer sources are sliced, or
+     * copied if the reader copies attributes; stream sources were copied before the object was
+     * read.
+     */
+    private Attributes capture(final JsonParser parser, final JsonLocation start) {
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            return Attributes.EMPTY;
+        }
+        if (source != null) {
+            final int from = Math.toIntExact(start.getByteOffset()) + offset;
+            final int to = Math.toIntExact(parser.currentTokenLocation().getByteOffset()) + offset + 1;
+            final ByteBuffer object = source.slice(from, to - from);
+            if (copyAttributes) {
+                final byte[] bytes = new byte[object.remaining()];
+                object.get(bytes);
+                return Attributes.ofJson(ByteBuffer.wrap(bytes));
+            }
+            return Attributes.ofJson(object);
+        }
+        return Attributes.ofJson(ByteBuffer.wrap(copy));
+    }
+
+    private static String at(final JsonLocation location) {
+        return at(location.getLineNr(), location.getColumnNr());
+    }
+
+    private static String at(final int line, final int column) {
+        return " (line " + line + ", column " + column + ")";
+    }
+
+    /** Reads one value at the parser's current token, leaving the parser on its last token. */
+    @FunctionalInterface
+    private interface ValueReader<E> {
+        E read(JsonParser parser) throws IOException;
+    }
+
+    /** The elements of one section in document order, with the position of each in the source. */
+    private final class Elements<E> {
+
+        private final List<E> elements = new ArrayList<>();
+        // Line in the high half, column in the low half
+        private long[] locations = new long[16];
+        // Elements that could not be created; usually none
+        private final Map<Integer, IllegalArgumentException> failures = new HashMap<>();
+
+        void add(final JsonParser parser, final ValueReader<E> reader) throws IOException {
+            add(parser.currentTokenLocation(), parser, value -> readValue(value, reader));
+        }
+
+        /** Adds the element at the parser's current token, which starts at the given location. */
+        void add(final JsonLocation start, final JsonParser parser, final ValueReader<E> reader) throws IOException {
+            final int position = elements.size();
+            if (position == locations.length) {
+                locations = Arrays.copyOf(locations, position * 2);
+            }
+            locations[position] = (long) start.getLineNr() << 32 | (start.getColumnNr() & 0xFFFFFFFFL);
+            try {
+                elements.add(reader.read(parser));
+            } catch (IllegalArgumentException e) {
+                failures.put(position, e);
+                elements.add(null);
+            }
+        }
+
+        void addTo(final Consumer<E> valid, final Consumer<Supplier<E>> invalid) {
+            for (int i = 0; i < elements.size(); i++) {
+                final IllegalArgumentException failure = failures.get(i);
+                if (failure == null) {
+                    valid.accept(elements.get(i));
+                } else {
+                    // Reported by the builder with the element's position, like any other problem
+                    invalid.accept(() -> {
+                        throw failure;
+                    });
+                }
+            }
+        }
+
+        String at(final int position) {
+            final long location = locations[position];
+            return ConceptMapReader.at((int) (location >>> 32), (int) location);
+        }
+    }
+}
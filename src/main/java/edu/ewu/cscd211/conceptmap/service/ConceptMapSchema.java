@@ -0,0 +1,580 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A JSON Schema for concept map documents, compiled into rules that check a document token by
+ * token while it streams past, so no tree is built and the document is traversed only once.
+ *
+ * <p>The schema itself is {@code concept-map.schema.json} on the classpath, compiled the first
+ * time {@link #conceptMap()} is called. The compiler understands the part of JSON Schema that
+ * the format needs and rejects any other keyword, so a schema never claims a check that is not
+ * made:</p>
+ * <ul>
+ *   <li>{@code type}, {@code required}, {@code properties} and {@code items}</li>
+ *   <li>{@code pattern} and {@code minLength} for strings</li>
+ *   <li>{@code minimum}, {@code maximum}, {@code exclusiveMinimum} and {@code exclusiveMaximum}
+ *       for numbers</li>
+ *   <li>{@code $ref} to an entry of the root's {@code $defs}</li>
+ *   <li>{@code x-count-of}, naming a top-level array whose length an integer must equal, such
+ *       as {@code metadata.total_nodes}</li>
+ * </ul>
+ * <p>{@code $schema}, {@code $id}, {@code $comment}, {@code title} and {@code description} are
+ * annotations and are ignored.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * ConceptMapSchema.Validation validation = ConceptMapSchema.conceptMap().newValidation();
+ * for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+ *     validation.accept(parser, token);
+ * }
+ * validation.finish(); // throws ConceptMapValidationException listing every problem
+ * }</pre>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>A compiled schema is immutable and shared; each document gets its own
+ * {@link Validation}.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class ConceptMapSchema {
+
+    /** Classpath location of the concept map schema. */
+    static final String RESOURCE = "concept-map.schema.json";
+
+    /** Problems recorded per document; a document this broken is not worth listing further. */
+    static final int MAX_PROBLEMS = 100;
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int NUMBER = 1 << 3;
+    private static final int INTEGER = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+    private static final int NULL = 1 << 6;
+    private static final Map<String, Integer> TYPES = Map.of("object", OBJECT, "array", ARRAY, "string", STRING,
+            "number", NUMBER, "integer", INTEGER, "boolean", BOOLEAN, "null", NULL);
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "$comment", "title", "description");
+    private static final String DEFS = "$defs";
+    private static final String REF_PREFIX = "#/" + DEFS + "/";
+
+    private final Rule root;
+
+    private ConceptMapSchema(final Rule root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the concept map schema, compiling it on first use.
+     *
+     * @return the shared compiled schema
+     * @throws IllegalStateException if the schema resource is missing or invalid
+     */
+    static ConceptMapSchema conceptMap() {
+        return ConceptMapHolder.SCHEMA;
+    }
+
+    /**
+     * Compiles a schema document.
+     *
+     * @param schema the schema, whose root must describe an object
+     * @return the compiled schema
+     * @throws IllegalArgumentException if the schema uses a keyword or form this compiler does not support
+     */
+    static ConceptMapSchema compile(final JsonNode schema) {
+        final Rule root = new Compiler(schema).compile(schema, "#");
+        if (root.types != OBJECT) {
+            throw new IllegalArgumentException("Schema root must have type object");
+        }
+        return new ConceptMapSchema(root);
+    }
+
+    /**
+     * Starts checking a document.
+     *
+     * @return a validation to feed the document's tokens to
+     */
+    Validation newValidation() {
+        return new Validation();
+    }
+
+    /** Compiles the classpath schema when {@link #conceptMap()} is first called. */
+    private static final class ConceptMapHolder {
+
+        static final ConceptMapSchema SCHEMA = load();
+
+        private static ConceptMapSchema load() {
+            try (InputStream in = ConceptMapSchema.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Schema resource not found: " + RESOURCE);
+                }
+                return compile(new ObjectMapper().readTree(in));
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalStateException("Cannot compile " + RESOURCE, e);
+            }
+        }
+    }
+
+    /** The checks that apply to one value. */
+    private static final class Rule {
+
+        // Bit set of allowed types; 0 allows any
+        int types;
+        Map<String, Rule> properties = Map.of();
+        String[] required = new String[0];
+        Rule items;
+        Pattern pattern;
+        int minLength = -1;
+        double minimum = Double.NaN;
+        double maximum = Double.NaN;
+        double exclusiveMinimum = Double.NaN;
+        double exclusiveMaximum = Double.NaN;
+        String countOf;
+
+        boolean checksStrings() {
+            return pattern != null || minLength >= 0;
+        }
+
+        boolean checksNumbers() {
+            return !Double.isNaN(minimum) || !Double.isNaN(maximum)
+                    || !Double.isNaN(exclusiveMinimum) || !Double.isNaN(exclusiveMaximum) || countOf != null;
+        }
+    }
+
+    private static final class Compiler {
+
+        private final JsonNode document;
+        private final Map<String, Rule> definitions = new HashMap<>();
+
+        Compiler(final JsonNode document) {
+            this.document = document;
+        }
+
+        Rule compile(final JsonNode schema, final String path) {
+            if (!schema.isObject()) {
+                throw new IllegalArgumentException("Schema at " + path + " must be an object");
+            }
+            if (schema.has("$ref")) {
+                return reference(schema, path);
+            }
+            final Rule rule = new Rule();
+            for (final Iterator<Map.Entry<String, JsonNode>> fields = schema.fields(); fields.hasNext(); ) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final String keyword = field.getKey();
+                final JsonNode value = field.getValue();
+                final String at = path + "/" + keyword;
+                switch (keyword) {
+                    case "type" -> rule.types = types(value, at);
+                    case "required" -> rule.required = required(value, at);
+                    case "properties" -> rule.properties = properties(value, at);
+                    case "items" -> rule.items = compile(value, at);
+                    case "pattern" -> rule.pattern = Pattern.compile(text(value, at));
+                    case "minLength" -> rule.minLength = count(value, at);
+                    case "minimum" -> rule.minimum = number(value, at);
+                    case "maximum" -> rule.maximum = number(value, at);
+                    case "exclusiveMinimum" -> rule.exclusiveMinimum = number(value, at);
+                    case "exclusiveMaximum" -> rule.exclusiveMaximum = number(value, at);
+                    case "x-count-of" -> rule.countOf = text(value, at);
+                    case DEFS -> {
+                        if (schema != document) {
+                            throw new IllegalArgumentException("Schema keyword " + DEFS + " is only supported at the root");
+                        }
+                    }
+                    default -> {
+                        if (!ANNOTATIONS.contains(keyword)) {
+                            throw new IllegalArgumentException("Unsupported schema keyword at " + at);
+                        }
+                    }
+                }
+            }
+            if (rule.required.length > Long.SIZE) {
+                throw new IllegalArgumentException("At most " + Long.SIZE + " required fields are supported at " + path);
+            }
+            return rule;
+        }
+
+        private Rule reference(final JsonNode schema, final String path) {
+            for (final Iterator<String> names = schema.fieldNames(); names.hasNext(); ) {
+                final String keyword = names.next();
+                if (!keyword.equals("$ref") && !ANNOTATIONS.contains(keyword)) {
+                    throw new IllegalArgumentException("Schema at " + path + " combines $ref with " + keyword);
+                }
+            }
+            final String ref = text(schema.get("$ref"), path + "/$ref");
+            final JsonNode target = ref.startsWith(REF_PREFIX) ? document.path(DEFS).get(ref.substring(REF_PREFIX.length())) : null;
+            if (target == null) {
+                throw new IllegalArgumentException("Unresolvable $ref " + ref + " at " + path);
+            }
+            Rule rule = definitions.get(ref);
+            if (rule == null) {
+                rule = compile(target, ref);
+                definitions.put(ref, rule);
+            }
+            return rule;
+        }
+
+        private static int types(final JsonNode value, final String at) {
+            if (value.isTextual()) {
+                return type(value.asText(), at);
+            }
+            if (!value.isArray() || value.isEmpty()) {
+                throw new IllegalArgumentException("Schema type at " + at + " must be a name or a non-empty array");
+            }
+            int types = 0;
+            for (final JsonNode type : value) {
+                types |= type(text(type, at), at);
+            }
+            return types;
+        }
+
+        private static int type(final String name, final String at) {
+            final Integer type = TYPES.get(name);
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown schema type " + name + " at " + at);
+            }
+            return type;
+        }
+
+        private static String[] required(final JsonNode value, final String at) {
+            if (!value.isArray()) {
+                throw new IllegalArgumentException("Schema required at " + at + " must be an array");
+            }
+            final String[] names = new String[value.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = text(value.get(i), at);
+            }
+            return names;
+        }
+
+        private Map<String, Rule> properties(final JsonNode value, final String at) {
+            if (!value.isObject()) {
+                throw new IllegalArgumentException("Schema properties at " + at + " must be an object");
+            }
+            final Map<String, Rule> properties = new HashMap<>();
+            for (final Iterator<Map.Entry<String, JsonNode>> fields = value.fields(); fields.hasNext(); ) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                properties.put(field.getKey(), compile(field.getValue(), at + "/" + field.getKey()));
+            }
+            return Map.copyOf(properties);
+        }
+
+        private static String text(final JsonNode value, final String at) {
+            if (value == null || !value.isTextual()) {
+                throw new IllegalArgumentException("Schema value at " + at + " must be a string");
+            }
+            return value.asText();
+        }
+
+        private static int count(final JsonNode value, final String at) {
+            if (!value.canConvertToExactIntegral() || value.asLong() < 0 || value.asLong() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Schema value at " + at + " must be a non-negative integer");
+            }
+            return value.asInt();
+        }
+
+        private static double number(final JsonNode value, final String at) {
+            if (!value.isNumber()) {
+                throw new IllegalArgumentException("Schema value at " + at + " must be a number");
+            }
+            return value.asDouble();
+        }
+    }
+
+    /**
+     * Checks one document against the schema as its tokens are read. Every token of the
+     * document, from the root's start to its end, is passed to {@link #accept} right after the
+     * parser returns it; {@link #finish()} then reports what was found.
+     *
+     * <p>Values the schema says nothing about are skipped without looking at their contents.
+     * Problems are reported as {@link ConceptMapValidationException.Problem}s of the top-level
+     * field they are in, with the index of the node or link where there is one, and end with
+     * the line and column of the offending value.</p>
+     */
+    final class Validation {
+
+        private Frame[] frames = new Frame[8];
+        private int depth;
+        // Open containers inside a value the schema says nothing about
+        private int skipDepth;
+        private final List<ConceptMapValidationException.Problem> problems = new ArrayList<>();
+        private final Map<String, Integer> arrayLengths = new HashMap<>();
+        private final List<CountClaim> counts = new ArrayList<>(2);
+
+        private Validation() {
+        }
+
+        /**
+         * Checks the token the parser has just returned.
+         *
+         * @param parser the parser, positioned on the token
+         * @param token the token
+         * @throws IOException if the parser cannot provide the token's value
+         * @throws IllegalArgumentException if the document's root is not an object
+         */
+        void accept(final JsonParser parser, final JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                final Frame frame = frames[depth - 1];
+                frame.pendingName = parser.currentName();
+                frame.pendingRule = frame.rule.properties.get(frame.pendingName);
+                final String[] required = frame.rule.required;
+                for (int i = 0; i < required.length; i++) {
+                    if (required[i].equals(frame.pendingName)) {
+                        frame.seen |= 1L << i;
+                    }
+                }
+                return;
+            }
+            if (token.isStructEnd()) {
+                close(frames[--depth]);
+                return;
+            }
+
+            final Rule rule;
+            final String name;
+            final int index;
+            if (depth == 0) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Concept map must be a JSON object");
+                }
+                rule = root;
+                name = null;
+                index = -1;
+            } else {
+                final Frame parent = frames[depth - 1];
+                if (parent.object) {
+                    rule = parent.pendingRule;
+                    name = parent.pendingName;
+                    index = -1;
+                } else {
+                    rule = parent.rule.items;
+                    name = null;
+                    index = parent.count++;
+                }
+            }
+            if (rule == null || !check(rule, parser, token, name, index)) {
+                if (token.isStructStart()) {
+                    skipDepth = 1;
+                }
+                return;
+            }
+            if (token.isStructStart()) {
+                open(rule, token == JsonToken.START_OBJECT, name, index, parser);
+            }
+        }
+
+        /**
+         * Reports the problems found in the document.
+         *
+         * @throws ConceptMapValidationException if the document does not match the schema
+         */
+        void finish() {
+            for (final CountClaim claim : counts) {
+                final Integer length = arrayLengths.get(claim.array);
+                if (length != null && length != claim.declared) {
+                    add(claim.section, claim.index, claim.subject + " is " + claim.declared + " but "
+                            + claim.array + " has " + length + " elements" + claim.at);
+                }
+            }
+            if (!problems.isEmpty()) {
+                throw new ConceptMapValidationException(problems);
+            }
+        }
+
+        /** Checks a value against its rule; false if its contents should not be looked at. */
+        private boolean check(final Rule rule, final JsonParser parser, final JsonToken token,
+                              final String name, final int index) throws IOException {
+            final int type = typeOf(parser, token);
+            if (rule.types != 0 && (rule.types & type) == 0) {
+                problem(name, index, "must be " + describeTypes(rule.types), parser);
+                return false;
+            }
+            if (token == JsonToken.VALUE_STRING && rule.checksStrings()) {
+                final String text = parser.getText();
+                if (rule.minLength >= 0 && text.codePointCount(0, text.length()) < rule.minLength) {
+                    problem(name, index, rule.minLength == 1 ? "must not be empty"
+                            : "must have at least " + rule.minLength + " characters", parser);
+                } else if (rule.pattern != null && !rule.pattern.matcher(text).find()) {
+                    problem(name, index, "does not match " + rule.pattern.pattern(), parser);
+                }
+            } else if (token.isNumeric() && rule.checksNumbers()) {
+                final double value = parser.getDoubleValue();
+                if (value < rule.minimum) {
+                    problem(name, index, "must be at least " + format(rule.minimum), parser);
+                } else if (value > rule.maximum) {
+                    problem(name, index, "must be at most " + format(rule.maximum), parser);
+                } else if (value <= rule.exclusiveMinimum) {
+                    problem(name, index, "must be greater than " + format(rule.exclusiveMinimum), parser);
+                } else if (value >= rule.exclusiveMaximum) {
+                    problem(name, index, "must be less than " + format(rule.exclusiveMaximum), parser);
+                } else if (rule.countOf != null && (type & INTEGER) != 0) {
+                    counts.add(new CountClaim(rule.countOf, (long) value, section(depth, name), sectionIndex(depth, index),
+                            subject(depth, name, index), at(parser.currentTokenLocation())));
+                }
+            }
+            return true;
+        }
+
+        private void open(final Rule rule, final boolean object, final String name, final int index,
+                          final JsonParser parser) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = new Frame();
+                frames[depth] = frame;
+            }
+            frame.rule = rule;
+            frame.object = object;
+            frame.name = name;
+            frame.index = index;
+            frame.seen = 0;
+            frame.count = 0;
+            frame.pendingName = null;
+            frame.pendingRule = null;
+            // Only needed to locate a missing field
+            frame.start = object && rule.required.length > 0 ? parser.currentTokenLocation() : null;
+            depth++;
+        }
+
+        private void close(final Frame frame) {
+            final String[] required = frame.rule.required;
+            final long all = required.length == Long.SIZE ? -1L : (1L << required.length) - 1;
+            if (frame.seen != all) {
+                for (int i = 0; i < required.length; i++) {
+                    if ((frame.seen & 1L << i) == 0) {
+                        final String message = "Required field '" + required[i] + "' is missing" + at(frame.start);
+                        if (depth == 0) {
+                            add(required[i], -1, message);
+                        } else {
+                            add(section(depth, frame.name), sectionIndex(depth, frame.index), message);
+                        }
+                    }
+                }
+            }
+            if (!frame.object && depth == 1) {
+                arrayLengths.put(frame.name, frame.count);
+            }
+        }
+
+        /** Records a problem with the value at the current depth, keyed by name or index in its parent. */
+        private void problem(final String name, final int index, final String what, final JsonParser parser) {
+            if (problems.size() < MAX_PROBLEMS) {
+                add(section(depth, name), sectionIndex(depth, index),
+                        subject(depth, name, index) + " " + what + at(parser.currentTokenLocation()));
+            }
+        }
+
+        private void add(final String section, final int index, final String message) {
+            if (problems.size() < MAX_PROBLEMS) {
+                problems.add(new ConceptMapValidationException.Problem(section, index, message));
+            }
+        }
+
+        /** The top-level field a value at the given depth belongs to. */
+        private String section(final int level, final String name) {
+            return level <= 1 ? name : frames[1].name;
+        }
+
+        /** The element of the top-level array a value at the given depth belongs to, or -1. */
+        private int sectionIndex(final int level, final int index) {
+            if (level < 2 || frames[1].object) {
+                return -1;
+            }
+            return level == 2 ? index : frames[2].index;
+        }
+
+        private String subject(final int level, final String name, final int index) {
+            if (name == null) {
+                return level == 2 ? "Element" : "Element " + index;
+            }
+            return "Field '" + name + "'";
+        }
+    }
+
+    /** An open object or array that has a rule. */
+    private static final class Frame {
+        Rule rule;
+        boolean object;
+        String name;
+        int index;
+        long seen;
+        int count;
+        String pendingName;
+        Rule pendingRule;
+        JsonLocation start;
+    }
+
+    /** A declared length to compare with the actual one once the document has been read. */
+    private record CountClaim(String array, long declared, String section, int index, String subject, String at) {
+    }
+
+    private static int typeOf(final JsonParser parser, final JsonToken token) throws IOException {
+        return switch (token) {
+            case START_OBJECT -> OBJECT;
+            case START_ARRAY -> ARRAY;
+            case VALUE_STRING -> STRING;
+            case VALUE_NUMBER_INT -> NUMBER | INTEGER;
+            case VALUE_NUMBER_FLOAT -> {
+                final double value = parser.getDoubleValue();
+                yield value == Math.rint(value) && !Double.isInfinite(value) ? NUMBER | INTEGER : NUMBER;
+            }
+            case VALUE_TRUE, VALUE_FALSE -> BOOLEAN;
+            case VALUE_NULL -> NULL;
+            default -> 0;
+        };
+    }
+
+    private static String describeTypes(final int types) {
+        final StringBuilder description = new StringBuilder();
+        for (final String name : List.of("object", "array", "string", "number", "integer", "boolean", "null")) {
+            final int type = TYPES.get(name);
+            // An integer is also a number
+            if ((types & type) != 0 && !(type == INTEGER && (types & NUMBER) != 0)) {
+                if (description.length() > 0) {
+                    description.append(" or ");
+                }
+                description.append(switch (name) {
+                    case "null" -> name;
+                    case "integer", "array", "object" -> "an " + name;
+                    default -> "a " + name;
+                });
+            }
+        }
+        return description.toString();
+    }
+
+    private static String format(final double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String at(final JsonLocation location) {
+        return " (line " + location.getLineNr() + ", column " + location.getColumnNr() + ")";
+    }
+}
@@ -1,20 +1,38 @@
 package edu.ewu.cscd211.conceptmap.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.ewu.cscd211.conceptmap.graph.AdjacencyIndex;
 import edu.ewu.cscd211.conceptmap.model.*;
 import edu.ewu.cscd211.conceptmap.util.JsonValidationUtils;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Service layer for concept map data processing and JSON serialization/deserialization.
@@ -81,12 +99,31 @@ public class ConceptMapService {
     private static final String NAME_FIELD = "name";
     private static final String TYPE_FIELD = "type";
     private static final String METADATA_FIELD = "metadata";
-    private static final String NODES_FIELD = "nodes";
-    private static final String LINKS_FIELD = "links";
     private static final String DEFAULT_JSON_FILE = "concept-map.json";
     private static final String DEFAULT_RELATIONSHIP_TYPE = "RELATED_TO";
+    private static final String LAST_UPDATED_FIELD = "last_updated";
+    private static final long DEFAULT_SPILL_THRESHOLD_BYTES = 8L * 1024 * 1024;
+    private static final int DEFAULT_OFF_HEAP_GRAPH_MIN_LINKS = 1 << 20;
+    private static final long DEFAULT_PARALLEL_INGEST_MIN_BYTES = 64L * 1024 * 1024;
+    private static final String STRENGTH_FIELD = "strength";
+    private static final String LEVEL_FIELD = "level";
+    private static final String SIZE_FIELD = "size";
+    private static final String GROUP_FIELD = "group";
     
     private final ObjectMapper objectMapper;
+    // The injected mapper may pretty-print; stored objects are always minified
+    private final ObjectWriter compactWriter;
+    private final long spillThresholdBytes;
+    private final int offHeapGraphMinLinks;
+    private final Path graphCacheDirectory;
+    private final long parallelIngestMinBytes;
+    // Asked in order to detect a format; replaced as a whole when beans are plugged in
+    private volatile List<ConceptMapImporter> importers;
+    // Looked up by format; replaced as a whole when beans are plugged in
+    private volatile List<ConceptMapExporter> exporters;
+    
+    // Lazily built once; volatile so the double-checked publication in getConceptMapSnapshot is safe
+    private volatile ConceptMapSnapshot defaultSnapshot;
     
     /**
      * Default constructor that creates a ConceptMapService with standard ObjectMapper configuration.
@@ -107,7 +144,7 @@ public class ConceptMapService {
      * @see <a href="https://github.com/FasterXML/jackson-core">Jackson Core Documentation</a>
      */
     public ConceptMapService() {
-        this.objectMapper = new ObjectMapper();
+        this(new ObjectMapper());
     }
     
     /**
@@ -143,12 +180,124 @@ public class ConceptMapService {
      * 
      * @see <a href="https://docs.spring.io/spring-framework/docs/current/reference/html/core.html#beans-constructor-injection">Constructor Injection</a>
      */
-    @Autowired
     public ConceptMapService(ObjectMapper objectMapper) {
+        this(objectMapper, DEFAULT_SPILL_THRESHOLD_BYTES, DEFAULT_OFF_HEAP_GRAPH_MIN_LINKS, null,
+            DEFAULT_PARALLEL_INGEST_MIN_BYTES);
+    }
+    
+    /**
+     * Constructor with explicit storage thresholds, a graph cache directory and a parallel
+     * ingest threshold, each bound from the application's {@code concept-map.*} properties.
+     * Tests that change only some of them use {@link #builder(ObjectMapper)}.
+     * 
+     * <ul>
+     *   <li>Snapshot variants larger than {@code spillThresholdBytes} are kept in temporary files
+     *       rather than on the heap and are streamed to clients in bounded chunks. The default of
+     *       8 MB keeps every bundled dataset in memory.</li>
+     *   <li>The graph columns of datasets with at least {@code offHeapGraphMinLinks} links are
+     *       allocated outside the Java heap, so that a million-link catalog does not need a heap
+     *       sized for it. The default of 1,048,576 links keeps every bundled dataset on the
+     *       heap.</li>
+     *   <li>With a graph cache directory, every dataset parsed from JSON is also written there
+     *       as a {@link DatasetGraphFile}, keyed by the hash of its content. Later loads of the
+     *       same content, in this process or after a restart, map that file instead of parsing
+     *       the JSON.</li>
+     *   <li>Documents of at least {@code parallelIngestMinBytes} are parsed in parallel on the
+     *       common pool. The default of 64 MB leaves every bundled dataset on the sequential
+     *       path, whose single pass is faster for small documents.</li>
+     * </ul>
+     * 
+     * @param objectMapper the Jackson ObjectMapper for JSON processing operations
+     * @param spillThresholdBytes the size in bytes above which snapshot variants spill to disk
+     * @param offHeapGraphMinLinks the link count from which graphs are stored off-heap
+     * @param graphCacheDirectory directory for binary graph files; null or blank disables them
+     * @param parallelIngestMinBytes the document size in bytes from which parsing runs in parallel
+     * @throws IllegalArgumentException if objectMapper is null or a threshold is negative
+     */
+    @Autowired
+    public ConceptMapService(
+            ObjectMapper objectMapper,
+            @Value("${concept-map.snapshot.spill-threshold-bytes:" + DEFAULT_SPILL_THRESHOLD_BYTES + "}")
+            long spillThresholdBytes,
+            @Value("${concept-map.graph.off-heap-min-links:" + DEFAULT_OFF_HEAP_GRAPH_MIN_LINKS + "}")
+            int offHeapGraphMinLinks,
+            @Value("${concept-map.graph.cache-dir:}") String graphCacheDirectory,
+            @Value("${concept-map.ingest.parallel-min-bytes:" + DEFAULT_PARALLEL_INGEST_MIN_BYTES + "}")
+            long parallelIngestMinBytes) {
         if (objectMapper == null) {
             throw new IllegalArgumentException("ObjectMapper cannot be null");
         }
+        if (spillThresholdBytes < 0) {
+            throw new IllegalArgumentException("Spill threshold cannot be negative");
+        }
+        if (offHeapGraphMinLinks < 0) {
+            throw new IllegalArgumentException("Off-heap graph threshold cannot be negative");
+        }
+        if (parallelIngestMinBytes < 0) {
+            throw new IllegalArgumentException("Parallel ingest threshold cannot be negative");
+        }
         this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.offHeapGraphMinLinks = offHeapGraphMinLinks;
+        this.graphCacheDirectory = graphCacheDirectory == null || graphCacheDirectory.isBlank()
+            ? null : Path.of(graphCacheDirectory);
+        this.parallelIngestMinBytes = parallelIngestMinBytes;
+        this.importers = ConceptMapImporters.defaults(objectMapper.getFactory());
+        this.exporters = ConceptMapExporters.defaults(objectMapper.getFactory());
+    }
+    
+    /**
+     * Starts a service with the default settings, for tests and benchmarks that change only
+     * some of them.
+     * 
+     * @param objectMapper the Jackson ObjectMapper for JSON processing operations
+     * @return a builder of the service
+     */
+    static Builder builder(ObjectMapper objectMapper) {
+        return new Builder(objectMapper);
+    }
+    
+    /**
+     * Collects the settings of the {@linkplain #ConceptMapService(ObjectMapper, long, int, String, long)
+     * full constructor}, starting from its defaults.
+     */
+    static final class Builder {
+        
+        private final ObjectMapper objectMapper;
+        private long spillThresholdBytes = DEFAULT_SPILL_THRESHOLD_BYTES;
+        private int offHeapGraphMinLinks = DEFAULT_OFF_HEAP_GRAPH_MIN_LINKS;
+        private String graphCacheDirectory;
+        private long parallelIngestMinBytes = DEFAULT_PARALLEL_INGEST_MIN_BYTES;
+        
+        private Builder(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+        
+        Builder spillThresholdBytes(long spillThresholdBytes) {
+            this.spillThresholdBytes = spillThresholdBytes;
+            return this;
+        }
+        
+        Builder offHeapGraphMinLinks(int offHeapGraphMinLinks) {
+            this.offHeapGraphMinLinks = offHeapGraphMinLinks;
+            return this;
+        }
+        
+        Builder graphCacheDirectory(String graphCacheDirectory) {
+            this.graphCacheDirectory = graphCacheDirectory;
+            return this;
+        }
+        
+        Builder parallelIngestMinBytes(long parallelIngestMinBytes) {
+            this.parallelIngestMinBytes = parallelIngestMinBytes;
+            return this;
+        }
+        
+        ConceptMapService build() {
+            return new ConceptMapService(objectMapper, spillThresholdBytes, offHeapGraphMinLinks,
+                graphCacheDirectory, parallelIngestMinBytes);
+        }
     }
     
     /**
@@ -173,40 +322,89 @@ public class ConceptMapService {
     /**
      * Parses a node from a JSON node into a Node domain object.
      * 
+     * <p>Besides id, name and description the node gets its {@code level}, {@code size} and
+     * {@code group}, and keeps its complete object as {@link Attributes}. Numbers are read the
+     * way the frontend reads them, so numeric strings count and anything else is NaN.</p>
+     * 
      * @param nodeJson the JSON node containing node data
      * @return a Node object with parsed values
      * @throws IllegalArgumentException if nodeJson is null or invalid
      */
     public Node parseNode(JsonNode nodeJson) {
+        return parseNode(nodeJson, null);
+    }
+    
+    private Node parseNode(JsonNode nodeJson, SymbolTable symbols) {
         if (nodeJson == null) {
             throw new IllegalArgumentException("Node JSON cannot be null");
         }
         
-        String id = getRequiredString(nodeJson, ID_FIELD);
+        String id = intern(symbols, getRequiredString(nodeJson, ID_FIELD));
         String name = getRequiredString(nodeJson, NAME_FIELD); // JSON uses 'name' field
         String description = nodeJson.has(DESCRIPTION_FIELD) ? nodeJson.get(DESCRIPTION_FIELD).asText() : "";
+        JsonNode groupNode = nodeJson.get(GROUP_FIELD);
+        String group = groupNode != null && groupNode.isValueNode() && !groupNode.isNull()
+            ? intern(symbols, groupNode.asText()) : null;
         
-        return new Node(id, name, description);
+        return new Node(id, name, description, number(nodeJson.get(LEVEL_FIELD)), number(nodeJson.get(SIZE_FIELD)),
+            group, attributes(nodeJson));
     }
     
     /**
      * Parses a link from a JSON node into a Link domain object.
      * 
+     * <p>The link gets its {@code strength}, read like the node numbers, and keeps its complete
+     * object as {@link Attributes}.</p>
+     * 
      * @param linkJson the JSON node containing link data
      * @return a Link object with parsed values
      * @throws IllegalArgumentException if linkJson is null or invalid
      */
     public Link parseLink(JsonNode linkJson) {
+        return parseLink(linkJson, null);
+    }
+    
+    private Link parseLink(JsonNode linkJson, SymbolTable symbols) {
         if (linkJson == null) {
             throw new IllegalArgumentException("Link JSON cannot be null");
         }
         
-        String source = getRequiredString(linkJson, SOURCE_FIELD);
-        String target = getRequiredString(linkJson, TARGET_FIELD);
-        String relationshipType = linkJson.has(TYPE_FIELD) ? 
-            linkJson.get(TYPE_FIELD).asText() : DEFAULT_RELATIONSHIP_TYPE;
+        String source = intern(symbols, getRequiredString(linkJson, SOURCE_FIELD));
+        String target = intern(symbols, getRequiredString(linkJson, TARGET_FIELD));
+        String relationshipType = intern(symbols, linkJson.has(TYPE_FIELD) ? 
+            linkJson.get(TYPE_FIELD).asText() : DEFAULT_RELATIONSHIP_TYPE);
         
-        return new Link(source, target, relationshipType);
+        return new Link(source, target, relationshipType, number(linkJson.get(STRENGTH_FIELD)), attributes(linkJson));
+    }
+    
+    /** Reads an optional number, or a string holding a JSON number; NaN if absent. */
+    private static double number(JsonNode value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        if (value.isTextual()) {
+            return Attributes.parseNumber(value.asText());
+        }
+        return Double.NaN;
+    }
+    
+    private Attributes attributes(JsonNode element) {
+        try {
+            return Attributes.ofJson(compactWriter.writeValueAsString(element));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Element cannot be serialized: " + e.getOriginalMessage(), e);
+        }
+    }
+    
+    /**
+     * Replaces a parsed string by the table's instance, so that every link naming a node
+     * shares that node's id string and every link of a type shares one type string.
+     */
+    private static String intern(SymbolTable symbols, String value) {
+        return symbols == null ? value : symbols.canonical(value);
     }
     
     /**
@@ -224,6 +422,11 @@ public class ConceptMapService {
      * Loads a complete concept map from a classpath resource.
      * This method is designed for test scenarios where the JSON file is in the classpath.
      * 
+     * <p>The resource is streamed token by token without a tree or a String of the document,
+     * but each node and link object is copied onto the heap, so the heap must hold about as
+     * much as the resource. Only {@link #mapConceptMapFromJson(Path)} loads maps larger than
+     * the heap.</p>
+     * 
      * @param resourcePath the path to the JSON resource in the classpath
      * @return a ConceptMap object parsed from the classpath resource
      * @throws IOException if the resource cannot be read
@@ -241,11 +444,8 @@ public class ConceptMapService {
                 throw new IllegalArgumentException("Resource not found: " + resourcePath);
             }
             
-            // Read JSON content from classpath resource
-            String jsonContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            
-            // Parse and return the concept map
-            return parseConceptMapFromJson(jsonContent);
+            // Streams tokens; no tree and no String copy of the document
+            return new ConceptMapReader(objectMapper.getFactory(), new SymbolTable()).read(inputStream);
         }
     }
     
@@ -269,6 +469,13 @@ public class ConceptMapService {
      * Loads a complete concept map from a JSON file using a Path object.
      * This method provides better testability and path handling.
      * 
+     * <p>The file is memory-mapped and read token by token. The objects of nodes and links are
+     * copied out of the mapping, so the map owns its bytes and stays valid whatever later happens
+     * to the file, and the heap must hold about as much as the file. Files over 2 GB are
+     * streamed instead. Files of at least the parallel ingest threshold are parsed in parallel on
+     * the common pool. To load a map larger than the heap, use
+     * {@link #mapConceptMapFromJson(Path)}.</p>
+     * 
      * @param jsonPath the Path to the JSON file
      * @return a ConceptMap object parsed from the file
      * @throws IOException if the file cannot be read
@@ -276,70 +483,346 @@ public class ConceptMapService {
      * @throws IllegalArgumentException if the file path is null or the JSON structure is invalid
      */
     public ConceptMap loadConceptMapFromJson(Path jsonPath) throws IOException {
+        return loadConceptMapFromJson(jsonPath, null);
+    }
+    
+    /**
+     * Loads a complete concept map from a JSON file, parsing its nodes and links in parallel.
+     * 
+     * <p>The mapped file's {@code nodes} and {@code links} arrays are cut into runs of whole
+     * elements, which the pool parses at once; the runs are then merged in document order, so
+     * the map equals the one {@link #loadConceptMapFromJson(Path)} reads sequentially. A file
+     * that is not a valid concept map is read again sequentially to report the error.</p>
+     * 
+     * @param jsonPath the Path to the JSON file
+     * @param pool the pool to parse on; null to parse in parallel only from the threshold
+     * @return a ConceptMap object parsed from the file
+     * @throws IOException if the file cannot be read
+     * @throws JsonProcessingException if the JSON cannot be parsed
+     * @throws IllegalArgumentException if the file path is null or the JSON structure is invalid
+     */
+    public ConceptMap loadConceptMapFromJson(Path jsonPath, ForkJoinPool pool) throws IOException {
+        return loadConceptMapFromJson(jsonPath, pool, true);
+    }
+    
+    /**
+     * Loads a concept map from a JSON file whose node and link objects stay regions of the
+     * mapped file, so the heap holds the typed fields only and a map several times larger than
+     * the heap still loads.
+     * 
+     * <p>This is the loader for maps that do not fit in the heap; the classpath, stream and
+     * other file loaders copy every object onto it. In return the map is only valid while the
+     * file is left unchanged: the caller must not rewrite or truncate it while the map is in
+     * use, or attributes read afterwards show the new bytes or fail. Files over 2 GB cannot be
+     * mapped and are streamed, with the objects copied.</p>
+     * 
+     * @param jsonPath the Path to the JSON file
+     * @return a ConceptMap object backed by the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file path is null or the JSON structure is invalid
+     */
+    public ConceptMap mapConceptMapFromJson(Path jsonPath) throws IOException {
+        return loadConceptMapFromJson(jsonPath, null, false);
+    }
+    
+    private ConceptMap loadConceptMapFromJson(final Path jsonPath, final ForkJoinPool pool, final boolean copy)
+            throws IOException {
         if (jsonPath == null) {
             throw new IllegalArgumentException("JSON file path cannot be null");
         }
         
-        // Read JSON content from file
-        String jsonContent = Files.readString(jsonPath);
-        
-        // Parse and return the concept map
-        return parseConceptMapFromJson(jsonContent);
+        final ConceptMapReader reader = new ConceptMapReader(objectMapper.getFactory(), new SymbolTable());
+        if (copy) {
+            reader.copyingAttributes();
+        }
+        if (Files.isRegularFile(jsonPath)) {
+            try (FileChannel channel = FileChannel.open(jsonPath, StandardOpenOption.READ)) {
+                if (channel.size() <= Integer.MAX_VALUE) {
+                    // The mapping stays valid after the channel is closed
+                    return read(reader, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), pool);
+                }
+            }
+        }
+        try (InputStream inputStream = Files.newInputStream(jsonPath)) {
+            return reader.read(inputStream);
+        }
     }
     
     /**
-     * Parses a complete concept map from JSON string content.
-     * This method is shared by both file and classpath loading methods.
+     * Adds importers for further formats. Spring passes every {@link ConceptMapImporter} bean;
+     * they are asked to detect a format before the shipped JSON, NDJSON, GraphML and CSV
+     * importers, so a plugged-in importer may also take over one of those formats.
      * 
-     * @param jsonContent the JSON content as a string
-     * @return a ConceptMap object parsed from the JSON content
-     * @throws IOException if the JSON cannot be parsed
-     * @throws JsonProcessingException if the JSON cannot be parsed
-     * @throws IllegalArgumentException if the JSON structure is invalid
+     * @param extraImporters the importers to consult first, in order
+     * @throws IllegalArgumentException if extraImporters is null
      */
-    private ConceptMap parseConceptMapFromJson(String jsonContent) throws IOException {
-        // Parse JSON into JsonNode for structured access
-        JsonNode rootNode = objectMapper.readTree(jsonContent);
-        
-        // Parse metadata
-        JsonNode metadataNode = rootNode.get(METADATA_FIELD);
-        if (metadataNode == null) {
-            throw new IllegalArgumentException("JSON must contain metadata section");
+    @Autowired(required = false)
+    public void setImporters(List<ConceptMapImporter> extraImporters) {
+        if (extraImporters == null) {
+            throw new IllegalArgumentException("Importers cannot be null");
         }
-        Metadata metadata = parseMetadata(metadataNode);
-        
-        // Parse nodes
-        List<Node> nodes = new ArrayList<>();
-        JsonNode nodesArray = rootNode.get(NODES_FIELD);
-        if (nodesArray != null && nodesArray.isArray()) {
-            for (JsonNode nodeJson : nodesArray) {
-                nodes.add(parseNode(nodeJson));
+        final List<ConceptMapImporter> all = new ArrayList<>(extraImporters);
+        all.addAll(ConceptMapImporters.defaults(objectMapper.getFactory()));
+        this.importers = List.copyOf(all);
+    }
+    
+    /**
+     * Returns the formats {@link #importConceptMap(InputStream, String)} accepts.
+     * 
+     * @return the format names, in the order formats are detected
+     */
+    public List<String> getImportFormats() {
+        return importers.stream().map(ConceptMapImporter::getFormat).distinct().toList();
+    }
+    
+    /**
+     * Imports a concept map from a file in any supported format, detected from its content.
+     * 
+     * <p>A concept map document is loaded like {@link #loadConceptMapFromJson(Path)}, from a
+     * mapping of the file. Other formats are streamed record by record, so memory holds the map
+     * and not the file.</p>
+     * 
+     * @param path the file
+     * @return the concept map
+     * @throws IOException if the file cannot be read or is malformed
+     * @throws IllegalArgumentException if path is null, the format is not recognised or the
+     *         file is not a valid concept map
+     */
+    public ConceptMap importConceptMap(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Import path cannot be null");
+        }
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path), ConceptMapImporters.HEAD_BYTES)) {
+            final ConceptMapImporter importer = detectImporter(input);
+            if (importer instanceof ConceptMapImporters.Json) {
+                return loadConceptMapFromJson(path);
             }
+            return importer.read(input);
         }
-        
-        // Parse links
-        List<Link> links = new ArrayList<>();
-        JsonNode linksArray = rootNode.get(LINKS_FIELD);
-        if (linksArray != null && linksArray.isArray()) {
-            for (JsonNode linkJson : linksArray) {
-                links.add(parseLink(linkJson));
+    }
+    
+    /**
+     * Imports a concept map from a stream in any supported format, detected from its first
+     * 64 KB. The stream is not closed.
+     * 
+     * <p>Formats are offered the head of the stream in order: importers plugged in through
+     * {@link #setImporters}, then a concept map document, newline-delimited JSON, GraphML and a
+     * CSV edge list. The first to recognise it reads the stream.</p>
+     * 
+     * <p>A stream cannot be mapped, so the objects of nodes and links are copied onto the heap
+     * as they are read; the heap must hold about as much as the document.</p>
+     * 
+     * @param input the document
+     * @return the concept map
+     * @throws IOException if the stream cannot be read or the document is malformed
+     * @throws IllegalArgumentException if input is null, the format is not recognised or the
+     *         document is not a valid concept map
+     */
+    public ConceptMap importConceptMap(InputStream input) throws IOException {
+        if (input == null) {
+            throw new IllegalArgumentException("Import stream cannot be null");
+        }
+        final InputStream buffered = new BufferedInputStream(input, ConceptMapImporters.HEAD_BYTES);
+        return detectImporter(buffered).read(buffered);
+    }
+    
+    /**
+     * Imports a concept map from a stream in the given format. The stream is not closed.
+     * 
+     * @param input the document
+     * @param format one of {@link #getImportFormats()}, in any case
+     * @return the concept map
+     * @throws IOException if the stream cannot be read or the document is malformed
+     * @throws IllegalArgumentException if an argument is null, the format is not supported or
+     *         the document is not a valid concept map
+     */
+    public ConceptMap importConceptMap(InputStream input, String format) throws IOException {
+        if (input == null) {
+            throw new IllegalArgumentException("Import stream cannot be null");
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Import format cannot be null");
+        }
+        final String name = format.trim().toLowerCase(Locale.ROOT);
+        for (final ConceptMapImporter importer : importers) {
+            if (importer.getFormat().equals(name)) {
+                return importer.read(input);
             }
         }
-        
-        // Create ConceptMap with metadata and populate it
-        ConceptMap conceptMap = new ConceptMap(metadata);
-        
-        // Add all nodes first
-        for (Node node : nodes) {
-            conceptMap.addNode(node);
+        throw new IllegalArgumentException("Unsupported import format '" + format + "'; expected one of "
+            + getImportFormats());
+    }
+    
+    /**
+     * Adds exporters for further formats. Spring passes every {@link ConceptMapExporter} bean;
+     * they are preferred to the shipped JSON, NDJSON, GraphML, DOT and CSV exporters, so a
+     * plugged-in exporter may also take over one of those formats.
+     * 
+     * @param extraExporters the exporters to prefer, in order
+     * @throws IllegalArgumentException if extraExporters is null
+     */
+    @Autowired(required = false)
+    public void setExporters(List<ConceptMapExporter> extraExporters) {
+        if (extraExporters == null) {
+            throw new IllegalArgumentException("Exporters cannot be null");
         }
-        
-        // Add all links (this validates that referenced nodes exist)
-        for (Link link : links) {
-            conceptMap.addLink(link);
+        final List<ConceptMapExporter> all = new ArrayList<>(extraExporters);
+        all.addAll(ConceptMapExporters.defaults(objectMapper.getFactory()));
+        this.exporters = List.copyOf(all);
+    }
+    
+    /**
+     * Returns the formats {@link #exportConceptMap(ConceptMap, String, OutputStream)} writes.
+     * 
+     * @return the format names
+     */
+    public List<String> getExportFormats() {
+        return exporters.stream().map(ConceptMapExporter::getFormat).distinct().toList();
+    }
+    
+    /**
+     * Returns the exporter of a format, for callers that need its content type before writing.
+     * 
+     * @param format one of {@link #getExportFormats()}, in any case
+     * @return the exporter
+     * @throws IllegalArgumentException if format is null or not supported
+     */
+    public ConceptMapExporter getExporter(String format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Export format cannot be null");
+        }
+        final String name = format.trim().toLowerCase(Locale.ROOT);
+        for (final ConceptMapExporter exporter : exporters) {
+            if (exporter.getFormat().equals(name)) {
+                return exporter;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format '" + format + "'; expected one of "
+            + getExportFormats());
+    }
+    
+    /**
+     * Exports a concept map in the given format. The stream is flushed but not closed.
+     * 
+     * <p>The document is written node by node and link by link from the model, without an
+     * intermediate tree or string, so exporting takes the same memory for any size of map.</p>
+     * 
+     * @param conceptMap the concept map
+     * @param format one of {@link #getExportFormats()}, in any case
+     * @param output receives the document
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalArgumentException if an argument is null or the format is not supported
+     */
+    public void exportConceptMap(ConceptMap conceptMap, String format, OutputStream output) throws IOException {
+        if (conceptMap == null) {
+            throw new IllegalArgumentException("Concept map cannot be null");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Export stream cannot be null");
+        }
+        getExporter(format).write(conceptMap, output);
+    }
+    
+    /** Offers the head of a buffered stream to each importer and rewinds the stream. */
+    private ConceptMapImporter detectImporter(final InputStream input) throws IOException {
+        final byte[] head = new byte[ConceptMapImporters.HEAD_BYTES];
+        input.mark(head.length);
+        final int length = input.readNBytes(head, 0, head.length);
+        input.reset();
+        for (final ConceptMapImporter importer : importers) {
+            if (importer.detects(head, length)) {
+                return importer;
+            }
+        }
+        throw new IllegalArgumentException("Cannot detect the import format; supported formats are "
+            + getImportFormats());
+    }
+    
+    /** Reads on the given pool, or on the common pool if there is none and the document is large. */
+    private ConceptMap read(final ConceptMapReader reader, final ByteBuffer json, final ForkJoinPool pool)
+            throws IOException {
+        if (pool != null) {
+            return reader.read(json, pool);
+        }
+        return json.remaining() >= parallelIngestMinBytes
+            ? reader.read(json, ForkJoinPool.commonPool()) : reader.read(json);
+    }
+    
+    /**
+     * Parses a snapshot into the domain model and indexes it for graph queries.
+     * 
+     * <p>The snapshot's bytes are read token by token, and nodes and links keep their minified
+     * objects as {@link Attributes} that are regions of those bytes, so that query results can
+     * return them with all of their fields without a copy. As in the domain model, the first
+     * occurrence of a duplicated node or link wins. Link strengths become the strength column
+     * of the graph. Snapshots of at least the parallel ingest threshold are parsed in parallel.</p>
+     * 
+     * <p>If a graph cache directory is configured, a binary file of the same content is mapped
+     * instead when there is one, and written after parsing when there is not. A freshly written
+     * file is mapped and served in place of the parsed graph, so that from the first load on the
+     * heap holds only the skeleton: a detail request finds its object through the file's table of
+     * offsets and lengths and decodes that object alone.</p>
+     * 
+     * @param snapshot the snapshot of the dataset
+     * @return the parsed and indexed dataset
+     * @throws ConceptMapReadException if the snapshot is not a valid concept map
+     * @see #loadDatasetGraph(String, ConceptMapSnapshot)
+     */
+    public DatasetGraph loadDatasetGraph(final ConceptMapSnapshot snapshot) throws ConceptMapReadException {
+        return loadDatasetGraph(null, snapshot);
+    }
+
+    /**
+     * Parses a snapshot of a catalog dataset into the domain model and indexes it for graph
+     * queries, like {@link #loadDatasetGraph(ConceptMapSnapshot)}. The binary file is named
+     * after the dataset as well as its content, so that writing the file for new content
+     * deletes the file for the old.
+     * 
+     * @param datasetId the dataset the snapshot belongs to, or null if it has no id
+     * @param snapshot the snapshot of the dataset
+     * @return the parsed and indexed dataset
+     * @throws ConceptMapReadException if the snapshot is not a valid concept map
+     */
+    public DatasetGraph loadDatasetGraph(final String datasetId, final ConceptMapSnapshot snapshot)
+            throws ConceptMapReadException {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        if (graphCacheDirectory != null) {
+            final DatasetGraph mapped = DatasetGraphFile.read(graphCacheDirectory, datasetId, snapshot);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        final DatasetGraph graph = parseDatasetGraph(snapshot);
+        if (graphCacheDirectory != null) {
+            try {
+                DatasetGraphFile.write(graphCacheDirectory, datasetId, snapshot, graph);
+            } catch (IOException e) {
+                // The file only saves heap and later parses; the parsed graph is still served
+                return graph;
+            }
+            final DatasetGraph mapped = DatasetGraphFile.read(graphCacheDirectory, datasetId, snapshot);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        return graph;
+    }
+    
+    private DatasetGraph parseDatasetGraph(final ConceptMapSnapshot snapshot) throws ConceptMapReadException {
+        try {
+            final ConceptMapReader reader = new ConceptMapReader(objectMapper.getFactory(), new SymbolTable());
+            // Shared by every request thread that uses the dataset
+            final ConceptMap conceptMap = read(reader, snapshot.asByteBuffer(), null).freeze();
+            final AdjacencyIndex adjacency = AdjacencyIndex.of(conceptMap, Link::getStrength,
+                    conceptMap.getLinks().size() >= offHeapGraphMinLinks);
+            return new DatasetGraph(conceptMap, adjacency, reader.getMetadataJson());
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Failed to read concept map snapshot", e);
+        } catch (IllegalArgumentException e) {
+            throw new ConceptMapReadException("Concept map structure is invalid: " + e.getMessage(), e);
         }
-        
-        return conceptMap;
     }
     
     /**
@@ -396,6 +879,9 @@ public class ConceptMapService {
      * }
      * }</pre>
      * 
+     * <p>The content is served from the cached {@link ConceptMapSnapshot}, so the returned
+     * document is the validated, minified form of {@code concept-map.json}.</p>
+     * 
      * @return the concept map JSON as a String, ready for HTTP response
      * @throws ConceptMapNotFoundException if the concept-map.json resource doesn't exist
      * @throws ConceptMapReadException if an I/O error occurs during resource reading
@@ -404,44 +890,225 @@ public class ConceptMapService {
      * @see <a href="https://www.baeldung.com/java-custom-exception">Custom Exception Patterns</a>
      */
     public String getConceptMapJson() throws ConceptMapNotFoundException, ConceptMapReadException {
-        try {
-            return loadConceptMapJsonFromClasspath(DEFAULT_JSON_FILE);
-        } catch (ConceptMapNotFoundException e) {
-            // Re-throw as-is since it's already the correct exception type
-            throw e;
+        return getConceptMapSnapshot().asString();
+    }
+    
+    /**
+     * Returns the validated, pre-serialized snapshot of the default concept map.
+     * 
+     * <p>The first call streams {@code concept-map.json} through the parser once to prove it is
+     * valid JSON that matches the concept map schema, and stores a minified byte copy together
+     * with its ETag and Last-Modified values. Every later call returns the same immutable
+     * instance without touching the classpath or the parser, which makes this safe to call on
+     * every HTTP request.</p>
+     * 
+     * @return the cached snapshot of the default concept map
+     * @throws ConceptMapNotFoundException if the concept-map.json resource doesn't exist
+     * @throws ConceptMapReadException if the resource cannot be read or is not a valid concept map
+     */
+    public ConceptMapSnapshot getConceptMapSnapshot() throws ConceptMapNotFoundException, ConceptMapReadException {
+        ConceptMapSnapshot snapshot = this.defaultSnapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = this.defaultSnapshot;
+                if (snapshot == null) {
+                    snapshot = buildSnapshotFromClasspath(DEFAULT_JSON_FILE);
+                    this.defaultSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Streams a classpath resource into a snapshot, checking it against the concept map schema.
+     * 
+     * @param resourcePath the classpath resource path
+     * @return a new snapshot of the resource
+     * @throws ConceptMapNotFoundException if the resource doesn't exist
+     * @throws ConceptMapReadException if the resource cannot be read or is not a valid concept map
+     */
+    private ConceptMapSnapshot buildSnapshotFromClasspath(final String resourcePath)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        try (InputStream inputStream = openClasspathResource(resourcePath)) {
+            return buildDatasetSnapshot(inputStream);
         } catch (IOException e) {
             throw new ConceptMapReadException("Failed to read concept map from classpath", e);
         }
     }
     
     /**
-     * Validates JSON string using comprehensive utility validation.
+     * Validates raw concept map JSON and converts it into an immutable snapshot.
      * 
-     * This method delegates to JsonValidationUtils for consistent validation
-     * across the application, ensuring proper null checks, empty string handling,
-     * and JSON syntax validation.
+     * @param rawJson the concept map document as UTF-8 bytes
+     * @return a new snapshot of the document
+     * @throws ConceptMapReadException if the bytes are not a JSON object
+     * @see #buildSnapshot(InputStream)
+     */
+    public ConceptMapSnapshot buildSnapshot(final byte[] rawJson) throws ConceptMapReadException {
+        if (rawJson == null) {
+            throw new IllegalArgumentException("JSON content cannot be null");
+        }
+        return buildSnapshot(new ByteArrayInputStream(rawJson));
+    }
+    
+    /**
+     * Validates a concept map document from a stream and converts it into an immutable snapshot.
      * 
-     * @param json the JSON string to validate
-     * @return true if valid, false otherwise
+     * <p>The document is processed in a single streaming pass. Tokens are copied from the parser
+     * straight into a minifying generator whose output is hashed, buffered and gzip-compressed at
+     * the same time, so no JSON tree, String or second copy of the document is ever built.
+     * {@code metadata.last_updated} is captured on the way through and used as the Last-Modified
+     * instant when it holds an ISO-8601 timestamp; otherwise the time of the build is used.</p>
+     * 
+     * <p>Variants that grow beyond the spill threshold are written to temporary files instead of
+     * the heap. The stream is not closed by this method.</p>
+     * 
+     * @param rawJson the concept map document as UTF-8 bytes
+     * @return a new snapshot of the document
+     * @throws ConceptMapReadException if the stream cannot be read or is not a single JSON object
      */
-    public boolean isValidJson(final String json) {
-        return JsonValidationUtils.isValidJson(json);
+    public ConceptMapSnapshot buildSnapshot(final InputStream rawJson) throws ConceptMapReadException {
+        if (rawJson == null) {
+            throw new IllegalArgumentException("JSON content cannot be null");
+        }
+        return buildSnapshot(rawJson, null);
     }
     
     /**
-     * Loads concept map JSON content from a classpath resource.
+     * Validates a dataset document against the concept map schema and converts it into an
+     * immutable snapshot.
+     * 
+     * <p>This is {@link #buildSnapshot(InputStream)} with the compiled {@link ConceptMapSchema}
+     * checking every token as it is copied, so required fields, types, id patterns, the ranges
+     * of {@code level}, {@code size} and {@code strength}, and the metadata's node and link
+     * totals are verified in the same single pass. Datasets are loaded and reloaded through this
+     * method, so a document that breaks the schema never reaches a cache.</p>
+     * 
+     * @param rawJson the concept map document as UTF-8 bytes
+     * @return a new snapshot of the document
+     * @throws ConceptMapReadException if the stream cannot be read, is not a single JSON object
+     *         or does not match the schema; a schema failure has a
+     *         {@link ConceptMapValidationException} listing every problem as its cause
+     * @since 2.1
+     */
+    public ConceptMapSnapshot buildDatasetSnapshot(final InputStream rawJson) throws ConceptMapReadException {
+        if (rawJson == null) {
+            throw new IllegalArgumentException("JSON content cannot be null");
+        }
+        return buildSnapshot(rawJson, ConceptMapSchema.conceptMap().newValidation());
+    }
+    
+    private ConceptMapSnapshot buildSnapshot(final InputStream rawJson, final ConceptMapSchema.Validation validation)
+            throws ConceptMapReadException {
+        try (SnapshotWriter writer = new SnapshotWriter(spillThresholdBytes)) {
+            final String lastUpdated;
+            try (JsonParser parser = objectMapper.getFactory().createParser(rawJson);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                lastUpdated = copyMinified(parser, generator, validation);
+            }
+            if (validation != null) {
+                validation.finish();
+            }
+            return writer.finish(resolveLastModified(lastUpdated));
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Concept map is not valid JSON", e);
+        } catch (ConceptMapValidationException e) {
+            throw new ConceptMapReadException("Concept map does not match its schema: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Copies one JSON object token by token from the parser to the generator.
+     * 
+     * @param parser the source positioned before the root value
+     * @param generator the minifying destination
+     * @param validation checks every token against the schema; null for none
+     * @return the value of {@code metadata.last_updated}, or null if absent
+     * @throws IOException if the input is malformed or not exactly one JSON object
+     */
+    private String copyMinified(final JsonParser parser, final JsonGenerator generator,
+                                final ConceptMapSchema.Validation validation) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Concept map must be a JSON object");
+        }
+        generator.copyCurrentEvent(parser);
+        if (validation != null) {
+            validation.accept(parser, JsonToken.START_OBJECT);
+        }
+        
+        String lastUpdated = null;
+        int depth = 1;
+        while (depth > 0) {
+            final JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of concept map JSON");
+            }
+            generator.copyCurrentEventExact(parser);
+            if (validation != null) {
+                validation.accept(parser, token);
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (depth == 2 && token == JsonToken.VALUE_STRING
+                    && LAST_UPDATED_FIELD.equals(parser.currentName())
+                    && METADATA_FIELD.equals(parser.getParsingContext().getParent().getCurrentName())) {
+                lastUpdated = parser.getText();
+            }
+        }
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after concept map JSON");
+        }
+        return lastUpdated;
+    }
+    
+    /**
+     * Resolves the Last-Modified instant from {@code metadata.last_updated}.
+     * 
+     * @param lastUpdated the raw timestamp, may be null
+     * @return the parsed timestamp, or the current instant if absent or malformed
+     */
+    private Instant resolveLastModified(final String lastUpdated) {
+        if (lastUpdated != null) {
+            try {
+                return Instant.parse(lastUpdated);
+            } catch (DateTimeParseException e) {
+                // Fall through: a malformed timestamp should not prevent serving the map
+            }
+        }
+        return Instant.now();
+    }
+    
+    /**
+     * Opens a classpath resource, translating a missing resource into a domain exception.
      * 
      * @param resourcePath the classpath resource path
-     * @return the JSON content as a String
-     * @throws IOException if an error occurs reading the resource
+     * @return an open stream over the resource; the caller must close it
      * @throws ConceptMapNotFoundException if the resource is not found
      */
-    private String loadConceptMapJsonFromClasspath(String resourcePath) throws IOException, ConceptMapNotFoundException {
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
-            if (inputStream == null) {
-                throw new ConceptMapNotFoundException("Resource not found: " + resourcePath);
-            }
-            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    private InputStream openClasspathResource(final String resourcePath) throws ConceptMapNotFoundException {
+        final InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resourcePath);
+        if (inputStream == null) {
+            throw new ConceptMapNotFoundException("Resource not found: " + resourcePath);
         }
+        return inputStream;
+    }
+    
+    /**
+     * Validates JSON string using comprehensive utility validation.
+     * 
+     * This method delegates to JsonValidationUtils for consistent validation
+     * across the application, ensuring proper null checks, empty string handling,
+     * and JSON syntax validation.
+     * 
+     * @param json the JSON string to validate
+     * @return true if valid, false otherwise
+     */
+    public boolean isValidJson(final String json) {
+        return JsonValidationUtils.isValidJson(json);
     }
 }
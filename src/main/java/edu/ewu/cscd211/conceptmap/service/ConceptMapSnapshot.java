@@ -0,0 +1,276 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, pre-serialized representation of a concept map ready to be written to HTTP clients.
+ *
+ * <p>A snapshot is built exactly once per dataset: the JSON document is streamed through the
+ * parser a single time to prove it is well formed, re-serialized without insignificant whitespace,
+ * and the resulting bytes are kept for the lifetime of the snapshot. Every request after that is
+ * served straight from those bytes, so the hot path never touches the JSON parser.</p>
+ *
+ * <h3>HTTP Caching Metadata</h3>
+ * <ul>
+ *   <li><strong>ETag</strong>: a strong validator derived from the SHA-256 hash of the body</li>
+ *   <li><strong>Last-Modified</strong>: taken from {@code metadata.last_updated} when present</li>
+ * </ul>
+ *
+ * <h3>Precompressed Variants</h3>
+ * <p>Besides the identity bytes, a gzip variant is produced at build time with maximum
+ * compression. Concept maps are verbose pedagogical text, and the bundled
+ * {@code concept-map.json} shrinks roughly four-fold. The variant is only kept when it is
+ * actually smaller. Requests pick a variant through
+ * {@link ContentEncoding#negotiate(String, Set)} and are served from the stored bytes, so
+ * nothing is compressed per request.</p>
+ * 
+ * <h3>Storage</h3>
+ * <p>Variants up to the service's spill threshold live on the heap. Larger ones are kept in
+ * temporary files and served as file resources in bounded chunks, so per-request heap usage stays
+ * flat no matter how large the dataset is. Temporary files are deleted once the snapshot becomes
+ * unreachable; files left behind by a process that crashed are swept by the next one.</p>
+ * 
+ * <p>Instances are thread-safe because no state changes after construction. The stored bytes are
+ * never handed out for modification; callers receive read-only {@link Resource} views.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9110#name-etag">RFC 9110 ETag</a>
+ */
+public final class ConceptMapSnapshot {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY_ETAG = "*";
+    private static final Cleaner TEMP_FILE_CLEANER = Cleaner.create();
+
+    private final Map<ContentEncoding, SnapshotContent> variants;
+    private final String eTag;
+    private final Instant lastModified;
+
+    /**
+     * Creates a snapshot from variants produced by a {@link SnapshotWriter}.
+     *
+     * @param variants the stored variants; must contain {@link ContentEncoding#IDENTITY}
+     * @param eTag the quoted strong ETag of the identity variant
+     * @param lastModified the instant the dataset was last updated
+     */
+    ConceptMapSnapshot(final Map<ContentEncoding, SnapshotContent> variants, final String eTag,
+                       final Instant lastModified) {
+        Objects.requireNonNull(variants.get(ContentEncoding.IDENTITY), "Identity variant cannot be null");
+        this.variants = Collections.unmodifiableMap(new EnumMap<>(variants));
+        this.eTag = Objects.requireNonNull(eTag, "ETag cannot be null");
+        this.lastModified = Objects.requireNonNull(lastModified, "Last-modified instant cannot be null");
+
+        // The cleanup action must not capture this snapshot, only its contents
+        final List<SnapshotContent> contents = List.copyOf(this.variants.values());
+        if (contents.stream().anyMatch(content -> !content.isInMemory())) {
+            TEMP_FILE_CLEANER.register(this, () -> contents.forEach(SnapshotContent::release));
+        }
+    }
+
+    /**
+     * Returns the strong entity tag of the identity variant, including the surrounding quotes.
+     *
+     * @return the quoted ETag value, e.g. {@code "q3v...Zk"}
+     */
+    public String getETag() {
+        return this.eTag;
+    }
+
+    /**
+     * Returns the strong entity tag of one content-coded variant. Each variant gets its own
+     * validator because the bytes on the wire differ.
+     *
+     * @param encoding the variant to describe
+     * @return the quoted ETag value for that variant
+     */
+    public String getETag(final ContentEncoding encoding) {
+        if (encoding == ContentEncoding.IDENTITY) {
+            return this.eTag;
+        }
+        return this.eTag.substring(0, this.eTag.length() - 1) + encoding.getETagSuffix() + '"';
+    }
+
+    /**
+     * Returns the content codings this snapshot holds a stored variant for.
+     *
+     * @return the available codings; always contains {@link ContentEncoding#IDENTITY}
+     */
+    public Set<ContentEncoding> getAvailableEncodings() {
+        return this.variants.keySet();
+    }
+
+    /**
+     * Selects the variant to serve for an {@code Accept-Encoding} request header.
+     *
+     * @param acceptEncoding the raw header value, may be null
+     * @return the best available coding
+     */
+    public ContentEncoding selectEncoding(final String acceptEncoding) {
+        return ContentEncoding.negotiate(acceptEncoding, getAvailableEncodings());
+    }
+
+    /**
+     * Returns the instant the underlying dataset was last updated.
+     *
+     * @return the last-modified instant
+     */
+    public Instant getLastModified() {
+        return this.lastModified;
+    }
+
+    /**
+     * Returns the size of the serialized body in bytes.
+     *
+     * @return the content length
+     */
+    public long getContentLength() {
+        return getContentLength(ContentEncoding.IDENTITY);
+    }
+
+    /**
+     * Returns the size of one stored variant in bytes.
+     *
+     * @param encoding the variant to measure
+     * @return the content length of that variant
+     * @throws IllegalArgumentException if the variant is not available
+     */
+    public long getContentLength(final ContentEncoding encoding) {
+        return variant(encoding).length();
+    }
+
+    /**
+     * Returns the number of heap bytes held by this snapshot's stored variants. File-backed
+     * variants do not count.
+     *
+     * @return the heap footprint of the stored bytes
+     */
+    public long getHeapWeight() {
+        long weight = 0L;
+        for (final SnapshotContent content : this.variants.values()) {
+            weight += content.heapWeight();
+        }
+        return weight;
+    }
+
+    /**
+     * Wraps the identity body in a read-only resource without copying it.
+     *
+     * @return a resource view over the snapshot bytes
+     */
+    public Resource asResource() {
+        return asResource(ContentEncoding.IDENTITY);
+    }
+
+    /**
+     * Wraps one stored variant in a read-only resource without copying or re-encoding it.
+     *
+     * @param encoding the variant to serve
+     * @return a resource view over the stored bytes
+     * @throws IllegalArgumentException if the variant is not available
+     */
+    public Resource asResource(final ContentEncoding encoding) {
+        return variant(encoding).asResource(this);
+    }
+
+    /**
+     * Opens a stream over the identity bytes, for consumers that process the document
+     * incrementally instead of holding it as a whole.
+     *
+     * @return a new stream over the minified JSON document
+     * @throws IOException if a file-backed variant cannot be opened
+     */
+    public InputStream openStream() throws IOException {
+        return variant(ContentEncoding.IDENTITY).openStream();
+    }
+
+    /**
+     * Exposes the identity bytes as a buffer, for readers that keep parts of the document, such as
+     * the objects of nodes and links, without copying them.
+     *
+     * @return a buffer over the minified JSON document, which must not be modified
+     * @throws IOException if a file-backed variant cannot be mapped
+     */
+    ByteBuffer asByteBuffer() throws IOException {
+        return variant(ContentEncoding.IDENTITY).asByteBuffer();
+    }
+
+    /**
+     * Decodes the body as a UTF-8 string. Intended for callers that still need textual JSON;
+     * HTTP responses should use {@link #asResource()} instead to avoid the copy.
+     *
+     * @return the minified JSON document
+     */
+    public String asString() {
+        try (InputStream in = openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot content", e);
+        }
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} request header against one variant of this snapshot.
+     *
+     * <p>Uses the weak comparison function required for {@code If-None-Match} by RFC 9110, so
+     * both {@code "tag"} and {@code W/"tag"} match, as does the wildcard {@code *}. Only the ETag
+     * of the given variant matches: a client holding another variant's tag has not cached the
+     * representation it would now be served, so a 304 would hand it a tag it never stored.</p>
+     *
+     * @param ifNoneMatch the raw header value, may be null
+     * @param encoding the negotiated variant
+     * @return true if the client already holds this representation
+     */
+    public boolean matchesETag(final String ifNoneMatch, final ContentEncoding encoding) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        final String current = getETag(encoding);
+        for (final String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (ANY_ETAG.equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (current.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SnapshotContent variant(final ContentEncoding encoding) {
+        final SnapshotContent content = this.variants.get(encoding);
+        if (content == null) {
+            throw new IllegalArgumentException("No " + encoding.getToken() + " variant available");
+        }
+        return content;
+    }
+
+    @Override
+    public String toString() {
+        return "ConceptMapSnapshot{" +
+               "eTag=" + eTag +
+               ", lastModified=" + lastModified +
+               ", encodings=" + variants.keySet() +
+               ", contentLength=" + getContentLength() +
+               '}';
+    }
+}
@@ -0,0 +1,129 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * HTTP content codings that a {@link ConceptMapSnapshot} can be stored and served in.
+ *
+ * <p>Each coding is applied once when a snapshot is built; requests only choose between the
+ * stored variants and never compress on the fly. Constants are declared in order of preference
+ * so that, when a client accepts several codings with the same quality value, the earlier
+ * (smaller) variant wins.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9110#name-accept-encoding">RFC 9110 Accept-Encoding</a>
+ */
+public enum ContentEncoding {
+
+    /** gzip (RFC 1952), supported by every browser. */
+    GZIP("gzip", "-gzip"),
+
+    /** The unmodified representation. Always available. */
+    IDENTITY("identity", "");
+
+    private static final String WILDCARD = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+    // Below the smallest quality value a header can state (0.001), so any listed coding beats it
+    private static final double UNLISTED_IDENTITY_QUALITY = 0.0001;
+
+    private final String token;
+    private final String eTagSuffix;
+
+    ContentEncoding(final String token, final String eTagSuffix) {
+        this.token = token;
+        this.eTagSuffix = eTagSuffix;
+    }
+
+    /**
+     * Returns the coding name as used in {@code Accept-Encoding} and {@code Content-Encoding}.
+     *
+     * @return the HTTP token for this coding
+     */
+    public String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Returns the suffix appended inside the ETag quotes so each variant has a distinct strong
+     * validator, as required for representations with different content codings.
+     *
+     * @return the ETag suffix, empty for identity
+     */
+    String getETagSuffix() {
+        return this.eTagSuffix;
+    }
+
+    /**
+     * Picks the best stored variant for an {@code Accept-Encoding} request header.
+     *
+     * <p>The available coding with the highest quality value wins, identity included, and ties
+     * go to the earlier constant. {@code q=0} excludes a coding, and {@code *} applies to every
+     * coding not listed explicitly. Identity that is neither listed nor covered by {@code *} is
+     * acceptable but least preferred, so {@code gzip;q=0.5} still gets gzip. When nothing
+     * acceptable is available the identity variant is returned, because refusing to serve the
+     * map would be worse than ignoring an explicit {@code identity;q=0}.</p>
+     *
+     * @param acceptEncoding the raw request header, may be null
+     * @param available the codings the snapshot holds
+     * @return the coding to serve
+     */
+    public static ContentEncoding negotiate(final String acceptEncoding, final Set<ContentEncoding> available) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        ContentEncoding best = IDENTITY;
+        double bestQuality = 0.0;
+        for (final ContentEncoding candidate : values()) {
+            if (!available.contains(candidate)) {
+                continue;
+            }
+            final double quality = qualityOf(acceptEncoding, candidate);
+            if (quality > bestQuality) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Determines the quality value a header assigns to one coding.
+     *
+     * @param acceptEncoding the raw header value
+     * @param coding the coding to look up
+     * @return the quality between 0 and 1, or 0 if the coding is not accepted; unlisted identity
+     *         gets a quality below any a header can state
+     */
+    private static double qualityOf(final String acceptEncoding, final ContentEncoding coding) {
+        double wildcardQuality = coding == IDENTITY ? UNLISTED_IDENTITY_QUALITY : 0.0;
+        for (final String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String token = parts[0].trim().toLowerCase(Locale.ROOT);
+            final double quality = parseQuality(parts);
+            if (token.equals(coding.token)) {
+                return quality;
+            }
+            if (token.equals(WILDCARD)) {
+                wildcardQuality = quality;
+            }
+        }
+        return wildcardQuality;
+    }
+
+    private static double parseQuality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith(QUALITY_PARAMETER)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PARAMETER.length()));
+                } catch (NumberFormatException e) {
+                    return 0.0;
+                }
+            }
+        }
+        return 1.0;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Exports the links of a concept map as a CSV edge list, the form spreadsheets and data frame
+ * libraries load directly.
+ *
+ * <pre>
+ * source,target,type,strength
+ * variables,loops,PREREQUISITE,0.9
+ * </pre>
+ *
+ * <p>Each link is one row; a link without a strength has an empty cell. Fields holding a comma,
+ * a quote or a line break are quoted as RFC 4180 requires, so {@link CsvEdgeListImporter} reads
+ * the list back. An edge list has no place for nodes: their names, nodes without links and the
+ * rich fields of either are left out, and the JSON, NDJSON and GraphML exports keep them.</p>
+ */
+final class CsvEdgeListExporter implements ConceptMapExporter {
+
+    static final String FORMAT = "csv";
+
+    private static final String HEADER = "source,target,type,strength\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv; charset=UTF-8";
+    }
+
+    @Override
+    public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+        write(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks(), output);
+    }
+
+    @Override
+    public void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                      final OutputStream output) throws IOException {
+        final Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        out.write(HEADER);
+        for (final Link link : links) {
+            writeField(out, link.getSourceId());
+            out.write(',');
+            writeField(out, link.getTargetId());
+            out.write(',');
+            writeField(out, link.getRelationshipType());
+            out.write(',');
+            if (!Double.isNaN(link.getStrength())) {
+                out.write(ConceptMapExporters.number(link.getStrength()));
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static void writeField(final Writer out, final String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
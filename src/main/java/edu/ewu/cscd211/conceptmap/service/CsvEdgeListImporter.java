@@ -0,0 +1,316 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Imports an edge list kept as CSV, the form prerequisite spreadsheets are exported in.
+ *
+ * <p>The first row names the columns. It must contain {@code source} and {@code target}; a
+ * {@code type} and a {@code strength} column are read as well, and every other column is kept
+ * in the link's {@link Attributes}. Column names are matched without regard to case. The
+ * delimiter is the first of tab, semicolon and comma found in the header row. Fields follow
+ * RFC 4180: a quoted field may hold delimiters, line breaks and doubled quotes.</p>
+ *
+ * <pre>
+ * source,target,type,strength,note
+ * variables,loops,PREREQUISITE,0.9,"taught in week 2, reviewed in week 4"
+ * </pre>
+ *
+ * <p>Every id named by a link becomes a node, in order of first mention, named by its id. An
+ * empty type is the default relationship type and an empty strength is none. Rows are read one
+ * at a time; only the ids seen so far are remembered.</p>
+ */
+final class CsvEdgeListImporter implements ConceptMapImporter {
+
+    static final String FORMAT = "csv";
+
+    private static final String SOURCE_COLUMN = "source";
+    private static final String TARGET_COLUMN = "target";
+    private static final String TYPE_COLUMN = "type";
+    private static final String STRENGTH_COLUMN = "strength";
+    private static final String DEFAULT_RELATIONSHIP_TYPE = "RELATED_TO";
+    private static final char[] DELIMITERS = {'\t', ';', ','};
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    /** Detects a first line that names a source and a target column. */
+    @Override
+    public boolean detects(final byte[] head, final int length) {
+        final String text = new String(head, 0, length, StandardCharsets.UTF_8);
+        int end = 0;
+        while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+            end++;
+        }
+        final String header = text.substring(!text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK ? 1 : 0, end);
+        final List<String> columns = new ArrayList<>();
+        for (final String column : header.split(String.valueOf(delimiter(header)), -1)) {
+            columns.add(column(column));
+        }
+        return columns.contains(SOURCE_COLUMN) && columns.contains(TARGET_COLUMN);
+    }
+
+    @Override
+    public ConceptMap read(final InputStream input) throws IOException {
+        final RowReader rows = new RowReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        final ImportSink sink = new ImportSink(new Metadata("1.0", "Imported from CSV"));
+        final List<String> row = new ArrayList<>();
+        if (!rows.next(row)) {
+            throw new IllegalArgumentException("CSV edge list must start with a header row");
+        }
+        final String[] header = new String[row.size()];
+        int source = -1;
+        int target = -1;
+        int type = -1;
+        int strength = -1;
+        for (int i = 0; i < header.length; i++) {
+            header[i] = row.get(i).trim();
+            final String column = column(header[i]);
+            switch (column) {
+                case SOURCE_COLUMN -> source = i;
+                case TARGET_COLUMN -> target = i;
+                case TYPE_COLUMN -> type = i;
+                case STRENGTH_COLUMN -> strength = i;
+                default -> {
+                    continue;
+                }
+            }
+            // The typed columns keep the field names of the document layout
+            header[i] = column;
+        }
+        if (source < 0 || target < 0) {
+            throw new IllegalArgumentException("CSV header must name a source and a target column (line 1)");
+        }
+        final int strengthColumn = strength;
+
+        final Set<String> nodeIds = new HashSet<>();
+        while (rows.next(row)) {
+            final int line = rows.rowLine();
+            if (row.size() == 1 && row.get(0).isEmpty()) {
+                continue;
+            }
+            if (row.size() > header.length) {
+                final String message = "Row has " + row.size() + " fields but the header names " + header.length;
+                sink.addLink(line, () -> {
+                    throw new IllegalArgumentException(message);
+                });
+                continue;
+            }
+            final String sourceId = sink.intern(field(row, source));
+            final String targetId = sink.intern(field(row, target));
+            addNode(sink, nodeIds, sourceId, line);
+            addNode(sink, nodeIds, targetId, line);
+            final String relationshipType = field(row, type);
+            final double linkStrength = number(field(row, strength));
+            final Attributes attributes = sink.attributes(generator -> {
+                for (int i = 0; i < row.size(); i++) {
+                    final String value = row.get(i);
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    generator.writeFieldName(header[i]);
+                    if (i == strengthColumn && !Double.isNaN(linkStrength)) {
+                        generator.writeNumber(linkStrength);
+                    } else {
+                        generator.writeString(value);
+                    }
+                }
+            });
+            sink.addLink(line, () -> new Link(sourceId, targetId,
+                    sink.intern(relationshipType.isEmpty() ? DEFAULT_RELATIONSHIP_TYPE : relationshipType),
+                    linkStrength, attributes));
+        }
+        return sink.build();
+    }
+
+    /** Adds the node an endpoint names, the first time it is named. */
+    private static void addNode(final ImportSink sink, final Set<String> nodeIds, final String id, final int line) {
+        if (id.isEmpty() || !nodeIds.add(id)) {
+            return;
+        }
+        final Attributes attributes = sink.attributes(generator -> {
+            generator.writeStringField("id", id);
+            generator.writeStringField("name", id);
+        });
+        sink.addNode(line, () -> new Node(id, id, "", Double.NaN, Double.NaN, null, attributes));
+    }
+
+    private static String field(final List<String> row, final int column) {
+        return column < 0 || column >= row.size() ? "" : row.get(column).trim();
+    }
+
+    /** Reads a number the way the document reader does, NaN if the cell is not one. */
+    private static double number(final String text) {
+        if (text.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static char delimiter(final String header) {
+        for (final char delimiter : DELIMITERS) {
+            if (header.indexOf(delimiter) >= 0) {
+                return delimiter;
+            }
+        }
+        return ',';
+    }
+
+    private static String column(final String name) {
+        String column = name.trim();
+        if (column.length() >= 2 && column.charAt(0) == '"' && column.charAt(column.length() - 1) == '"') {
+            column = column.substring(1, column.length() - 1);
+        }
+        return column.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits a character stream into rows of fields. The delimiter is taken from the first row;
+     * one field buffer and one read buffer are reused for the whole stream.
+     */
+    private static final class RowReader {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Reader input;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private char delimiter;
+        private int line = 1;
+        private int rowLine;
+
+        RowReader(final Reader input) {
+            this.input = input;
+        }
+
+        /** The line the row last read starts on. */
+        int rowLine() {
+            return rowLine;
+        }
+
+        /**
+         * Reads the next row into the list.
+         *
+         * @return false at the end of the stream
+         * @throws IOException if the stream cannot be read or a quoted field is not closed
+         */
+        boolean next(final List<String> row) throws IOException {
+            row.clear();
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+            if (line == 1 && rowLine == 0 && c == BYTE_ORDER_MARK) {
+                c = read();
+            }
+            rowLine = line;
+            if (delimiter == 0) {
+                delimiter = detectDelimiter(c);
+            }
+            field.setLength(0);
+            boolean quoted = false;
+            boolean fieldStart = true;
+            while (true) {
+                if (c < 0) {
+                    if (quoted) {
+                        throw new IOException("Quoted field starting on line " + rowLine + " is not closed");
+                    }
+                    row.add(field.toString());
+                    return true;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        final int after = peek();
+                        if (after == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && fieldStart) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    row.add(field.toString());
+                    field.setLength(0);
+                    fieldStart = true;
+                    c = read();
+                    continue;
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    line++;
+                    row.add(field.toString());
+                    return true;
+                } else {
+                    field.append((char) c);
+                }
+                fieldStart = false;
+                c = read();
+            }
+        }
+
+        /** Takes the first delimiter on the header line, which is still in the buffer. */
+        private char detectDelimiter(final int first) {
+            final StringBuilder header = new StringBuilder().append((char) first);
+            for (int i = position; i < limit && buffer[i] != '\n' && buffer[i] != '\r'; i++) {
+                header.append(buffer[i]);
+            }
+            return delimiter(header.toString());
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            final int read = input.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.util.WeightedLruCache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A loaded dataset as held by the {@link DatasetRegistry} cache.
+ *
+ * <p>Bundles the manifest entry with the immutable snapshot that was built from it. A new
+ * instance is created every time a dataset is (re)loaded, so everything derived from the
+ * snapshot lives here too and is dropped together with it when the dataset is evicted:</p>
+ * <ul>
+ *   <li><strong>Graph</strong>: the parsed and indexed {@link DatasetGraph}, built on first use</li>
+ *   <li><strong>Views</strong>: pre-serialized query results such as neighborhoods, kept in a
+ *       small per-dataset LRU cache keyed by the query parameters</li>
+ *   <li><strong>Derived indexes</strong>: structures such as the search index that other
+ *       services build from the graph on first use, one per type</li>
+ * </ul>
+ *
+ * <p>Instances are safe to share between request threads.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.2
+ * @since 2.1
+ */
+public final class Dataset {
+
+    /**
+     * Builds a derived view on a cache miss.
+     */
+    @FunctionalInterface
+    interface ViewBuilder {
+        ConceptMapSnapshot build() throws ConceptMapNotFoundException, ConceptMapReadException;
+    }
+
+    /**
+     * Builds a derived index on first use.
+     *
+     * @param <T> the index type
+     */
+    @FunctionalInterface
+    interface Derivation<T> {
+        T derive(Dataset dataset) throws ConceptMapReadException;
+    }
+
+    // Heap reserved for the lazily built graph and derived indexes, relative to the minified document size
+    static final int GRAPH_WEIGHT_FACTOR = 3;
+
+    private final DatasetDescriptor descriptor;
+    private final ConceptMapSnapshot snapshot;
+    private final WeightedLruCache<Object, ConceptMapSnapshot> views;
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+    private volatile DatasetGraph graph;
+
+    Dataset(final DatasetDescriptor descriptor, final ConceptMapSnapshot snapshot, final long viewCacheMaxBytes) {
+        this.descriptor = Objects.requireNonNull(descriptor, "Descriptor cannot be null");
+        this.snapshot = Objects.requireNonNull(snapshot, "Snapshot cannot be null");
+        this.views = new WeightedLruCache<>(viewCacheMaxBytes, ConceptMapSnapshot::getHeapWeight);
+    }
+
+    public DatasetDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    public ConceptMapSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the parsed graph, building it from the snapshot on first use.
+     *
+     * @param conceptMapService parses the snapshot
+     * @return the dataset graph
+     * @throws ConceptMapReadException if the snapshot is not a valid concept map
+     */
+    DatasetGraph graph(final ConceptMapService conceptMapService) throws ConceptMapReadException {
+        DatasetGraph loaded = this.graph;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = this.graph;
+                if (loaded == null) {
+                    loaded = conceptMapService.loadDatasetGraph(descriptor.getId(), snapshot);
+                    this.graph = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the derived index of the given type, building it on first use.
+     *
+     * <p>Each type is built at most once per dataset instance, so a reloaded dataset starts
+     * with no derived indexes and its old ones are released together with the old instance.</p>
+     *
+     * @param <T> the index type
+     * @param type the index class, used as the key
+     * @param derivation builds the index on first use
+     * @return the derived index
+     * @throws ConceptMapReadException if the derivation fails
+     */
+    <T> T derived(final Class<T> type, final Derivation<T> derivation) throws ConceptMapReadException {
+        Object value = derived.get(type);
+        if (value == null) {
+            synchronized (this) {
+                value = derived.get(type);
+                if (value == null) {
+                    value = Objects.requireNonNull(derivation.derive(this), "Derived index cannot be null");
+                    derived.put(type, value);
+                }
+            }
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Returns a cached view or builds and caches it.
+     *
+     * <p>Two threads that miss on the same key at the same time may both build the view; the
+     * results are identical, so the last one stored simply wins.</p>
+     *
+     * @param key the view key; must implement value equality
+     * @param builder builds the view on a miss
+     * @return the cached or newly built view
+     * @throws ConceptMapNotFoundException if the builder reports a missing element
+     * @throws ConceptMapReadException if the builder fails
+     */
+    ConceptMapSnapshot view(final Object key, final ViewBuilder builder)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final ConceptMapSnapshot cached = views.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final ConceptMapSnapshot built = builder.build();
+        views.put(key, built);
+        return built;
+    }
+
+    /**
+     * Estimates the heap bytes retained by this dataset, used as its cache weight.
+     *
+     * <p>The graph, derived indexes and the view cache are filled after the dataset has been
+     * cached, so their share is reserved up front: the view cache at its limit and the graph
+     * and indexes in proportion to the document size.</p>
+     *
+     * @return the approximate heap footprint in bytes
+     */
+    long estimateWeight() {
+        return snapshot.getHeapWeight()
+                + GRAPH_WEIGHT_FACTOR * snapshot.getContentLength()
+                + views.maxWeight();
+    }
+
+    @Override
+    public String toString() {
+        return "Dataset{" + descriptor.getId() + ", " + snapshot + '}';
+    }
+}
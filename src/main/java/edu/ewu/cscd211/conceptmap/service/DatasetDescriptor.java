@@ -0,0 +1,73 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import java.util.Objects;
+
+/**
+ * One entry of the dataset manifest: a concept map file and its display name.
+ *
+ * <p>The identifier used in URLs is the file name without its {@code .json} extension, so
+ * {@code ewu-course-catalog.json} is served at {@code /api/concept-maps/ewu-course-catalog}.
+ * Only files listed in the manifest can be addressed, which keeps request paths from ever being
+ * resolved against the file system directly.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class DatasetDescriptor {
+
+    private static final String JSON_EXTENSION = ".json";
+
+    private final String id;
+    private final String name;
+    private final String file;
+
+    /**
+     * Creates a descriptor for a manifest entry.
+     *
+     * @param file the dataset file name relative to the manifest, e.g. {@code concept-map.json}
+     * @param name the human-readable dataset name; defaults to the identifier when blank
+     * @throws IllegalArgumentException if file is null or blank
+     */
+    public DatasetDescriptor(final String file, final String name) {
+        if (file == null || file.trim().isEmpty()) {
+            throw new IllegalArgumentException("Dataset file cannot be blank");
+        }
+        this.file = file.trim();
+        final String baseName = this.file.substring(this.file.lastIndexOf('/') + 1);
+        this.id = baseName.endsWith(JSON_EXTENSION)
+                ? baseName.substring(0, baseName.length() - JSON_EXTENSION.length())
+                : baseName;
+        this.name = name == null || name.trim().isEmpty() ? this.id : name.trim();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DatasetDescriptor that = (DatasetDescriptor) o;
+        return Objects.equals(file, that.file) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, name);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DatasetDescriptor{id='%s', name='%s', file='%s'}", id, name, file);
+    }
+}
@@ -0,0 +1,187 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.graph.AdjacencyIndex;
+import edu.ewu.cscd211.conceptmap.graph.CsrGraph;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The parsed, indexed form of one dataset, derived from its {@link ConceptMapSnapshot}.
+ *
+ * <p>Besides the domain model and its {@link AdjacencyIndex}, whose {@link CsrGraph} all
+ * traversals run on, the graph keeps the minified JSON of every node and link object exactly
+ * as it appears in the dataset. Clients render with the full objects (level, group, size and
+ * the rich teaching fields), so subgraph responses are assembled from these stored objects,
+ * which are the {@link Attributes} of the nodes and links. They are found by number.</p>
+ *
+ * <p>A graph is either parsed from JSON or mapped from a {@link DatasetGraphFile}. A mapped
+ * graph decodes nodes, links and stored objects from the file when they are asked for and has
+ * no concept map: {@link #getConceptMap()} builds one for each call, which the graph does not
+ * keep, and {@link #export} streams from the index without one.</p>
+ *
+ * <p>The concept map is {@linkplain ConceptMap#freeze() frozen} and every other part is
+ * immutable, so a graph is read by any number of threads without locks. A reloaded dataset
+ * gets a new graph rather than a modified one.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.3
+ * @since 2.1
+ * @see ConceptMapService#loadDatasetGraph(ConceptMapSnapshot)
+ */
+public final class DatasetGraph {
+
+    private final Metadata metadata;
+    private final AdjacencyIndex adjacency;
+    private final String metadataJson;
+    private final List<String> nodeJson;
+    private final List<String> linkJson;
+    // Null for mapped graphs, which build a map only when asked for one
+    private final ConceptMap conceptMap;
+
+    /**
+     * Creates a graph whose stored objects are the {@link Attributes} of its nodes and links.
+     *
+     * @param conceptMap the frozen domain model
+     * @param adjacency the index over its nodes and links
+     * @param metadataJson the minified metadata object
+     */
+    DatasetGraph(final ConceptMap conceptMap, final AdjacencyIndex adjacency, final String metadataJson) {
+        this(conceptMap, conceptMap.getMetadata(), adjacency, metadataJson,
+                json(adjacency.getNodes(), Node::getAttributes), json(adjacency.getLinks(), Link::getAttributes));
+    }
+
+    /**
+     * Creates a graph.
+     *
+     * @param conceptMap the frozen domain model, or null to build it from the index on demand
+     * @param metadata the dataset metadata
+     * @param adjacency the index over the nodes and links
+     * @param metadataJson the minified metadata object
+     * @param nodeJson the minified node objects by node number
+     * @param linkJson the minified link objects by link number
+     */
+    DatasetGraph(final ConceptMap conceptMap, final Metadata metadata, final AdjacencyIndex adjacency,
+                 final String metadataJson, final List<String> nodeJson, final List<String> linkJson) {
+        this.conceptMap = conceptMap;
+        this.metadata = Objects.requireNonNull(metadata, "Metadata cannot be null");
+        this.adjacency = Objects.requireNonNull(adjacency, "Adjacency index cannot be null");
+        this.metadataJson = Objects.requireNonNull(metadataJson, "Metadata JSON cannot be null");
+        this.nodeJson = Objects.requireNonNull(nodeJson, "Node JSON cannot be null");
+        this.linkJson = Objects.requireNonNull(linkJson, "Link JSON cannot be null");
+        if (nodeJson.size() != adjacency.nodeCount() || linkJson.size() != adjacency.linkCount()) {
+            throw new IllegalArgumentException("Stored objects do not match " + adjacency);
+        }
+    }
+
+    private static <E> List<String> json(final List<E> elements, final Function<E, Attributes> attributes) {
+        return new AbstractList<>() {
+            @Override
+            public String get(final int index) {
+                return attributes.apply(elements.get(index)).toJson();
+            }
+
+            @Override
+            public int size() {
+                return elements.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the domain model. A mapped graph builds a new one on every call, which takes as
+     * much heap as parsing the dataset; exports use {@link #export} instead.
+     *
+     * @return the frozen concept map
+     */
+    public ConceptMap getConceptMap() {
+        if (conceptMap != null) {
+            return conceptMap;
+        }
+        return ConceptMap.builder(metadata)
+                .addNodes(adjacency.getNodes())
+                .addLinks(adjacency.getLinks())
+                .build()
+                .freeze();
+    }
+
+    /**
+     * Writes the dataset in an exporter's format, from the nodes and links of the index. A
+     * mapped graph decodes them one at a time as they are written.
+     *
+     * @param exporter the format to write
+     * @param output receives the document
+     * @throws IOException if the stream cannot be written
+     */
+    public void export(final ConceptMapExporter exporter, final OutputStream output) throws IOException {
+        exporter.write(metadata, adjacency.getNodes(), adjacency.getLinks(), output);
+    }
+
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    public AdjacencyIndex getAdjacency() {
+        return adjacency;
+    }
+
+    /**
+     * Returns the original metadata object of the dataset.
+     *
+     * @return the minified metadata object
+     */
+    String metadataJson() {
+        return metadataJson;
+    }
+
+    /**
+     * Returns the original JSON object of a node.
+     *
+     * @param nodeId the node id
+     * @return the minified node object, or null if unknown
+     */
+    String nodeJson(final String nodeId) {
+        final int node = adjacency.getGraph().indexOf(nodeId);
+        return node == CsrGraph.NO_NODE ? null : nodeJson.get(node);
+    }
+
+    /**
+     * Returns the original JSON object of a node.
+     *
+     * @param node the node number
+     * @return the minified node object
+     */
+    String nodeJson(final int node) {
+        return nodeJson.get(node);
+    }
+
+    /**
+     * Returns the original JSON object of a link.
+     *
+     * @param link the link
+     * @return the minified link object, or null if unknown
+     */
+    String linkJson(final Link link) {
+        final int position = adjacency.indexOf(link);
+        return position < 0 ? null : linkJson.get(position);
+    }
+
+    /**
+     * Returns the original JSON object of a link.
+     *
+     * @param link the link number, its position in {@link AdjacencyIndex#getLinks()}
+     * @return the minified link object
+     */
+    String linkJson(final int link) {
+        return linkJson.get(link);
+    }
+}
@@ -0,0 +1,410 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.graph.AdjacencyIndex;
+import edu.ewu.cscd211.conceptmap.graph.CsrGraph;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file form of a {@link DatasetGraph}, memory-mapped on load so that a dataset is
+ * usable without parsing its JSON again.
+ *
+ * <p>A file is written the first time a dataset is parsed, and mapped in place of the parsed
+ * graph from then on; it is named after the dataset and the SHA-256 hash of the snapshot's
+ * ETag, so a changed dataset gets a new file, and writing it deletes the one it supersedes.
+ * Opening a file maps it and checks its header; nodes, links and stored JSON objects are then
+ * decoded from the mapping when they are asked for, and the operating system pages the file in
+ * as it is read.</p>
+ *
+ * <h3>Layout</h3>
+ * <pre>
+ *   header        96 bytes: magic, format version, node, link and type counts, the offsets of
+ *                 the three sections, the file length, the source hash and two CRC32C checksums
+ *   string table  (offset, length) int pairs into the text region, in this order: metadata
+ *                 version, description and JSON; relationship types by symbol; id, name,
+ *                 description, group and JSON of every node; JSON of every link
+ *   numbers       doubles: level and size of every node, then strength of every link
+ *   graph         the {@link CsrGraph} storage, topology plus type and strength columns
+ *   text          UTF-8 bytes of every string
+ * </pre>
+ * <p>Numbers are in the platform's byte order, which the magic number detects; a file from a
+ * machine of the other order is rebuilt like a stale one. The header checksum covers the
+ * header and the body checksum everything after it. Only the header is checked on open, since
+ * checking the body would read every page of it; the body is checked once, before a written
+ * file is moved into place, and files are only ever replaced whole.</p>
+ */
+final class DatasetGraphFile {
+
+    private static final int MAGIC = 0x434D4746;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 96;
+    private static final int NODE_COUNT_OFFSET = 8;
+    private static final int LINK_COUNT_OFFSET = 12;
+    private static final int TYPE_COUNT_OFFSET = 16;
+    private static final int STRINGS_OFFSET_OFFSET = 24;
+    private static final int GRAPH_OFFSET_OFFSET = 32;
+    private static final int TEXT_OFFSET_OFFSET = 40;
+    private static final int FILE_LENGTH_OFFSET = 48;
+    private static final int SOURCE_HASH_OFFSET = 56;
+    private static final int SOURCE_HASH_BYTES = 32;
+    private static final int BODY_CHECKSUM_OFFSET = 88;
+    private static final int HEADER_CHECKSUM_OFFSET = 92;
+    private static final int METADATA_STRINGS = 3;
+    private static final int NODE_STRINGS = 5;
+    private static final int NODE_NUMBERS = 2;
+    private static final int STRING_ENTRY_BYTES = 2 * Integer.BYTES;
+    // Marks a null string in the length column
+    private static final int NULL_LENGTH = -1;
+    private static final String FILE_SUFFIX = ".cmgraph";
+    // Separates the dataset part of a file name from the source hash
+    private static final char NAME_SEPARATOR = '-';
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private DatasetGraphFile() {
+    }
+
+    /**
+     * Maps the stored graph of a snapshot.
+     *
+     * @param directory the directory of graph files
+     * @param datasetId the dataset the snapshot belongs to, or null if it has no id
+     * @param snapshot the snapshot the graph was built from
+     * @return the mapped graph, or null if there is no intact file for this snapshot
+     */
+    static DatasetGraph read(final Path directory, final String datasetId, final ConceptMapSnapshot snapshot) {
+        final byte[] sourceHash = sourceHash(snapshot);
+        final MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(directory.resolve(fileName(datasetId, sourceHash)),
+                StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // An unreadable file is treated as missing and overwritten
+            return null;
+        }
+        file.order(ByteOrder.nativeOrder());
+        if (!isCurrent(file, sourceHash)) {
+            return null;
+        }
+        try {
+            return map(file);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a graph for a snapshot. The file is written next to its final name, checked and
+     * moved into place, so readers see either no file or a complete one. The dataset's files
+     * for other snapshots are then deleted.
+     *
+     * @param directory the directory of graph files, created if missing
+     * @param datasetId the dataset the snapshot belongs to, or null if it has no id
+     * @param snapshot the snapshot the graph was built from
+     * @param graph the graph
+     * @throws IOException if the file cannot be written or would exceed 2 GB
+     */
+    static void write(final Path directory, final String datasetId, final ConceptMapSnapshot snapshot,
+                      final DatasetGraph graph) throws IOException {
+        final byte[] sourceHash = sourceHash(snapshot);
+        final AdjacencyIndex adjacency = graph.getAdjacency();
+        final CsrGraph csr = adjacency.getGraph();
+        final int nodeCount = adjacency.nodeCount();
+        final int linkCount = adjacency.linkCount();
+        final List<String> strings = new ArrayList<>(stringCount(csr.typeCount(), nodeCount, linkCount));
+        strings.add(graph.getMetadata().getVersion());
+        strings.add(graph.getMetadata().getDescription());
+        strings.add(graph.metadataJson());
+        for (int type = 0; type < csr.typeCount(); type++) {
+            strings.add(csr.typeName(type));
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            final Node node = adjacency.getNodes().get(i);
+            strings.add(node.getId());
+            strings.add(node.getName());
+            strings.add(node.getDescription());
+            strings.add(node.getGroup());
+            strings.add(graph.nodeJson(i));
+        }
+        for (int l = 0; l < linkCount; l++) {
+            strings.add(graph.linkJson(l));
+        }
+
+        final ByteBuffer numbers = ByteBuffer.allocate(numberBytes(nodeCount, linkCount)).order(ByteOrder.nativeOrder());
+        for (final Node node : adjacency.getNodes()) {
+            numbers.putDouble(node.getLevel()).putDouble(node.getSize());
+        }
+        for (final Link link : adjacency.getLinks()) {
+            numbers.putDouble(link.getStrength());
+        }
+
+        final long stringsOffset = HEADER_BYTES;
+        final long numbersOffset = stringsOffset + (long) strings.size() * STRING_ENTRY_BYTES;
+        final long graphOffset = numbersOffset + numbers.capacity();
+        final long textOffset = graphOffset + csr.columnBytes();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, "graph-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (csr.byteOrder() != ByteOrder.nativeOrder()) {
+                    throw new IOException("Graph columns are not in the platform byte order");
+                }
+                channel.position(graphOffset);
+                csr.writeTo(channel);
+
+                // Text first, recording where each string lands
+                final ByteBuffer table = ByteBuffer.allocate(strings.size() * STRING_ENTRY_BYTES)
+                        .order(ByteOrder.nativeOrder());
+                channel.position(textOffset);
+                final OutputStream text = new BufferedOutputStream(Channels.newOutputStream(channel));
+                long textLength = 0;
+                for (final String string : strings) {
+                    final byte[] bytes = string == null ? null : string.getBytes(StandardCharsets.UTF_8);
+                    table.putInt((int) textLength).putInt(bytes == null ? NULL_LENGTH : bytes.length);
+                    if (bytes != null) {
+                        text.write(bytes);
+                        textLength += bytes.length;
+                    }
+                    if (textOffset + textLength > Integer.MAX_VALUE) {
+                        throw new IOException("Graph file would exceed 2 GB");
+                    }
+                }
+                text.flush();
+                writeFully(channel, table.flip(), stringsOffset);
+                writeFully(channel, numbers.flip(), numbersOffset);
+
+                final long fileLength = textOffset + textLength;
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+                header.putInt(MAGIC).putInt(FORMAT_VERSION)
+                        .putInt(nodeCount).putInt(linkCount).putInt(csr.typeCount()).putInt(0)
+                        .putLong(stringsOffset).putLong(graphOffset).putLong(textOffset).putLong(fileLength)
+                        .put(sourceHash)
+                        .putInt(checksum(channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, fileLength - HEADER_BYTES)));
+                header.putInt(HEADER_CHECKSUM_OFFSET, checksum(header.slice(0, HEADER_CHECKSUM_OFFSET)));
+                writeFully(channel, header.clear(), 0);
+
+                // The pages were just written, so reading them back is cheap here and never on open
+                final MappedByteBuffer written = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                written.order(ByteOrder.nativeOrder());
+                if (!isCurrent(written, sourceHash) || written.getInt(BODY_CHECKSUM_OFFSET)
+                        != checksum(written.slice(HEADER_BYTES, written.capacity() - HEADER_BYTES))) {
+                    throw new IOException("Graph file did not read back as written");
+                }
+            }
+            Files.move(temporary, directory.resolve(fileName(datasetId, sourceHash)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        if (datasetId != null) {
+            deleteSuperseded(directory, datasetId, sourceHash);
+        }
+    }
+
+    /**
+     * Checks that a file is a graph of this format for this snapshot, and that its header is
+     * intact and agrees with the file length.
+     */
+    private static boolean isCurrent(final ByteBuffer file, final byte[] sourceHash) {
+        if (file.getInt(0) != MAGIC || file.getInt(Integer.BYTES) != FORMAT_VERSION
+                || file.getInt(HEADER_CHECKSUM_OFFSET) != checksum(file.slice(0, HEADER_CHECKSUM_OFFSET))
+                || file.getLong(FILE_LENGTH_OFFSET) != file.capacity()) {
+            return false;
+        }
+        final byte[] storedHash = new byte[SOURCE_HASH_BYTES];
+        file.get(SOURCE_HASH_OFFSET, storedHash);
+        return Arrays.equals(storedHash, sourceHash);
+    }
+
+    /**
+     * Deletes the files of a dataset other than the one for the given snapshot. Best effort: a
+     * file that cannot be deleted, for instance because it is still mapped on a platform that
+     * forbids that, is deleted by a later write.
+     */
+    private static void deleteSuperseded(final Path directory, final String datasetId, final byte[] sourceHash) {
+        final String prefix = datasetPart(datasetId) + NAME_SEPARATOR;
+        final String current = fileName(datasetId, sourceHash);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path file : files.toList()) {
+                final String name = file.getFileName().toString();
+                // The source hash never holds the separator, so a longer dataset id cannot match
+                if (name.startsWith(prefix) && name.endsWith(FILE_SUFFIX) && !name.equals(current)
+                        && name.indexOf(NAME_SEPARATOR, prefix.length()) < 0) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Left for the next write
+        }
+    }
+
+    private static DatasetGraph map(final ByteBuffer file) {
+        final int nodeCount = file.getInt(NODE_COUNT_OFFSET);
+        final int linkCount = file.getInt(LINK_COUNT_OFFSET);
+        final int typeCount = file.getInt(TYPE_COUNT_OFFSET);
+        final int stringsOffset = Math.toIntExact(file.getLong(STRINGS_OFFSET_OFFSET));
+        final int graphOffset = Math.toIntExact(file.getLong(GRAPH_OFFSET_OFFSET));
+        final int textOffset = Math.toIntExact(file.getLong(TEXT_OFFSET_OFFSET));
+        final int stringCount = stringCount(typeCount, nodeCount, linkCount);
+        final int numbersOffset = stringsOffset + stringCount * STRING_ENTRY_BYTES;
+        if (graphOffset - numbersOffset != numberBytes(nodeCount, linkCount)) {
+            throw new IllegalArgumentException("Sections do not match the counts");
+        }
+        final ByteBuffer table = file.slice(stringsOffset, numbersOffset - stringsOffset).order(file.order());
+        final ByteBuffer numbers = file.slice(numbersOffset, graphOffset - numbersOffset).order(file.order());
+        final int strengthsStart = NODE_NUMBERS * nodeCount;
+        final ByteBuffer text = file.slice(textOffset, file.capacity() - textOffset);
+
+        final int typesStart = METADATA_STRINGS;
+        final int nodesStart = typesStart + typeCount;
+        final int linksStart = nodesStart + NODE_STRINGS * nodeCount;
+        final StringColumn ids = new StringColumn(table, text, nodesStart, NODE_STRINGS, nodeCount);
+        final StringColumn names = new StringColumn(table, text, nodesStart + 1, NODE_STRINGS, nodeCount);
+        final StringColumn descriptions = new StringColumn(table, text, nodesStart + 2, NODE_STRINGS, nodeCount);
+        final StringColumn groups = new StringColumn(table, text, nodesStart + 3, NODE_STRINGS, nodeCount);
+        final StringColumn nodeJson = new StringColumn(table, text, nodesStart + 4, NODE_STRINGS, nodeCount);
+        final StringColumn linkJson = new StringColumn(table, text, linksStart, 1, linkCount);
+        final StringColumn metadata = new StringColumn(table, text, 0, 1, METADATA_STRINGS);
+        final List<String> types = List.copyOf(new StringColumn(table, text, typesStart, 1, typeCount));
+
+        final CsrGraph csr = CsrGraph.map(file.slice(graphOffset, textOffset - graphOffset).order(file.order()),
+                ids, types);
+        final List<Node> nodes = new DecodedList<>(nodeCount) {
+            @Override
+            public Node get(final int index) {
+                final int at = NODE_NUMBERS * index * Double.BYTES;
+                return new Node(ids.get(index), names.get(index), descriptions.get(index), numbers.getDouble(at),
+                        numbers.getDouble(at + Double.BYTES), groups.get(index), Attributes.ofJson(nodeJson.bytes(index)));
+            }
+        };
+        final List<Link> links = new DecodedList<>(linkCount) {
+            @Override
+            public Link get(final int index) {
+                return new Link(ids.get(csr.source(index)), ids.get(csr.target(index)), csr.typeName(csr.type(index)),
+                        numbers.getDouble((strengthsStart + index) * Double.BYTES), Attributes.ofJson(linkJson.bytes(index)));
+            }
+        };
+        return new DatasetGraph(null, new Metadata(metadata.get(0), metadata.get(1)),
+                AdjacencyIndex.of(nodes, links, csr), metadata.get(2), nodeJson, linkJson);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer bytes, final long position)
+            throws IOException {
+        long at = position;
+        while (bytes.hasRemaining()) {
+            at += channel.write(bytes, at);
+        }
+    }
+
+    private static int numberBytes(final int nodeCount, final int linkCount) {
+        return Math.toIntExact(((long) NODE_NUMBERS * nodeCount + linkCount) * Double.BYTES);
+    }
+
+    private static int stringCount(final int typeCount, final int nodeCount, final int linkCount) {
+        return Math.toIntExact(METADATA_STRINGS + (long) typeCount + (long) NODE_STRINGS * nodeCount + linkCount);
+    }
+
+    private static int checksum(final ByteBuffer bytes) {
+        final CRC32C crc = new CRC32C();
+        crc.update(bytes.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static byte[] sourceHash(final ConceptMapSnapshot snapshot) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(snapshot.getETag().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static String fileName(final String datasetId, final byte[] sourceHash) {
+        final String hash = HexFormat.of().formatHex(sourceHash, 0, 16) + FILE_SUFFIX;
+        return datasetId == null ? hash : datasetPart(datasetId) + NAME_SEPARATOR + hash;
+    }
+
+    private static String datasetPart(final String datasetId) {
+        return datasetId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /** Read-only list whose elements are decoded from the file on every access. */
+    private abstract static class DecodedList<E> extends AbstractList<E> implements RandomAccess {
+
+        private final int size;
+
+        DecodedList(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Every {@code stride}-th string of the table from {@code first} on, decoded on access. */
+    private static final class StringColumn extends DecodedList<String> {
+
+        private final ByteBuffer table;
+        private final ByteBuffer text;
+        private final int first;
+        private final int stride;
+
+        StringColumn(final ByteBuffer table, final ByteBuffer text, final int first, final int stride, final int size) {
+            super(size);
+            this.table = table;
+            this.text = text;
+            this.first = first;
+            this.stride = stride;
+        }
+
+        @Override
+        public String get(final int index) {
+            final ByteBuffer bytes = bytes(index);
+            return bytes == null ? null : StandardCharsets.UTF_8.decode(bytes).toString();
+        }
+
+        /** Returns the UTF-8 bytes of a string as a region of the mapping, or null. */
+        ByteBuffer bytes(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            final int entry = (first + index * stride) * STRING_ENTRY_BYTES;
+            final int length = table.getInt(entry + Integer.BYTES);
+            return length == NULL_LENGTH ? null : text.slice(table.getInt(entry), length);
+        }
+    }
+}
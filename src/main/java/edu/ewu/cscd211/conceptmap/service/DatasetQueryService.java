@@ -0,0 +1,358 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import edu.ewu.cscd211.conceptmap.graph.Subgraph;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Answers graph queries against the datasets of the {@link DatasetRegistry}.
+ *
+ * <p>Every answer is returned as a {@link ConceptMapSnapshot}, so query results get the same
+ * ETag, Last-Modified and gzip handling as whole datasets. Results are cached per dataset and
+ * per normalized query, which makes a repeated query a hash lookup.</p>
+ *
+ * <h3>Projections and Details</h3>
+ * <p>The initial render of a map only needs a handful of fields per node and link, while the
+ * rich teaching fields make up most of the bytes. Projections and the fixed skeleton return
+ * only the requested fields, and the node and link detail views return single complete
+ * objects when a client actually opens them.</p>
+ *
+ * <h3>Neighborhoods</h3>
+ * <p>A neighborhood is the induced subgraph around one node: every node within {@code depth}
+ * hops and every link among them. It is computed on the dataset's
+ * {@link edu.ewu.cscd211.conceptmap.graph.AdjacencyIndex}, so its cost depends on the size of
+ * the neighborhood rather than on the size of the map.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+@Service
+public class DatasetQueryService {
+
+    /** Largest accepted neighborhood depth; beyond this a client should fetch the whole map. */
+    public static final int MAX_NEIGHBORHOOD_DEPTH = 5;
+
+    private static final String NEIGHBORHOOD_VIEW = "neighborhood";
+    private static final String PROJECTION_VIEW = "projection";
+    private static final String NODE_VIEW = "node";
+    private static final String LINK_VIEW = "link";
+    private static final Set<String> NODE_KEY_FIELDS = Set.of("id");
+    private static final Set<String> LINK_KEY_FIELDS = Set.of("source", "target");
+    private static final Set<String> SKELETON_NODE_FIELDS =
+            Collections.unmodifiableSet(new TreeSet<>(Set.of("id", "name", "level", "group", "size")));
+    private static final Set<String> SKELETON_LINK_FIELDS =
+            Collections.unmodifiableSet(new TreeSet<>(Set.of("source", "target", "type", "strength")));
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // Query results are small; keep them on the heap regardless of the dataset spill threshold
+    private static final long VIEW_SPILL_THRESHOLD = Long.MAX_VALUE;
+
+    private final DatasetRegistry datasetRegistry;
+    private final ConceptMapService conceptMapService;
+
+    /**
+     * Creates the query service.
+     *
+     * @param datasetRegistry provides the loaded datasets
+     * @param conceptMapService parses datasets into indexed graphs
+     * @throws NullPointerException if either argument is null
+     */
+    public DatasetQueryService(final DatasetRegistry datasetRegistry, final ConceptMapService conceptMapService) {
+        this.datasetRegistry = Objects.requireNonNull(datasetRegistry, "DatasetRegistry cannot be null");
+        this.conceptMapService = Objects.requireNonNull(conceptMapService, "ConceptMapService cannot be null");
+    }
+
+    /**
+     * Returns the k-hop neighborhood of a node as
+     * {@code {"dataset", "center", "depth", "direction", "types", "nodes": [...], "links": [...]}},
+     * where nodes and links are the full objects from the dataset.
+     *
+     * @param datasetId the dataset id
+     * @param nodeId the center node id
+     * @param depth the number of hops, from 0 to {@link #MAX_NEIGHBORHOOD_DEPTH}
+     * @param direction which links to follow
+     * @param types relationship types to follow and return; null or empty for all
+     * @return the neighborhood document
+     * @throws ConceptMapNotFoundException if the dataset or node does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     * @throws IllegalArgumentException if depth is out of range
+     */
+    public ConceptMapSnapshot getNeighborhood(final String datasetId, final String nodeId, final int depth,
+                                              final Direction direction, final Collection<String> types)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        if (depth < 0 || depth > MAX_NEIGHBORHOOD_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + MAX_NEIGHBORHOOD_DEPTH);
+        }
+        Objects.requireNonNull(direction, "Direction cannot be null");
+        final Set<String> typeFilter = normalizeNames(types);
+
+        final Dataset dataset = datasetRegistry.getDataset(datasetId);
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        if (!graph.getAdjacency().contains(nodeId)) {
+            throw new ConceptMapNotFoundException("Node " + nodeId + " not found in dataset " + datasetId);
+        }
+
+        final List<Object> key = List.of(NEIGHBORHOOD_VIEW, nodeId, depth, direction, typeFilter);
+        return dataset.view(key, () -> {
+            final Subgraph subgraph = graph.getAdjacency().neighborhood(nodeId, depth, direction, typeFilter);
+            return writeNeighborhood(dataset, graph, subgraph, direction, typeFilter);
+        });
+    }
+
+    /**
+     * Returns the dataset with every node and link reduced to the requested fields, as
+     * {@code {"metadata": {...}, "nodes": [...], "links": [...]}}.
+     *
+     * <p>Nodes always keep {@code id} and links always keep {@code source} and {@code target}, so
+     * the result is still a usable graph. Fields an element does not have are simply omitted.
+     * Duplicate nodes and links are dropped, so a link's position in {@code links} is the index
+     * used by {@link #getLinkDetail(String, int)}.</p>
+     *
+     * @param datasetId the dataset id
+     * @param fields the field names to keep on nodes and links
+     * @return the projected document
+     * @throws ConceptMapNotFoundException if the dataset does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     */
+    public ConceptMapSnapshot getProjection(final String datasetId, final Collection<String> fields)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Set<String> requested = normalizeNames(fields);
+        final Set<String> nodeFields = new TreeSet<>(requested);
+        nodeFields.addAll(NODE_KEY_FIELDS);
+        final Set<String> linkFields = new TreeSet<>(requested);
+        linkFields.addAll(LINK_KEY_FIELDS);
+        return project(datasetId, nodeFields, linkFields);
+    }
+
+    /**
+     * Returns the compact skeleton of a dataset: the fields needed to draw the graph and
+     * nothing else.
+     *
+     * <p>Nodes keep {@code id, name, level, group, size} and links keep
+     * {@code source, target, type, strength}. The rich teaching fields are fetched on demand
+     * through {@link #getNodeDetail(String, String)} and {@link #getLinkDetail(String, int)}.</p>
+     *
+     * @param datasetId the dataset id
+     * @return the skeleton document
+     * @throws ConceptMapNotFoundException if the dataset does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     */
+    public ConceptMapSnapshot getSkeleton(final String datasetId)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        return project(datasetId, SKELETON_NODE_FIELDS, SKELETON_LINK_FIELDS);
+    }
+
+    /**
+     * Returns the complete JSON object of one node, including all rich fields.
+     *
+     * @param datasetId the dataset id
+     * @param nodeId the node id
+     * @return the node document
+     * @throws ConceptMapNotFoundException if the dataset or node does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     */
+    public ConceptMapSnapshot getNodeDetail(final String datasetId, final String nodeId)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Dataset dataset = datasetRegistry.getDataset(datasetId);
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        if (nodeId == null || !graph.getAdjacency().contains(nodeId)) {
+            throw new ConceptMapNotFoundException("Node " + nodeId + " not found in dataset " + datasetId);
+        }
+        // A mapped graph decodes the object, so only a view cache miss pays for it
+        return dataset.view(List.of(NODE_VIEW, nodeId),
+                () -> writeView(dataset, generator -> generator.writeRawValue(graph.nodeJson(nodeId))));
+    }
+
+    /**
+     * Returns the complete JSON object of one link, including all rich fields.
+     *
+     * @param datasetId the dataset id
+     * @param linkIndex the link's position in the {@code links} array of a projection or skeleton
+     * @return the link document
+     * @throws ConceptMapNotFoundException if the dataset or link does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     */
+    public ConceptMapSnapshot getLinkDetail(final String datasetId, final int linkIndex)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Dataset dataset = datasetRegistry.getDataset(datasetId);
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        if (linkIndex < 0 || linkIndex >= graph.getAdjacency().linkCount()) {
+            throw new ConceptMapNotFoundException("Link " + linkIndex + " not found in dataset " + datasetId);
+        }
+        return dataset.view(List.of(LINK_VIEW, linkIndex),
+                () -> writeView(dataset, generator -> generator.writeRawValue(graph.linkJson(linkIndex))));
+    }
+
+    /**
+     * Returns the indexed graph of a dataset, for exports. Unlike the other views it is not
+     * serialized here; {@link DatasetGraph#export} streams it in the format the client asks
+     * for, and no concept map is built or kept for it.
+     *
+     * @param datasetId the dataset id
+     * @return the dataset graph
+     * @throws ConceptMapNotFoundException if the dataset does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     * @see #getExporter(String)
+     */
+    public DatasetGraph getGraph(final String datasetId)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        return datasetRegistry.getDataset(datasetId).graph(conceptMapService);
+    }
+
+    /**
+     * Returns the exporter of a format.
+     *
+     * @param format one of {@link ConceptMapService#getExportFormats()}, in any case
+     * @return the exporter
+     * @throws IllegalArgumentException if format is null or not supported
+     */
+    public ConceptMapExporter getExporter(final String format) {
+        return conceptMapService.getExporter(format);
+    }
+
+    private ConceptMapSnapshot project(final String datasetId, final Set<String> nodeFields, final Set<String> linkFields)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Dataset dataset = datasetRegistry.getDataset(datasetId);
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        return dataset.view(List.of(PROJECTION_VIEW, nodeFields, linkFields), () -> writeView(dataset, generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName("metadata");
+            generator.writeRawValue(graph.metadataJson());
+            generator.writeArrayFieldStart("nodes");
+            for (int i = 0; i < graph.getAdjacency().nodeCount(); i++) {
+                copyFields(graph.nodeJson(i), nodeFields, generator);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int l = 0; l < graph.getAdjacency().linkCount(); l++) {
+                copyFields(graph.linkJson(l), linkFields, generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }));
+    }
+
+    private static ConceptMapSnapshot writeNeighborhood(final Dataset dataset, final DatasetGraph graph,
+                                                        final Subgraph subgraph, final Direction direction,
+                                                        final Set<String> types) throws ConceptMapReadException {
+        return writeView(dataset, generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("dataset", dataset.getDescriptor().getId());
+            generator.writeStringField("center", subgraph.getCenterId());
+            generator.writeNumberField("depth", subgraph.getDepth());
+            generator.writeStringField("direction", direction.toParameter());
+            generator.writeArrayFieldStart("types");
+            for (final String type : types) {
+                generator.writeString(type);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("nodes");
+            for (final Node node : subgraph.getNodes()) {
+                generator.writeRawValue(graph.nodeJson(node.getId()));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (final Link link : subgraph.getLinks()) {
+                generator.writeRawValue(graph.linkJson(link));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Streams a view into a new snapshot that shares the dataset's Last-Modified instant.
+     */
+    static ConceptMapSnapshot writeView(final Dataset dataset, final ViewContent content)
+            throws ConceptMapReadException {
+        try (SnapshotWriter writer = new SnapshotWriter(VIEW_SPILL_THRESHOLD)) {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                content.write(generator);
+            }
+            return writer.finish(dataset.getSnapshot().getLastModified());
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Failed to write dataset view", e);
+        }
+    }
+
+    /**
+     * Copies the listed top-level fields of a JSON object, skipping all others unparsed.
+     */
+    private static void copyFields(final String objectJson, final Set<String> fields, final JsonGenerator generator)
+            throws IOException {
+        generator.writeStartObject();
+        copyFieldsInto(objectJson, fields::contains, generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Copies the selected fields of a JSON object into the object currently open in the
+     * generator, keeping every value token for token.
+     */
+    static void copyFieldsInto(final String objectJson, final Predicate<String> keep, final JsonGenerator generator)
+            throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(objectJson)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                if (!keep.test(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                generator.writeFieldName(name);
+                if (!value.isStructStart()) {
+                    generator.copyCurrentEventExact(parser);
+                    continue;
+                }
+                // Nested values are copied event by event so numbers keep their exact text
+                int depth = 0;
+                do {
+                    final JsonToken token = parser.currentToken();
+                    generator.copyCurrentEventExact(parser);
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd()) {
+                        depth--;
+                    }
+                } while (depth > 0 && parser.nextToken() != null);
+            }
+        }
+    }
+
+    /**
+     * Writes the body of a view.
+     */
+    @FunctionalInterface
+    interface ViewContent {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static Set<String> normalizeNames(final Collection<String> types) {
+        final Set<String> normalized = new TreeSet<>();
+        if (types != null) {
+            for (final String type : types) {
+                if (type != null && !type.isBlank()) {
+                    normalized.add(type.trim());
+                }
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,321 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.ewu.cscd211.conceptmap.util.WeightedLruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of all concept map datasets listed in the dataset manifest.
+ *
+ * <p>The manifest uses the same format as the frontend's {@code data/manifest.json}: a JSON
+ * array of {@code {"file": ..., "name": ...}} entries whose files are resolved relative to the
+ * manifest itself. Its location is configurable through {@code concept-map.datasets.manifest},
+ * so a deployment can point the backend at the frontend's data directory with
+ * {@code file:frontend/public/data/manifest.json}.</p>
+ *
+ * <h3>Lazy Loading with a Bounded Cache</h3>
+ * <p>Nothing is loaded at startup. A dataset is read and turned into a {@link ConceptMapSnapshot}
+ * the first time it is requested and is then kept in a {@link WeightedLruCache} whose budget
+ * ({@code concept-map.datasets.cache-max-bytes}) is measured in retained heap bytes. Cold
+ * datasets are evicted when the budget is exceeded and are transparently reloaded on their next
+ * request. Concurrent first requests for the same dataset share one load. Every load checks the
+ * document against the concept map schema while reading it, so a dataset that does not match
+ * is reported as a read failure and never cached.</p>
+ *
+ * <h3>Reloading</h3>
+ * <p>A {@link Dataset} never changes once loaded. {@link #reload} reads the source again into
+ * a new instance and swaps it into the cache in one step, so requests keep being served from
+ * the old instance until the new one is ready and never find the dataset missing. Requests
+ * already holding the old instance finish with it undisturbed.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.2
+ * @since 2.1
+ * @see DatasetDescriptor
+ */
+@Service
+public class DatasetRegistry {
+
+    private static final String FILE_FIELD = "file";
+    private static final String NAME_FIELD = "name";
+    private static final String ID_FIELD = "id";
+    private static final String DATASETS_FIELD = "datasets";
+
+    private final ConceptMapService conceptMapService;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final String manifestLocation;
+    private final long viewCacheMaxBytes;
+    private final WeightedLruCache<String, Dataset> cache;
+    private final Map<String, CompletableFuture<Dataset>> inFlight = new ConcurrentHashMap<>();
+
+    // Manifest and catalog are small and read once; volatile for safe lazy publication
+    private volatile Map<String, DatasetDescriptor> descriptors;
+    private volatile ConceptMapSnapshot catalogSnapshot;
+
+    /**
+     * Creates a registry.
+     *
+     * @param conceptMapService builds snapshots from dataset documents
+     * @param objectMapper parses the manifest
+     * @param resourceLoader resolves the manifest location
+     * @param manifestLocation Spring resource location of the manifest
+     * @param cacheMaxBytes heap budget for loaded datasets
+     * @param viewCacheMaxBytes heap budget for the cached query results of each dataset
+     * @throws NullPointerException if any reference argument is null
+     */
+    @Autowired
+    public DatasetRegistry(final ConceptMapService conceptMapService,
+                           final ObjectMapper objectMapper,
+                           final ResourceLoader resourceLoader,
+                           @Value("${concept-map.datasets.manifest:classpath:manifest.json}") final String manifestLocation,
+                           @Value("${concept-map.datasets.cache-max-bytes:67108864}") final long cacheMaxBytes,
+                           @Value("${concept-map.datasets.view-cache-max-bytes:1048576}") final long viewCacheMaxBytes) {
+        this.conceptMapService = Objects.requireNonNull(conceptMapService, "ConceptMapService cannot be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper cannot be null");
+        this.resourceLoader = Objects.requireNonNull(resourceLoader, "ResourceLoader cannot be null");
+        this.manifestLocation = Objects.requireNonNull(manifestLocation, "Manifest location cannot be null");
+        this.viewCacheMaxBytes = viewCacheMaxBytes;
+        this.cache = new WeightedLruCache<>(cacheMaxBytes, Dataset::estimateWeight);
+    }
+
+    /**
+     * Returns every dataset listed in the manifest, in manifest order.
+     *
+     * @return the dataset descriptors
+     * @throws ConceptMapReadException if the manifest is missing or malformed
+     */
+    public List<DatasetDescriptor> listDatasets() throws ConceptMapReadException {
+        return List.copyOf(descriptors().values());
+    }
+
+    /**
+     * Returns the id of the first dataset in the manifest, used when a request names none.
+     *
+     * @return the default dataset id
+     * @throws ConceptMapNotFoundException if the manifest lists no datasets
+     * @throws ConceptMapReadException if the manifest is missing or malformed
+     */
+    public String getDefaultDatasetId() throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Iterator<String> ids = descriptors().keySet().iterator();
+        if (!ids.hasNext()) {
+            throw new ConceptMapNotFoundException("No datasets configured");
+        }
+        return ids.next();
+    }
+
+    /**
+     * Returns the dataset catalog as a cacheable snapshot of
+     * {@code {"datasets":[{"id":..., "name":..., "file":...}]}}.
+     *
+     * @return the catalog snapshot
+     * @throws ConceptMapReadException if the manifest is missing or malformed
+     */
+    public ConceptMapSnapshot getCatalogSnapshot() throws ConceptMapReadException {
+        ConceptMapSnapshot snapshot = this.catalogSnapshot;
+        if (snapshot == null) {
+            final ObjectNode catalog = objectMapper.createObjectNode();
+            final ArrayNode datasets = catalog.putArray(DATASETS_FIELD);
+            for (final DatasetDescriptor descriptor : descriptors().values()) {
+                datasets.addObject()
+                        .put(ID_FIELD, descriptor.getId())
+                        .put(NAME_FIELD, descriptor.getName())
+                        .put(FILE_FIELD, descriptor.getFile());
+            }
+            try {
+                snapshot = conceptMapService.buildSnapshot(objectMapper.writeValueAsBytes(catalog));
+            } catch (IOException e) {
+                throw new ConceptMapReadException("Failed to serialize dataset catalog", e);
+            }
+            this.catalogSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns a loaded dataset, reading it on first use.
+     *
+     * @param datasetId the dataset identifier (manifest file name without {@code .json})
+     * @return the loaded dataset
+     * @throws ConceptMapNotFoundException if the id is not in the manifest or its file is missing
+     * @throws ConceptMapReadException if the manifest or the dataset cannot be read or parsed
+     */
+    public Dataset getDataset(final String datasetId) throws ConceptMapNotFoundException, ConceptMapReadException {
+        final DatasetDescriptor descriptor = descriptors().get(datasetId);
+        if (descriptor == null) {
+            throw new ConceptMapNotFoundException("Unknown dataset: " + datasetId);
+        }
+        final Dataset cached = cache.get(datasetId);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CompletableFuture<Dataset> load = new CompletableFuture<>();
+        final CompletableFuture<Dataset> existing = inFlight.putIfAbsent(datasetId, load);
+        if (existing != null) {
+            return awaitLoad(existing);
+        }
+        try {
+            final Dataset dataset = loadDataset(descriptor);
+            cache.put(datasetId, dataset);
+            load.complete(dataset);
+            return dataset;
+        } catch (ConceptMapNotFoundException | ConceptMapReadException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(datasetId, load);
+        }
+    }
+
+    /**
+     * Returns the snapshot of a dataset, reading it on first use.
+     *
+     * @param datasetId the dataset identifier
+     * @return the dataset snapshot
+     * @throws ConceptMapNotFoundException if the dataset is unknown or its file is missing
+     * @throws ConceptMapReadException if the dataset cannot be read or parsed
+     */
+    public ConceptMapSnapshot getSnapshot(final String datasetId) throws ConceptMapNotFoundException, ConceptMapReadException {
+        return getDataset(datasetId).getSnapshot();
+    }
+
+    /**
+     * Reads a dataset from its source again and replaces the cached instance with the result.
+     *
+     * @param datasetId the dataset identifier
+     * @return the newly loaded dataset
+     * @throws ConceptMapNotFoundException if the id is not in the manifest or its file is missing
+     * @throws ConceptMapReadException if the dataset cannot be read or parsed; the cached
+     *         instance, if any, is kept
+     */
+    public Dataset reload(final String datasetId) throws ConceptMapNotFoundException, ConceptMapReadException {
+        final DatasetDescriptor descriptor = descriptors().get(datasetId);
+        if (descriptor == null) {
+            throw new ConceptMapNotFoundException("Unknown dataset: " + datasetId);
+        }
+        final Dataset dataset = loadDataset(descriptor);
+        cache.put(datasetId, dataset);
+        return dataset;
+    }
+
+    /**
+     * Drops a dataset from the cache so that its next request reloads it from its source.
+     *
+     * @param datasetId the dataset identifier
+     * @return true if the dataset was cached
+     */
+    public boolean evict(final String datasetId) {
+        return cache.remove(datasetId) != null;
+    }
+
+    /**
+     * Returns the number of datasets currently held in memory.
+     *
+     * @return the cached dataset count
+     */
+    public int cachedDatasetCount() {
+        return cache.size();
+    }
+
+    private Dataset loadDataset(final DatasetDescriptor descriptor)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        final Resource source;
+        try {
+            source = resourceLoader.getResource(manifestLocation).createRelative(descriptor.getFile());
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Cannot resolve dataset " + descriptor.getFile(), e);
+        }
+        if (!source.exists()) {
+            throw new ConceptMapNotFoundException("Dataset file not found: " + descriptor.getFile());
+        }
+        try (InputStream inputStream = source.getInputStream()) {
+            return new Dataset(descriptor, conceptMapService.buildDatasetSnapshot(inputStream), viewCacheMaxBytes);
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Failed to read dataset " + descriptor.getFile(), e);
+        }
+    }
+
+    private static Dataset awaitLoad(final CompletableFuture<Dataset> load)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ConceptMapNotFoundException notFound) {
+                throw notFound;
+            }
+            if (cause instanceof ConceptMapReadException readFailure) {
+                throw readFailure;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ConceptMapReadException("Failed to load dataset", cause);
+        }
+    }
+
+    private Map<String, DatasetDescriptor> descriptors() throws ConceptMapReadException {
+        Map<String, DatasetDescriptor> loaded = this.descriptors;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = this.descriptors;
+                if (loaded == null) {
+                    loaded = readManifest();
+                    this.descriptors = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Map<String, DatasetDescriptor> readManifest() throws ConceptMapReadException {
+        final Resource manifest = resourceLoader.getResource(manifestLocation);
+        final JsonNode entries;
+        try (InputStream inputStream = manifest.getInputStream()) {
+            entries = objectMapper.readTree(inputStream);
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Failed to read dataset manifest " + manifestLocation, e);
+        }
+        if (entries == null || !entries.isArray()) {
+            throw new ConceptMapReadException("Dataset manifest must be a JSON array: " + manifestLocation);
+        }
+
+        final Map<String, DatasetDescriptor> byId = new LinkedHashMap<>();
+        final List<String> duplicates = new ArrayList<>();
+        for (final JsonNode entry : entries) {
+            final String file = entry.path(FILE_FIELD).asText(null);
+            if (file == null || file.isBlank()) {
+                continue; // Tolerate incomplete entries the same way the frontend does
+            }
+            final DatasetDescriptor descriptor = new DatasetDescriptor(file, entry.path(NAME_FIELD).asText(null));
+            if (byId.putIfAbsent(descriptor.getId(), descriptor) != null) {
+                duplicates.add(descriptor.getId());
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new ConceptMapReadException("Duplicate dataset ids in manifest: " + duplicates);
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+}
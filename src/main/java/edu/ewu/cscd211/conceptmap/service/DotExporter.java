@@ -0,0 +1,122 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Exports a concept map as a Graphviz DOT digraph, for {@code dot}, {@code sfdp} and the many
+ * tools that read the language.
+ *
+ * <pre>
+ * digraph "concept-map" {
+ *   comment="Core concepts (version 1.0)";
+ *   "variables" [label="Variables", tooltip="Named storage", group="basics", level=1];
+ *   "variables" -&gt; "loops" [label="PREREQUISITE", strength=0.9];
+ * }
+ * </pre>
+ *
+ * <p>A node is labelled with its name and carries its description as a tooltip, and its group,
+ * level and size when it has them; a link is labelled with its type and carries its strength.
+ * {@code group} is the Graphviz attribute that keeps a group's nodes aligned; {@code level},
+ * {@code size} and {@code strength} mean nothing to Graphviz on nodes and edges, so it ignores
+ * them for layout and keeps them in its output. Every id and string is quoted.</p>
+ */
+final class DotExporter implements ConceptMapExporter {
+
+    static final String FORMAT = "dot";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/vnd.graphviz; charset=UTF-8";
+    }
+
+    @Override
+    public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+        write(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks(), output);
+    }
+
+    @Override
+    public void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                      final OutputStream output) throws IOException {
+        final Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        out.write("digraph \"concept-map\" {\n  comment=");
+        writeString(out, (metadata.getDescription() == null ? "" : metadata.getDescription() + " ")
+                + "(version " + metadata.getVersion() + ")");
+        out.write(";\n");
+        for (final Node node : nodes) {
+            out.write("  ");
+            writeString(out, node.getId());
+            out.write(" [label=");
+            writeString(out, node.getName());
+            if (!node.getDescription().isEmpty()) {
+                out.write(", tooltip=");
+                writeString(out, node.getDescription());
+            }
+            if (node.getGroup() != null && !node.getGroup().isEmpty()) {
+                out.write(", group=");
+                writeString(out, node.getGroup());
+            }
+            writeNumber(out, "level", node.getLevel());
+            writeNumber(out, "size", node.getSize());
+            out.write("];\n");
+        }
+        for (final Link link : links) {
+            out.write("  ");
+            writeString(out, link.getSourceId());
+            out.write(" -> ");
+            writeString(out, link.getTargetId());
+            out.write(" [label=");
+            writeString(out, link.getRelationshipType());
+            writeNumber(out, "strength", link.getStrength());
+            out.write("];\n");
+        }
+        out.write("}\n");
+        out.flush();
+    }
+
+    private static void writeNumber(final Writer out, final String attribute, final double value) throws IOException {
+        if (!Double.isNaN(value)) {
+            out.write(", ");
+            out.write(attribute);
+            out.write('=');
+            out.write(ConceptMapExporters.number(value));
+        }
+    }
+
+    /** Writes a quoted DOT string; line breaks become the {@code \n} escape. */
+    private static void writeString(final Writer out, final String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"', '\\' -> {
+                    out.write('\\');
+                    out.write(c);
+                }
+                case '\n' -> out.write("\\n");
+                case '\r' -> {
+                    // Dropped; a CRLF pair is one \n
+                }
+                default -> out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,187 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Exports a concept map as GraphML, for yEd, Gephi, NetworkX and igraph.
+ *
+ * <p>The document is written element by element with a StAX writer. It declares one key per
+ * typed field and gives each node and edge the data it has:</p>
+ * <ul>
+ *   <li><strong>Graph</strong>: {@code version} and {@code description} of the metadata</li>
+ *   <li><strong>Nodes</strong>: {@code name}, {@code description}, {@code level}, {@code size}
+ *       and {@code group}</li>
+ *   <li><strong>Edges</strong>: {@code type} and {@code strength}</li>
+ * </ul>
+ * <p>These are the names {@link GraphMlImporter} reads, so an export imports back to the same
+ * map. The rich fields of the stored objects are left out: GraphML declares its keys before the
+ * graph, and those fields are only known once every element has been read. Characters that
+ * XML 1.0 cannot hold are written as U+FFFD.</p>
+ */
+final class GraphMlExporter implements ConceptMapExporter {
+
+    static final String FORMAT = "graphml";
+
+    private static final String NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+    // Key ids, declared in this order
+    private static final String GRAPH_VERSION = "d0";
+    private static final String GRAPH_DESCRIPTION = "d1";
+    private static final String NODE_NAME = "d2";
+    private static final String NODE_DESCRIPTION = "d3";
+    private static final String NODE_LEVEL = "d4";
+    private static final String NODE_SIZE = "d5";
+    private static final String NODE_GROUP = "d6";
+    private static final String EDGE_TYPE = "d7";
+    private static final String EDGE_STRENGTH = "d8";
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/graphml+xml";
+    }
+
+    @Override
+    public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+        write(conceptMap.getMetadata(), conceptMap.getNodes(), conceptMap.getLinks(), output);
+    }
+
+    @Override
+    public void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                      final OutputStream output) throws IOException {
+        final Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            final XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(out);
+            write(metadata, nodes, links, xml);
+            // Closing the writer never closes the stream beneath it
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot write GraphML: " + e.getMessage(), e);
+        }
+        out.flush();
+    }
+
+    private static void write(final Metadata metadata, final List<Node> nodes, final List<Link> links,
+                              final XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeCharacters("\n");
+        xml.writeStartElement("graphml");
+        xml.writeDefaultNamespace(NAMESPACE);
+        writeKey(xml, GRAPH_VERSION, "graph", "version", "string");
+        writeKey(xml, GRAPH_DESCRIPTION, "graph", "description", "string");
+        writeKey(xml, NODE_NAME, "node", "name", "string");
+        writeKey(xml, NODE_DESCRIPTION, "node", "description", "string");
+        writeKey(xml, NODE_LEVEL, "node", "level", "double");
+        writeKey(xml, NODE_SIZE, "node", "size", "double");
+        writeKey(xml, NODE_GROUP, "node", "group", "string");
+        writeKey(xml, EDGE_TYPE, "edge", "type", "string");
+        writeKey(xml, EDGE_STRENGTH, "edge", "strength", "double");
+
+        xml.writeCharacters("\n  ");
+        xml.writeStartElement("graph");
+        xml.writeAttribute("id", "G");
+        xml.writeAttribute("edgedefault", "directed");
+        xml.writeCharacters("\n    ");
+        writeData(xml, GRAPH_VERSION, metadata.getVersion());
+        if (metadata.getDescription() != null) {
+            xml.writeCharacters("\n    ");
+            writeData(xml, GRAPH_DESCRIPTION, metadata.getDescription());
+        }
+        for (final Node node : nodes) {
+            xml.writeCharacters("\n    ");
+            xml.writeStartElement("node");
+            xml.writeAttribute("id", text(node.getId()));
+            writeData(xml, NODE_NAME, node.getName());
+            if (!node.getDescription().isEmpty()) {
+                writeData(xml, NODE_DESCRIPTION, node.getDescription());
+            }
+            writeNumber(xml, NODE_LEVEL, node.getLevel());
+            writeNumber(xml, NODE_SIZE, node.getSize());
+            if (node.getGroup() != null && !node.getGroup().isEmpty()) {
+                writeData(xml, NODE_GROUP, node.getGroup());
+            }
+            xml.writeEndElement();
+        }
+        for (final Link link : links) {
+            xml.writeCharacters("\n    ");
+            xml.writeStartElement("edge");
+            xml.writeAttribute("source", text(link.getSourceId()));
+            xml.writeAttribute("target", text(link.getTargetId()));
+            writeData(xml, EDGE_TYPE, link.getRelationshipType());
+            writeNumber(xml, EDGE_STRENGTH, link.getStrength());
+            xml.writeEndElement();
+        }
+        xml.writeCharacters("\n  ");
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndDocument();
+    }
+
+    private static void writeKey(final XMLStreamWriter xml, final String id, final String domain, final String name,
+                                 final String type) throws XMLStreamException {
+        xml.writeCharacters("\n  ");
+        xml.writeEmptyElement("key");
+        xml.writeAttribute("id", id);
+        xml.writeAttribute("for", domain);
+        xml.writeAttribute("attr.name", name);
+        xml.writeAttribute("attr.type", type);
+    }
+
+    private static void writeData(final XMLStreamWriter xml, final String key, final String value)
+            throws XMLStreamException {
+        xml.writeStartElement("data");
+        xml.writeAttribute("key", key);
+        xml.writeCharacters(text(value));
+        xml.writeEndElement();
+    }
+
+    private static void writeNumber(final XMLStreamWriter xml, final String key, final double value)
+            throws XMLStreamException {
+        if (!Double.isNaN(value)) {
+            writeData(xml, key, ConceptMapExporters.number(value));
+        }
+    }
+
+    /** Replaces the characters XML 1.0 forbids; returns the value itself if it has none. */
+    private static String text(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isXmlCharacter(value.charAt(i))) {
+                final char[] chars = value.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    if (!isXmlCharacter(chars[j])) {
+                        chars[j] = REPLACEMENT_CHARACTER;
+                    }
+                }
+                return new String(chars);
+            }
+        }
+        return value;
+    }
+
+    private static boolean isXmlCharacter(final char c) {
+        return c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t' || c == '\n' || c == '\r';
+    }
+}
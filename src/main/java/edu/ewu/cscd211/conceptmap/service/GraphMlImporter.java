@@ -0,0 +1,388 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Imports a GraphML document, the exchange format of yEd, Gephi and most graph libraries.
+ *
+ * <p>The document is pulled element by element with StAX, so only the {@code <key>}
+ * declarations and the data of the current node or edge are held. Each {@code <data>} value is
+ * named by its key's {@code attr.name} (or the key id if it has none), typed by its
+ * {@code attr.type}, and kept in the element's {@link Attributes}; a key's {@code <default>}
+ * applies to elements without that data, and data holding markup instead of text is skipped.
+ * The typed fields are taken from the data:</p>
+ * <ul>
+ *   <li><strong>Nodes</strong>: {@code name}, else {@code label}, else the id; then
+ *       {@code description}, {@code level}, {@code size} and {@code group}</li>
+ *   <li><strong>Edges</strong>: {@code type}, else {@code label}; {@code strength}, else
+ *       {@code weight}</li>
+ *   <li><strong>Metadata</strong>: the {@code version} and {@code description} data of the
+ *       outermost graph, else its {@code <desc>}</li>
+ * </ul>
+ * <p>Edges keep the direction they are written in, also in undirected graphs. Nodes of nested
+ * graphs are read like any other; hyperedges and ports have no counterpart and are skipped. DTDs
+ * and external entities are refused.</p>
+ */
+final class GraphMlImporter implements ConceptMapImporter {
+
+    static final String FORMAT = "graphml";
+
+    private static final String DEFAULT_VERSION = "1.0";
+    private static final String DEFAULT_DESCRIPTION = "Imported from GraphML";
+    private static final String DEFAULT_RELATIONSHIP_TYPE = "RELATED_TO";
+    private static final String[] NODE_FIELDS = {"id", "name"};
+    private static final String[] EDGE_FIELDS = {"source", "target", "type"};
+
+    private final XMLInputFactory xmlInputFactory;
+
+    GraphMlImporter() {
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    /** Detects an XML document whose head contains a {@code graphml} element. */
+    @Override
+    public boolean detects(final byte[] head, final int length) {
+        final String text = new String(head, 0, length, StandardCharsets.ISO_8859_1);
+        final String start = text.stripLeading();
+        return (start.startsWith("<") || start.startsWith("\u00EF\u00BB\u00BF<"))
+                && (text.contains("<graphml") || text.contains(":graphml"));
+    }
+
+    @Override
+    public ConceptMap read(final InputStream input) throws IOException {
+        final XMLStreamReader xml;
+        try {
+            xml = xmlInputFactory.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw malformed(e);
+        }
+        try {
+            return new Document(xml).read();
+        } catch (XMLStreamException e) {
+            throw malformed(e);
+        } finally {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                // Closing never touches the stream, which the caller closes
+            }
+        }
+    }
+
+    private static IOException malformed(final XMLStreamException e) {
+        final Location location = e.getLocation();
+        final String at = location == null ? ""
+                : " (line " + location.getLineNumber() + ", column " + location.getColumnNumber() + ")";
+        return new IOException("Malformed GraphML" + at + ": " + e.getMessage(), e);
+    }
+
+    /** A {@code <key>} declaration. */
+    private record Key(String name, String type, String defaultValue, String domain) {
+
+        boolean appliesTo(final String element) {
+            return defaultValue != null && ("all".equals(domain) || element.equals(domain));
+        }
+    }
+
+    /** The state of reading one document. */
+    private static final class Document {
+
+        private final XMLStreamReader xml;
+        private final ImportSink sink = new ImportSink(new Metadata(DEFAULT_VERSION, DEFAULT_DESCRIPTION));
+        private final Map<String, Key> keys = new LinkedHashMap<>();
+        // Data of the element being read, by field name in document order; reused
+        private final Map<String, Object> data = new LinkedHashMap<>();
+        private int graphDepth;
+
+        Document(final XMLStreamReader xml) {
+            this.xml = xml;
+        }
+
+        ConceptMap read() throws XMLStreamException {
+            boolean root = true;
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                    if (xml.getEventType() == XMLStreamConstants.END_ELEMENT && "graph".equals(xml.getLocalName())) {
+                        graphDepth--;
+                    }
+                    continue;
+                }
+                final String element = xml.getLocalName();
+                if (root && !"graphml".equals(element)) {
+                    throw new IllegalArgumentException("GraphML document must start with a graphml element");
+                }
+                root = false;
+                switch (element) {
+                    case "key" -> readKey();
+                    case "graph" -> {
+                        if (graphDepth++ == 0) {
+                            readGraph();
+                        }
+                    }
+                    case "node" -> readNode();
+                    case "edge" -> readEdge();
+                    case "hyperedge", "port", "desc", "data" -> skip();
+                    default -> { }
+                }
+            }
+            return sink.build();
+        }
+
+        private void readKey() throws XMLStreamException {
+            final String id = xml.getAttributeValue(null, "id");
+            final String name = xml.getAttributeValue(null, "attr.name");
+            final String type = xml.getAttributeValue(null, "attr.type");
+            final String domain = xml.getAttributeValue(null, "for");
+            String defaultValue = null;
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("default".equals(xml.getLocalName())) {
+                    defaultValue = xml.getElementText();
+                } else {
+                    skip();
+                }
+            }
+            if (id != null) {
+                keys.put(id, new Key(name == null ? id : name, type, defaultValue, domain == null ? "all" : domain));
+            }
+        }
+
+        /**
+         * Reads the metadata at the start of the outermost graph: its {@code <desc>} and
+         * {@code <data>}, which the schema puts before its nodes and edges.
+         */
+        private void readGraph() throws XMLStreamException {
+            String description = null;
+            data.clear();
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                final String element = xml.getLocalName();
+                if ("desc".equals(element)) {
+                    description = xml.getElementText().trim();
+                } else if ("data".equals(element)) {
+                    readData();
+                } else {
+                    // The first node or edge; hand it back to the main loop
+                    sink.metadata(metadata(description));
+                    dispatch(element);
+                    return;
+                }
+            }
+            sink.metadata(metadata(description));
+            graphDepth--;
+        }
+
+        private Metadata metadata(final String desc) {
+            final Object version = data.get("version");
+            final Object description = data.get("description");
+            return new Metadata(version == null ? DEFAULT_VERSION : version.toString(),
+                    description != null ? description.toString() : desc != null ? desc : DEFAULT_DESCRIPTION);
+        }
+
+        private void dispatch(final String element) throws XMLStreamException {
+            switch (element) {
+                case "node" -> readNode();
+                case "edge" -> readEdge();
+                case "graph" -> graphDepth++;
+                default -> skip();
+            }
+        }
+
+        private void readNode() throws XMLStreamException {
+            final int line = xml.getLocation().getLineNumber();
+            final String id = sink.intern(xml.getAttributeValue(null, "id"));
+            readElementData("node");
+            final String name = text(data.containsKey("name") ? data.get("name") : data.getOrDefault("label", id));
+            final String description = text(data.getOrDefault("description", ""));
+            final double level = number(data.get("level"));
+            final double size = number(data.get("size"));
+            final String group = sink.intern(text(data.get("group")));
+            final Attributes attributes = attributes(generator -> {
+                writeString(generator, "id", id);
+                writeString(generator, "name", name);
+            }, NODE_FIELDS);
+            sink.addNode(line, () -> new Node(id, name, description, level, size, group, attributes));
+        }
+
+        private void readEdge() throws XMLStreamException {
+            final int line = xml.getLocation().getLineNumber();
+            final String source = sink.intern(xml.getAttributeValue(null, "source"));
+            final String target = sink.intern(xml.getAttributeValue(null, "target"));
+            readElementData("edge");
+            final Object typeValue = data.containsKey("type") ? data.get("type") : data.get("label");
+            final String type = sink.intern(typeValue == null ? DEFAULT_RELATIONSHIP_TYPE : text(typeValue));
+            final double strength = number(data.containsKey("strength") ? data.get("strength") : data.get("weight"));
+            final Attributes attributes = attributes(generator -> {
+                writeString(generator, "source", source);
+                writeString(generator, "target", target);
+                if (typeValue != null) {
+                    writeString(generator, "type", type);
+                }
+            }, EDGE_FIELDS);
+            sink.addLink(line, () -> new Link(source, target, type, strength, attributes));
+        }
+
+        /**
+         * Reads the data children of the current node or edge, after the defaults of its
+         * element kind. A nested graph inside a node is left for the main loop.
+         */
+        private void readElementData(final String element) throws XMLStreamException {
+            data.clear();
+            for (final Key key : keys.values()) {
+                if (key.appliesTo(element)) {
+                    data.put(key.name(), value(key, key.defaultValue()));
+                }
+            }
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                final String child = xml.getLocalName();
+                if ("data".equals(child)) {
+                    readData();
+                } else if ("graph".equals(child)) {
+                    graphDepth++;
+                    return;
+                } else {
+                    skip();
+                }
+            }
+        }
+
+        /** Reads one data value; data that holds markup, such as yEd's graphics, is skipped. */
+        private void readData() throws XMLStreamException {
+            final String keyId = xml.getAttributeValue(null, "key");
+            final StringBuilder content = new StringBuilder();
+            boolean markup = false;
+            for (int event = xml.next(); event != XMLStreamConstants.END_ELEMENT; event = xml.next()) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    markup = true;
+                    skip();
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    content.append(xml.getText());
+                }
+            }
+            if (markup) {
+                return;
+            }
+            final String text = content.toString();
+            final Key key = keys.get(keyId);
+            if (key == null) {
+                data.put(keyId == null ? "data" : keyId, text);
+            } else {
+                data.put(key.name(), value(key, text));
+            }
+        }
+
+        /** Writes the typed fields, then every other data field. */
+        private Attributes attributes(final ImportSink.FieldWriter typed, final String[] typedNames) {
+            return sink.attributes(generator -> {
+                typed.write(generator);
+                for (final Map.Entry<String, Object> field : data.entrySet()) {
+                    if (!contains(typedNames, field.getKey())) {
+                        generator.writeFieldName(field.getKey());
+                        writeValue(generator, field.getValue());
+                    }
+                }
+            });
+        }
+
+        /** Skips the current element and its children. */
+        private void skip() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                final int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+    }
+
+    /** Converts a data value by its key's {@code attr.type}; values that do not parse stay text. */
+    private static Object value(final Key key, final String text) {
+        if (text == null || key.type() == null) {
+            return text;
+        }
+        final String trimmed = text.trim();
+        try {
+            return switch (key.type()) {
+                case "boolean" -> Boolean.parseBoolean(trimmed);
+                case "int", "long" -> Long.parseLong(trimmed);
+                case "float", "double" -> Double.parseDouble(trimmed);
+                default -> text;
+            };
+        } catch (NumberFormatException e) {
+            return text;
+        }
+    }
+
+    private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+        if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Double number && Double.isFinite(number)) {
+            generator.writeNumber(number);
+        } else {
+            generator.writeString(String.valueOf(value));
+        }
+    }
+
+    private static void writeString(final JsonGenerator generator, final String name, final String value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static String text(final Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /** Reads a number the way the document reader does, NaN if the value is not one. */
+    private static double number(final Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static boolean contains(final String[] names, final String name) {
+        for (final String candidate : names) {
+            if (candidate.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects the records of an imported document into a {@link ConceptMap.Builder}, remembering
+ * the line of each, so that {@link #build} can report every invalid record by its line.
+ *
+ * <p>Records are created as they are read. One that cannot be created is handed to the builder
+ * as a supplier that throws, which the builder reports with the record's position like any
+ * other problem. Ids, groups and relationship types are interned, and the JSON objects kept as
+ * {@link Attributes} are written with one reused buffer.</p>
+ *
+ * <p>A sink is used for one document and is not thread-safe.</p>
+ */
+final class ImportSink {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ConceptMap.Builder builder;
+    private final SymbolTable symbols = new SymbolTable();
+    private final ByteArrayBuilder attributeBuffer = new ByteArrayBuilder();
+    private int[] nodeLines = new int[16];
+    private int nodeCount;
+    private int[] linkLines = new int[16];
+    private int linkCount;
+
+    /**
+     * Creates a sink.
+     *
+     * @param defaultMetadata the metadata if the document does not give any
+     */
+    ImportSink(final Metadata defaultMetadata) {
+        this.builder = ConceptMap.builder(defaultMetadata);
+    }
+
+    void metadata(final Metadata metadata) {
+        builder.metadata(metadata);
+    }
+
+    void addNode(final int line, final Supplier<Node> node) {
+        if (nodeCount == nodeLines.length) {
+            nodeLines = Arrays.copyOf(nodeLines, nodeCount * 2);
+        }
+        nodeLines[nodeCount++] = line;
+        add(node, builder::addNode, builder::addNode);
+    }
+
+    void addLink(final int line, final Supplier<Link> link) {
+        if (linkCount == linkLines.length) {
+            linkLines = Arrays.copyOf(linkLines, linkCount * 2);
+        }
+        linkLines[linkCount++] = line;
+        add(link, builder::addLink, builder::addLink);
+    }
+
+    private static <E> void add(final Supplier<E> element, final Consumer<E> valid,
+                                final Consumer<Supplier<E>> invalid) {
+        final E created;
+        try {
+            created = element.get();
+        } catch (IllegalArgumentException e) {
+            invalid.accept(() -> {
+                throw e;
+            });
+            return;
+        }
+        valid.accept(created);
+    }
+
+    /**
+     * Returns the table's instance of a string, null for null.
+     */
+    String intern(final String value) {
+        return value == null ? null : symbols.canonical(value);
+    }
+
+    /**
+     * Writes one element's JSON object with the shared buffer.
+     *
+     * @param fields writes the object's fields; the object itself is opened and closed here
+     * @return the object as attributes
+     */
+    Attributes attributes(final FieldWriter fields) {
+        attributeBuffer.reset();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(attributeBuffer)) {
+            generator.writeStartObject();
+            fields.write(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // Only the generator can fail here, and it writes to memory
+            throw new UncheckedIOException(e);
+        }
+        return Attributes.ofJson(ByteBuffer.wrap(attributeBuffer.toByteArray()));
+    }
+
+    /**
+     * Validates the records and creates the map.
+     *
+     * @return the map, not frozen
+     * @throws ConceptMapValidationException naming the line of every invalid record
+     */
+    ConceptMap build() {
+        try {
+            return builder.build();
+        } catch (ConceptMapValidationException e) {
+            final List<ConceptMapValidationException.Problem> located = new ArrayList<>(e.getProblems().size());
+            for (final ConceptMapValidationException.Problem problem : e.getProblems()) {
+                final int[] lines = problem.getSection().equals(ConceptMapValidationException.Problem.NODES)
+                        ? nodeLines : linkLines;
+                located.add(new ConceptMapValidationException.Problem(problem.getSection(), problem.getIndex(),
+                        problem.getMessage() + " (line " + lines[problem.getIndex()] + ")"));
+            }
+            throw new ConceptMapValidationException(located);
+        }
+    }
+
+    /** Writes the fields of one JSON object. */
+    @FunctionalInterface
+    interface FieldWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
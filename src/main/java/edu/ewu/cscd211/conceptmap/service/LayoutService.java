@@ -0,0 +1,478 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.ewu.cscd211.conceptmap.graph.CsrGraph;
+import edu.ewu.cscd211.conceptmap.layout.BarnesHutLayout;
+import edu.ewu.cscd211.conceptmap.layout.Layout;
+import edu.ewu.cscd211.conceptmap.layout.LayoutEngine;
+import edu.ewu.cscd211.conceptmap.layout.LayoutGraph;
+import edu.ewu.cscd211.conceptmap.layout.LayoutOptions;
+import edu.ewu.cscd211.conceptmap.layout.MultilevelLayout;
+import edu.ewu.cscd211.conceptmap.layout.NodeRadius;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves datasets with precomputed node coordinates.
+ *
+ * <p>Running the force simulation on every client, on every load, keeps slow devices busy for
+ * seconds on the larger maps. This service runs it once per dataset, canvas size and anchor,
+ * and returns the dataset with {@code x}, {@code y} and {@code _radius} on every node, so a
+ * client can draw the final picture immediately or run only a short warm simulation.</p>
+ *
+ * <h3>Caching Levels</h3>
+ * <ol>
+ *   <li><strong>View cache</strong>: the serialized response, per dataset instance</li>
+ *   <li><strong>Layout files</strong>: the coordinates, persisted in the configured cache
+ *       directory and keyed by the snapshot's ETag, so they survive restarts and evictions
+ *       but never outlive a change to the dataset</li>
+ *   <li><strong>Computation</strong>: the selected {@link LayoutEngine}, as a last resort</li>
+ * </ol>
+ *
+ * <p>Layout files are a cache: a missing, unreadable or mismatched file is recomputed, and a
+ * failure to write one only costs a recomputation after the next restart. Writing a layout
+ * deletes the dataset's files for earlier content and keeps at most
+ * {@value #MAX_LAYOUT_FILES_PER_DATASET} per dataset, dropping the least recently used.</p>
+ *
+ * <h3>Bounding the Work</h3>
+ * <p>A layout is computed on the request thread and takes seconds for the largest maps, so the
+ * number of distinct layouts is kept small: canvas sides are rounded to multiples of
+ * {@value #CANVAS_STEP} pixels, which is close enough for a client that fits the drawing to its
+ * viewport. Requests that miss on the same layout at once wait for a single computation
+ * instead of each running their own.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see BarnesHutLayout
+ * @see MultilevelLayout
+ */
+@Service
+public class LayoutService {
+
+    /** Canvas width used when the client does not send one, as in {@code createSimulation}. */
+    public static final int DEFAULT_WIDTH = 2000;
+
+    /** Canvas height used when the client does not send one, as in {@code createSimulation}. */
+    public static final int DEFAULT_HEIGHT = 1200;
+
+    /** Canvas sides are rounded to multiples of this many pixels before a layout is looked up. */
+    static final int CANVAS_STEP = 200;
+
+    /** Layout files kept per dataset before the least recently used are deleted. */
+    static final int MAX_LAYOUT_FILES_PER_DATASET = 64;
+
+    private static final String LAYOUT_VIEW = "layout";
+    private static final String LAYOUT_FILE_SUFFIX = ".layout.json";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int CONTENT_HASH_BYTES = 8;
+    private static final int OPTIONS_HASH_BYTES = 16;
+    // Rounded coordinates are what gets persisted, so fresh and reloaded layouts serialize identically
+    private static final double COORDINATE_STEP = 0.1;
+    private static final double RADIUS_SCALE = 100;
+    private static final Set<String> LAYOUT_FIELDS = Set.of("x", "y", "vx", "vy", "fx", "fy", "_radius");
+    // Node fields besides level and size that affect the drawn radius
+    private static final String RADIUS_FIELD = "_radius";
+    private static final String SCAFFOLDING_FIELD = "cognitive_scaffolding";
+    private static final String FOCUS_FIELD = "pedagogical_focus";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final DatasetRegistry datasetRegistry;
+    private final ConceptMapService conceptMapService;
+    private final Map<String, LayoutEngine> engines;
+    private final Path cacheDirectory;
+    // Layouts being computed, keyed by dataset instance, engine and options; waiters share the result
+    private final ConcurrentMap<List<Object>, CompletableFuture<Layout>> computing = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the layout service with the default engines.
+     *
+     * @param datasetRegistry provides the loaded datasets
+     * @param conceptMapService parses datasets into indexed graphs
+     * @param cacheDirectory directory for persisted layouts; blank disables persistence
+     * @throws NullPointerException if datasetRegistry or conceptMapService is null
+     */
+    @Autowired
+    public LayoutService(final DatasetRegistry datasetRegistry, final ConceptMapService conceptMapService,
+                         @Value("${concept-map.layout.cache-dir:}") final String cacheDirectory) {
+        this(datasetRegistry, conceptMapService, cacheDirectory, List.of(new BarnesHutLayout(), new MultilevelLayout()));
+    }
+
+    /** Creates the layout service with the given engines; visible for tests. */
+    LayoutService(final DatasetRegistry datasetRegistry, final ConceptMapService conceptMapService,
+                  final String cacheDirectory, final List<LayoutEngine> engines) {
+        this.datasetRegistry = Objects.requireNonNull(datasetRegistry, "DatasetRegistry cannot be null");
+        this.conceptMapService = Objects.requireNonNull(conceptMapService, "ConceptMapService cannot be null");
+        this.cacheDirectory = cacheDirectory == null || cacheDirectory.isBlank() ? null : Path.of(cacheDirectory);
+        final Map<String, LayoutEngine> available = new LinkedHashMap<>();
+        for (final LayoutEngine engine : engines) {
+            available.put(engine.getName(), engine);
+        }
+        this.engines = Collections.unmodifiableMap(available);
+    }
+
+    /**
+     * Returns the names of the available layout engines.
+     *
+     * @return the engine names
+     */
+    public Set<String> getEngineNames() {
+        return engines.keySet();
+    }
+
+    /**
+     * Returns a dataset laid out for a canvas, as
+     * {@code {"metadata", "layout": {"engine", "width", "height", "anchor"}, "nodes": [...], "links": [...]}}
+     * where every node is its complete object plus {@code x}, {@code y} and {@code _radius}.
+     * The canvas is first rounded to {@value #CANVAS_STEP} pixels, and {@code layout} gives the
+     * size the coordinates are for.
+     *
+     * @param datasetId the dataset id
+     * @param engineName the layout engine, or null for {@value BarnesHutLayout#NAME}
+     * @param options the canvas size and optional anchor node
+     * @return the laid-out dataset
+     * @throws ConceptMapNotFoundException if the dataset or the anchor node does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     * @throws IllegalArgumentException if the engine is unknown
+     */
+    public ConceptMapSnapshot getLayout(final String datasetId, final String engineName, final LayoutOptions options)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        Objects.requireNonNull(options, "Options cannot be null");
+        final LayoutEngine engine = engines.get(engineName == null ? BarnesHutLayout.NAME : engineName);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown layout engine " + engineName + "; expected one of " + engines.keySet());
+        }
+
+        final Dataset dataset = datasetRegistry.getDataset(datasetId);
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        if (options.getAnchorId() != null && !graph.getAdjacency().contains(options.getAnchorId())) {
+            throw new ConceptMapNotFoundException("Node " + options.getAnchorId() + " not found in dataset " + datasetId);
+        }
+
+        final LayoutOptions canvas = quantize(options);
+        final List<Object> key = List.of(LAYOUT_VIEW, engine.getName(), canvas);
+        return dataset.view(key, () -> {
+            final LayoutGraph layoutGraph = dataset.derived(LayoutGraph.class, this::buildLayoutGraph);
+            final Layout layout = layout(dataset, layoutGraph, engine, canvas);
+            return writeLayoutView(dataset, graph, layoutGraph, layout, engine, canvas);
+        });
+    }
+
+    /** Rounds the canvas sides to multiples of {@link #CANVAS_STEP}, within the accepted range. */
+    static LayoutOptions quantize(final LayoutOptions options) {
+        return new LayoutOptions(quantize(options.getWidth()), quantize(options.getHeight()), options.getAnchorId());
+    }
+
+    private static int quantize(final int side) {
+        final int rounded = Math.round(side / (float) CANVAS_STEP) * CANVAS_STEP;
+        return Math.min(LayoutOptions.MAX_SIZE, Math.max(CANVAS_STEP, rounded));
+    }
+
+    /**
+     * Returns a layout, joining a computation of the same layout that another request has
+     * already started rather than running a second one.
+     */
+    private Layout layout(final Dataset dataset, final LayoutGraph layoutGraph, final LayoutEngine engine,
+                          final LayoutOptions options) throws ConceptMapReadException {
+        final List<Object> key = List.of(dataset, engine.getName(), options);
+        final CompletableFuture<Layout> started = new CompletableFuture<>();
+        final CompletableFuture<Layout> running = computing.putIfAbsent(key, started);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            final Layout layout = loadOrCompute(dataset, layoutGraph, engine, options);
+            started.complete(layout);
+            return layout;
+        } catch (ConceptMapReadException | RuntimeException | Error e) {
+            started.completeExceptionally(e);
+            throw e;
+        } finally {
+            computing.remove(key, started);
+        }
+    }
+
+    private static Layout join(final CompletableFuture<Layout> running) throws ConceptMapReadException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ConceptMapReadException readException) {
+                throw readException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Layout loadOrCompute(final Dataset dataset, final LayoutGraph layoutGraph, final LayoutEngine engine,
+                                 final LayoutOptions options) throws ConceptMapReadException {
+        if (cacheDirectory == null) {
+            return engine.compute(layoutGraph, options).rounded(COORDINATE_STEP);
+        }
+        final String datasetPart = dataset.getDescriptor().getId().replaceAll("[^A-Za-z0-9._-]", "_");
+        final String contentPart = digest(dataset.getSnapshot().getETag(), CONTENT_HASH_BYTES);
+        final String optionsPart = digest(String.join("\n", engine.getName(), String.valueOf(options.getWidth()),
+                String.valueOf(options.getHeight()), String.valueOf(options.getAnchorId())), OPTIONS_HASH_BYTES);
+        final Path file = cacheDirectory.resolve(datasetPart + "-" + contentPart + "-" + optionsPart + LAYOUT_FILE_SUFFIX);
+        final Layout persisted = readLayout(file, layoutGraph);
+        if (persisted != null) {
+            touch(file);
+            return persisted;
+        }
+        final Layout layout = engine.compute(layoutGraph, options).rounded(COORDINATE_STEP);
+        writeLayout(file, layoutGraph, layout);
+        prune(datasetPart, contentPart);
+        return layout;
+    }
+
+    /** Hashes part of a layout file name, which holds everything the coordinates depend on. */
+    private static String digest(final String value, final int bytes) throws ConceptMapReadException {
+        try {
+            final byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ConceptMapReadException("Failed to name layout file", e);
+        }
+    }
+
+    /** Marks a layout file as recently used, for {@link #prune}. */
+    private static void touch(final Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Only the eviction order suffers
+        }
+    }
+
+    /**
+     * Deletes a dataset's layout files for other content, then its least recently used files
+     * beyond {@link #MAX_LAYOUT_FILES_PER_DATASET}. Best effort, like all layout persistence.
+     */
+    private void prune(final String datasetPart, final String contentPart) {
+        final List<Path> current = new ArrayList<>();
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            for (final Path file : files.toList()) {
+                final String name = file.getFileName().toString();
+                if (!name.endsWith(LAYOUT_FILE_SUFFIX)) {
+                    continue;
+                }
+                // <dataset>-<content>-<options>.layout.json, where only the dataset part may hold '-'
+                final String stem = name.substring(0, name.length() - LAYOUT_FILE_SUFFIX.length());
+                final int optionsStart = stem.lastIndexOf('-');
+                final int contentStart = optionsStart < 0 ? -1 : stem.lastIndexOf('-', optionsStart - 1);
+                if (contentStart < 0 || !stem.substring(0, contentStart).equals(datasetPart)) {
+                    continue;
+                }
+                if (stem.substring(contentStart + 1, optionsStart).equals(contentPart)) {
+                    current.add(file);
+                } else {
+                    Files.deleteIfExists(file);
+                }
+            }
+            if (current.size() > MAX_LAYOUT_FILES_PER_DATASET) {
+                final Map<Path, FileTime> used = new HashMap<>();
+                for (final Path file : current) {
+                    used.put(file, Files.getLastModifiedTime(file));
+                }
+                current.sort(Comparator.comparing(used::get));
+                for (final Path file : current.subList(0, current.size() - MAX_LAYOUT_FILES_PER_DATASET)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // A file left behind is pruned after the next computation
+        }
+    }
+
+    /**
+     * Reads a persisted layout of the form {@code {"nodes": [ids], "x": [...], "y": [...]}}.
+     *
+     * @return the layout, or null if the file is missing, unreadable or for other nodes
+     */
+    private static Layout readLayout(final Path file, final LayoutGraph layoutGraph) {
+        final List<String> ids = new ArrayList<>();
+        final double[] x = new double[layoutGraph.nodeCount()];
+        final double[] y = new double[layoutGraph.nodeCount()];
+        try (InputStream in = Files.newInputStream(file); JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int xCount = 0;
+            int yCount = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    return null;
+                }
+                int count = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if ("nodes".equals(name)) {
+                        ids.add(parser.getText());
+                    } else if (count < x.length && ("x".equals(name) || "y".equals(name))) {
+                        ("x".equals(name) ? x : y)[count] = parser.getDoubleValue();
+                    } else {
+                        return null;
+                    }
+                    count++;
+                }
+                if ("x".equals(name)) {
+                    xCount = count;
+                } else if ("y".equals(name)) {
+                    yCount = count;
+                }
+            }
+            if (!ids.equals(layoutGraph.ids()) || xCount != x.length || yCount != y.length) {
+                return null;
+            }
+            return new Layout(x, y);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // A damaged file is treated as missing and overwritten
+            return null;
+        }
+    }
+
+    private static void writeLayout(final Path file, final LayoutGraph layoutGraph, final Layout layout) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path temporary = Files.createTempFile(file.getParent(), "layout-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary);
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("nodes");
+                for (final String id : layoutGraph.ids()) {
+                    generator.writeString(id);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("x");
+                for (int i = 0; i < layout.nodeCount(); i++) {
+                    generator.writeNumber(layout.x(i));
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("y");
+                for (int i = 0; i < layout.nodeCount(); i++) {
+                    generator.writeNumber(layout.y(i));
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            // Readers see either the old file or the complete new one
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Persistence is an optimization; the computed layout is still served
+        }
+    }
+
+    private static ConceptMapSnapshot writeLayoutView(final Dataset dataset, final DatasetGraph graph,
+                                                      final LayoutGraph layoutGraph, final Layout layout,
+                                                      final LayoutEngine engine, final LayoutOptions options)
+            throws ConceptMapReadException {
+        return DatasetQueryService.writeView(dataset, generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName("metadata");
+            generator.writeRawValue(graph.metadataJson());
+            generator.writeObjectFieldStart("layout");
+            generator.writeStringField("engine", engine.getName());
+            generator.writeNumberField("width", options.getWidth());
+            generator.writeNumberField("height", options.getHeight());
+            generator.writeStringField("anchor", options.getAnchorId());
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("nodes");
+            for (int i = 0; i < layoutGraph.nodeCount(); i++) {
+                generator.writeStartObject();
+                DatasetQueryService.copyFieldsInto(graph.nodeJson(i),
+                        name -> !LAYOUT_FIELDS.contains(name), generator);
+                generator.writeNumberField("x", layout.x(i));
+                generator.writeNumberField("y", layout.y(i));
+                generator.writeNumberField("_radius", Math.round(layoutGraph.radius(i) * RADIUS_SCALE) / RADIUS_SCALE);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("links");
+            for (int l = 0; l < graph.getAdjacency().linkCount(); l++) {
+                generator.writeRawValue(graph.linkJson(l));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Reduces a dataset to a layout graph, sizing every node the way the client does.
+     */
+    private LayoutGraph buildLayoutGraph(final Dataset dataset) throws ConceptMapReadException {
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        final CsrGraph csr = graph.getAdjacency().getGraph();
+        final int nodeCount = csr.nodeCount();
+        final List<String> ids = new ArrayList<>(nodeCount);
+        final double[] radii = new double[nodeCount];
+        final double[] levels = new double[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            final Node node = graph.getAdjacency().getNodes().get(i);
+            final Attributes attributes = node.getAttributes();
+            ids.add(node.getId());
+            levels[i] = node.getLevel();
+            radii[i] = NodeRadius.compute(attributes.getNumber(RADIUS_FIELD), node.getSize(),
+                    csr.outDegree(i) + csr.inDegree(i), attributes.getString(SCAFFOLDING_FIELD),
+                    attributes.getString(FOCUS_FIELD), node.getLevel());
+        }
+
+        final int[] sources = new int[csr.linkCount()];
+        final int[] targets = new int[csr.linkCount()];
+        int count = 0;
+        for (int l = 0; l < csr.linkCount(); l++) {
+            final int source = csr.source(l);
+            final int target = csr.target(l);
+            if (source != CsrGraph.NO_NODE && target != CsrGraph.NO_NODE && source != target) {
+                sources[count] = source;
+                targets[count++] = target;
+            }
+        }
+        return new LayoutGraph(ids, radii, levels, Arrays.copyOf(sources, count), Arrays.copyOf(targets, count));
+    }
+}
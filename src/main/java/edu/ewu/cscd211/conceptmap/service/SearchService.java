@@ -0,0 +1,184 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.search.SearchDocument;
+import edu.ewu.cscd211.conceptmap.search.SearchHit;
+import edu.ewu.cscd211.conceptmap.search.SearchIndex;
+import edu.ewu.cscd211.conceptmap.search.Tokenizer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over the nodes of a dataset.
+ *
+ * <p>Each dataset gets a {@link SearchIndex} built from its graph on the first search. A node
+ * is indexed by its name, its description and every string inside its array-valued fields
+ * (examples, misconceptions, key points and similar teaching material), so clients can find
+ * concepts they have not downloaded yet.</p>
+ *
+ * <h3>Incremental Rebuilds</h3>
+ * <p>When a dataset is evicted and reloaded, the new index is built from the last one built
+ * for the same dataset id, so only nodes whose text changed are tokenized again. The previous
+ * index is held through a soft reference and never keeps memory from the garbage collector.</p>
+ *
+ * <h3>Results</h3>
+ * <p>Results are pre-serialized snapshots cached per dataset and normalized query, with the
+ * same ETag and gzip handling as every other dataset view.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see SearchIndex
+ */
+@Service
+public class SearchService {
+
+    /** Number of hits returned when the client does not ask for a limit. */
+    public static final int DEFAULT_LIMIT = 10;
+
+    /** Largest accepted number of hits per request. */
+    public static final int MAX_LIMIT = 50;
+
+    private static final String SEARCH_VIEW = "search";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final DatasetRegistry datasetRegistry;
+    private final ConceptMapService conceptMapService;
+    private final Map<String, SoftReference<SearchIndex>> previousIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the search service.
+     *
+     * @param datasetRegistry provides the loaded datasets
+     * @param conceptMapService parses datasets into indexed graphs
+     * @throws NullPointerException if either argument is null
+     */
+    public SearchService(final DatasetRegistry datasetRegistry, final ConceptMapService conceptMapService) {
+        this.datasetRegistry = Objects.requireNonNull(datasetRegistry, "DatasetRegistry cannot be null");
+        this.conceptMapService = Objects.requireNonNull(conceptMapService, "ConceptMapService cannot be null");
+    }
+
+    /**
+     * Tells whether a query has any searchable terms, as {@link #search} requires.
+     *
+     * @param query the free-text query, or null
+     * @return true if the query contains a letter or digit
+     */
+    public static boolean hasTerms(final String query) {
+        return query != null && !Tokenizer.terms(query).isEmpty();
+    }
+
+    /**
+     * Searches the nodes of a dataset and returns
+     * {@code {"dataset", "query", "count", "hits": [{"id", "name", "score", "field", "snippet", "highlights"}]}},
+     * where {@code query} is the normalized query, {@code field} names the field the snippet was
+     * taken from, and each highlight is a {@code [start, end)} character range in the snippet.
+     *
+     * @param datasetId the dataset id, or null for the first dataset of the manifest
+     * @param query the free-text query
+     * @param limit the maximum number of hits, from 1 to {@link #MAX_LIMIT}
+     * @return the search results
+     * @throws ConceptMapNotFoundException if the dataset does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     * @throws IllegalArgumentException if the query has no searchable terms or limit is out of range
+     */
+    public ConceptMapSnapshot search(final String datasetId, final String query, final int limit)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        final String normalized = String.join(" ", new LinkedHashSet<>(Tokenizer.terms(query == null ? "" : query)));
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain at least one letter or digit");
+        }
+
+        final Dataset dataset = datasetRegistry.getDataset(datasetId == null ? datasetRegistry.getDefaultDatasetId() : datasetId);
+        final SearchIndex index = dataset.derived(SearchIndex.class, this::buildIndex);
+        return dataset.view(List.of(SEARCH_VIEW, normalized, limit), () -> {
+            final List<SearchHit> hits = index.search(normalized, limit);
+            return DatasetQueryService.writeView(dataset, generator -> {
+                generator.writeStartObject();
+                generator.writeStringField("dataset", dataset.getDescriptor().getId());
+                generator.writeStringField("query", normalized);
+                generator.writeNumberField("count", hits.size());
+                generator.writeArrayFieldStart("hits");
+                for (final SearchHit hit : hits) {
+                    generator.writeStartObject();
+                    generator.writeStringField("id", hit.getId());
+                    generator.writeStringField("name", hit.getName());
+                    generator.writeNumberField("score", Math.round(hit.getScore() * 1000) / 1000.0);
+                    generator.writeStringField("field", hit.getField());
+                    generator.writeStringField("snippet", hit.getSnippet());
+                    generator.writeArrayFieldStart("highlights");
+                    for (final int[] highlight : hit.getHighlights()) {
+                        generator.writeArray(highlight, 0, highlight.length);
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            });
+        });
+    }
+
+    private SearchIndex buildIndex(final Dataset dataset) throws ConceptMapReadException {
+        final DatasetGraph graph = dataset.graph(conceptMapService);
+        final List<Node> nodes = graph.getAdjacency().getNodes();
+        final List<SearchDocument> documents = new ArrayList<>(nodes.size());
+        for (final Node node : nodes) {
+            documents.add(new SearchDocument(node.getId(), node.getName(), node.getDescription(),
+                    richText(graph.nodeJson(node.getId()))));
+        }
+
+        final String datasetId = dataset.getDescriptor().getId();
+        final SoftReference<SearchIndex> previous = previousIndexes.get(datasetId);
+        final SearchIndex index = SearchIndex.build(documents, previous == null ? null : previous.get());
+        previousIndexes.put(datasetId, new SoftReference<>(index));
+        return index;
+    }
+
+    /**
+     * Collects every string inside the array-valued top-level fields of a node object.
+     */
+    private static List<String> richText(final String nodeJson) throws ConceptMapReadException {
+        final List<String> text = new ArrayList<>();
+        if (nodeJson == null) {
+            return text;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(nodeJson)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                int depth = 1;
+                while (depth > 0) {
+                    final JsonToken token = parser.nextToken();
+                    if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                        depth++;
+                    } else if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+                        depth--;
+                    } else if (token == JsonToken.VALUE_STRING) {
+                        text.add(parser.getText());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ConceptMapReadException("Failed to read node for search indexing", e);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,129 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One stored byte sequence of a {@link ConceptMapSnapshot}, held either on the heap or in a
+ * temporary file.
+ *
+ * <p>Small snapshots stay in memory so they are written with a single array copy into the socket
+ * buffer. Snapshots larger than the service's spill threshold are kept in a file instead. They are
+ * served through a {@link FileSystemResource}, which Spring copies to the response in fixed-size
+ * chunks, so the heap cost of a download does not depend on the size of the dataset.</p>
+ */
+final class SnapshotContent {
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long length;
+
+    private SnapshotContent(final byte[] bytes, final Path file, final long length) {
+        this.bytes = bytes;
+        this.file = file;
+        this.length = length;
+    }
+
+    static SnapshotContent inMemory(final byte[] bytes) {
+        return new SnapshotContent(bytes, null, bytes.length);
+    }
+
+    static SnapshotContent inFile(final Path file, final long length) {
+        return new SnapshotContent(null, file, length);
+    }
+
+    long length() {
+        return this.length;
+    }
+
+    boolean isInMemory() {
+        return this.bytes != null;
+    }
+
+    /**
+     * Returns the number of heap bytes this content occupies.
+     *
+     * @return the array length for in-memory content, zero for file-backed content
+     */
+    long heapWeight() {
+        return isInMemory() ? this.length : 0L;
+    }
+
+    /**
+     * Opens a fresh stream over the content.
+     *
+     * @return a stream positioned at the first byte
+     * @throws IOException if the backing file cannot be opened
+     */
+    InputStream openStream() throws IOException {
+        return isInMemory() ? new ByteArrayInputStream(this.bytes) : Files.newInputStream(this.file);
+    }
+
+    /**
+     * Exposes the content as a buffer without copying it: the array itself for in-memory content,
+     * a read-only mapping for file-backed content. A mapping stays valid after {@link #release()}.
+     *
+     * @return a buffer over the stored bytes, which the caller must not modify
+     * @throws IOException if the backing file cannot be mapped
+     */
+    ByteBuffer asByteBuffer() throws IOException {
+        if (isInMemory()) {
+            return ByteBuffer.wrap(this.bytes);
+        }
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, this.length);
+        }
+    }
+
+    /**
+     * Wraps the content in a resource for an HTTP response body.
+     *
+     * @param owner the snapshot that owns the content; file-backed resources keep a reference to
+     *              it so the temporary file is not reclaimed while a response is still streaming
+     * @return a resource that reads the stored bytes without copying them onto the heap
+     */
+    Resource asResource(final Object owner) {
+        if (isInMemory()) {
+            return new ByteArrayResource(this.bytes);
+        }
+        return new OwnedFileResource(this.file, owner);
+    }
+
+    /**
+     * Deletes the backing file, if any. Streams that are already open keep working on POSIX
+     * file systems.
+     */
+    void release() {
+        if (this.file != null) {
+            try {
+                Files.deleteIfExists(this.file);
+            } catch (IOException e) {
+                // Best effort: the next process sweeps the spill directory once this one exits
+            }
+        }
+    }
+
+    /**
+     * File resource that pins its owning snapshot for as long as the resource is reachable.
+     */
+    private static final class OwnedFileResource extends FileSystemResource {
+
+        @SuppressWarnings("unused")
+        private final Object owner;
+
+        OwnedFileResource(final Path file, final Object owner) {
+            super(file);
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single-pass sink that turns serialized JSON into a {@link ConceptMapSnapshot}.
+ *
+ * <p>Every byte written is fed to the SHA-256 digest for the ETag, to the identity buffer and
+ * to a gzip compressor at the same time, so the document is produced exactly once and never
+ * has to be held as a whole to derive its variants. Each buffer starts on the heap and moves to
+ * a temporary file once it grows past the spill threshold.</p>
+ *
+ * <p>Temporary files go to a directory of their own per process, named after the process id,
+ * and are deleted when their snapshot is released. The first spill of a process deletes the
+ * directories of processes that no longer run, which is where files left by a crash end up.</p>
+ *
+ * <p>Not thread-safe; one writer builds one snapshot.</p>
+ */
+final class SnapshotWriter extends OutputStream {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final String TEMP_FILE_PREFIX = "concept-map-";
+    private static final String SPILL_DIRECTORY_PREFIX = "concept-map-spill-";
+
+    private static Path spillDirectory;
+
+    private final MessageDigest digest;
+    private final SpillingBuffer identity;
+    private final SpillingBuffer gzipped;
+    private final GZIPOutputStream gzipStream;
+    private boolean finished;
+
+    /**
+     * Creates a writer that keeps up to {@code spillThreshold} bytes per variant on the heap.
+     *
+     * @param spillThreshold the size in bytes above which a variant is moved to a temporary file
+     */
+    SnapshotWriter(final long spillThreshold) {
+        try {
+            this.digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(HASH_ALGORITHM + " not available", e);
+        }
+        this.identity = new SpillingBuffer(spillThreshold, ".json");
+        this.gzipped = new SpillingBuffer(spillThreshold, ".json.gz");
+        try {
+            this.gzipStream = new GZIPOutputStream(this.gzipped, GZIP_BUFFER_SIZE) {
+                {
+                    this.def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            };
+        } catch (IOException e) {
+            // Writing the gzip header to an in-memory buffer cannot fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.digest.update((byte) b);
+        this.identity.write(b);
+        this.gzipStream.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.digest.update(b, off, len);
+        this.identity.write(b, off, len);
+        this.gzipStream.write(b, off, len);
+    }
+
+    /**
+     * Completes all variants and publishes them as an immutable snapshot.
+     *
+     * <p>The gzip variant is dropped if it did not come out smaller than the identity bytes.</p>
+     *
+     * @param lastModified the instant the dataset was last updated
+     * @return the finished snapshot
+     * @throws IOException if a spilled variant cannot be flushed to disk
+     */
+    ConceptMapSnapshot finish(final Instant lastModified) throws IOException {
+        this.finished = true;
+        this.gzipStream.finish();
+        final SnapshotContent identityContent = this.identity.complete();
+        final SnapshotContent gzipContent = this.gzipped.complete();
+
+        final Map<ContentEncoding, SnapshotContent> variants = new EnumMap<>(ContentEncoding.class);
+        variants.put(ContentEncoding.IDENTITY, identityContent);
+        if (gzipContent.length() < identityContent.length()) {
+            variants.put(ContentEncoding.GZIP, gzipContent);
+        } else {
+            gzipContent.release();
+        }
+        final String eTag = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(this.digest.digest()) + '"';
+        return new ConceptMapSnapshot(variants, eTag, lastModified);
+    }
+
+    /**
+     * Discards any temporary files if the writer is closed without being finished, for example
+     * because the source document turned out to be invalid.
+     */
+    @Override
+    public void close() {
+        if (!this.finished) {
+            this.gzipped.discard();
+            this.identity.discard();
+        }
+    }
+
+    /**
+     * Returns this process's directory for spilled variants, creating it on first use after
+     * sweeping the directories of processes that have exited.
+     */
+    private static synchronized Path spillDirectory() throws IOException {
+        if (spillDirectory == null) {
+            final Path temporary = Path.of(System.getProperty("java.io.tmpdir"));
+            sweepAbandoned(temporary);
+            spillDirectory = Files.createDirectories(
+                    temporary.resolve(SPILL_DIRECTORY_PREFIX + ProcessHandle.current().pid()));
+        }
+        return spillDirectory;
+    }
+
+    private static void sweepAbandoned(final Path temporary) {
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(temporary, SPILL_DIRECTORY_PREFIX + "*")) {
+            for (final Path directory : directories) {
+                final String pid = directory.getFileName().toString().substring(SPILL_DIRECTORY_PREFIX.length());
+                if (Files.isDirectory(directory) && !pid.isEmpty() && pid.chars().allMatch(Character::isDigit)
+                        && ProcessHandle.of(Long.parseLong(pid)).isEmpty()) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                        for (final Path file : files) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                    Files.deleteIfExists(directory);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Best effort: leftovers only cost disk space and are retried by the next process
+        }
+    }
+
+    /**
+     * Output buffer that starts on the heap and switches to a temporary file past a threshold.
+     */
+    private static final class SpillingBuffer extends OutputStream {
+
+        private final long threshold;
+        private final String suffix;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private OutputStream fileStream;
+        private Path file;
+        private long length;
+
+        SpillingBuffer(final long threshold, final String suffix) {
+            this.threshold = threshold;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            spillIfNeeded(1);
+            target().write(b);
+            this.length++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            spillIfNeeded(len);
+            target().write(b, off, len);
+            this.length += len;
+        }
+
+        private OutputStream target() {
+            return this.fileStream != null ? this.fileStream : this.memory;
+        }
+
+        private void spillIfNeeded(final int incoming) throws IOException {
+            if (this.fileStream != null || this.length + incoming <= this.threshold) {
+                return;
+            }
+            this.file = Files.createTempFile(spillDirectory(), TEMP_FILE_PREFIX, this.suffix);
+            this.fileStream = new BufferedOutputStream(Files.newOutputStream(this.file));
+            this.memory.writeTo(this.fileStream);
+            this.memory = null;
+        }
+
+        SnapshotContent complete() throws IOException {
+            if (this.fileStream == null) {
+                return SnapshotContent.inMemory(this.memory.toByteArray());
+            }
+            this.fileStream.close();
+            return SnapshotContent.inFile(this.file, this.length);
+        }
+
+        void discard() {
+            if (this.fileStream != null) {
+                try {
+                    this.fileStream.close();
+                } catch (IOException e) {
+                    // Ignore: the file is deleted below
+                }
+                SnapshotContent.inFile(this.file, this.length).release();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import edu.ewu.cscd211.conceptmap.graph.AdjacencyIndex;
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.search.SuggestIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Autocompletes concept names as the user types.
+ *
+ * <p>Each dataset gets a {@link SuggestIndex} built from its node names and ids on the first
+ * request, ranked by how many links each node takes part in. Typing produces a request per
+ * keystroke, and many users type similar prefixes, so answers are cached per dataset and
+ * normalized prefix like every other dataset view.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ * @see SuggestIndex
+ */
+@Service
+public class SuggestService {
+
+    /** Number of suggestions returned when the client does not ask for a limit. */
+    public static final int DEFAULT_LIMIT = 8;
+
+    /** Largest accepted number of suggestions per request. */
+    public static final int MAX_LIMIT = 20;
+
+    /** Longest accepted prefix; longer input is not a prefix anyone types. */
+    public static final int MAX_PREFIX_LENGTH = 100;
+
+    private static final String SUGGEST_VIEW = "suggest";
+
+    private final DatasetRegistry datasetRegistry;
+    private final ConceptMapService conceptMapService;
+
+    /**
+     * Creates the suggestion service.
+     *
+     * @param datasetRegistry provides the loaded datasets
+     * @param conceptMapService parses datasets into indexed graphs
+     * @throws NullPointerException if either argument is null
+     */
+    public SuggestService(final DatasetRegistry datasetRegistry, final ConceptMapService conceptMapService) {
+        this.datasetRegistry = Objects.requireNonNull(datasetRegistry, "DatasetRegistry cannot be null");
+        this.conceptMapService = Objects.requireNonNull(conceptMapService, "ConceptMapService cannot be null");
+    }
+
+    /**
+     * Tells whether a prefix is one {@link #suggest} accepts: at most
+     * {@value #MAX_PREFIX_LENGTH} characters, with at least one letter or digit.
+     *
+     * @param prefix the typed text, or null
+     * @return true if the prefix can be looked up
+     */
+    public static boolean isValidPrefix(final String prefix) {
+        return prefix != null && prefix.length() <= MAX_PREFIX_LENGTH && !SuggestIndex.normalize(prefix).isEmpty();
+    }
+
+    /**
+     * Suggests concepts for a typed prefix and returns
+     * {@code {"dataset", "prefix", "maxEdits", "suggestions": [{"id", "name", "distance", "degree"}]}},
+     * where {@code prefix} is the normalized prefix and {@code distance} the number of edits
+     * needed to turn it into the start of the suggested name or id.
+     *
+     * @param datasetId the dataset id, or null for the first dataset of the manifest
+     * @param prefix the typed text
+     * @param limit the maximum number of suggestions, from 1 to {@link #MAX_LIMIT}
+     * @return the suggestions
+     * @throws ConceptMapNotFoundException if the dataset does not exist
+     * @throws ConceptMapReadException if the dataset cannot be loaded
+     * @throws IllegalArgumentException if the prefix has no letters or digits, is too long,
+     *                                  or limit is out of range
+     */
+    public ConceptMapSnapshot suggest(final String datasetId, final String prefix, final int limit)
+            throws ConceptMapNotFoundException, ConceptMapReadException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (prefix == null || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix must have at most " + MAX_PREFIX_LENGTH + " characters");
+        }
+        final String normalized = SuggestIndex.normalize(prefix);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Prefix must contain at least one letter or digit");
+        }
+
+        final Dataset dataset = datasetRegistry.getDataset(datasetId == null ? datasetRegistry.getDefaultDatasetId() : datasetId);
+        final SuggestIndex index = dataset.derived(SuggestIndex.class, this::buildIndex);
+        return dataset.view(List.of(SUGGEST_VIEW, normalized, limit), () -> {
+            final List<SuggestIndex.Suggestion> suggestions = index.suggest(normalized, limit);
+            return DatasetQueryService.writeView(dataset, generator -> {
+                generator.writeStartObject();
+                generator.writeStringField("dataset", dataset.getDescriptor().getId());
+                generator.writeStringField("prefix", normalized);
+                generator.writeNumberField("maxEdits", SuggestIndex.maxEdits(normalized));
+                generator.writeArrayFieldStart("suggestions");
+                for (final SuggestIndex.Suggestion suggestion : suggestions) {
+                    generator.writeStartObject();
+                    generator.writeStringField("id", suggestion.getEntry().getId());
+                    generator.writeStringField("name", suggestion.getEntry().getName());
+                    generator.writeNumberField("distance", suggestion.getDistance());
+                    generator.writeNumberField("degree", suggestion.getEntry().getCentrality());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            });
+        });
+    }
+
+    private SuggestIndex buildIndex(final Dataset dataset) throws ConceptMapReadException {
+        final AdjacencyIndex adjacency = dataset.graph(conceptMapService).getAdjacency();
+        final List<SuggestIndex.Entry> entries = new ArrayList<>(adjacency.nodeCount());
+        for (final Node node : adjacency.getNodes()) {
+            entries.add(new SuggestIndex.Entry(node.getId(), node.getName(), adjacency.degree(node.getId(), Direction.BOTH)));
+        }
+        return SuggestIndex.build(entries);
+    }
+}
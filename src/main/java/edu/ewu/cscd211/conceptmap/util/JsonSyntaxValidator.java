@@ -0,0 +1,637 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reusable JSON syntax checker that walks a document once without building anything from it.
+ *
+ * <p>A validator accepts exactly the documents that Jackson's default {@code readTree} accepts:
+ * strict JSON, one root value with whatever follows it ignored, and the nesting, number,
+ * string and field name limits of the given {@link StreamReadConstraints}. While it walks the
+ * root object it can also look for required field names, so a caller learns both answers from
+ * one pass.</p>
+ *
+ * <h3>Allocation</h3>
+ * <p>All working storage (the container stack, the field name buffer and the stream buffer)
+ * belongs to the validator and grows only for deeper, longer or streamed input than it has
+ * seen before. Once warmed up a call allocates nothing; an error message is only built when
+ * {@link #describeError()} asks for it.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * JsonSyntaxValidator validator = new JsonSyntaxValidator(StreamReadConstraints.defaults());
+ * if (validator.validate(bytes, new String[] {"metadata"}) == JsonSyntaxValidator.VALID
+ *         && validator.hasAllFields()) {
+ *     // well-formed, with a top-level metadata field
+ * }
+ * }</pre>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>Not thread-safe; {@link JsonValidationUtils} keeps one per thread.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+final class JsonSyntaxValidator {
+
+    /** The document is well-formed. */
+    static final int VALID = 0;
+    /** The document has nothing but whitespace. */
+    static final int EMPTY = 1;
+    /** The document is not well-formed; see {@link #describeError()}. */
+    static final int INVALID = 2;
+
+    private static final int END = -1;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final String[] NO_FIELDS = new String[0];
+
+    private final int maxDepth;
+    private final int maxNumberLength;
+    private final int maxStringLength;
+    private final int maxNameLength;
+
+    // The input: text for a String, otherwise bytes, refilled from stream if there is one
+    private String text;
+    private byte[] bytes;
+    private InputStream stream;
+    private byte[] streamBuffer;
+    private int position;
+    private int limit;
+    // Units of the input before the current buffer
+    private long consumed;
+    private int line;
+    private long lineStart;
+
+    private byte[] containers = new byte[32];
+    private char[] name = new char[64];
+    private int nameLength;
+    private String[] requiredFields = NO_FIELDS;
+    private long[] foundFields = new long[1];
+    private int requiredCount;
+    private int foundCount;
+
+    private String errorReason;
+    private int errorLine;
+    private long errorColumn;
+
+    /**
+     * Creates a validator.
+     *
+     * @param constraints the limits a document must keep to
+     */
+    JsonSyntaxValidator(final StreamReadConstraints constraints) {
+        this.maxDepth = constraints.getMaxNestingDepth();
+        this.maxNumberLength = constraints.getMaxNumberLength();
+        this.maxStringLength = constraints.getMaxStringLength();
+        this.maxNameLength = constraints.getMaxNameLength();
+    }
+
+    /**
+     * Checks a document held in a string.
+     *
+     * @param json the document
+     * @param fields top-level field names to look for; may be empty
+     * @return {@link #VALID}, {@link #EMPTY} or {@link #INVALID}
+     */
+    int validate(final String json, final String[] fields) {
+        this.text = json;
+        this.limit = json.length();
+        try {
+            return run(fields);
+        } catch (IOException e) {
+            throw new IllegalStateException("Strings cannot fail to read", e);
+        } finally {
+            this.text = null;
+        }
+    }
+
+    /**
+     * Checks a UTF-8 document held in a byte array.
+     *
+     * @param json the document
+     * @param fields top-level field names to look for; may be empty
+     * @return {@link #VALID}, {@link #EMPTY} or {@link #INVALID}
+     */
+    int validate(final byte[] json, final String[] fields) {
+        this.bytes = json;
+        this.limit = json.length;
+        try {
+            return run(fields);
+        } catch (IOException e) {
+            throw new IllegalStateException("Arrays cannot fail to read", e);
+        } finally {
+            this.bytes = null;
+        }
+    }
+
+    /**
+     * Checks a UTF-8 document read from a stream. Reading stops after the root value; the
+     * stream is not closed.
+     *
+     * @param json the document
+     * @param fields top-level field names to look for; may be empty
+     * @return {@link #VALID}, {@link #EMPTY} or {@link #INVALID}
+     * @throws IOException if the stream cannot be read
+     */
+    int validate(final InputStream json, final String[] fields) throws IOException {
+        if (streamBuffer == null) {
+            streamBuffer = new byte[STREAM_BUFFER_SIZE];
+        }
+        this.stream = json;
+        this.bytes = streamBuffer;
+        this.limit = 0;
+        try {
+            return run(fields);
+        } finally {
+            this.stream = null;
+            this.bytes = null;
+        }
+    }
+
+    /**
+     * Returns whether the last valid document had every field that was looked for at the top
+     * level of its root object.
+     *
+     * @return true if all fields were found
+     */
+    boolean hasAllFields() {
+        return foundCount == requiredCount;
+    }
+
+    /**
+     * Describes why the last document was invalid.
+     *
+     * @return the reason with its line and column
+     */
+    String describeError() {
+        return errorReason + " (line " + errorLine + ", column " + errorColumn + ")";
+    }
+
+    private int run(final String[] fields) throws IOException {
+        this.position = 0;
+        this.consumed = 0;
+        this.line = 1;
+        this.lineStart = 0;
+        this.requiredFields = fields;
+        this.requiredCount = fields.length;
+        this.foundCount = 0;
+        this.errorReason = null;
+        final int words = (fields.length + 63) >>> 6;
+        if (foundFields.length < words) {
+            foundFields = new long[words];
+        } else {
+            Arrays.fill(foundFields, 0, words, 0L);
+        }
+        try {
+            return walk();
+        } finally {
+            this.requiredFields = NO_FIELDS;
+        }
+    }
+
+    /** Walks the root value with a stack of open containers instead of recursion. */
+    private int walk() throws IOException {
+        int c = next();
+        if (c == 0xEF && text == null) {
+            // A UTF-8 byte order mark, skipped as Jackson does
+            if (next() != 0xBB || next() != 0xBF) {
+                return fail("Invalid UTF-8 start byte");
+            }
+            c = next();
+        }
+        // Blank input counts as empty even with control characters, like String.trim()
+        boolean blank = true;
+        while (c != END && c <= ' ') {
+            if (c == '\n') {
+                line++;
+                lineStart = consumed + position;
+            } else if (!isWhitespace(c)) {
+                blank = false;
+            }
+            c = next();
+        }
+        if (c == END) {
+            return EMPTY;
+        }
+        if (!blank) {
+            return fail("Illegal character between tokens");
+        }
+
+        int depth = 0;
+        value:
+        while (true) {
+            boolean number = false;
+            switch (c) {
+                case '{', '[' -> {
+                    if (depth == maxDepth) {
+                        return fail("Nesting depth exceeds the maximum of " + maxDepth);
+                    }
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, Math.min(depth * 2, maxDepth));
+                    }
+                    final boolean object = c == '{';
+                    containers[depth++] = object ? OBJECT : ARRAY;
+                    c = skipWhitespace(next());
+                    if (c == (object ? '}' : ']')) {
+                        depth--;
+                        c = next();
+                    } else if (object) {
+                        c = member(c, depth);
+                        if (c == END) {
+                            return INVALID;
+                        }
+                        continue value;
+                    } else {
+                        continue value;
+                    }
+                }
+                case '"' -> {
+                    if (!string(false, false)) {
+                        return INVALID;
+                    }
+                    c = next();
+                }
+                case 't' -> c = literal("true");
+                case 'f' -> c = literal("false");
+                case 'n' -> c = literal("null");
+                case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                    c = number(c);
+                    number = true;
+                }
+                case END -> {
+                    return fail("Unexpected end of input: expected a value");
+                }
+                default -> {
+                    return fail("Unexpected character: expected a value");
+                }
+            }
+            if (errorReason != null) {
+                return INVALID;
+            }
+
+            // After a value: close containers until one continues
+            while (true) {
+                if (depth == 0) {
+                    // A root number must be followed by whitespace; anything else after the root is ignored
+                    if (number && c != END && !isWhitespace(c)) {
+                        return fail("Expected space separating root-level values");
+                    }
+                    return VALID;
+                }
+                number = false;
+                c = skipWhitespace(c);
+                final byte container = containers[depth - 1];
+                if (c == ',') {
+                    c = skipWhitespace(next());
+                    if (container == OBJECT) {
+                        c = member(c, depth);
+                        if (c == END) {
+                            return INVALID;
+                        }
+                    }
+                    continue value;
+                }
+                if (c == '}' && container == OBJECT || c == ']' && container == ARRAY) {
+                    depth--;
+                    c = next();
+                } else if (c == END) {
+                    return fail("Unexpected end of input: expected close marker");
+                } else {
+                    return fail(container == OBJECT
+                            ? "Unexpected character: expected comma or end of object"
+                            : "Unexpected character: expected comma or end of array");
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a field name and its colon, starting at the name's quote.
+     *
+     * @return the first unit of the value, or {@link #END} after an error
+     */
+    private int member(final int quote, final int depth) throws IOException {
+        if (quote != '"') {
+            fail(quote == END ? "Unexpected end of input: expected a field name"
+                    : "Unexpected character: expected double-quote to start field name");
+            return END;
+        }
+        final boolean match = depth == 1 && foundCount < requiredFields.length;
+        if (!string(true, match)) {
+            return END;
+        }
+        if (match) {
+            markFound();
+        }
+        int c = skipWhitespace(next());
+        if (c != ':') {
+            fail("Unexpected character: expected a colon to separate field name and value");
+            return END;
+        }
+        c = skipWhitespace(next());
+        if (c == END) {
+            fail("Unexpected end of input: expected a value");
+        }
+        return c;
+    }
+
+    /**
+     * Reads a string after its opening quote, through its closing quote.
+     *
+     * @param fieldName whether the string is a field name, which has its own length limit
+     * @param keepName whether to decode it into {@link #name}
+     * @return false after an error
+     */
+    private boolean string(final boolean fieldName, final boolean keepName) throws IOException {
+        nameLength = 0;
+        long length = 0;
+        while (true) {
+            int c = next();
+            if (c == '"') {
+                break;
+            }
+            if (c == END) {
+                fail("Unexpected end of input: expected closing quote for a string value");
+                return false;
+            }
+            if (c < ' ') {
+                fail("Illegal unquoted character: has to be escaped in a string value");
+                return false;
+            }
+            if (c == '\\') {
+                c = escape();
+                if (c == END) {
+                    return false;
+                }
+            } else if (c >= 0x80 && text == null) {
+                c = utf8(c);
+                if (c == END) {
+                    return false;
+                }
+            }
+            if (fieldName && text == null) {
+                // Jackson limits names in bytes by their UTF-8 length
+                length += c < 0x80 ? 1 : c < 0x800 ? 2 : c <= 0xFFFF ? 3 : 4;
+            } else {
+                length += c > 0xFFFF ? 2 : 1;
+            }
+            if (keepName && c > 0xFFFF) {
+                keep(Character.highSurrogate(c));
+                keep(Character.lowSurrogate(c));
+            } else if (keepName) {
+                keep((char) c);
+            }
+        }
+        if (length > (fieldName ? maxNameLength : maxStringLength)) {
+            fail(fieldName ? "Name length exceeds the maximum" : "String value length exceeds the maximum");
+            return false;
+        }
+        return true;
+    }
+
+    /** Reads the escape after a backslash and returns the character it stands for. */
+    private int escape() throws IOException {
+        final int c = next();
+        switch (c) {
+            case '"', '\\', '/' -> {
+                return c;
+            }
+            case 'b' -> {
+                return '\b';
+            }
+            case 'f' -> {
+                return '\f';
+            }
+            case 'n' -> {
+                return '\n';
+            }
+            case 'r' -> {
+                return '\r';
+            }
+            case 't' -> {
+                return '\t';
+            }
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        fail("Unexpected character: expected a hex-digit for character escape sequence");
+                        return END;
+                    }
+                    value = value << 4 | digit;
+                }
+                return value;
+            }
+            default -> {
+                fail("Unrecognized character escape");
+                return END;
+            }
+        }
+    }
+
+    /** Decodes the rest of a UTF-8 sequence, checking only its shape as Jackson does. */
+    private int utf8(final int lead) throws IOException {
+        final int continuations;
+        int value;
+        if ((lead & 0xE0) == 0xC0) {
+            continuations = 1;
+            value = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            continuations = 2;
+            value = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            continuations = 3;
+            value = lead & 0x07;
+        } else {
+            fail("Invalid UTF-8 start byte");
+            return END;
+        }
+        for (int i = 0; i < continuations; i++) {
+            final int c = next();
+            if ((c & 0xC0) != 0x80) {
+                fail("Invalid UTF-8 middle byte");
+                return END;
+            }
+            value = value << 6 | c & 0x3F;
+        }
+        return value;
+    }
+
+    private void keep(final char c) {
+        if (nameLength == name.length) {
+            name = Arrays.copyOf(name, nameLength * 2);
+        }
+        name[nameLength++] = c;
+    }
+
+    private void markFound() {
+        for (int i = 0; i < requiredFields.length; i++) {
+            final String field = requiredFields[i];
+            if ((foundFields[i >>> 6] & 1L << i) == 0 && field != null && field.length() == nameLength
+                    && matchesName(field)) {
+                foundFields[i >>> 6] |= 1L << i;
+                foundCount++;
+            }
+        }
+    }
+
+    private boolean matchesName(final String field) {
+        for (int i = 0; i < nameLength; i++) {
+            if (field.charAt(i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reads the rest of a literal after its first letter and returns the unit after it. */
+    private int literal(final String token) throws IOException {
+        for (int i = 1; i < token.length(); i++) {
+            if (next() != token.charAt(i)) {
+                fail("Unrecognized token");
+                return END;
+            }
+        }
+        final int c = next();
+        // Jackson rejects a literal that runs on into an identifier, such as "truex", and in
+        // bytes any literal followed by a multi-byte character
+        if (c >= '0' && c != ']' && c != '}') {
+            if (c >= 0x80 && text == null || Character.isJavaIdentifierPart((char) c)) {
+                fail("Unrecognized token");
+                return END;
+            }
+        }
+        return c;
+    }
+
+    /** Reads a number from its first unit and returns the unit after it. */
+    private int number(final int first) throws IOException {
+        int c = first;
+        if (c == '-') {
+            c = next();
+            if (!isDigit(c)) {
+                fail("Unexpected character in numeric value: expected digit to follow minus sign");
+                return END;
+            }
+        }
+        int integerLength = 0;
+        if (c == '0') {
+            c = next();
+            integerLength = 1;
+            if (isDigit(c)) {
+                fail("Invalid numeric value: Leading zeroes not allowed");
+                return END;
+            }
+        } else {
+            while (isDigit(c)) {
+                integerLength++;
+                c = next();
+            }
+        }
+        if (integerLength > maxNumberLength) {
+            fail("Number value length exceeds the maximum");
+            return END;
+        }
+        int fractionLength = 0;
+        int exponentLength = 0;
+        boolean floatingPoint = false;
+        if (c == '.') {
+            floatingPoint = true;
+            c = next();
+            while (isDigit(c)) {
+                fractionLength++;
+                c = next();
+            }
+            if (fractionLength == 0) {
+                fail("Unexpected character in numeric value: Decimal point not followed by a digit");
+                return END;
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            floatingPoint = true;
+            c = next();
+            if (c == '+' || c == '-') {
+                c = next();
+            }
+            while (isDigit(c)) {
+                exponentLength++;
+                c = next();
+            }
+            if (exponentLength == 0) {
+                fail("Unexpected character in numeric value: expected a digit for number exponent");
+                return END;
+            }
+        }
+        // Jackson's reader leaves the first digit out of a float that ends the text
+        final int length = integerLength + fractionLength + exponentLength - (c == END && text != null ? 1 : 0);
+        if (floatingPoint && length > maxNumberLength) {
+            fail("Number value length exceeds the maximum");
+            return END;
+        }
+        return c;
+    }
+
+    /** Skips whitespace from the given unit and returns the first other unit. */
+    private int skipWhitespace(int c) throws IOException {
+        while (true) {
+            if (c == '\n') {
+                line++;
+                lineStart = consumed + position;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+            c = next();
+        }
+    }
+
+    /** Returns the next unit of the input: a char of a string or a byte of UTF-8. */
+    private int next() throws IOException {
+        if (position < limit || refill()) {
+            return text != null ? text.charAt(position++) : bytes[position++] & 0xFF;
+        }
+        return END;
+    }
+
+    private boolean refill() throws IOException {
+        if (stream == null) {
+            return false;
+        }
+        consumed += limit;
+        position = 0;
+        limit = 0;
+        int read;
+        do {
+            read = stream.read(bytes, 0, bytes.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private int fail(final String reason) {
+        if (errorReason == null) {
+            errorReason = reason;
+            errorLine = line;
+            errorColumn = consumed + position - lineStart;
+        }
+        return INVALID;
+    }
+
+    private static boolean isDigit(final int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
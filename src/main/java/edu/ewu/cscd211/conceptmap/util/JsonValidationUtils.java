@@ -4,31 +4,43 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
 
 /**
  * Utility class for JSON validation and processing following CSCD211 standards.
- * 
+ *
  * This utility class demonstrates advanced Java principles for CSCD211 students:
  * - Static utility methods for common operations
  * - Proper exception handling with meaningful messages
  * - Input validation with defensive programming
  * - Use of final class to prevent inheritance
  * - Private constructor to prevent instantiation
- * 
+ *
+ * Validation walks the input once with a {@link JsonSyntaxValidator} kept per thread, so it
+ * builds no tree and, once warmed up, allocates nothing for a valid document. Required fields
+ * are looked for in the same pass. Only {@link #parseJson(String)} builds a tree.
+ *
  * @author Code Improvement Agent
- * @version 1.0
+ * @version 1.1
  * @since 1.0
  */
 public final class JsonValidationUtils {
-    
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    
+
+    private static final ThreadLocal<JsonSyntaxValidator> VALIDATOR = ThreadLocal.withInitial(
+        () -> new JsonSyntaxValidator(OBJECT_MAPPER.getFactory().streamReadConstraints()));
+
+    private static final String[] NO_FIELDS = new String[0];
+
     // Error messages as constants following CSCD211 standards
     private static final String ERROR_NULL_JSON = "JSON string cannot be null";
     private static final String ERROR_EMPTY_JSON = "JSON string cannot be empty";
     private static final String ERROR_INVALID_JSON = "Invalid JSON format";
-    
+    private static final String ERROR_NULL_FIELDS = "Required fields array cannot be null";
+
     /**
      * Private constructor to prevent instantiation of utility class.
      * This follows the utility class pattern in CSCD211.
@@ -36,96 +48,194 @@ public final class JsonValidationUtils {
     private JsonValidationUtils() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
-    
+
     /**
      * Validates that a JSON string is not null, not empty, and has valid JSON syntax.
-     * 
+     *
      * This method demonstrates:
      * - Input validation with comprehensive checks
-     * - Exception handling for JSON parsing
      * - Defensive programming practices
-     * 
+     *
      * @param json the JSON string to validate
      * @return true if the JSON is valid, false otherwise
-     * @throws IllegalArgumentException if json is null
+     * @throws NullPointerException if json is null
      */
     public static boolean isValidJson(final String json) {
         Objects.requireNonNull(json, ERROR_NULL_JSON);
-        
-        // Check for empty or whitespace-only strings
-        if (json.trim().isEmpty()) {
-            return false;
-        }
-        
-        // Attempt to parse JSON to validate syntax
-        try {
-            OBJECT_MAPPER.readTree(json);
-            return true;
-        } catch (JsonProcessingException e) {
-            return false;
-        }
+        return VALIDATOR.get().validate(json, NO_FIELDS) == JsonSyntaxValidator.VALID;
+    }
+
+    /**
+     * Validates UTF-8 JSON held in a byte array.
+     *
+     * @param json the JSON bytes to validate
+     * @return true if the JSON is valid, false otherwise
+     * @throws NullPointerException if json is null
+     * @since 2.1
+     */
+    public static boolean isValidJson(final byte[] json) {
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+        return VALIDATOR.get().validate(json, NO_FIELDS) == JsonSyntaxValidator.VALID;
+    }
+
+    /**
+     * Validates UTF-8 JSON read from a stream. Reading stops after the root value; the stream
+     * is left open.
+     *
+     * @param json the stream to validate
+     * @return true if the JSON is valid, false otherwise
+     * @throws NullPointerException if json is null
+     * @throws IOException if the stream cannot be read
+     * @since 2.1
+     */
+    public static boolean isValidJson(final InputStream json) throws IOException {
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+        return VALIDATOR.get().validate(json, NO_FIELDS) == JsonSyntaxValidator.VALID;
     }
-    
+
     /**
      * Validates JSON and throws descriptive exceptions for invalid inputs.
-     * 
+     *
      * This method provides more detailed error information than isValidJson()
      * and demonstrates proper exception handling patterns.
-     * 
+     *
      * @param json the JSON string to validate
-     * @throws IllegalArgumentException if json is null, empty, or invalid
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json is null
      */
     public static void validateJsonOrThrow(final String json) {
         Objects.requireNonNull(json, ERROR_NULL_JSON);
-        
-        if (json.trim().isEmpty()) {
-            throw new IllegalArgumentException(ERROR_EMPTY_JSON);
-        }
-        
-        try {
-            OBJECT_MAPPER.readTree(json);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException(ERROR_INVALID_JSON + ": " + e.getMessage(), e);
-        }
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, NO_FIELDS));
     }
-    
+
+    /**
+     * Validates UTF-8 JSON held in a byte array and throws descriptive exceptions for invalid input.
+     *
+     * @param json the JSON bytes to validate
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json is null
+     * @since 2.1
+     */
+    public static void validateJsonOrThrow(final byte[] json) {
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, NO_FIELDS));
+    }
+
+    /**
+     * Validates UTF-8 JSON read from a stream and throws descriptive exceptions for invalid input.
+     *
+     * @param json the stream to validate
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json is null
+     * @throws IOException if the stream cannot be read
+     * @since 2.1
+     */
+    public static void validateJsonOrThrow(final InputStream json) throws IOException {
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, NO_FIELDS));
+    }
+
     /**
      * Parses JSON string into a JsonNode for further processing.
-     * 
+     *
      * @param json the JSON string to parse
      * @return JsonNode representation of the JSON
-     * @throws IllegalArgumentException if json is null, empty, or invalid
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json is null
      */
     public static JsonNode parseJson(final String json) {
-        validateJsonOrThrow(json);
-        
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+
+        if (isBlank(json)) {
+            throw new IllegalArgumentException(ERROR_EMPTY_JSON);
+        }
+
         try {
             return OBJECT_MAPPER.readTree(json);
         } catch (JsonProcessingException e) {
-            // This should not happen since we validated above, but handle defensively
             throw new IllegalArgumentException(ERROR_INVALID_JSON + ": " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Checks if JSON string contains required fields.
-     * 
+     * Checks if JSON string contains required fields at the top level of its root object.
+     *
      * @param json the JSON string to check
      * @param requiredFields array of field names that must be present
      * @return true if all required fields are present, false otherwise
-     * @throws IllegalArgumentException if json is invalid or requiredFields is null
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json or requiredFields is null
      */
     public static boolean hasRequiredFields(final String json, final String... requiredFields) {
-        Objects.requireNonNull(requiredFields, "Required fields array cannot be null");
-        
-        final JsonNode jsonNode = parseJson(json);
-        
-        for (final String field : requiredFields) {
-            if (!jsonNode.has(field)) {
+        Objects.requireNonNull(requiredFields, ERROR_NULL_FIELDS);
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, requiredFields));
+        return validator.hasAllFields();
+    }
+
+    /**
+     * Checks if UTF-8 JSON held in a byte array contains required fields at the top level of
+     * its root object.
+     *
+     * @param json the JSON bytes to check
+     * @param requiredFields array of field names that must be present
+     * @return true if all required fields are present, false otherwise
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json or requiredFields is null
+     * @since 2.1
+     */
+    public static boolean hasRequiredFields(final byte[] json, final String... requiredFields) {
+        Objects.requireNonNull(requiredFields, ERROR_NULL_FIELDS);
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, requiredFields));
+        return validator.hasAllFields();
+    }
+
+    /**
+     * Checks if UTF-8 JSON read from a stream contains required fields at the top level of its
+     * root object. Reading stops after the root value; the stream is left open.
+     *
+     * @param json the stream to check
+     * @param requiredFields array of field names that must be present
+     * @return true if all required fields are present, false otherwise
+     * @throws IllegalArgumentException if json is empty or invalid
+     * @throws NullPointerException if json or requiredFields is null
+     * @throws IOException if the stream cannot be read
+     * @since 2.1
+     */
+    public static boolean hasRequiredFields(final InputStream json, final String... requiredFields)
+            throws IOException {
+        Objects.requireNonNull(requiredFields, ERROR_NULL_FIELDS);
+        Objects.requireNonNull(json, ERROR_NULL_JSON);
+
+        final JsonSyntaxValidator validator = VALIDATOR.get();
+        throwIfInvalid(validator, validator.validate(json, requiredFields));
+        return validator.hasAllFields();
+    }
+
+    private static void throwIfInvalid(final JsonSyntaxValidator validator, final int status) {
+        if (status == JsonSyntaxValidator.EMPTY) {
+            throw new IllegalArgumentException(ERROR_EMPTY_JSON);
+        }
+        if (status == JsonSyntaxValidator.INVALID) {
+            throw new IllegalArgumentException(ERROR_INVALID_JSON + ": " + validator.describeError());
+        }
+    }
+
+    /** Whether the string is empty after {@link String#trim()}, without trimming it. */
+    private static boolean isBlank(final String json) {
+        for (int i = 0; i < json.length(); i++) {
+            if (json.charAt(i) > ' ') {
                 return false;
             }
         }
-        
         return true;
     }
 }
@@ -0,0 +1,130 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe table that assigns each distinct string a dense int symbol and keeps one
+ * canonical instance of it.
+ *
+ * <p>A parsed dataset repeats the same strings many times: every link names its source and
+ * target node, and a handful of relationship types cover thousands of links. A JSON parser
+ * creates a new {@code String} for every occurrence. Interning them through a table while
+ * parsing leaves one instance per distinct value, and gives each value an int that can stand
+ * in for it in arrays, bit sets and comparisons.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * SymbolTable types = new SymbolTable();
+ * int prerequisite = types.intern("PREREQUISITE");   // 0
+ * types.intern(new String("PREREQUISITE"));           // 0 again
+ * types.name(prerequisite);                           // the first instance
+ * }</pre>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>Lookups of known strings are lock-free. Assigning a new symbol takes a lock, so symbols
+ * are dense and each string is assigned exactly one. A table is meant to live as long as the
+ * data that uses it, such as one dataset; it never forgets a string.</p>
+ *
+ * @author CSCD211 Development Team
+ * @version 1.0
+ * @since 2.1
+ */
+public final class SymbolTable {
+
+    /** Returned by {@link #lookup} for strings that have no symbol. */
+    public static final int NO_SYMBOL = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ConcurrentHashMap<String, Integer> symbols = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    // Each slot is written once, before its symbol is published through the map
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the symbol of a string, assigning the next free one on first sight.
+     *
+     * @param value the string
+     * @return the symbol, from 0 up
+     * @throws NullPointerException if value is null
+     */
+    public int intern(final String value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        final Integer known = this.symbols.get(value);
+        if (known != null) {
+            return known;
+        }
+        synchronized (this) {
+            final Integer raced = this.symbols.get(value);
+            if (raced != null) {
+                return raced;
+            }
+            final int symbol = this.size;
+            String[] current = this.names;
+            if (symbol == current.length) {
+                current = Arrays.copyOf(current, symbol * 2);
+            }
+            current[symbol] = value;
+            this.names = current;
+            this.size = symbol + 1;
+            this.symbols.put(value, symbol);
+            return symbol;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of a string, adding it to the table if it is new.
+     *
+     * @param value the string, may be null
+     * @return the instance equal to value that the table holds, or null for null
+     */
+    public String canonical(final String value) {
+        return value == null ? null : name(intern(value));
+    }
+
+    /**
+     * Returns the symbol of a string without assigning one.
+     *
+     * @param value the string
+     * @return the symbol, or {@value #NO_SYMBOL} if the string is unknown or null
+     */
+    public int lookup(final String value) {
+        if (value == null) {
+            return NO_SYMBOL;
+        }
+        final Integer known = this.symbols.get(value);
+        return known == null ? NO_SYMBOL : known;
+    }
+
+    /**
+     * Returns the string a symbol stands for.
+     *
+     * @param symbol a symbol returned by this table
+     * @return the canonical string
+     * @throws IndexOutOfBoundsException if the symbol was not assigned by this table
+     */
+    public String name(final int symbol) {
+        final String[] current = this.names;
+        final String name = symbol >= 0 && symbol < current.length ? current[symbol] : null;
+        if (name == null) {
+            throw new IndexOutOfBoundsException("Unknown symbol " + symbol);
+        }
+        return name;
+    }
+
+    /**
+     * Returns the number of symbols assigned so far.
+     *
+     * @return the symbol count
+     */
+    public int size() {
+        return this.symbols.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolTable{size=" + size() + '}';
+    }
+}
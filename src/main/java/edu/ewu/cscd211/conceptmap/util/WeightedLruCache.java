@@ -0,0 +1,213 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe least-recently-used cache bounded by the total weight of its values rather than
+ * by their count.
+ *
+ * <p>This utility demonstrates how a {@link LinkedHashMap} in access order gives an LRU policy
+ * almost for free: every {@code get} moves the entry to the tail, so the head is always the
+ * coldest entry and is the first to be evicted when a new value pushes the total weight over the
+ * limit. Weighing by bytes rather than counting entries lets one small and one huge dataset be
+ * budgeted fairly.</p>
+ *
+ * <p>A value heavier than the whole budget is never stored; {@link #put} simply reports that it
+ * was not cached.</p>
+ *
+ * <h3>Concurrency</h3>
+ * <p>Every request reads the cache and only misses write it, so reads never wait:</p>
+ * <ul>
+ *   <li><strong>Lookups</strong> go to a {@link ConcurrentHashMap} that mirrors the entries
+ *       and are lock-free</li>
+ *   <li><strong>Recency</strong> is recorded in the access-ordered map only if its lock is
+ *       free; a read that finds it taken skips the update, so under contention the eviction
+ *       order is approximate</li>
+ *   <li><strong>Writes</strong> take the lock and change both maps together. Replacing a key
+ *       is atomic: readers see either the old value or the new one, never a gap</li>
+ * </ul>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author CSCD211 Development Team
+ * @version 1.1
+ * @since 2.1
+ */
+public final class WeightedLruCache<K, V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final ConcurrentHashMap<K, Entry<V>> lookup = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR);
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalWeight;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxWeight the maximum total weight of all cached values
+     * @param weigher computes the weight of a value; must return a non-negative number
+     * @throws IllegalArgumentException if maxWeight is negative
+     * @throws NullPointerException if weigher is null
+     */
+    public WeightedLruCache(final long maxWeight, final ToLongFunction<? super V> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight cannot be negative");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = Objects.requireNonNull(weigher, "Weigher cannot be null");
+    }
+
+    /**
+     * Returns the cached value and marks it as most recently used, unless another thread is
+     * writing the cache at that moment. Never blocks.
+     *
+     * @param key the key to look up
+     * @return the value, or null if absent
+     */
+    public V get(final K key) {
+        final Entry<V> entry = this.lookup.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (this.lock.tryLock()) {
+            try {
+                this.entries.get(key);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, evicting least-recently-used entries until the total weight fits.
+     *
+     * @param key the key, not null
+     * @param value the value, not null
+     * @return true if the value was cached, false if it alone exceeds the weight limit
+     */
+    public boolean put(final K key, final V value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(value, "Value cannot be null");
+        final long weight = this.weigher.applyAsLong(value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        this.lock.lock();
+        try {
+            if (weight > this.maxWeight) {
+                removeLocked(key);
+                return false;
+            }
+            final Entry<V> entry = new Entry<>(value, weight);
+            final Entry<V> previous = this.entries.put(key, entry);
+            if (previous != null) {
+                this.totalWeight -= previous.weight;
+            }
+            this.totalWeight += weight;
+            // The new entry is the most recent, so it is only reached once everything else is gone
+            final Iterator<Map.Entry<K, Entry<V>>> coldestFirst = this.entries.entrySet().iterator();
+            while (this.totalWeight > this.maxWeight) {
+                final Map.Entry<K, Entry<V>> coldest = coldestFirst.next();
+                this.totalWeight -= coldest.getValue().weight;
+                this.lookup.remove(coldest.getKey());
+                coldestFirst.remove();
+            }
+            this.lookup.put(key, entry);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes one entry.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null if absent
+     */
+    public V remove(final K key) {
+        this.lock.lock();
+        try {
+            return removeLocked(key);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        this.lock.lock();
+        try {
+            this.entries.clear();
+            this.lookup.clear();
+            this.totalWeight = 0L;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return this.lookup.size();
+    }
+
+    /**
+     * Returns the summed weight of all cached values.
+     *
+     * @return the current total weight
+     */
+    public long totalWeight() {
+        this.lock.lock();
+        try {
+            return this.totalWeight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the weight limit this cache was created with.
+     *
+     * @return the maximum total weight
+     */
+    public long maxWeight() {
+        return this.maxWeight;
+    }
+
+    private V removeLocked(final K key) {
+        final Entry<V> entry = this.entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        this.lookup.remove(key);
+        this.totalWeight -= entry.weight;
+        return entry.value;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        Entry(final V value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package edu.ewu.cscd211.conceptmap;
 
 import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.ContentEncoding;
 import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
 import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.DatasetRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -34,16 +43,19 @@ class ConceptMapControllerServiceIntegrationTest {
     @Mock
     private ConceptMapService conceptMapService;
     
+    @Mock
+    private DatasetRegistry datasetRegistry;
+    
     private ConceptMapController controller;
     
-    private static final String SAMPLE_JSON = "{\"metadata\":{\"version\":\"test\"},\"nodes\":[],\"links\":[]}";
+    private static final String SAMPLE_JSON = "{\"metadata\":{\"version\":\"test\",\"last_updated\":\"2025-08-16T23:55:00Z\"},\"nodes\":[],\"links\":[]}";
     private static final String CONTENT_TYPE_HEADER = "Content-Type";
     private static final String APPLICATION_JSON = "application/json";
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        controller = new ConceptMapController(conceptMapService);
+        controller = new ConceptMapController(conceptMapService, datasetRegistry);
     }
     
     @Nested
@@ -56,7 +68,7 @@ class ConceptMapControllerServiceIntegrationTest {
             // Act & Assert
             NullPointerException exception = assertThrows(
                 NullPointerException.class,
-                () -> new ConceptMapController(null),
+                () -> new ConceptMapController(null, datasetRegistry),
                 "Should throw NullPointerException for null service"
             );
             
@@ -64,11 +76,22 @@ class ConceptMapControllerServiceIntegrationTest {
                         "Should have descriptive error message");
         }
         
+        @Test
+        @DisplayName("Should throw NullPointerException when registry is null")
+        void shouldThrowExceptionWhenRegistryIsNull() {
+            NullPointerException exception = assertThrows(
+                NullPointerException.class,
+                () -> new ConceptMapController(conceptMapService, null)
+            );
+            
+            assertEquals("DatasetRegistry cannot be null", exception.getMessage());
+        }
+        
         @Test
         @DisplayName("Should create controller with valid service")
         void shouldCreateControllerWithValidService() {
             // Act
-            ConceptMapController testController = new ConceptMapController(conceptMapService);
+            ConceptMapController testController = new ConceptMapController(conceptMapService, datasetRegistry);
             
             // Assert
             assertNotNull(testController, "Controller should be created successfully");
@@ -79,90 +102,223 @@ class ConceptMapControllerServiceIntegrationTest {
     @DisplayName("Get Concept Map Tests")
     class GetConceptMapTests {
         
+        private ConceptMapSnapshot snapshot;
+        
+        @BeforeEach
+        void setUpSnapshot() throws ConceptMapReadException {
+            snapshot = new ConceptMapService().buildSnapshot(SAMPLE_JSON.getBytes(StandardCharsets.UTF_8));
+        }
+        
         @Test
         @DisplayName("Should return 200 with JSON when service returns valid data")
-        void shouldReturn200WithValidJson() throws ConceptMapNotFoundException, ConceptMapReadException {
+        void shouldReturn200WithValidJson() throws Exception {
             // Arrange
-            when(conceptMapService.getConceptMapJson()).thenReturn(SAMPLE_JSON);
-            when(conceptMapService.isValidJson(SAMPLE_JSON)).thenReturn(true);
+            when(conceptMapService.getConceptMapSnapshot()).thenReturn(snapshot);
             
             // Act
-            ResponseEntity<String> response = controller.getConceptMap();
+            ResponseEntity<Resource> response = controller.getConceptMap(null, null);
             
             // Assert
             assertEquals(HttpStatus.OK, response.getStatusCode(),
                         "Should return HTTP 200 OK");
             assertEquals(APPLICATION_JSON, response.getHeaders().getFirst(CONTENT_TYPE_HEADER),
                         "Should set Content-Type header to application/json");
-            assertEquals(SAMPLE_JSON, response.getBody(),
+            assertEquals(SAMPLE_JSON, bodyOf(response),
                         "Should return the JSON content from service");
+            assertEquals(snapshot.getETag(), response.getHeaders().getETag(),
+                        "Should expose the snapshot ETag");
+            assertEquals(snapshot.getLastModified().toEpochMilli(), response.getHeaders().getLastModified(),
+                        "Should expose Last-Modified from metadata.last_updated");
             
-            // Verify service interactions
-            verify(conceptMapService).getConceptMapJson();
-            verify(conceptMapService).isValidJson(SAMPLE_JSON);
+            // Verify service interactions: no per-request validation
+            verify(conceptMapService).getConceptMapSnapshot();
+            verify(conceptMapService, never()).isValidJson(anyString());
+        }
+        
+        @Test
+        @DisplayName("Should return 304 without body when If-None-Match matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Arrange
+            when(conceptMapService.getConceptMapSnapshot()).thenReturn(snapshot);
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getConceptMap(snapshot.getETag(), null);
+            
+            // Assert
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode(),
+                        "Should return HTTP 304 NOT MODIFIED");
+            assertNull(response.getBody(), "304 responses must not carry a body");
+            assertEquals(snapshot.getETag(), response.getHeaders().getETag(),
+                        "Should repeat the current ETag");
+        }
+        
+        @Test
+        @DisplayName("Should return 200 when If-None-Match does not match")
+        void shouldReturn200WhenETagDiffers() throws Exception {
+            // Arrange
+            when(conceptMapService.getConceptMapSnapshot()).thenReturn(snapshot);
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getConceptMap("\"stale-etag\"", null);
+            
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode(),
+                        "Should return HTTP 200 OK for a stale ETag");
+            assertEquals(SAMPLE_JSON, bodyOf(response));
+        }
+        
+        @Test
+        @DisplayName("Should serve the precompressed gzip variant when accepted")
+        void shouldServeGzipVariantWhenAccepted() throws Exception {
+            // Arrange: a body long enough for gzip to pay off
+            String json = "{\"metadata\":{\"description\":\"" + "concept ".repeat(200) + "\"}}";
+            ConceptMapSnapshot large = new ConceptMapService().buildSnapshot(json.getBytes(StandardCharsets.UTF_8));
+            when(conceptMapService.getConceptMapSnapshot()).thenReturn(large);
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getConceptMap(null, "gzip, deflate, br");
+            
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("gzip", response.getHeaders().getFirst("Content-Encoding"),
+                        "Should label the gzip variant");
+            assertTrue(response.getHeaders().getVary().contains("Accept-Encoding"),
+                        "Should vary on Accept-Encoding");
+            assertEquals(large.getETag(ContentEncoding.GZIP), response.getHeaders().getETag(),
+                        "Should use the variant-specific ETag");
+            assertEquals(large.getContentLength(ContentEncoding.GZIP), response.getHeaders().getContentLength());
+            try (InputStream in = new GZIPInputStream(response.getBody().getInputStream())) {
+                assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                            "Decompressed body should equal the original document");
+            }
+        }
+        
+        @Test
+        @DisplayName("Should serve identity without Content-Encoding when gzip is not accepted")
+        void shouldServeIdentityWhenGzipNotAccepted() throws Exception {
+            // Arrange
+            when(conceptMapService.getConceptMapSnapshot()).thenReturn(snapshot);
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getConceptMap(null, "gzip;q=0");
+            
+            // Assert
+            assertNull(response.getHeaders().getFirst("Content-Encoding"));
+            assertEquals(SAMPLE_JSON, bodyOf(response));
         }
         
         @Test
         @DisplayName("Should return 404 when resource not found")
-        void shouldReturn404WhenResourceNotFound() throws ConceptMapNotFoundException, ConceptMapReadException {
+        void shouldReturn404WhenResourceNotFound() throws Exception {
             // Arrange
-            when(conceptMapService.getConceptMapJson()).thenThrow(new ConceptMapNotFoundException("Resource not found"));
+            when(conceptMapService.getConceptMapSnapshot()).thenThrow(new ConceptMapNotFoundException("Resource not found"));
             
             // Act
-            ResponseEntity<String> response = controller.getConceptMap();
+            ResponseEntity<Resource> response = controller.getConceptMap(null, null);
             
             // Assert
             assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(),
                         "Should return HTTP 404 NOT FOUND");
             assertEquals(APPLICATION_JSON, response.getHeaders().getFirst(CONTENT_TYPE_HEADER),
                         "Should set Content-Type header to application/json");
-            assertEquals("{\"error\":\"concept map not found\"}", response.getBody(),
+            assertEquals("{\"error\":\"concept map not found\"}", bodyOf(response),
                         "Should return standardized error JSON");
             
-            verify(conceptMapService).getConceptMapJson();
+            verify(conceptMapService).getConceptMapSnapshot();
         }
         
         @Test
         @DisplayName("Should return 500 when read error occurs")
-        void shouldReturn500WhenReadErrorOccurs() throws ConceptMapNotFoundException, ConceptMapReadException {
+        void shouldReturn500WhenReadErrorOccurs() throws Exception {
             // Arrange
-            when(conceptMapService.getConceptMapJson()).thenThrow(new ConceptMapReadException("Read failed"));
+            when(conceptMapService.getConceptMapSnapshot()).thenThrow(new ConceptMapReadException("Read failed"));
             
             // Act
-            ResponseEntity<String> response = controller.getConceptMap();
+            ResponseEntity<Resource> response = controller.getConceptMap(null, null);
             
             // Assert
             assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode(),
                         "Should return HTTP 500 INTERNAL SERVER ERROR");
             assertEquals(APPLICATION_JSON, response.getHeaders().getFirst(CONTENT_TYPE_HEADER),
                         "Should set Content-Type header to application/json");
-            assertEquals("{\"error\":\"failed to read concept map\"}", response.getBody(),
+            assertEquals("{\"error\":\"failed to read concept map\"}", bodyOf(response),
                         "Should return standardized error JSON");
             
-            verify(conceptMapService).getConceptMapJson();
+            verify(conceptMapService).getConceptMapSnapshot();
         }
+    }
+    
+    @Nested
+    @DisplayName("Dataset Endpoint Tests")
+    class DatasetEndpointTests {
         
         @Test
-        @DisplayName("Should return 500 when JSON is invalid")
-        void shouldReturn500WhenJsonIsInvalid() throws ConceptMapNotFoundException, ConceptMapReadException {
+        @DisplayName("Should serve the dataset catalog with an ETag")
+        void shouldServeCatalog() throws Exception {
             // Arrange
-            String invalidJson = "";
-            when(conceptMapService.getConceptMapJson()).thenReturn(invalidJson);
-            when(conceptMapService.isValidJson(invalidJson)).thenReturn(false);
+            String catalog = "{\"datasets\":[{\"id\":\"a\",\"name\":\"A\",\"file\":\"a.json\"}]}";
+            ConceptMapSnapshot snapshot = new ConceptMapService().buildSnapshot(catalog.getBytes(StandardCharsets.UTF_8));
+            when(datasetRegistry.getCatalogSnapshot()).thenReturn(snapshot);
             
             // Act
-            ResponseEntity<String> response = controller.getConceptMap();
+            ResponseEntity<Resource> response = controller.getDatasets(null, null);
             
             // Assert
-            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode(),
-                        "Should return HTTP 500 INTERNAL SERVER ERROR for invalid JSON");
-            assertEquals(APPLICATION_JSON, response.getHeaders().getFirst(CONTENT_TYPE_HEADER),
-                        "Should set Content-Type header to application/json");
-            assertEquals("{\"error\":\"failed to read concept map\"}", response.getBody(),
-                        "Should return standardized error JSON");
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(catalog, bodyOf(response));
+            assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+        }
+        
+        @Test
+        @DisplayName("Should serve a dataset by id and honor If-None-Match")
+        void shouldServeDatasetById() throws Exception {
+            // Arrange
+            ConceptMapSnapshot snapshot = new ConceptMapService().buildSnapshot(SAMPLE_JSON.getBytes(StandardCharsets.UTF_8));
+            when(datasetRegistry.getSnapshot("sample")).thenReturn(snapshot);
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getDataset("sample", null, null);
+            ResponseEntity<Resource> revalidated = controller.getDataset("sample", snapshot.getETag(), null);
             
-            verify(conceptMapService).getConceptMapJson();
-            verify(conceptMapService).isValidJson(invalidJson);
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(SAMPLE_JSON, bodyOf(response));
+            assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+            assertNull(revalidated.getBody());
+            verify(conceptMapService, never()).getConceptMapSnapshot();
+        }
+        
+        @Test
+        @DisplayName("Should return 404 for unknown datasets")
+        void shouldReturn404ForUnknownDataset() throws Exception {
+            // Arrange
+            when(datasetRegistry.getSnapshot("missing")).thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getDataset("missing", null, null);
+            
+            // Assert
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("{\"error\":\"dataset not found\"}", bodyOf(response));
         }
+        
+        @Test
+        @DisplayName("Should return 500 when the manifest cannot be read")
+        void shouldReturn500WhenManifestUnreadable() throws Exception {
+            // Arrange
+            when(datasetRegistry.getCatalogSnapshot()).thenThrow(new ConceptMapReadException("Bad manifest"));
+            
+            // Act
+            ResponseEntity<Resource> response = controller.getDatasets(null, null);
+            
+            // Assert
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+            assertEquals("{\"error\":\"failed to read dataset manifest\"}", bodyOf(response));
+        }
+    }
+    
+    private static String bodyOf(final ResponseEntity<Resource> response) throws IOException {
+        assertNotNull(response.getBody(), "Response should have a body");
+        return response.getBody().getContentAsString(StandardCharsets.UTF_8);
     }
 }
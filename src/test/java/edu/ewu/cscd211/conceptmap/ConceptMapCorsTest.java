@@ -2,6 +2,8 @@ package edu.ewu.cscd211.conceptmap;
 
 import edu.ewu.cscd211.conceptmap.config.CorsConfig;
 import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.DatasetRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -9,6 +11,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -27,11 +31,17 @@ class ConceptMapCorsTest {
     @MockBean
     private ConceptMapService conceptMapService;
 
+    @MockBean
+    private DatasetRegistry datasetRegistry;
+
+    private static ConceptMapSnapshot sampleSnapshot() throws Exception {
+        return new ConceptMapService().buildSnapshot("{\"test\": \"data\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     void preflightFromAllowedOriginShouldIncludeCorsHeaders() throws Exception {
         // Mock the service methods
-        when(conceptMapService.getConceptMapJson()).thenReturn("{\"test\": \"data\"}");
-        when(conceptMapService.isValidJson("{\"test\": \"data\"}")).thenReturn(true);
+        when(conceptMapService.getConceptMapSnapshot()).thenReturn(sampleSnapshot());
         
         mockMvc.perform(
                 options("/api/concept-map")
@@ -65,8 +75,7 @@ class ConceptMapCorsTest {
     @Test
     void actualGetFromAllowedOriginShouldIncludeAllowOrigin() throws Exception {
         // Mock the service methods
-        when(conceptMapService.getConceptMapJson()).thenReturn("{\"test\": \"data\"}");
-        when(conceptMapService.isValidJson("{\"test\": \"data\"}")).thenReturn(true);
+        when(conceptMapService.getConceptMapSnapshot()).thenReturn(sampleSnapshot());
         
         mockMvc.perform(
                 get("/api/concept-map")
@@ -0,0 +1,330 @@
+package edu.ewu.cscd211.conceptmap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapExporter;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.DatasetGraph;
+import edu.ewu.cscd211.conceptmap.service.DatasetQueryService;
+import edu.ewu.cscd211.conceptmap.service.DatasetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request mapping and parameter binding tests for DatasetQueryController.
+ *
+ * <p>The dataset endpoints share their path with {@link ConceptMapController}, so both
+ * controllers are loaded and requests go through the dispatcher with a mocked query service.</p>
+ */
+@WebMvcTest({DatasetQueryController.class, ConceptMapController.class})
+class DatasetQueryControllerTest {
+
+    private static final String NEIGHBORHOOD_JSON = "{\"dataset\":\"sample\",\"center\":\"a\",\"nodes\":[],\"links\":[]}";
+    private static final String ERROR_BAD_NEIGHBORHOOD = "{\"error\":\"depth must be between 0 and "
+            + DatasetQueryService.MAX_NEIGHBORHOOD_DEPTH + " and direction one of in, out or both\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DatasetQueryService datasetQueryService;
+
+    @MockBean
+    private ConceptMapService conceptMapService;
+
+    @MockBean
+    private DatasetRegistry datasetRegistry;
+
+    private static ConceptMapSnapshot snapshotOf(final String json) throws Exception {
+        return new ConceptMapService().buildSnapshot(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("Neighborhood Endpoint Tests")
+    class NeighborhoodTests {
+
+        @Test
+        @DisplayName("Should serve the neighborhood with the defaults for absent parameters")
+        void shouldServeNeighborhoodWithDefaults() throws Exception {
+            ConceptMapSnapshot snapshot = snapshotOf(NEIGHBORHOOD_JSON);
+            when(datasetQueryService.getNeighborhood("sample", "a", 1, Direction.BOTH, null)).thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(header().string("ETag", snapshot.getETag()))
+                .andExpect(content().string(NEIGHBORHOOD_JSON));
+        }
+
+        @Test
+        @DisplayName("Should bind comma-separated types and the direction")
+        void shouldBindTypesAndDirection() throws Exception {
+            ConceptMapSnapshot snapshot = snapshotOf(NEIGHBORHOOD_JSON);
+            when(datasetQueryService.getNeighborhood("sample", "a", 2, Direction.OUT, List.of("prerequisite", "related")))
+                .thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood")
+                    .param("depth", "2")
+                    .param("direction", "Out")
+                    .param("types", "prerequisite,related"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(NEIGHBORHOOD_JSON));
+        }
+
+        @Test
+        @DisplayName("Should return 304 without body when If-None-Match matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            ConceptMapSnapshot snapshot = snapshotOf(NEIGHBORHOOD_JSON);
+            when(datasetQueryService.getNeighborhood("sample", "a", 1, Direction.BOTH, null)).thenReturn(snapshot);
+
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood")
+                    .header("If-None-Match", snapshot.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for depths out of range without calling the service")
+        void shouldReturn400ForBadDepth() throws Exception {
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood").param("depth", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(ERROR_BAD_NEIGHBORHOOD));
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood")
+                    .param("depth", String.valueOf(DatasetQueryService.MAX_NEIGHBORHOOD_DEPTH + 1)))
+                .andExpect(status().isBadRequest());
+
+            verify(datasetQueryService, never()).getNeighborhood(any(), any(), anyInt(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unknown directions without calling the service")
+        void shouldReturn400ForBadDirection() throws Exception {
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a/neighborhood").param("direction", "sideways"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(ERROR_BAD_NEIGHBORHOOD));
+
+            verify(datasetQueryService, never()).getNeighborhood(any(), any(), anyInt(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for unknown nodes and datasets")
+        void shouldReturn404ForUnknownNodeOrDataset() throws Exception {
+            when(datasetQueryService.getNeighborhood(eq("sample"), eq("missing"), anyInt(), any(), isNull()))
+                .thenThrow(new ConceptMapNotFoundException("Unknown node"));
+            when(datasetQueryService.getNeighborhood(eq("missing"), eq("a"), anyInt(), any(), isNull()))
+                .thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/missing/neighborhood"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset or node not found\"}"));
+            mockMvc.perform(get("/api/concept-maps/missing/nodes/a/neighborhood"))
+                .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Summary and Detail Endpoint Tests")
+    class SummaryAndDetailTests {
+
+        private static final String FULL_JSON = "{\"metadata\":{},\"nodes\":[{\"id\":\"a\",\"examples\":[\"x\"]}],\"links\":[]}";
+        private static final String PROJECTION_JSON = "{\"metadata\":{},\"nodes\":[{\"id\":\"a\",\"name\":\"A\"}],\"links\":[]}";
+
+        @Test
+        @DisplayName("Should route ?fields= to the projection instead of the full document")
+        void shouldRouteFieldsToProjection() throws Exception {
+            when(datasetQueryService.getProjection("sample", List.of("name", "level"))).thenReturn(snapshotOf(PROJECTION_JSON));
+            when(datasetRegistry.getSnapshot("sample")).thenReturn(snapshotOf(FULL_JSON));
+
+            mockMvc.perform(get("/api/concept-maps/sample").param("fields", "name,level"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(PROJECTION_JSON));
+
+            verify(datasetQueryService).getProjection("sample", List.of("name", "level"));
+            verify(datasetRegistry, never()).getSnapshot(any());
+        }
+
+        @Test
+        @DisplayName("Should serve the full document when ?fields= is absent")
+        void shouldServeFullDocumentWithoutFields() throws Exception {
+            when(datasetRegistry.getSnapshot("sample")).thenReturn(snapshotOf(FULL_JSON));
+
+            mockMvc.perform(get("/api/concept-maps/sample"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(FULL_JSON));
+
+            verify(datasetQueryService, never()).getProjection(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for projections of unknown datasets")
+        void shouldReturn404ForUnknownProjection() throws Exception {
+            when(datasetQueryService.getProjection(eq("missing"), any())).thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            mockMvc.perform(get("/api/concept-maps/missing").param("fields", "name"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset not found\"}"));
+        }
+
+        @Test
+        @DisplayName("Should serve the skeleton and honor If-None-Match")
+        void shouldServeSkeleton() throws Exception {
+            ConceptMapSnapshot skeleton = snapshotOf(PROJECTION_JSON);
+            when(datasetQueryService.getSkeleton("sample")).thenReturn(skeleton);
+
+            mockMvc.perform(get("/api/concept-maps/sample/skeleton"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", skeleton.getETag()))
+                .andExpect(content().string(PROJECTION_JSON));
+            mockMvc.perform(get("/api/concept-maps/sample/skeleton").header("If-None-Match", skeleton.getETag()))
+                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for the skeleton of an unknown dataset")
+        void shouldReturn404ForUnknownSkeleton() throws Exception {
+            when(datasetQueryService.getSkeleton("missing")).thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            mockMvc.perform(get("/api/concept-maps/missing/skeleton"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset not found\"}"));
+        }
+
+        @Test
+        @DisplayName("Should serve one node in full, and 404 for unknown nodes")
+        void shouldServeNodeDetail() throws Exception {
+            String node = "{\"id\":\"a\",\"examples\":[\"x\"]}";
+            when(datasetQueryService.getNodeDetail("sample", "a")).thenReturn(snapshotOf(node));
+            when(datasetQueryService.getNodeDetail("sample", "missing")).thenThrow(new ConceptMapNotFoundException("Unknown node"));
+
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/a"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(node));
+            mockMvc.perform(get("/api/concept-maps/sample/nodes/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset or node not found\"}"));
+        }
+
+        @Test
+        @DisplayName("Should serve one link in full, and 404 for unknown links")
+        void shouldServeLinkDetail() throws Exception {
+            String link = "{\"source\":\"a\",\"target\":\"b\",\"type\":\"related\"}";
+            when(datasetQueryService.getLinkDetail("sample", 0)).thenReturn(snapshotOf(link));
+            when(datasetQueryService.getLinkDetail("sample", 7)).thenThrow(new ConceptMapNotFoundException("Unknown link"));
+
+            mockMvc.perform(get("/api/concept-maps/sample/links/0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(link));
+            mockMvc.perform(get("/api/concept-maps/sample/links/7"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset or link not found\"}"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Endpoint Tests")
+    class ExportTests {
+
+        private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\"},"
+                + "\"nodes\":[{\"id\":\"a\",\"name\":\"A\",\"level\":1},{\"id\":\"b\",\"name\":\"B\",\"examples\":[\"x\"]}],"
+                + "\"links\":[{\"source\":\"a\",\"target\":\"b\",\"type\":\"prerequisite\",\"strength\":0.5}]}";
+
+        @TempDir
+        Path graphDirectory;
+
+        /** Performs a request whose body streams, and returns the completed response. */
+        private ResultActions performStreaming(final MockHttpServletRequestBuilder request) throws Exception {
+            MvcResult started = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+            return mockMvc.perform(asyncDispatch(started));
+        }
+
+        @Test
+        @DisplayName("Should stream a mapped graph as an attachment with the exporter's content type")
+        void shouldStreamMappedGraph() throws Exception {
+            ConceptMapService service = new ConceptMapService(new ObjectMapper(), Long.MAX_VALUE, 0,
+                    graphDirectory.toString(), Long.MAX_VALUE);
+            DatasetGraph graph = service.loadDatasetGraph("sample", service.buildSnapshot(DATASET.getBytes(StandardCharsets.UTF_8)));
+            assertThat(graph.getAdjacency().getGraph().isOffHeap()).isTrue();
+            ConceptMapExporter exporter = service.getExporter("graphml");
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            service.exportConceptMap(graph.getConceptMap(), "graphml", expected);
+            when(datasetQueryService.getExporter("graphml")).thenReturn(exporter);
+            when(datasetQueryService.getGraph("sample")).thenReturn(graph);
+
+            performStreaming(get("/api/concept-maps/sample/export").param("format", "graphml"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", exporter.getContentType()))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sample.graphml\""))
+                .andExpect(content().string(expected.toString(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        @DisplayName("Should export JSON when no format is given")
+        void shouldDefaultToJson() throws Exception {
+            ConceptMapService service = new ConceptMapService();
+            DatasetGraph graph = service.loadDatasetGraph(service.buildSnapshot(DATASET.getBytes(StandardCharsets.UTF_8)));
+            when(datasetQueryService.getExporter("json")).thenReturn(service.getExporter("json"));
+            when(datasetQueryService.getGraph("sample")).thenReturn(graph);
+
+            performStreaming(get("/api/concept-maps/sample/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sample.json\""));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unknown formats without loading the dataset")
+        void shouldReturn400ForUnknownFormat() throws Exception {
+            when(datasetQueryService.getExporter("xlsx")).thenThrow(new IllegalArgumentException("Unsupported export format"));
+
+            performStreaming(get("/api/concept-maps/sample/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(content().string("{\"error\":\"unsupported export format\"}"));
+
+            verify(datasetQueryService, never()).getGraph(any());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for exports of unknown datasets")
+        void shouldReturn404ForUnknownDataset() throws Exception {
+            when(datasetQueryService.getExporter("csv")).thenReturn(new ConceptMapService().getExporter("csv"));
+            when(datasetQueryService.getGraph("missing")).thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            performStreaming(get("/api/concept-maps/missing/export").param("format", "csv"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"dataset not found\"}"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.layout.LayoutOptions;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.LayoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LayoutController parameter handling.
+ */
+class LayoutControllerTest {
+
+    private static final String LAYOUT_JSON = "{\"layout\":{\"engine\":\"force\",\"width\":800,\"height\":600},\"nodes\":[],\"links\":[]}";
+
+    @Mock
+    private LayoutService layoutService;
+
+    private LayoutController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(layoutService.getEngineNames()).thenReturn(Set.of("force", "multilevel"));
+        controller = new LayoutController(layoutService);
+    }
+
+    @Test
+    @DisplayName("Should serve the layout and honor If-None-Match")
+    void shouldServeLayout() throws Exception {
+        ConceptMapSnapshot snapshot = new ConceptMapService().buildSnapshot(LAYOUT_JSON.getBytes(StandardCharsets.UTF_8));
+        when(layoutService.getLayout("sample", "multilevel", new LayoutOptions(800, 600, "stack"))).thenReturn(snapshot);
+
+        ResponseEntity<Resource> response = controller.getLayout("sample", 800, 600, "multilevel", "stack", null, null);
+        ResponseEntity<Resource> revalidated = controller.getLayout("sample", 800, 600, "multilevel", "stack", snapshot.getETag(), null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(LAYOUT_JSON, bodyOf(response));
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for canvas sizes out of range without calling the service")
+    void shouldReturn400ForBadSize() throws Exception {
+        ResponseEntity<Resource> narrow = controller.getLayout("sample", LayoutOptions.MIN_SIZE - 1, 600, null, null, null, null);
+        ResponseEntity<Resource> tall = controller.getLayout("sample", 800, LayoutOptions.MAX_SIZE + 1, null, null, null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, narrow.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, tall.getStatusCode());
+        assertTrue(bodyOf(narrow).startsWith("{\"error\":"));
+        verify(layoutService, never()).getLayout(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for unknown engines without calling the service")
+    void shouldReturn400ForUnknownEngine() throws Exception {
+        ResponseEntity<Resource> response = controller.getLayout("sample", 800, 600, "spring", null, null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(layoutService, never()).getLayout(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return 404 for unknown datasets or anchors")
+    void shouldReturn404ForUnknownDataset() throws Exception {
+        when(layoutService.getLayout(eq("missing"), any(), any())).thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+        ResponseEntity<Resource> response = controller.getLayout("missing", 800, 600, null, null, null, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"dataset or anchor node not found\"}", bodyOf(response));
+    }
+
+    @Test
+    @DisplayName("Should let unexpected IllegalArgumentExceptions propagate instead of blaming the client")
+    void shouldPropagateUnexpectedIllegalArgument() throws Exception {
+        when(layoutService.getLayout(any(), any(), any())).thenThrow(new IllegalArgumentException("bug"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.getLayout("sample", 800, 600, null, null, null, null));
+    }
+
+    private static String bodyOf(final ResponseEntity<Resource> response) throws IOException {
+        assertNotNull(response.getBody(), "Response should have a body");
+        return response.getBody().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
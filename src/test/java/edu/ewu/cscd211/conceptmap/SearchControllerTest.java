@@ -0,0 +1,169 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.ContentEncoding;
+import edu.ewu.cscd211.conceptmap.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SearchController with a mocked search service.
+ */
+class SearchControllerTest {
+
+    private static final String HITS_JSON = "{\"dataset\":\"sample\",\"query\":\"stack\",\"count\":0,\"hits\":[]}";
+    private static final String ERROR_BAD_QUERY = "{\"error\":\"q must contain a letter or digit and limit be between 1 and "
+            + SearchService.MAX_LIMIT + "\"}";
+
+    @Mock
+    private SearchService searchService;
+
+    private SearchController controller;
+    private ConceptMapSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws ConceptMapReadException {
+        MockitoAnnotations.openMocks(this);
+        controller = new SearchController(searchService);
+        snapshot = new ConceptMapService().buildSnapshot(HITS_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should throw NullPointerException when service is null")
+    void shouldRejectNullService() {
+        NullPointerException exception = assertThrows(NullPointerException.class, () -> new SearchController(null));
+
+        assertEquals("SearchService cannot be null", exception.getMessage());
+    }
+
+    @Nested
+    @DisplayName("Successful Search Tests")
+    class SuccessTests {
+
+        @Test
+        @DisplayName("Should return 200 with the hits from the service")
+        void shouldReturnHits() throws Exception {
+            when(searchService.search("sample", "stack", 5)).thenReturn(snapshot);
+
+            ResponseEntity<Resource> response = controller.search("stack", "sample", 5, null, null);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(HITS_JSON, bodyOf(response));
+            assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+        }
+
+        @Test
+        @DisplayName("Should return 304 without body when If-None-Match matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            when(searchService.search(null, "stack", SearchService.DEFAULT_LIMIT)).thenReturn(snapshot);
+
+            ResponseEntity<Resource> response = controller.search("stack", null, SearchService.DEFAULT_LIMIT,
+                    snapshot.getETag(), null);
+
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+            assertNull(response.getBody(), "304 responses must not carry a body");
+        }
+
+        @Test
+        @DisplayName("Should serve the precompressed gzip variant when accepted")
+        void shouldServeGzipVariant() throws Exception {
+            String json = "{\"dataset\":\"sample\",\"hits\":[" + "{\"snippet\":\"a stack of plates\"},".repeat(100) + "{}]}";
+            ConceptMapSnapshot large = new ConceptMapService().buildSnapshot(json.getBytes(StandardCharsets.UTF_8));
+            when(searchService.search(null, "stack", SearchService.DEFAULT_LIMIT)).thenReturn(large);
+
+            ResponseEntity<Resource> response = controller.search("stack", null, SearchService.DEFAULT_LIMIT,
+                    null, "gzip, deflate");
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("gzip", response.getHeaders().getFirst("Content-Encoding"));
+            assertEquals(large.getETag(ContentEncoding.GZIP), response.getHeaders().getETag());
+            try (InputStream in = new GZIPInputStream(response.getBody().getInputStream())) {
+                assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Error Response Tests")
+    class ErrorTests {
+
+        @Test
+        @DisplayName("Should return 400 for a missing or unsearchable query without calling the service")
+        void shouldReturn400ForBadQuery() throws Exception {
+            ResponseEntity<Resource> missing = controller.search(null, null, SearchService.DEFAULT_LIMIT, null, null);
+            ResponseEntity<Resource> punctuation = controller.search(" ?! ", null, SearchService.DEFAULT_LIMIT, null, null);
+
+            assertEquals(HttpStatus.BAD_REQUEST, missing.getStatusCode());
+            assertEquals(ERROR_BAD_QUERY, bodyOf(missing));
+            assertEquals(HttpStatus.BAD_REQUEST, punctuation.getStatusCode());
+            verify(searchService, never()).search(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for limits out of range without calling the service")
+        void shouldReturn400ForBadLimit() throws Exception {
+            ResponseEntity<Resource> zero = controller.search("stack", null, 0, null, null);
+            ResponseEntity<Resource> tooMany = controller.search("stack", null, SearchService.MAX_LIMIT + 1, null, null);
+
+            assertEquals(HttpStatus.BAD_REQUEST, zero.getStatusCode());
+            assertEquals(HttpStatus.BAD_REQUEST, tooMany.getStatusCode());
+            verify(searchService, never()).search(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for unknown datasets")
+        void shouldReturn404ForUnknownDataset() throws Exception {
+            when(searchService.search(eq("missing"), anyString(), anyInt()))
+                .thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            ResponseEntity<Resource> response = controller.search("stack", "missing", 5, null, null);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("{\"error\":\"dataset not found\"}", bodyOf(response));
+        }
+
+        @Test
+        @DisplayName("Should return 500 when the dataset cannot be read")
+        void shouldReturn500WhenReadFails() throws Exception {
+            when(searchService.search(any(), anyString(), anyInt())).thenThrow(new ConceptMapReadException("Read failed"));
+
+            ResponseEntity<Resource> response = controller.search("stack", null, 5, null, null);
+
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+            assertEquals("{\"error\":\"failed to read concept map\"}", bodyOf(response));
+        }
+
+        @Test
+        @DisplayName("Should let unexpected IllegalArgumentExceptions propagate instead of blaming the client")
+        void shouldPropagateUnexpectedIllegalArgument() throws Exception {
+            when(searchService.search(any(), anyString(), anyInt())).thenThrow(new IllegalArgumentException("bug"));
+
+            assertThrows(IllegalArgumentException.class, () -> controller.search("stack", null, 5, null, null));
+        }
+    }
+
+    private static String bodyOf(final ResponseEntity<Resource> response) throws IOException {
+        assertNotNull(response.getBody(), "Response should have a body");
+        return response.getBody().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
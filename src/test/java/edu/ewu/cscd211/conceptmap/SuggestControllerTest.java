@@ -0,0 +1,148 @@
+package edu.ewu.cscd211.conceptmap;
+
+import edu.ewu.cscd211.conceptmap.service.ConceptMapNotFoundException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapReadException;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapService;
+import edu.ewu.cscd211.conceptmap.service.ConceptMapSnapshot;
+import edu.ewu.cscd211.conceptmap.service.SuggestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SuggestController with a mocked suggestion service.
+ */
+class SuggestControllerTest {
+
+    private static final String SUGGESTIONS_JSON = "{\"dataset\":\"sample\",\"prefix\":\"sta\",\"maxEdits\":0,\"suggestions\":[]}";
+
+    @Mock
+    private SuggestService suggestService;
+
+    private SuggestController controller;
+    private ConceptMapSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws ConceptMapReadException {
+        MockitoAnnotations.openMocks(this);
+        controller = new SuggestController(suggestService);
+        snapshot = new ConceptMapService().buildSnapshot(SUGGESTIONS_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("Successful Suggestion Tests")
+    class SuccessTests {
+
+        @Test
+        @DisplayName("Should return 200 with the suggestions from the service")
+        void shouldReturnSuggestions() throws Exception {
+            when(suggestService.suggest(null, "sta", SuggestService.DEFAULT_LIMIT)).thenReturn(snapshot);
+
+            ResponseEntity<Resource> response = controller.suggest("sta", null, SuggestService.DEFAULT_LIMIT, null, null);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(SUGGESTIONS_JSON, bodyOf(response));
+            assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+        }
+
+        @Test
+        @DisplayName("Should return 304 without body when If-None-Match matches")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            when(suggestService.suggest("sample", "sta", 3)).thenReturn(snapshot);
+
+            ResponseEntity<Resource> response = controller.suggest("sta", "sample", 3, snapshot.getETag(), null);
+
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+            assertNull(response.getBody(), "304 responses must not carry a body");
+        }
+
+        @Test
+        @DisplayName("Should accept the limit bounds")
+        void shouldAcceptLimitBounds() throws Exception {
+            when(suggestService.suggest(any(), anyString(), anyInt())).thenReturn(snapshot);
+
+            assertEquals(HttpStatus.OK, controller.suggest("sta", null, 1, null, null).getStatusCode());
+            assertEquals(HttpStatus.OK, controller.suggest("sta", null, SuggestService.MAX_LIMIT, null, null).getStatusCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("Error Response Tests")
+    class ErrorTests {
+
+        @Test
+        @DisplayName("Should return 400 for missing, unsearchable or overlong prefixes without calling the service")
+        void shouldReturn400ForBadPrefix() throws Exception {
+            String overlong = "a".repeat(SuggestService.MAX_PREFIX_LENGTH + 1);
+
+            ResponseEntity<Resource> missing = controller.suggest(null, null, SuggestService.DEFAULT_LIMIT, null, null);
+
+            assertEquals(HttpStatus.BAD_REQUEST, missing.getStatusCode());
+            assertTrue(bodyOf(missing).startsWith("{\"error\":\"prefix must contain a letter or digit"));
+            assertEquals(HttpStatus.BAD_REQUEST,
+                    controller.suggest(" ?! ", null, SuggestService.DEFAULT_LIMIT, null, null).getStatusCode());
+            assertEquals(HttpStatus.BAD_REQUEST,
+                    controller.suggest(overlong, null, SuggestService.DEFAULT_LIMIT, null, null).getStatusCode());
+            verify(suggestService, never()).suggest(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for limits out of range without calling the service")
+        void shouldReturn400ForBadLimit() throws Exception {
+            assertEquals(HttpStatus.BAD_REQUEST, controller.suggest("sta", null, 0, null, null).getStatusCode());
+            assertEquals(HttpStatus.BAD_REQUEST,
+                    controller.suggest("sta", null, SuggestService.MAX_LIMIT + 1, null, null).getStatusCode());
+            verify(suggestService, never()).suggest(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for unknown datasets")
+        void shouldReturn404ForUnknownDataset() throws Exception {
+            when(suggestService.suggest(eq("missing"), anyString(), anyInt()))
+                .thenThrow(new ConceptMapNotFoundException("Unknown dataset"));
+
+            ResponseEntity<Resource> response = controller.suggest("sta", "missing", 5, null, null);
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("{\"error\":\"dataset not found\"}", bodyOf(response));
+        }
+
+        @Test
+        @DisplayName("Should return 500 when the dataset cannot be read")
+        void shouldReturn500WhenReadFails() throws Exception {
+            when(suggestService.suggest(any(), anyString(), anyInt())).thenThrow(new ConceptMapReadException("Read failed"));
+
+            ResponseEntity<Resource> response = controller.suggest("sta", null, 5, null, null);
+
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+            assertEquals("{\"error\":\"failed to read concept map\"}", bodyOf(response));
+        }
+
+        @Test
+        @DisplayName("Should let unexpected IllegalArgumentExceptions propagate instead of blaming the client")
+        void shouldPropagateUnexpectedIllegalArgument() throws Exception {
+            when(suggestService.suggest(any(), anyString(), anyInt())).thenThrow(new IllegalArgumentException("bug"));
+
+            assertThrows(IllegalArgumentException.class, () -> controller.suggest("sta", null, 5, null, null));
+        }
+    }
+
+    private static String bodyOf(final ResponseEntity<Resource> response) throws IOException {
+        assertNotNull(response.getBody(), "Response should have a body");
+        return response.getBody().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
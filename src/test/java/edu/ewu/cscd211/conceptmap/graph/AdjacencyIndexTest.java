@@ -0,0 +1,120 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the adjacency index and its neighborhood queries.
+ *
+ * <p>The fixture is a small chain with a side branch:</p>
+ * <pre>
+ *   a --prereq--> b --prereq--> c --prereq--> d
+ *                 b --related--> e
+ * </pre>
+ */
+class AdjacencyIndexTest {
+
+    private AdjacencyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ConceptMap map = new ConceptMap(new Metadata("1.0", "test"));
+        for (String id : new String[] {"a", "b", "c", "d", "e"}) {
+            map.addNode(new Node(id, id.toUpperCase(), ""));
+        }
+        map.addLink(new Link("a", "b", "prereq"));
+        map.addLink(new Link("b", "c", "prereq"));
+        map.addLink(new Link("c", "d", "prereq"));
+        map.addLink(new Link("b", "e", "related"));
+        index = AdjacencyIndex.of(map);
+    }
+
+    private static Set<String> ids(final Subgraph subgraph) {
+        return Set.copyOf(subgraph.getNodes().stream().map(Node::getId).toList());
+    }
+
+    @Nested
+    @DisplayName("Neighborhood queries")
+    class NeighborhoodTests {
+
+        @Test
+        @DisplayName("Should return the center alone at depth zero")
+        void shouldReturnCenterAtDepthZero() {
+            Subgraph subgraph = index.neighborhood("b", 0, Direction.BOTH, Set.of());
+
+            assertThat(ids(subgraph)).containsExactly("b");
+            assertThat(subgraph.getLinks()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should follow links in both directions and return the induced links")
+        void shouldReturnInducedSubgraph() {
+            Subgraph subgraph = index.neighborhood("b", 1, Direction.BOTH, Set.of());
+
+            assertThat(subgraph.getNodes().get(0).getId()).isEqualTo("b");
+            assertThat(ids(subgraph)).containsExactlyInAnyOrder("a", "b", "c", "e");
+            assertThat(subgraph.getLinks()).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Should respect direction and depth")
+        void shouldRespectDirectionAndDepth() {
+            assertThat(ids(index.neighborhood("b", 2, Direction.OUT, Set.of())))
+                .containsExactlyInAnyOrder("b", "c", "d", "e");
+            assertThat(ids(index.neighborhood("c", 5, Direction.IN, Set.of())))
+                .containsExactlyInAnyOrder("a", "b", "c");
+        }
+
+        @Test
+        @DisplayName("Should only traverse and return the requested relationship types")
+        void shouldFilterByType() {
+            Subgraph subgraph = index.neighborhood("b", 1, Direction.OUT, Set.of("related"));
+
+            assertThat(ids(subgraph)).containsExactlyInAnyOrder("b", "e");
+            assertThat(subgraph.getLinks()).extracting(Link::getRelationshipType).containsOnly("related");
+        }
+
+        @Test
+        @DisplayName("Should reject unknown nodes and negative depths")
+        void shouldRejectInvalidQueries() {
+            assertThatThrownBy(() -> index.neighborhood("z", 1, Direction.BOTH, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> index.neighborhood("a", -1, Direction.BOTH, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Degrees and directions")
+    class DegreeTests {
+
+        @Test
+        @DisplayName("Should count links per direction")
+        void shouldCountDegrees() {
+            assertThat(index.degree("b", Direction.OUT)).isEqualTo(2);
+            assertThat(index.degree("b", Direction.IN)).isEqualTo(1);
+            assertThat(index.degree("b", Direction.BOTH)).isEqualTo(3);
+            assertThat(index.degree("missing", Direction.BOTH)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should parse direction parameters case-insensitively")
+        void shouldParseDirections() {
+            assertThat(Direction.fromParameter("OUT")).isEqualTo(Direction.OUT);
+            assertThat(Direction.fromParameter(null)).isEqualTo(Direction.BOTH);
+            assertThatThrownBy(() -> Direction.fromParameter("sideways"))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.ewu.cscd211.conceptmap.graph;
+
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the compressed sparse row graph store.
+ *
+ * <p>The fixture has a dangling link to a node outside the map:</p>
+ * <pre>
+ *   a --prereq--> b --prereq--> c
+ *   a --related-> c
+ *   c --related-> ghost
+ * </pre>
+ */
+class CsrGraphTest {
+
+    private static final List<Node> NODES = List.of(
+        new Node("a", "A", ""), new Node("b", "B", ""), new Node("c", "C", ""));
+    private static final List<Link> LINKS = List.of(
+        new Link("a", "b", "prereq"),
+        new Link("b", "c", "prereq"),
+        new Link("a", "c", "related"),
+        new Link("c", "ghost", "related"));
+
+    private static CsrGraph build(final boolean offHeap) {
+        return CsrGraph.of(NODES, LINKS, link -> link.getRelationshipType().equals("prereq") ? 0.5 : Double.NaN,
+            offHeap);
+    }
+
+    private static List<Integer> outgoing(final CsrGraph graph, final int node) {
+        List<Integer> links = new ArrayList<>();
+        for (int edge = graph.outgoingStart(node); edge < graph.outgoingEnd(node); edge++) {
+            links.add(graph.outgoingLink(edge));
+        }
+        return links;
+    }
+
+    @Nested
+    @DisplayName("Rows")
+    class RowTests {
+
+        @Test
+        @DisplayName("Should list each node's links in link order with their neighbors")
+        void shouldListLinksInLinkOrder() {
+            CsrGraph graph = build(false);
+            int a = graph.indexOf("a");
+            int c = graph.indexOf("c");
+
+            assertThat(outgoing(graph, a)).containsExactly(0, 2);
+            assertThat(graph.outgoingNeighbor(graph.outgoingStart(a) + 1)).isEqualTo(c);
+            assertThat(graph.inDegree(c)).isEqualTo(2);
+            assertThat(graph.incomingLink(graph.incomingStart(c))).isEqualTo(1);
+            assertThat(graph.incomingNeighbor(graph.incomingStart(c) + 1)).isEqualTo(a);
+        }
+
+        @Test
+        @DisplayName("Should keep dangling links out of every row")
+        void shouldKeepDanglingLinksOutOfRows() {
+            CsrGraph graph = build(false);
+            int c = graph.indexOf("c");
+
+            assertThat(graph.linkCount()).isEqualTo(4);
+            assertThat(graph.source(3)).isEqualTo(c);
+            assertThat(graph.target(3)).isEqualTo(CsrGraph.NO_NODE);
+            assertThat(graph.outDegree(c)).isZero();
+            assertThat(graph.indexOf("ghost")).isEqualTo(CsrGraph.NO_NODE);
+            assertThat(graph.indexOf(null)).isEqualTo(CsrGraph.NO_NODE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Link columns")
+    class ColumnTests {
+
+        @Test
+        @DisplayName("Should store relationship types as symbols and strengths as floats")
+        void shouldStoreTypesAndStrengths() {
+            CsrGraph graph = build(false);
+
+            assertThat(graph.typeCount()).isEqualTo(2);
+            assertThat(graph.typeName(graph.type(2))).isEqualTo("related");
+            assertThat(graph.type(0)).isEqualTo(graph.typeSymbol("prereq"));
+            assertThat(graph.typeSymbol("unknown")).isEqualTo(SymbolTable.NO_SYMBOL);
+            assertThat(graph.strength(1)).isEqualTo(0.5f);
+            assertThat(graph.strength(2)).isNaN();
+        }
+
+        @Test
+        @DisplayName("Should read the same off the heap as on it")
+        void shouldMatchOnAndOffHeap() {
+            CsrGraph onHeap = build(false);
+            CsrGraph offHeap = build(true);
+
+            assertThat(offHeap.isOffHeap()).isTrue();
+            assertThat(offHeap.columnBytes()).isEqualTo(onHeap.columnBytes());
+            for (int l = 0; l < onHeap.linkCount(); l++) {
+                assertThat(offHeap.source(l)).isEqualTo(onHeap.source(l));
+                assertThat(offHeap.target(l)).isEqualTo(onHeap.target(l));
+                assertThat(offHeap.type(l)).isEqualTo(onHeap.type(l));
+            }
+            for (int node = 0; node < onHeap.nodeCount(); node++) {
+                assertThat(outgoing(offHeap, node)).isEqualTo(outgoing(onHeap, node));
+            }
+        }
+    }
+}
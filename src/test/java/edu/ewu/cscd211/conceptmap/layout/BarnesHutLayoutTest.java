@@ -0,0 +1,127 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for the server-side force layout and its node sizing.
+ */
+class BarnesHutLayoutTest {
+
+    private static final int NODES = 60;
+
+    private LayoutGraph graph;
+
+    /** A ring of 60 nodes with a few chords, spread over three levels. */
+    @BeforeEach
+    void setUp() {
+        List<String> ids = new ArrayList<>();
+        double[] radii = new double[NODES];
+        double[] levels = new double[NODES];
+        for (int i = 0; i < NODES; i++) {
+            ids.add("n" + i);
+            radii[i] = 8 + (i % 5) * 4;
+            levels[i] = i % 3;
+        }
+        int[] sources = new int[NODES + 6];
+        int[] targets = new int[NODES + 6];
+        for (int i = 0; i < NODES; i++) {
+            sources[i] = i;
+            targets[i] = (i + 1) % NODES;
+        }
+        for (int i = 0; i < 6; i++) {
+            sources[NODES + i] = i * 10;
+            targets[NODES + i] = (i * 10 + 25) % NODES;
+        }
+        graph = new LayoutGraph(ids, radii, levels, sources, targets);
+    }
+
+    @Nested
+    @DisplayName("Layout computation")
+    class ComputeTests {
+
+        @Test
+        @DisplayName("Should produce the same finite coordinates on every run")
+        void shouldBeDeterministic() {
+            LayoutOptions options = new LayoutOptions(2000, 1200, null);
+            Layout first = new BarnesHutLayout().compute(graph, options);
+            Layout second = new BarnesHutLayout().compute(graph, options);
+
+            assertThat(first.nodeCount()).isEqualTo(NODES);
+            for (int i = 0; i < NODES; i++) {
+                assertThat(Double.isFinite(first.x(i)) && Double.isFinite(first.y(i))).isTrue();
+                assertThat(first.x(i)).isEqualTo(second.x(i));
+                assertThat(first.y(i)).isEqualTo(second.y(i));
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep nodes from overlapping")
+        void shouldSeparateNodes() {
+            Layout layout = new BarnesHutLayout().compute(graph, new LayoutOptions(2000, 1200, null));
+
+            for (int i = 0; i < NODES; i++) {
+                for (int j = i + 1; j < NODES; j++) {
+                    double distance = Math.hypot(layout.x(i) - layout.x(j), layout.y(i) - layout.y(j));
+                    assertThat(distance).isGreaterThan(graph.radius(i) + graph.radius(j));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should pull the anchor node toward the canvas center")
+        void shouldCenterAnchor() {
+            Layout layout = new BarnesHutLayout().compute(graph, new LayoutOptions(1600, 900, "n30"));
+
+            assertThat(Math.hypot(layout.x(30) - 800, layout.y(30) - 450)).isLessThan(200);
+        }
+
+        @Test
+        @DisplayName("Should reject an anchor outside the graph")
+        void shouldRejectUnknownAnchor() {
+            assertThatThrownBy(() -> new BarnesHutLayout().compute(graph, new LayoutOptions(1600, 900, "missing")))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should round coordinates to the requested step")
+        void shouldRound() {
+            Layout rounded = new Layout(new double[] {484.8999}, new double[] {-0.04}).rounded(0.1);
+
+            assertThat(rounded.x(0)).isEqualTo(484.9);
+            assertThat(rounded.y(0)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Node sizing")
+    class RadiusTests {
+
+        @Test
+        @DisplayName("Should size nodes by JSON size, then by degree, within the drawn bounds")
+        void shouldSizeNodes() {
+            assertThat(NodeRadius.compute(Double.NaN, 100, 3, null, null, Double.NaN)).isCloseTo(16, within(1e-9));
+            assertThat(NodeRadius.compute(Double.NaN, Double.NaN, 4, null, null, Double.NaN)).isCloseTo(16, within(1e-9));
+            assertThat(NodeRadius.compute(Double.NaN, 10000, 0, "high", null, 0)).isEqualTo(NodeRadius.MAX);
+            assertThat(NodeRadius.compute(2, Double.NaN, 0, null, null, Double.NaN)).isEqualTo(NodeRadius.MIN);
+        }
+
+        @Test
+        @DisplayName("Should weight scaffolding and focus up and advanced levels down")
+        void shouldApplyWeights() {
+            assertThat(NodeRadius.compute(Double.NaN, 100, 0, "High", "theoretical foundation", 0))
+                .isCloseTo(16 * 1.4 * 1.3, within(1e-9));
+            assertThat(NodeRadius.compute(Double.NaN, 100, 0, null, null, 2)).isCloseTo(16 * 0.8, within(1e-9));
+            assertThat(NodeRadius.compute(Double.NaN, 100, 0, null, null, 9)).isCloseTo(16 * 0.6, within(1e-9));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling benchmark for the multilevel layout over node count and pool size.
+ *
+ * <p>Each run lays out a synthetic catalog: departments of 200 courses, each a random
+ * prerequisite tree plus half as many extra links again, with one link from every department
+ * to an earlier one. The {@code force} engine runs on the smaller sizes as a baseline.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.layout.MultilevelLayoutBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class MultilevelLayoutBenchmark {
+
+    private static final int DEPARTMENT_SIZE = 200;
+    private static final LayoutOptions OPTIONS = new LayoutOptions(4000, 4000, null);
+
+    @State(Scope.Benchmark)
+    public static class MultilevelState {
+
+        @Param({"1000", "10000", "100000"})
+        int nodes;
+
+        @Param({"1", "2", "4", "8"})
+        int parallelism;
+
+        LayoutGraph graph;
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = catalog(nodes, 211L);
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    /** The sequential engine does not use a pool and needs minutes per run at 100k nodes. */
+    @State(Scope.Benchmark)
+    public static class ForceState {
+
+        @Param({"1000", "10000"})
+        int baselineNodes;
+
+        LayoutGraph graph;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = catalog(baselineNodes, 211L);
+        }
+    }
+
+    @Benchmark
+    public Layout multilevel(final MultilevelState state) {
+        return new MultilevelLayout(state.pool).compute(state.graph, OPTIONS);
+    }
+
+    @Benchmark
+    public Layout force(final ForceState state) {
+        return new BarnesHutLayout().compute(state.graph, OPTIONS);
+    }
+
+    static LayoutGraph catalog(final int nodes, final long seed) {
+        final Random random = new Random(seed);
+        final List<String> ids = new ArrayList<>(nodes);
+        final double[] radii = new double[nodes];
+        final double[] levels = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            ids.add("course-" + i);
+            radii[i] = NodeRadius.MIN + random.nextInt(20);
+            levels[i] = random.nextInt(5);
+        }
+        final int[] sources = new int[2 * nodes];
+        final int[] targets = new int[2 * nodes];
+        int links = 0;
+        for (int i = 1; i < nodes; i++) {
+            final int department = i / DEPARTMENT_SIZE * DEPARTMENT_SIZE;
+            sources[links] = i;
+            targets[links++] = i == department ? random.nextInt(i) : department + random.nextInt(i - department);
+        }
+        for (int k = 0; k < nodes / 2; k++) {
+            final int source = random.nextInt(nodes);
+            final int department = source / DEPARTMENT_SIZE * DEPARTMENT_SIZE;
+            final int target = Math.min(nodes - 1, department + random.nextInt(DEPARTMENT_SIZE));
+            if (source != target) {
+                sources[links] = source;
+                targets[links++] = target;
+            }
+        }
+        return new LayoutGraph(ids, radii, levels, Arrays.copyOf(sources, links), Arrays.copyOf(targets, links));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MultilevelLayoutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
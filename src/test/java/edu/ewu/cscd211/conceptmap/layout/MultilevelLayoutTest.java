@@ -0,0 +1,134 @@
+package edu.ewu.cscd211.conceptmap.layout;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for graph coarsening and the multilevel layout.
+ */
+class MultilevelLayoutTest {
+
+    /** Clusters of 50 nodes, each a random tree, with a link from every cluster to an earlier one. */
+    private static LayoutGraph clusters(final int nodes) {
+        Random random = new Random(42);
+        List<String> ids = new ArrayList<>();
+        double[] radii = new double[nodes];
+        double[] levels = new double[nodes];
+        int[] sources = new int[nodes];
+        int[] targets = new int[nodes];
+        int links = 0;
+        for (int i = 0; i < nodes; i++) {
+            ids.add("n" + i);
+            radii[i] = 8 + random.nextInt(12);
+            levels[i] = i % 4;
+            if (i > 0) {
+                int cluster = i / 50 * 50;
+                sources[links] = i;
+                targets[links++] = i == cluster ? random.nextInt(i) : cluster + random.nextInt(i - cluster);
+            }
+        }
+        return new LayoutGraph(ids, radii, levels, Arrays.copyOf(sources, links), Arrays.copyOf(targets, links));
+    }
+
+    @Nested
+    @DisplayName("Coarsening")
+    class CoarseningTests {
+
+        @Test
+        @DisplayName("Should merge nodes in pairs and keep their padded area")
+        void shouldMergePairs() {
+            LayoutGraph graph = clusters(400);
+            GraphCoarsening step = GraphCoarsening.of(graph, null, null);
+            LayoutGraph coarse = step.coarse();
+
+            assertThat(coarse.nodeCount()).isBetween(200, 260);
+            double padding = BarnesHutLayout.COLLISION_PADDING;
+            for (int u = 0; u < graph.nodeCount(); u++) {
+                int c = step.parent(u);
+                int v = step.partner(u);
+                if (v < 0) {
+                    assertThat(coarse.radius(c)).isEqualTo(graph.radius(u));
+                } else {
+                    assertThat(step.parent(v)).isEqualTo(c);
+                    assertThat(coarse.id(c)).isEqualTo(graph.id(Math.min(u, v)));
+                    assertThat(coarse.radius(c) + padding)
+                        .isCloseTo(Math.hypot(graph.radius(u) + padding, graph.radius(v) + padding), within(1e-9));
+                }
+            }
+            assertThat(Arrays.stream(step.masses()).sum()).isEqualTo(400);
+        }
+
+        @Test
+        @DisplayName("Should collapse parallel links into one weighted link")
+        void shouldWeighLinks() {
+            LayoutGraph graph = new LayoutGraph(List.of("a", "b", "c", "d"), new double[] {10, 10, 10, 10},
+                    new double[] {0, 0, 0, 0}, new int[] {0, 2, 0, 1, 1}, new int[] {1, 3, 2, 3, 2});
+            GraphCoarsening step = GraphCoarsening.of(graph, null, null);
+
+            assertThat(step.coarse().nodeCount()).isEqualTo(2);
+            assertThat(step.coarse().linkCount()).isEqualTo(1);
+            assertThat(step.linkWeights()).containsExactly(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Layout computation")
+    class ComputeTests {
+
+        @Test
+        @DisplayName("Should produce the same layout for any pool size")
+        void shouldNotDependOnParallelism() {
+            LayoutGraph graph = clusters(3000);
+            LayoutOptions options = new LayoutOptions(4000, 4000, null);
+            ForkJoinPool single = new ForkJoinPool(1);
+            ForkJoinPool triple = new ForkJoinPool(3);
+            try {
+                Layout first = new MultilevelLayout(single).compute(graph, options);
+                Layout second = new MultilevelLayout(triple).compute(graph, options);
+                for (int i = 0; i < graph.nodeCount(); i++) {
+                    assertThat(Double.isFinite(first.x(i)) && Double.isFinite(first.y(i))).isTrue();
+                    assertThat(second.x(i)).isEqualTo(first.x(i));
+                    assertThat(second.y(i)).isEqualTo(first.y(i));
+                }
+            } finally {
+                single.shutdown();
+                triple.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep nodes from overlapping and pull the anchor to the center")
+        void shouldSeparateNodesAndCenterAnchor() {
+            LayoutGraph graph = clusters(300);
+            Layout layout = new MultilevelLayout().compute(graph, new LayoutOptions(2000, 1200, "n120"));
+            Layout free = new MultilevelLayout().compute(graph, new LayoutOptions(2000, 1200, null));
+
+            for (int i = 0; i < graph.nodeCount(); i++) {
+                for (int j = i + 1; j < graph.nodeCount(); j++) {
+                    double distance = Math.hypot(layout.x(i) - layout.x(j), layout.y(i) - layout.y(j));
+                    assertThat(distance).isGreaterThan(graph.radius(i) + graph.radius(j));
+                }
+            }
+            assertThat(Math.hypot(layout.x(120) - 1000, layout.y(120) - 600))
+                .isLessThan(Math.hypot(free.x(120) - 1000, free.y(120) - 600) / 4);
+        }
+
+        @Test
+        @DisplayName("Should reject an anchor outside the graph")
+        void shouldRejectUnknownAnchor() {
+            assertThatThrownBy(() -> new MultilevelLayout().compute(clusters(100), new LayoutOptions(800, 600, "missing")))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.ewu.cscd211.conceptmap.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the JSON attribute blobs kept by nodes and links.
+ */
+class AttributesTest {
+
+    private static final String JSON = "{\"id\":\"loops\",\"cognitive_scaffolding\":[\"a\",{\"b\":1}],"
+            + "\"_radius\":\"12\",\"size\":18,\"notes\":\"Zählschleife\",\"group\":null}";
+
+    private final Attributes attributes = Attributes.ofJson(JSON);
+
+    @Nested
+    @DisplayName("Lookups")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should find fields after nested arrays and objects")
+        void shouldFindFieldsAfterNestedValues() {
+            assertThat(attributes.fieldNames())
+                .containsExactly("id", "cognitive_scaffolding", "_radius", "size", "notes", "group");
+            assertThat(attributes.has("notes")).isTrue();
+            assertThat(attributes.has("b")).isFalse();
+            assertThat(attributes.getString("notes")).isEqualTo("Zählschleife");
+        }
+
+        @Test
+        @DisplayName("Should read numbers and numeric strings the way the client does")
+        void shouldReadNumbersLikeClient() {
+            assertThat(attributes.getNumber("_radius")).isEqualTo(12.0);
+            assertThat(attributes.getNumber("size")).isEqualTo(18.0);
+            assertThat(attributes.getNumber("notes")).isNaN();
+            assertThat(attributes.getNumber("cognitive_scaffolding")).isNaN();
+            assertThat(attributes.getNumber("missing")).isNaN();
+        }
+
+        @Test
+        @DisplayName("Should accept only JSON number syntax in numeric strings")
+        void shouldParseJsonNumbersOnly() {
+            assertThat(Attributes.parseNumber(" -1.5e2 ")).isEqualTo(-150.0);
+            assertThat(Attributes.parseNumber("0")).isZero();
+            for (String text : new String[] {"1d", "0x1p3", "Infinity", "NaN", "+1", ".5", "1.", "01", "", null}) {
+                assertThat(Attributes.parseNumber(text)).as(String.valueOf(text)).isNaN();
+            }
+        }
+
+        @Test
+        @DisplayName("Should return null for missing and non-string values")
+        void shouldReturnNullForNonStrings() {
+            assertThat(attributes.getString("size")).isNull();
+            assertThat(attributes.getString("group")).isNull();
+            assertThat(attributes.getString("cognitive_scaffolding")).isNull();
+            assertThat(attributes.getString("missing")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Storage")
+    class StorageTests {
+
+        @Test
+        @DisplayName("Should keep the object exactly as given")
+        void shouldKeepObject() {
+            assertThat(attributes.toJson()).isEqualTo(JSON);
+            assertThat(attributes.byteSize()).isEqualTo(JSON.length() + 1);
+            assertThat(attributes).isEqualTo(Attributes.ofJson(JSON)).hasSameHashCodeAs(Attributes.ofJson(JSON));
+            assertThat(Attributes.EMPTY.fieldNames()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should read a region of a direct buffer like a copy")
+        void shouldReadBufferRegion() {
+            byte[] bytes = ("[" + JSON + "]").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+            Attributes region = Attributes.ofJson(direct.slice(1, bytes.length - 2));
+
+            assertThat(region).isEqualTo(attributes);
+            assertThat(region.toJson()).isEqualTo(JSON);
+            assertThat(region.getNumber("_radius")).isEqualTo(12.0);
+            assertThat(region.getString("notes")).isEqualTo("Zählschleife");
+        }
+
+        @Test
+        @DisplayName("Should reject null and non-object JSON")
+        void shouldRejectNonObjects() {
+            assertThatThrownBy(() -> Attributes.ofJson((String) null)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Attributes.ofJson("[1]")).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Attributes.ofJson(ByteBuffer.allocate(0))).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should convert to and from a text column")
+        void shouldConvertColumn() {
+            Attributes.JsonConverter converter = new Attributes.JsonConverter();
+
+            assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(attributes)))
+                .isEqualTo(attributes);
+            assertThat(converter.convertToEntityAttribute(null)).isSameAs(Attributes.EMPTY);
+        }
+    }
+}
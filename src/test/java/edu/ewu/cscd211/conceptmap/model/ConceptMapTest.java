@@ -3,6 +3,9 @@ package edu.ewu.cscd211.conceptmap.model;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("ConceptMap Domain Model Tests")
@@ -191,6 +194,137 @@ class ConceptMapTest {
         assertNull(foundNode);
     }
 
+    @Test
+    @DisplayName("Should index outgoing and incoming links by relationship type")
+    void shouldIndexLinksByRelationshipType() {
+        // Arrange
+        conceptMap.addNode(new Node("a", "A", "Node a"));
+        conceptMap.addNode(new Node("b", "B", "Node b"));
+        conceptMap.addNode(new Node("c", "C", "Node c"));
+        Link prerequisite = new Link("a", "b", "prerequisite");
+        Link related = new Link("a", "c", "related");
+        Link secondPrerequisite = new Link("a", "c", "prerequisite");
+        
+        // Act
+        conceptMap.addLink(prerequisite);
+        conceptMap.addLink(related);
+        conceptMap.addLink(secondPrerequisite);
+        conceptMap.addLink(new Link("a", "b", "prerequisite")); // Duplicate
+        
+        // Assert
+        assertEquals(List.of(prerequisite, secondPrerequisite, related), conceptMap.getOutgoingLinks("a"));
+        assertEquals(List.of(prerequisite, secondPrerequisite), conceptMap.getOutgoingLinks("a", "prerequisite"));
+        assertEquals(List.of(related, secondPrerequisite), conceptMap.getIncomingLinks("c"));
+        assertEquals(List.of(related), conceptMap.getIncomingLinks("c", "related"));
+        assertEquals(3, conceptMap.getDegree("a"));
+        assertEquals(2, conceptMap.getDegree("c"));
+        assertTrue(conceptMap.containsLink(new Link("a", "c", "related")));
+        assertFalse(conceptMap.containsLink(new Link("c", "a", "related")));
+    }
+
+    @Test
+    @DisplayName("Should return empty adjacency for unknown nodes")
+    void shouldReturnEmptyAdjacencyForUnknownNodes() {
+        // Assert
+        assertTrue(conceptMap.getOutgoingLinks("missing").isEmpty());
+        assertTrue(conceptMap.getIncomingLinks(null).isEmpty());
+        assertTrue(conceptMap.getOutgoingLinks("missing", "prerequisite").isEmpty());
+        assertEquals(0, conceptMap.getDegree("missing"));
+        assertFalse(conceptMap.containsLink(null));
+    }
+
+    @Test
+    @DisplayName("Should return read-only adjacency lists")
+    void shouldReturnReadOnlyAdjacencyLists() {
+        // Arrange
+        conceptMap.addNode(new Node("a", "A", "Node a"));
+        conceptMap.addNode(new Node("b", "B", "Node b"));
+        conceptMap.addLink(new Link("a", "b", "prerequisite"));
+        
+        // Act
+        List<Link> outgoing = conceptMap.getOutgoingLinks("a");
+        
+        // Assert
+        assertThrows(UnsupportedOperationException.class, outgoing::clear);
+        assertEquals(1, conceptMap.getDegree("a"));
+    }
+
+    @Test
+    @DisplayName("Should build map with nodes, links and indexes in one step")
+    void shouldBuildMapWithNodesLinksAndIndexesInOneStep() {
+        // Arrange
+        Node a = new Node("a", "A", "First");
+        Node b = new Node("b", "B", "Second");
+        Link ab = new Link("a", "b", "PREREQUISITE");
+
+        // Act
+        ConceptMap built = ConceptMap.builder(testMetadata)
+            .addNodes(List.of(a, b, new Node("a", "Duplicate", "Ignored")))
+            .addLinks(List.of(ab, new Link("a", "b", "PREREQUISITE")))
+            .addNode(() -> new Node("c", "C", "Third"))
+            .addLink(() -> new Link("c", "a", "RELATED_TO"))
+            .build();
+
+        // Assert
+        assertEquals(List.of("a", "b", "c"), built.getNodes().stream().map(Node::getId).toList());
+        assertEquals("A", built.findNodeById("a").getName());
+        assertEquals(2, built.getLinks().size());
+        assertTrue(built.containsLink(ab));
+        assertEquals(List.of(ab), built.getOutgoingLinks("a"));
+        assertEquals(2, built.getDegree("a"));
+
+        // The built map accepts further additions like any other
+        built.addNode(new Node("d", "D", "Fourth"));
+        built.addLink(new Link("d", "a", "RELATED_TO"));
+        assertEquals(3, built.getDegree("a"));
+    }
+
+    @Test
+    @DisplayName("Should report every invalid node and link with its position")
+    void shouldReportEveryInvalidNodeAndLinkWithItsPosition() {
+        // Arrange
+        ConceptMap.Builder builder = ConceptMap.builder(testMetadata)
+            .addNode(new Node("a", "A", "First"))
+            .addNode(() -> new Node("b", " ", "Blank name"))
+            .addNode((Node) null)
+            .addLink(new Link("a", "missing", "RELATED_TO"))
+            .addLink(new Link("a", "a", "RELATED_TO"))
+            .addLink(new Link("ghost", "a", "RELATED_TO"));
+
+        // Act
+        ConceptMapValidationException exception = assertThrows(ConceptMapValidationException.class, builder::build);
+
+        // Assert
+        assertEquals(List.of(
+            new ConceptMapValidationException.Problem("nodes", 1, "Name cannot be empty"),
+            new ConceptMapValidationException.Problem("nodes", 2, "Node cannot be null"),
+            new ConceptMapValidationException.Problem("links", 0, "Target node missing not found"),
+            new ConceptMapValidationException.Problem("links", 2, "Source node ghost not found")
+        ), exception.getProblems());
+        assertTrue(exception.getMessage().startsWith("4 problems in concept map: nodes[1]: Name cannot be empty;"));
+    }
+
+    @Test
+    @DisplayName("Should validate large inputs in parallel with positions intact")
+    void shouldValidateLargeInputsInParallelWithPositionsIntact() {
+        // Arrange
+        ConceptMap.Builder builder = ConceptMap.builder(testMetadata);
+        for (int i = 0; i < 10_000; i++) {
+            builder.addNode(new Node("n" + i, "Node " + i, ""));
+        }
+        for (int i = 1; i < 10_000; i++) {
+            builder.addLink(new Link("n" + (i - 1), "n" + i, "NEXT"));
+        }
+        builder.addLink(new Link("n0", "n10000", "NEXT"));
+
+        // Act
+        ConceptMapValidationException exception = assertThrows(ConceptMapValidationException.class, builder::build);
+
+        // Assert
+        assertEquals(List.of(new ConceptMapValidationException.Problem("links", 9_999, "Target node n10000 not found")),
+            exception.getProblems());
+    }
+
     @Test
     @DisplayName("Should return true when concept map is empty")
     void shouldReturnTrueWhenConceptMapIsEmpty() {
@@ -210,8 +344,8 @@ class ConceptMapTest {
     }
 
     @Test
-    @DisplayName("Should return defensive copy of nodes list")
-    void shouldReturnDefensiveCopyOfNodesList() {
+    @DisplayName("Should return read-only view of nodes list")
+    void shouldReturnReadOnlyViewOfNodesList() {
         // Arrange
         Node node = new Node("test-id", "Test Node", "Test description");
         conceptMap.addNode(node);
@@ -222,14 +356,14 @@ class ConceptMapTest {
         // Assert
         assertEquals(1, nodesList.size());
         
-        // Modify returned list should not affect internal state
-        nodesList.clear();
+        // Returned list cannot be used to modify internal state
+        assertThrows(UnsupportedOperationException.class, nodesList::clear);
         assertEquals(1, conceptMap.getNodes().size());
     }
 
     @Test
-    @DisplayName("Should return defensive copy of links list")
-    void shouldReturnDefensiveCopyOfLinksList() {
+    @DisplayName("Should return read-only view of links list")
+    void shouldReturnReadOnlyViewOfLinksList() {
         // Arrange
         Node sourceNode = new Node("source", "Source", "Source node");
         Node targetNode = new Node("target", "Target", "Target node");
@@ -244,11 +378,51 @@ class ConceptMapTest {
         // Assert
         assertEquals(1, linksList.size());
         
-        // Modify returned list should not affect internal state
-        linksList.clear();
+        // Returned list cannot be used to modify internal state
+        assertThrows(UnsupportedOperationException.class, linksList::clear);
         assertEquals(1, conceptMap.getLinks().size());
     }
 
+    @Test
+    @DisplayName("Should reject additions once frozen")
+    void shouldRejectAdditionsOnceFrozen() {
+        // Arrange
+        conceptMap.addNode(new Node("a", "A", "First"));
+        
+        // Act
+        ConceptMap frozen = conceptMap.freeze();
+        
+        // Assert
+        assertSame(conceptMap, frozen);
+        assertTrue(frozen.isFrozen());
+        assertThrows(IllegalStateException.class, () -> frozen.addNode(new Node("b", "B", "Second")));
+        assertThrows(IllegalStateException.class, () -> frozen.addLink(new Link("a", "a", "RELATED_TO")));
+        assertEquals(1, frozen.getNodes().size());
+    }
+
+    @Test
+    @DisplayName("Should derive an edited copy of a frozen map that shares its nodes")
+    void shouldDeriveEditedCopyOfFrozenMap() {
+        // Arrange
+        Node a = new Node("a", "A", "First");
+        conceptMap.addNode(a);
+        conceptMap.freeze();
+        
+        // Act
+        ConceptMap edited = conceptMap.toBuilder()
+            .addNode(new Node("b", "B", "Second"))
+            .addLink(new Link("a", "b", "PREREQUISITE"))
+            .build();
+        
+        // Assert
+        assertFalse(edited.isFrozen());
+        assertEquals(2, edited.getNodes().size());
+        assertEquals(1, edited.getLinks().size());
+        assertSame(a, edited.findNodeById("a"));
+        assertEquals(1, conceptMap.getNodes().size());
+        assertTrue(conceptMap.getLinks().isEmpty());
+    }
+
     @Test
     @DisplayName("Should implement equals correctly")
     void shouldImplementEqualsCorrectly() {
@@ -0,0 +1,98 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the inverted index, its BM25 ranking and snippet highlighting.
+ */
+class SearchIndexTest {
+
+    private List<SearchDocument> documents;
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        documents = new ArrayList<>(List.of(
+            new SearchDocument("recursion", "Recursion", "A method that calls itself until a base case is reached.",
+                List.of("Factorial computed recursively")),
+            new SearchDocument("loops", "Loops", "Repeating statements with for and while.",
+                List.of("Replacing recursion with iteration")),
+            new SearchDocument("arrays", "Arrays", "Fixed-size sequences of elements.", List.of())));
+        index = SearchIndex.build(documents);
+    }
+
+    @Nested
+    @DisplayName("Ranking")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should rank a name match above a rich-field match")
+        void shouldPreferNameMatches() {
+            List<SearchHit> hits = index.search("recursion", 10);
+
+            assertThat(hits).extracting(SearchHit::getId).containsExactly("recursion", "loops");
+            assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+        }
+
+        @Test
+        @DisplayName("Should match case-insensitively, respect the limit and ignore unknown terms")
+        void shouldApplyLimitAndIgnoreUnknownTerms() {
+            assertThat(index.search("ARRAYS zebra", 10)).extracting(SearchHit::getId).containsExactly("arrays");
+            assertThat(index.search("recursion", 1)).hasSize(1);
+            assertThat(index.search("zebra", 10)).isEmpty();
+            assertThatThrownBy(() -> index.search("recursion", 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Snippets")
+    class SnippetTests {
+
+        @Test
+        @DisplayName("Should take the snippet from the description and highlight every matching term")
+        void shouldHighlightDescription() {
+            SearchHit hit = index.search("base case", 10).get(0);
+
+            assertThat(hit.getField()).isEqualTo("description");
+            assertThat(hit.getHighlights()).hasSize(2);
+            int[] first = hit.getHighlights().get(0);
+            assertThat(hit.getSnippet().substring(first[0], first[1])).isEqualTo("base");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the rich fields when only they match")
+        void shouldFallBackToDetails() {
+            SearchHit hit = index.search("iteration", 10).get(0);
+
+            assertThat(hit.getId()).isEqualTo("loops");
+            assertThat(hit.getField()).isEqualTo("details");
+            assertThat(hit.getSnippet()).isEqualTo("Replacing recursion with iteration");
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental rebuilds")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should reuse unchanged documents and index the edited ones")
+        void shouldReuseUnchangedDocuments() {
+            documents.set(2, new SearchDocument("arrays", "Arrays", "Indexed collections.", List.of()));
+
+            SearchIndex rebuilt = SearchIndex.build(documents, index);
+
+            assertThat(rebuilt.reusedCount()).isEqualTo(2);
+            assertThat(rebuilt.search("indexed", 10)).extracting(SearchHit::getId).containsExactly("arrays");
+            assertThat(rebuilt.search("sequences", 10)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package edu.ewu.cscd211.conceptmap.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for typo-tolerant prefix suggestions.
+ */
+class SuggestIndexTest {
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = SuggestIndex.build(List.of(
+            new SuggestIndex.Entry("polymorphism", "Inheritance and Polymorphism", 4),
+            new SuggestIndex.Entry("encapsulation", "Encapsulation", 9),
+            new SuggestIndex.Entry("enums", "Enumerated Types", 2),
+            new SuggestIndex.Entry("interfaces", "Interfaces", 6)));
+    }
+
+    private List<String> ids(final String prefix) {
+        return index.suggest(prefix, 10).stream().map(suggestion -> suggestion.getEntry().getId()).toList();
+    }
+
+    @Nested
+    @DisplayName("Exact prefixes")
+    class ExactTests {
+
+        @Test
+        @DisplayName("Should rank exact prefix matches by centrality")
+        void shouldRankByCentrality() {
+            assertThat(ids("en")).containsExactly("encapsulation", "enums");
+            assertThat(index.suggest("en", 1)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should match names from any significant word and by id")
+        void shouldMatchWordStartsAndIds() {
+            assertThat(ids("Poly")).containsExactly("polymorphism");
+            assertThat(ids("and")).isEmpty();
+            assertThat(ids("enums")).containsExactly("enums");
+        }
+    }
+
+    @Nested
+    @DisplayName("Typo tolerance")
+    class FuzzyTests {
+
+        @Test
+        @DisplayName("Should tolerate a missing letter and a swapped pair")
+        void shouldTolerateTypos() {
+            List<SuggestIndex.Suggestion> missing = index.suggest("polymorhism", 10);
+            assertThat(missing).hasSize(1);
+            assertThat(missing.get(0).getDistance()).isEqualTo(1);
+
+            assertThat(ids("ecnaps")).containsExactly("encapsulation");
+        }
+
+        @Test
+        @DisplayName("Should list closer matches before more central ones")
+        void shouldPreferCloserMatches() {
+            assertThat(ids("interf")).first().isEqualTo("interfaces");
+        }
+
+        @Test
+        @DisplayName("Should not tolerate typos in very short prefixes")
+        void shouldRequireExactShortPrefixes() {
+            assertThat(SuggestIndex.maxEdits("ab")).isZero();
+            assertThat(ids("xn")).isEmpty();
+            assertThatThrownBy(() -> index.suggest("en", 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
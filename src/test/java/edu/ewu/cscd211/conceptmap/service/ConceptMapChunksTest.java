@@ -0,0 +1,61 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the byte scan that splits concept map documents into element chunks.
+ */
+class ConceptMapChunksTest {
+
+    private static final String DOCUMENT = "{\"nodes\": [{\"id\": \"a\", \"notes\": \"}],{\\\"\"}, "
+            + "{\"id\": \"b\", \"tags\": [[1], {\"x\": \"]\"}]}, {\"id\": \"c\"}], "
+            + "\"metadata\": {\"version\": \"1\"}, \"extra\": 42, \"links\": []}";
+
+    private static ByteBuffer buffer(final String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> text(final String json, final List<ConceptMapChunks.Span> spans) {
+        return spans.stream().map(span -> json.substring(span.from(), span.to()).trim()).toList();
+    }
+
+    @Test
+    @DisplayName("Should cut arrays between whole elements only")
+    void shouldCutBetweenElements() {
+        ConceptMapChunks chunks = ConceptMapChunks.scan(buffer(DOCUMENT), 1);
+
+        assertThat(text(DOCUMENT, chunks.nodes())).containsExactly(
+            "{\"id\": \"a\", \"notes\": \"}],{\\\"\"}",
+            "{\"id\": \"b\", \"tags\": [[1], {\"x\": \"]\"}]}",
+            "{\"id\": \"c\"}");
+        assertThat(chunks.links()).isEmpty();
+        assertThat(text(DOCUMENT, chunks.metadata())).containsExactly("{\"version\": \"1\"}");
+        assertThat(text(DOCUMENT, chunks.otherValues())).containsExactly("42");
+    }
+
+    @Test
+    @DisplayName("Should keep elements together up to the chunk size")
+    void shouldKeepElementsTogether() {
+        ConceptMapChunks chunks = ConceptMapChunks.scan(buffer(DOCUMENT), 60);
+
+        assertThat(text(DOCUMENT, chunks.nodes())).hasSize(2)
+            .last().isEqualTo("{\"id\": \"c\"}");
+    }
+
+    @Test
+    @DisplayName("Should give up on layouts it cannot follow")
+    void shouldRejectUnknownLayouts() {
+        assertThat(ConceptMapChunks.scan(buffer("[" + DOCUMENT + "]"), 1)).isNull();
+        assertThat(ConceptMapChunks.scan(buffer(DOCUMENT.replace("\"nodes\"", "\"no\\u0064es\"")), 1)).isNull();
+        assertThat(ConceptMapChunks.scan(buffer(DOCUMENT.replace("{\"id\": \"c\"}", "/* c */")), 1)).isNull();
+        assertThat(ConceptMapChunks.scan(buffer(DOCUMENT.replace("{\"id\": \"c\"}", " ")), 1)).isNull();
+        assertThat(ConceptMapChunks.scan(buffer(DOCUMENT.substring(0, 40)), 1)).isNull();
+    }
+}
@@ -0,0 +1,170 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hand-written {@link ConceptMapCodec} against Jackson databind, on the bundled datasets.
+ *
+ * <p>{@code databind*} are the tree-model equivalents: reading is {@code readTree} followed by
+ * {@link ConceptMapService#parseNode} and {@link ConceptMapService#parseLink}, writing builds
+ * one {@link ObjectNode} per element from its stored object and typed fields. Bean binding is
+ * not a candidate: {@link Attributes} has no properties, so databind cannot serialize the model
+ * by reflection at all. {@code codec*} read with {@link ConceptMapReader}, copying every element
+ * from a stream as the tree does, and write with {@link ConceptMapCodec.Encoder}; both sides
+ * produce equal maps and documents. One operation is one whole dataset. The run includes the
+ * GC profiler so that allocation per dataset is reported too.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.service.ConceptMapCodecBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConceptMapCodecBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({"concept-map.json", "concept-map-preview.json"})
+    String dataset;
+
+    byte[] json;
+    ConceptMap conceptMap;
+    ConceptMapService service;
+    ByteArrayOutputStream output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = ConceptMapCodecBenchmark.class.getClassLoader().getResourceAsStream(dataset)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing dataset " + dataset);
+            }
+            json = in.readAllBytes();
+        }
+        service = new ConceptMapService(OBJECT_MAPPER);
+        conceptMap = codecRead();
+        output = new ByteArrayOutputStream(json.length * 2);
+    }
+
+    @Benchmark
+    public ConceptMap databindRead() throws IOException {
+        final JsonNode root = OBJECT_MAPPER.readTree(json);
+        final ConceptMap.Builder builder = ConceptMap.builder(service.parseMetadata(root.get("metadata")));
+        for (final JsonNode node : root.get("nodes")) {
+            builder.addNode(service.parseNode(node));
+        }
+        for (final JsonNode link : root.get("links")) {
+            builder.addLink(service.parseLink(link));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public ConceptMap codecRead() throws IOException {
+        return new ConceptMapReader(OBJECT_MAPPER.getFactory(), new SymbolTable()).read(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public int databindWrite() throws IOException {
+        final ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        final ObjectNode metadata = root.putObject("metadata").put("version", conceptMap.getMetadata().getVersion());
+        if (conceptMap.getMetadata().getDescription() != null) {
+            metadata.put("description", conceptMap.getMetadata().getDescription());
+        }
+        final ArrayNode nodes = root.putArray("nodes");
+        for (final Node node : conceptMap.getNodes()) {
+            final ObjectNode object = stored(node.getAttributes());
+            putIfAbsent(object, "id", node.getId());
+            putIfAbsent(object, "name", node.getName());
+            if (!node.getDescription().isEmpty()) {
+                putIfAbsent(object, "description", node.getDescription());
+            }
+            putIfAbsent(object, "level", node.getLevel());
+            putIfAbsent(object, "size", node.getSize());
+            if (node.getGroup() != null && !node.getGroup().isEmpty()) {
+                putIfAbsent(object, "group", node.getGroup());
+            }
+            nodes.add(object);
+        }
+        final ArrayNode links = root.putArray("links");
+        for (final Link link : conceptMap.getLinks()) {
+            final ObjectNode object = stored(link.getAttributes());
+            putIfAbsent(object, "source", link.getSourceId());
+            putIfAbsent(object, "target", link.getTargetId());
+            putIfAbsent(object, "type", link.getRelationshipType());
+            putIfAbsent(object, "strength", link.getStrength());
+            links.add(object);
+        }
+        output.reset();
+        OBJECT_MAPPER.writeValue(output, root);
+        return output.size();
+    }
+
+    @Benchmark
+    public int codecWrite() throws IOException {
+        output.reset();
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(output)) {
+            new ConceptMapCodec.Encoder(generator).writeConceptMap(conceptMap);
+        }
+        return output.size();
+    }
+
+    private static ObjectNode stored(final Attributes attributes) throws IOException {
+        return (ObjectNode) OBJECT_MAPPER.readTree(attributes.toJson());
+    }
+
+    private static void putIfAbsent(final ObjectNode object, final String field, final String value) {
+        if (!object.has(field)) {
+            object.put(field, value);
+        }
+    }
+
+    private static void putIfAbsent(final ObjectNode object, final String field, final double value) {
+        if (!object.has(field) && !Double.isNaN(value)) {
+            object.put(field, value);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ConceptMapCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the hand-written element codecs.
+ */
+class ConceptMapCodecTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    private JsonParser parserOn(final String json) throws IOException {
+        JsonParser parser = factory.createParser(json);
+        parser.nextToken();
+        return parser;
+    }
+
+    @Nested
+    @DisplayName("Decoding")
+    class DecodeTests {
+
+        @Test
+        @DisplayName("Should read typed fields and skip the rest")
+        void shouldReadTypedFields() throws Exception {
+            SymbolTable symbols = new SymbolTable();
+            try (JsonParser parser = parserOn("{\"notes\": [{\"id\": \"x\"}], \"id\": \"a\", \"name\": \"Loops\","
+                    + " \"level\": \"2\", \"size\": 10, \"group\": 3}")) {
+                Node node = ConceptMapCodec.readNode(parser, symbols, end -> Attributes.EMPTY);
+
+                assertThat(node.getId()).isEqualTo("a");
+                assertThat(node.getName()).isEqualTo("Loops");
+                assertThat(node.getLevel()).isEqualTo(2.0);
+                assertThat(node.getSize()).isEqualTo(10.0);
+                assertThat(node.getGroup()).isEqualTo("3");
+                assertThat(parser.currentToken()).isEqualTo(JsonToken.END_OBJECT);
+                assertThat(parser.nextToken()).isNull();
+            }
+        }
+
+        @Test
+        @DisplayName("Should default the type and require both endpoints")
+        void shouldRequireEndpoints() throws Exception {
+            try (JsonParser parser = parserOn("{\"source\": \"a\", \"target\": \"b\"}")) {
+                Link link = ConceptMapCodec.readLink(parser, new SymbolTable(), end -> Attributes.EMPTY);
+                assertThat(link.getRelationshipType()).isEqualTo(ConceptMapCodec.DEFAULT_RELATIONSHIP_TYPE);
+            }
+            try (JsonParser parser = parserOn("{\"source\": \"a\", \"target\": 7}")) {
+                assertThatThrownBy(() -> ConceptMapCodec.readLink(parser, new SymbolTable(), end -> Attributes.EMPTY))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("'target'");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Encoding")
+    class EncodeTests {
+
+        @Test
+        @DisplayName("Should copy stored fields and add only the typed fields they lack")
+        void shouldAddMissingTypedFields() throws Exception {
+            Node node = new Node("a", "Loops", "", 2, Double.NaN, "basics",
+                Attributes.ofJson("{\"id\": \"a\", \"name\": \"For loops\", \"tags\": [1, 2]}"));
+            StringWriter output = new StringWriter();
+
+            try (JsonGenerator generator = factory.createGenerator(output)) {
+                new ConceptMapCodec.Encoder(generator).writeNode(node);
+            }
+
+            assertThat(output.toString())
+                .isEqualTo("{\"id\":\"a\",\"name\":\"For loops\",\"tags\":[1,2],\"level\":2.0,\"group\":\"basics\"}");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.Attributes;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for exporting concept maps as JSON, NDJSON, GraphML, DOT and CSV.
+ */
+class ConceptMapExportTest {
+
+    private static final String DOCUMENT = "{\"metadata\": {\"version\": \"1.0\", \"description\": \"sample\"},\n"
+            + " \"nodes\": [{\"id\": \"a\", \"name\": \"Variables\", \"level\": \"2\", \"notes\": [\"week 1\"]},"
+            + " {\"id\": \"b\", \"name\": \"Loops\"}],\n"
+            + " \"links\": [{\"source\": \"a\", \"target\": \"b\", \"type\": \"PREREQUISITE\", \"strength\": 0.75}]}";
+
+    private final ConceptMapService service = new ConceptMapService(new ObjectMapper());
+
+    /** A map built in code, whose elements have no stored objects. */
+    private static ConceptMap builtMap() {
+        return ConceptMap.builder(new Metadata("2.0", "built \"in code\""))
+            .addNode(new Node("a", "Commas, \"quotes\"", "line 1\nline 2", 1, Double.NaN, "basics", Attributes.EMPTY))
+            .addNode(new Node("b", "Loops", ""))
+            .addLink(new Link("a", "b", "PREREQUISITE, STRONG", 0.5, Attributes.EMPTY))
+            .build();
+    }
+
+    private String export(final ConceptMap conceptMap, final String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.exportConceptMap(conceptMap, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private ConceptMap roundTrip(final ConceptMap conceptMap, final String format) throws IOException {
+        return service.importConceptMap(new ByteArrayInputStream(export(conceptMap, format).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ConceptMap loadDocument() throws IOException {
+        return service.importConceptMap(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Nested
+    @DisplayName("Format selection")
+    class FormatTests {
+
+        @Test
+        @DisplayName("Should ship every format and reject unknown ones")
+        void shouldListFormats() {
+            assertThat(service.getExportFormats()).containsExactly("json", "ndjson", "graphml", "dot", "csv");
+            assertThat(service.getExporter(" GraphML ").getContentType()).isEqualTo("application/graphml+xml");
+            assertThatThrownBy(() -> service.getExporter("xlsx"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("xlsx");
+            assertThatThrownBy(() -> service.exportConceptMap(builtMap(), "csv", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should prefer plugged-in exporters")
+        void shouldPreferPluggedInExporters() throws Exception {
+            service.setExporters(List.of(new ConceptMapExporter() {
+                @Override
+                public String getFormat() {
+                    return "csv";
+                }
+
+                @Override
+                public String getContentType() {
+                    return "text/plain";
+                }
+
+                @Override
+                public void write(final ConceptMap conceptMap, final OutputStream output) throws IOException {
+                    output.write("custom".getBytes(StandardCharsets.UTF_8));
+                }
+            }));
+
+            assertThat(export(builtMap(), "csv")).isEqualTo("custom");
+            assertThat(service.getExportFormats()).containsExactly("csv", "json", "ndjson", "graphml", "dot");
+        }
+
+        @Test
+        @DisplayName("Should leave the stream open")
+        void shouldNotCloseStream() throws Exception {
+            boolean[] closed = new boolean[1];
+            OutputStream output = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            };
+
+            for (String format : service.getExportFormats()) {
+                service.exportConceptMap(builtMap(), format, output);
+            }
+
+            assertThat(closed[0]).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON and NDJSON")
+    class JsonTests {
+
+        @Test
+        @DisplayName("Should keep the stored fields of every element")
+        void shouldKeepStoredFields() throws Exception {
+            ConceptMap conceptMap = loadDocument();
+
+            for (String format : List.of("json", "ndjson")) {
+                ConceptMap exported = roundTrip(conceptMap, format);
+                assertThat(exported.getMetadata()).isEqualTo(conceptMap.getMetadata());
+                assertThat(exported.getNodes()).isEqualTo(conceptMap.getNodes());
+                assertThat(exported.getLinks()).isEqualTo(conceptMap.getLinks());
+                assertThat(exported.getNodes().get(0).getAttributes().toJson())
+                    .isEqualTo("{\"id\":\"a\",\"name\":\"Variables\",\"level\":\"2\",\"notes\":[\"week 1\"]}");
+                assertThat(exported.getNodes().get(0).getLevel()).isEqualTo(2.0);
+            }
+        }
+
+        @Test
+        @DisplayName("Should write the typed fields of elements built in code")
+        void shouldWriteTypedFields() throws Exception {
+            assertThat(export(builtMap(), "json")).isEqualTo("{\"metadata\":{\"version\":\"2.0\",\"description\":\"built \\\"in code\\\"\"},"
+                + "\"nodes\":[{\"id\":\"a\",\"name\":\"Commas, \\\"quotes\\\"\",\"description\":\"line 1\\nline 2\","
+                + "\"level\":1.0,\"group\":\"basics\"},{\"id\":\"b\",\"name\":\"Loops\"}],"
+                + "\"links\":[{\"source\":\"a\",\"target\":\"b\",\"type\":\"PREREQUISITE, STRONG\",\"strength\":0.5}]}");
+        }
+
+        @Test
+        @DisplayName("Should write one record per line")
+        void shouldWriteRecords() throws Exception {
+            assertThat(export(builtMap(), "ndjson").split("\n")).hasSize(4)
+                .startsWith("{\"metadata\":{\"version\":\"2.0\",\"description\":\"built \\\"in code\\\"\"}}")
+                .endsWith("{\"source\":\"a\",\"target\":\"b\",\"type\":\"PREREQUISITE, STRONG\",\"strength\":0.5}");
+        }
+    }
+
+    @Nested
+    @DisplayName("GraphML")
+    class GraphMlTests {
+
+        @Test
+        @DisplayName("Should import back to the same typed fields")
+        void shouldRoundTripTypedFields() throws Exception {
+            ConceptMap conceptMap = builtMap();
+
+            ConceptMap exported = roundTrip(conceptMap, "graphml");
+
+            assertThat(exported.getMetadata()).isEqualTo(conceptMap.getMetadata());
+            assertThat(exported.getNodes()).isEqualTo(conceptMap.getNodes());
+            assertThat(exported.getLinks()).isEqualTo(conceptMap.getLinks());
+            Node first = exported.getNodes().get(0);
+            assertThat(first.getDescription()).isEqualTo("line 1\nline 2");
+            assertThat(first.getLevel()).isEqualTo(1.0);
+            assertThat(first.getGroup()).isEqualTo("basics");
+            assertThat(exported.getLinks().get(0).getStrength()).isEqualTo(0.5);
+        }
+
+        @Test
+        @DisplayName("Should replace characters XML cannot hold")
+        void shouldReplaceInvalidCharacters() throws Exception {
+            ConceptMap conceptMap = ConceptMap.builder(new Metadata("1.0", "control"))
+                .addNode(new Node("a", "bell\u0007", ""))
+                .build();
+
+            assertThat(roundTrip(conceptMap, "graphml").getNodes().get(0).getName()).isEqualTo("bell\uFFFD");
+        }
+    }
+
+    @Nested
+    @DisplayName("DOT and CSV")
+    class TextFormatTests {
+
+        @Test
+        @DisplayName("Should write a quoted digraph")
+        void shouldWriteDot() throws Exception {
+            assertThat(export(builtMap(), "dot")).isEqualTo("digraph \"concept-map\" {\n"
+                + "  comment=\"built \\\"in code\\\" (version 2.0)\";\n"
+                + "  \"a\" [label=\"Commas, \\\"quotes\\\"\", tooltip=\"line 1\\nline 2\", group=\"basics\", level=1];\n"
+                + "  \"b\" [label=\"Loops\"];\n"
+                + "  \"a\" -> \"b\" [label=\"PREREQUISITE, STRONG\", strength=0.5];\n"
+                + "}\n");
+        }
+
+        @Test
+        @DisplayName("Should write an edge list the CSV importer reads back")
+        void shouldWriteCsv() throws Exception {
+            ConceptMap conceptMap = loadDocument().toBuilder()
+                .addLink(new Link("b", "a", "RELATED_TO"))
+                .build();
+
+            assertThat(export(builtMap(), "csv"))
+                .isEqualTo("source,target,type,strength\na,b,\"PREREQUISITE, STRONG\",0.5\n");
+            assertThat(roundTrip(conceptMap, "csv").getLinks()).isEqualTo(conceptMap.getLinks());
+        }
+    }
+
+    @Test
+    @Tag("large")
+    @DisplayName("Should export a million links in small writes")
+    void shouldStreamLargeMaps() throws Exception {
+        int nodeCount = 100_000;
+        int linkCount = 1_000_000;
+        ConceptMap.Builder builder = ConceptMap.builder(new Metadata("1.0", "generated"));
+        String[] ids = new String[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            ids[i] = "n" + i;
+            builder.addNode(new Node(ids[i], "Node " + i, ""));
+        }
+        for (int i = 0; i < linkCount; i++) {
+            builder.addLink(new Link(ids[i % nodeCount], ids[(i * 7 + 1) % nodeCount], "next"));
+        }
+        ConceptMap conceptMap = builder.build();
+
+        for (String format : service.getExportFormats()) {
+            long[] written = new long[2];
+            OutputStream output = new OutputStream() {
+                @Override
+                public void write(final int b) {
+                    written[0]++;
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) {
+                    written[0] += len;
+                    written[1] = Math.max(written[1], len);
+                }
+            };
+
+            service.exportConceptMap(conceptMap, format, output);
+
+            // Writes of a buffer's size show the document was never held whole
+            assertThat(written[0]).as(format).isGreaterThan(linkCount * 10L);
+            assertThat(written[1]).as(format).isLessThanOrEqualTo(64 * 1024);
+        }
+    }
+}
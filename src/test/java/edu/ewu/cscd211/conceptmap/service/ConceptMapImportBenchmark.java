@@ -0,0 +1,184 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import throughput of every shipped format, in records per second.
+ *
+ * <p>Each trial writes one synthetic map of {@value #NODES} nodes and {@value #LINKS} links in
+ * the given format and imports it with format detection. A record is one node or link of the
+ * resulting map, so the figures compare across formats; a CSV edge list has rows for its links
+ * only and derives the nodes from them.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.service.ConceptMapImportBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ConceptMapImportBenchmark {
+
+    private static final int NODES = 250_000;
+    private static final int LINKS = 2_000_000;
+    private static final String[] TYPES = {"prerequisite", "related", "extends"};
+
+    @Param({"json", "ndjson", "graphml", "csv"})
+    String format;
+
+    Path file;
+    ConceptMapService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("import-benchmark", "." + format);
+        switch (format) {
+            case "json" -> writeJson(file, false);
+            case "ndjson" -> writeJson(file, true);
+            case "graphml" -> writeGraphMl(file);
+            case "csv" -> writeCsv(file);
+            default -> throw new IllegalStateException("Unknown format " + format);
+        }
+        // Sequential, so that every format is read by one thread
+        service = ConceptMapService.builder(new ObjectMapper()).parallelIngestMinBytes(Long.MAX_VALUE).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES + LINKS)
+    public ConceptMap importFile() throws IOException {
+        return service.importConceptMap(file);
+    }
+
+    /** Writes a concept map document, or the same elements as one record per line. */
+    static void writeJson(final Path file, final boolean records) throws IOException {
+        final Random random = new Random(211L);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("metadata");
+            generator.writeStringField("version", "1.0");
+            generator.writeStringField("description", "synthetic catalog");
+            generator.writeEndObject();
+            if (records) {
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } else {
+                generator.writeArrayFieldStart("nodes");
+            }
+            for (int i = 0; i < NODES; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("id", "course-" + i);
+                generator.writeStringField("name", "Course " + i);
+                generator.writeNumberField("level", random.nextInt(5));
+                generator.writeStringField("group", "department-" + i / 200);
+                generator.writeEndObject();
+                if (records) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (!records) {
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("links");
+            }
+            for (int i = 0; i < LINKS; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("source", "course-" + random.nextInt(NODES));
+                generator.writeStringField("target", "course-" + random.nextInt(NODES));
+                generator.writeStringField("type", TYPES[random.nextInt(TYPES.length)]);
+                generator.writeNumberField("strength", random.nextInt(100) / 100.0);
+                generator.writeEndObject();
+                if (records) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (!records) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    static void writeGraphMl(final Path file) throws IOException {
+        final Random random = new Random(211L);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+            out.write("  <key id=\"name\" for=\"node\" attr.name=\"name\" attr.type=\"string\"/>\n");
+            out.write("  <key id=\"level\" for=\"node\" attr.name=\"level\" attr.type=\"int\"/>\n");
+            out.write("  <key id=\"group\" for=\"node\" attr.name=\"group\" attr.type=\"string\"/>\n");
+            out.write("  <key id=\"type\" for=\"edge\" attr.name=\"type\" attr.type=\"string\"/>\n");
+            out.write("  <key id=\"strength\" for=\"edge\" attr.name=\"strength\" attr.type=\"double\"/>\n");
+            out.write("  <graph edgedefault=\"directed\">\n");
+            for (int i = 0; i < NODES; i++) {
+                out.write("    <node id=\"course-" + i + "\"><data key=\"name\">Course " + i
+                        + "</data><data key=\"level\">" + random.nextInt(5)
+                        + "</data><data key=\"group\">department-" + i / 200 + "</data></node>\n");
+            }
+            for (int i = 0; i < LINKS; i++) {
+                out.write("    <edge source=\"course-" + random.nextInt(NODES) + "\" target=\"course-"
+                        + random.nextInt(NODES) + "\"><data key=\"type\">" + TYPES[random.nextInt(TYPES.length)]
+                        + "</data><data key=\"strength\">" + random.nextInt(100) / 100.0 + "</data></edge>\n");
+            }
+            out.write("  </graph>\n</graphml>\n");
+        }
+    }
+
+    /** Writes an edge list that names every node, so the import has the same nodes as the others. */
+    static void writeCsv(final Path file) throws IOException {
+        final Random random = new Random(211L);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("source,target,type,strength\n");
+            for (int i = 0; i < LINKS; i++) {
+                // The first rows visit every node once
+                final int source = i < NODES ? i : random.nextInt(NODES);
+                out.write("course-" + source + ",course-" + random.nextInt(NODES) + ","
+                        + TYPES[random.nextInt(TYPES.length)] + "," + random.nextInt(100) / 100.0 + "\n");
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConceptMapImportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
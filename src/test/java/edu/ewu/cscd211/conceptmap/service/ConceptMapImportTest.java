@@ -0,0 +1,281 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import edu.ewu.cscd211.conceptmap.model.Metadata;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for importing GraphML, CSV edge lists and newline-delimited JSON.
+ */
+class ConceptMapImportTest {
+
+    private static final String DOCUMENT = "{\"metadata\": {\"version\": \"1.0\", \"description\": \"sample\"},\n"
+            + " \"nodes\": [{\"id\": \"a\", \"name\": \"A\"}, {\"id\": \"b\", \"name\": \"B\"}],\n"
+            + " \"links\": [{\"source\": \"a\", \"target\": \"b\"}]}";
+
+    private static final String GRAPHML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+            + "  <key id=\"d0\" for=\"node\" attr.name=\"label\" attr.type=\"string\"/>\n"
+            + "  <key id=\"d1\" for=\"node\" attr.name=\"level\" attr.type=\"int\"><default>1</default></key>\n"
+            + "  <key id=\"d2\" for=\"edge\" attr.name=\"weight\" attr.type=\"double\"/>\n"
+            + "  <key id=\"d3\" for=\"node\" yfiles.type=\"nodegraphics\"/>\n"
+            + "  <key id=\"d4\" for=\"graph\" attr.name=\"version\" attr.type=\"string\"/>\n"
+            + "  <graph id=\"G\" edgedefault=\"directed\">\n"
+            + "    <desc>Prerequisites</desc>\n"
+            + "    <data key=\"d4\">2.0</data>\n"
+            + "    <node id=\"a\"><data key=\"d0\">Variables</data>"
+            + "<data key=\"d3\"><y:ShapeNode xmlns:y=\"urn:y\"><y:NodeLabel>V</y:NodeLabel></y:ShapeNode></data></node>\n"
+            + "    <node id=\"b\"><data key=\"d1\">3</data></node>\n"
+            + "    <edge source=\"a\" target=\"b\"><data key=\"d2\">0.75</data></edge>\n"
+            + "  </graph>\n"
+            + "</graphml>\n";
+
+    private static final String CSV = "source,target,type,strength,note\n"
+            + "a,b,PREREQUISITE,0.9,\"week 2, then 4\"\n"
+            + "\n"
+            + "b,c,,,\n";
+
+    private static final String NDJSON = "{\"metadata\":{\"version\":\"3.1\",\"description\":\"records\"}}\n"
+            + "{\"id\":\"a\",\"name\":\"A\",\"level\":\"2\"}\n"
+            + "{\"id\": \"b\", \"name\": \"B\"}\n"
+            + "{\"source\":\"a\",\"target\":\"b\",\"type\":\"PREREQUISITE\"}\n";
+
+    private final ConceptMapService service = new ConceptMapService(new ObjectMapper());
+
+    private static InputStream stream(final String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> ids(final ConceptMap conceptMap) {
+        return conceptMap.getNodes().stream().map(Node::getId).toList();
+    }
+
+    @Nested
+    @DisplayName("Format detection")
+    class DetectionTests {
+
+        @Test
+        @DisplayName("Should recognise every shipped format from its content")
+        void shouldDetectFormats() throws Exception {
+            assertThat(ids(service.importConceptMap(stream(DOCUMENT)))).containsExactly("a", "b");
+            assertThat(service.importConceptMap(stream(GRAPHML)).getMetadata().getVersion()).isEqualTo("2.0");
+            assertThat(ids(service.importConceptMap(stream(CSV)))).containsExactly("a", "b", "c");
+            assertThat(service.importConceptMap(stream(NDJSON)).getMetadata().getVersion()).isEqualTo("3.1");
+        }
+
+        @Test
+        @DisplayName("Should tell a one-line document from a single record")
+        void shouldSeparateDocumentsFromRecords() throws Exception {
+            ConceptMap document = service.importConceptMap(stream("{\"metadata\":{\"version\":\"1.0\",\"description\":\"\"}}"));
+            ConceptMap record = service.importConceptMap(stream("{\"id\":\"a\",\"name\":\"A\"}"));
+
+            assertThat(document.isEmpty()).isTrue();
+            assertThat(ids(record)).containsExactly("a");
+            assertThat(record.getMetadata().getDescription()).isEqualTo("Imported from NDJSON");
+        }
+
+        @Test
+        @DisplayName("Should map a JSON file and stream other files")
+        void shouldImportFiles(@TempDir final Path directory) throws Exception {
+            Path json = Files.writeString(directory.resolve("map.json"), DOCUMENT);
+            Path csv = Files.writeString(directory.resolve("map.txt"), CSV);
+
+            assertThat(service.importConceptMap(json).getLinks()).containsExactly(new Link("a", "b", "RELATED_TO"));
+            assertThat(service.importConceptMap(csv).getLinks()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should read a named format and reject unknown ones")
+        void shouldHonourExplicitFormats() throws Exception {
+            assertThat(ids(service.importConceptMap(stream(GRAPHML), "GraphML"))).containsExactly("a", "b");
+            assertThat(service.getImportFormats()).containsExactly("json", "ndjson", "graphml", "csv");
+            assertThatThrownBy(() -> service.importConceptMap(stream(CSV), "xlsx"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("xlsx");
+            assertThatThrownBy(() -> service.importConceptMap(stream("digraph { a -> b }")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cannot detect");
+        }
+
+        @Test
+        @DisplayName("Should consult plugged-in importers first")
+        void shouldPreferPluggedInImporters() throws Exception {
+            ConceptMap dot = ConceptMap.builder(new Metadata("1.0", "dot")).addNode(new Node("a", "A", "")).build();
+            service.setImporters(List.of(new ConceptMapImporter() {
+                @Override
+                public String getFormat() {
+                    return "dot";
+                }
+
+                @Override
+                public boolean detects(final byte[] head, final int length) {
+                    return new String(head, 0, length, StandardCharsets.UTF_8).startsWith("digraph");
+                }
+
+                @Override
+                public ConceptMap read(final InputStream input) {
+                    return dot;
+                }
+            }));
+
+            assertThat(service.importConceptMap(stream("digraph { a -> b }"))).isSameAs(dot);
+            assertThat(service.getImportFormats()).startsWith("dot").contains("csv");
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV edge lists")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Should create links from rows and nodes from their endpoints")
+        void shouldImportEdgeList() throws Exception {
+            ConceptMap conceptMap = service.importConceptMap(stream(CSV), "csv");
+
+            Link first = conceptMap.getLinks().get(0);
+            Link second = conceptMap.getLinks().get(1);
+            assertThat(first.getRelationshipType()).isEqualTo("PREREQUISITE");
+            assertThat(first.getStrength()).isEqualTo(0.9);
+            assertThat(first.getAttributes().toJson()).isEqualTo(
+                "{\"source\":\"a\",\"target\":\"b\",\"type\":\"PREREQUISITE\",\"strength\":0.9,\"note\":\"week 2, then 4\"}");
+            assertThat(second.getRelationshipType()).isEqualTo("RELATED_TO");
+            assertThat(second.getStrength()).isNaN();
+            assertThat(second.getAttributes().toJson()).isEqualTo("{\"source\":\"b\",\"target\":\"c\"}");
+            assertThat(conceptMap.getNodes().get(2).getAttributes().toJson()).isEqualTo("{\"id\":\"c\",\"name\":\"c\"}");
+            assertThat(conceptMap.getMetadata().getDescription()).isEqualTo("Imported from CSV");
+        }
+
+        @Test
+        @DisplayName("Should read tab-separated files with quoted line breaks")
+        void shouldImportTabSeparatedValues() throws Exception {
+            String tsv = "\uFEFFSource\tTarget\n\"x\"\t\"y\ny\"\nz\t\"x\"\n";
+
+            ConceptMap conceptMap = service.importConceptMap(stream(tsv));
+
+            assertThat(ids(conceptMap)).containsExactly("x", "y\ny", "z");
+            assertThat(conceptMap.getLinks().get(1).getAttributes().toJson())
+                .isEqualTo("{\"source\":\"z\",\"target\":\"x\"}");
+        }
+
+        @Test
+        @DisplayName("Should report every invalid row with its line")
+        void shouldLocateInvalidRows() {
+            String invalid = "source,target\na,b\na,b,c\nc, \n";
+
+            assertThatThrownBy(() -> service.importConceptMap(stream(invalid), "csv"))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(
+                        new ConceptMapValidationException.Problem("links", 1,
+                            "Row has 3 fields but the header names 2 (line 3)"),
+                        new ConceptMapValidationException.Problem("links", 2,
+                            "Target ID cannot be empty (line 4)")));
+            assertThatThrownBy(() -> service.importConceptMap(stream("source,target\na,\"b\n"), "csv"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Quoted field starting on line 2 is not closed");
+            assertThatThrownBy(() -> service.importConceptMap(stream("from,to\na,b\n"), "csv"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("source and a target");
+        }
+    }
+
+    @Nested
+    @DisplayName("GraphML")
+    class GraphMlTests {
+
+        @Test
+        @DisplayName("Should read keys, defaults and typed data")
+        void shouldImportGraphMl() throws Exception {
+            ConceptMap conceptMap = service.importConceptMap(stream(GRAPHML), "graphml");
+
+            Node a = conceptMap.getNodes().get(0);
+            Node b = conceptMap.getNodes().get(1);
+            Link link = conceptMap.getLinks().get(0);
+            assertThat(conceptMap.getMetadata()).isEqualTo(new Metadata("2.0", "Prerequisites"));
+            assertThat(a.getName()).isEqualTo("Variables");
+            assertThat(a.getLevel()).isEqualTo(1.0);
+            assertThat(a.getAttributes().toJson())
+                .isEqualTo("{\"id\":\"a\",\"name\":\"Variables\",\"level\":1,\"label\":\"Variables\"}");
+            assertThat(b.getName()).isEqualTo("b");
+            assertThat(b.getAttributes().toJson()).isEqualTo("{\"id\":\"b\",\"name\":\"b\",\"level\":3}");
+            assertThat(link.getRelationshipType()).isEqualTo("RELATED_TO");
+            assertThat(link.getStrength()).isEqualTo(0.75);
+            assertThat(link.getAttributes().toJson()).isEqualTo("{\"source\":\"a\",\"target\":\"b\",\"weight\":0.75}");
+        }
+
+        @Test
+        @DisplayName("Should report dangling edges with their line")
+        void shouldLocateInvalidEdges() {
+            String invalid = GRAPHML.replace("target=\"b\"", "target=\"ghost\"");
+
+            assertThatThrownBy(() -> service.importConceptMap(stream(invalid)))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(new ConceptMapValidationException.Problem("links", 0,
+                        "Target node ghost not found (line 13)")));
+        }
+
+        @Test
+        @DisplayName("Should refuse entities and malformed XML")
+        void shouldRejectUnsafeOrMalformedXml() {
+            String entity = "<?xml version=\"1.0\"?>\n<!DOCTYPE graphml [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>\n"
+                + "<graphml><graph><node id=\"&x;\"/></graph></graphml>";
+
+            assertThatThrownBy(() -> service.importConceptMap(stream(entity), "graphml"))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Malformed GraphML");
+            assertThatThrownBy(() -> service.importConceptMap(stream(GRAPHML.replace("</graph>", "")), "graphml"))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Malformed GraphML (line");
+        }
+    }
+
+    @Nested
+    @DisplayName("Newline-delimited JSON")
+    class NdjsonTests {
+
+        @Test
+        @DisplayName("Should read metadata, node and link records")
+        void shouldImportRecords() throws Exception {
+            ConceptMap conceptMap = service.importConceptMap(stream(NDJSON), "ndjson");
+
+            assertThat(conceptMap.getMetadata()).isEqualTo(new Metadata("3.1", "records"));
+            assertThat(conceptMap.getNodes().get(0).getLevel()).isEqualTo(2.0);
+            assertThat(conceptMap.getNodes().get(1).getAttributes().toJson()).isEqualTo("{\"id\":\"b\",\"name\":\"B\"}");
+            assertThat(conceptMap.getLinks()).containsExactly(new Link("a", "b", "PREREQUISITE"));
+        }
+
+        @Test
+        @DisplayName("Should report invalid records with their line")
+        void shouldLocateInvalidRecords() {
+            String invalid = NDJSON + "{\"id\":\"c\"}\n{\"source\":\"a\",\"target\":\"ghost\"}\n";
+
+            assertThatThrownBy(() -> service.importConceptMap(stream(invalid), "ndjson"))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(
+                        new ConceptMapValidationException.Problem("nodes", 2,
+                            "Required field 'name' is missing or not a string (line 5, column 1)"),
+                        new ConceptMapValidationException.Problem("links", 1,
+                            "Target node ghost not found (line 6, column 1)")));
+            assertThatThrownBy(() -> service.importConceptMap(stream("[1]\n"), "ndjson"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Every record must be a JSON object (line 1, column 1)");
+        }
+    }
+}
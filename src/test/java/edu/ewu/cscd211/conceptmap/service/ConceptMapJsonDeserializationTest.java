@@ -94,6 +94,38 @@ class ConceptMapJsonDeserializationTest {
         assertThat(firstLink.getRelationshipType()).isNotBlank();
     }
 
+    @Test
+    @DisplayName("Should type level, size and group and keep every other node field")
+    void shouldRetainNodeAttributes() throws Exception {
+        ConceptMapService service = new ConceptMapService(objectMapper);
+        String json = "{\"id\":\"n1\",\"name\":\"Loops\",\"cognitive_scaffolding\":[\"Repetition\"],"
+            + "\"level\":\"2\",\"size\":18,\"group\":\"core\",\"notes\":{\"tip\":\"Trace it\"}}";
+
+        Node node = service.parseNode(objectMapper.readTree(json));
+
+        assertThat(node.getLevel()).isEqualTo(2.0);
+        assertThat(node.getSize()).isEqualTo(18.0);
+        assertThat(node.getGroup()).isEqualTo("core");
+        assertThat(node.getAttributes().toJson()).isEqualTo(json);
+        assertThat(node.getAttributes().has("notes")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave missing node and link numbers as NaN")
+    void shouldLeaveMissingNumbersAsNaN() throws Exception {
+        ConceptMapService service = new ConceptMapService(objectMapper);
+
+        Node node = service.parseNode(objectMapper.readTree("{\"id\":\"n1\",\"name\":\"Loops\",\"size\":\"big\"}"));
+        Link link = service.parseLink(objectMapper.readTree(
+            "{\"source\":\"a\",\"target\":\"b\",\"type\":\"related\",\"strength\":0.75,\"label\":\"uses\"}"));
+
+        assertThat(node.getLevel()).isNaN();
+        assertThat(node.getSize()).isNaN();
+        assertThat(node.getGroup()).isNull();
+        assertThat(link.getStrength()).isEqualTo(0.75);
+        assertThat(link.getAttributes().getString("label")).isEqualTo("uses");
+    }
+
     @Test
     @DisplayName("Should create complete ConceptMap from JSON")
     void shouldCreateCompleteConceptMapFromJson() throws IOException {
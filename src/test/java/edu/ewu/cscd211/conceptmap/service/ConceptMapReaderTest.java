@@ -0,0 +1,161 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import edu.ewu.cscd211.conceptmap.util.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the token-streaming concept map reader.
+ */
+class ConceptMapReaderTest {
+
+    private static final String DOCUMENT = "{\n"
+            + "  \"nodes\": [\n"
+            + "    {\"id\": \"a\", \"name\": \"A\", \"notes\": [1, {\"tip\": \"x\"}], \"level\": \"2\"},\n"
+            + "    {\"id\": \"b\", \"name\": \"B\", \"group\": \"core\"}\n"
+            + "  ],\n"
+            + "  \"metadata\": {\"version\": \"1.0\", \"description\": \"sample\"},\n"
+            + "  \"links\": [{\"source\": \"a\", \"target\": \"b\", \"strength\": 0.5}]\n"
+            + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConceptMapReader newReader() {
+        return new ConceptMapReader(objectMapper.getFactory(), new SymbolTable());
+    }
+
+    private static byte[] bytes(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("Sources")
+    class SourceTests {
+
+        @Test
+        @DisplayName("Should slice element objects out of a buffer as they appear")
+        void shouldSliceBufferSources() throws Exception {
+            ConceptMapReader reader = newReader();
+            byte[] padded = bytes("  " + DOCUMENT + "  ");
+
+            ConceptMap conceptMap = reader.read(ByteBuffer.wrap(padded, 2, padded.length - 4));
+
+            Node a = conceptMap.getNodes().get(0);
+            assertThat(a.getAttributes().toJson())
+                .isEqualTo("{\"id\": \"a\", \"name\": \"A\", \"notes\": [1, {\"tip\": \"x\"}], \"level\": \"2\"}");
+            assertThat(a.getLevel()).isEqualTo(2.0);
+            assertThat(conceptMap.getNodes().get(1).getGroup()).isEqualTo("core");
+            assertThat(conceptMap.getLinks().get(0).getStrength()).isEqualTo(0.5);
+            assertThat(conceptMap.getLinks().get(0).getRelationshipType()).isEqualTo("RELATED_TO");
+            assertThat(reader.getMetadataJson()).isEqualTo("{\"version\": \"1.0\", \"description\": \"sample\"}");
+        }
+
+        @Test
+        @DisplayName("Should copy element objects of a stream in minified form")
+        void shouldCopyStreamSources() throws Exception {
+            ConceptMapReader reader = newReader();
+
+            ConceptMap conceptMap = reader.read(new ByteArrayInputStream(bytes(DOCUMENT)));
+
+            assertThat(conceptMap.getNodes().get(0).getAttributes().toJson())
+                .isEqualTo("{\"id\":\"a\",\"name\":\"A\",\"notes\":[1,{\"tip\":\"x\"}],\"level\":\"2\"}");
+            assertThat(conceptMap.getNodes().get(0).getAttributes().getString("name")).isEqualTo("A");
+            assertThat(reader.getMetadataJson()).isEqualTo("{\"version\":\"1.0\",\"description\":\"sample\"}");
+        }
+    }
+
+    @Nested
+    @DisplayName("Parallel ingest")
+    class ParallelTests {
+
+        @Test
+        @DisplayName("Should read the same map as a sequential read with one chunk per element")
+        void shouldMatchSequentialRead() throws Exception {
+            ConceptMapReader sequential = newReader();
+            ConceptMapReader parallel = newReader();
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes(DOCUMENT).length).put(bytes(DOCUMENT)).flip();
+
+            ConceptMap expected = sequential.read(ByteBuffer.wrap(bytes(DOCUMENT)));
+            ConceptMap actual = parallel.read(direct, ForkJoinPool.commonPool(), 1);
+
+            assertThat(actual.getNodes()).isEqualTo(expected.getNodes());
+            assertThat(actual.getLinks()).isEqualTo(expected.getLinks());
+            assertThat(actual.getNodes().get(0).getAttributes()).isEqualTo(expected.getNodes().get(0).getAttributes());
+            assertThat(actual.getNodes().get(0).getLevel()).isEqualTo(2.0);
+            assertThat(actual.getLinks().get(0).getAttributes()).isEqualTo(expected.getLinks().get(0).getAttributes());
+            assertThat(parallel.getMetadataJson()).isEqualTo(sequential.getMetadataJson());
+        }
+
+        @Test
+        @DisplayName("Should report the errors of a sequential read")
+        void shouldReportSequentialErrors() {
+            String invalid = DOCUMENT.replace("\"name\": \"B\", ", "");
+            String trailingComma = DOCUMENT.replace("0.5}]", "0.5}, ]");
+
+            assertThatThrownBy(() -> newReader().read(ByteBuffer.wrap(bytes(invalid)), ForkJoinPool.commonPool(), 1))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(
+                        new ConceptMapValidationException.Problem("nodes", 1,
+                            "Required field 'name' is missing or not a string (line 4, column 5)"),
+                        new ConceptMapValidationException.Problem("links", 0,
+                            "Target node b not found (line 7, column 13)")));
+            assertThatThrownBy(() -> newReader().read(ByteBuffer.wrap(bytes(trailingComma)), ForkJoinPool.commonPool(), 1))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("line: 7");
+        }
+    }
+
+    @Nested
+    @DisplayName("Errors")
+    class ErrorTests {
+
+        @Test
+        @DisplayName("Should report every invalid element with its line and column")
+        void shouldLocateInvalidElements() {
+            String invalid = DOCUMENT
+                .replace("\"name\": \"B\", ", "")
+                .replace("\"target\": \"b\"", "\"target\": \"ghost\"");
+
+            assertThatThrownBy(() -> newReader().read(ByteBuffer.wrap(bytes(invalid))))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(
+                        new ConceptMapValidationException.Problem("nodes", 1,
+                            "Required field 'name' is missing or not a string (line 4, column 5)"),
+                        new ConceptMapValidationException.Problem("links", 0,
+                            "Target node ghost not found (line 7, column 13)")));
+        }
+
+        @Test
+        @DisplayName("Should locate invalid metadata and reject documents without it")
+        void shouldLocateInvalidMetadata() {
+            assertThatThrownBy(() -> newReader().read(ByteBuffer.wrap(bytes(DOCUMENT.replace("\"version\": \"1.0\", ", "")))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Required field 'version' is missing or not a string (line 6, column 15)");
+            assertThatThrownBy(() -> newReader().read(ByteBuffer.wrap(bytes("{\"nodes\": []}"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("metadata");
+        }
+
+        @Test
+        @DisplayName("Should fail on malformed JSON with the parser's location")
+        void shouldLocateMalformedJson() {
+            assertThatThrownBy(() -> newReader().read(new ByteArrayInputStream(bytes(DOCUMENT.replace("0.5}]", "0.5},]")))))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("line: 7");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException.Problem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the compiled concept map schema.
+ */
+class ConceptMapSchemaTest {
+
+    private static final String VALID = "{\n"
+            + "  \"metadata\": {\"version\": \"1.0\", \"description\": \"sample\", \"total_nodes\": 2, \"total_links\": 1},\n"
+            + "  \"nodes\": [\n"
+            + "    {\"id\": \"a\", \"name\": \"A\", \"level\": 0, \"size\": \"12\", \"group\": null, \"extra\": [{\"id\": 5}]},\n"
+            + "    {\"id\": \"b-2\", \"name\": \"B\", \"level\": 2.5}\n"
+            + "  ],\n"
+            + "  \"links\": [{\"source\": \"a\", \"target\": \"b-2\", \"strength\": 1}]\n"
+            + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private void validate(final ConceptMapSchema schema, final String json) throws Exception {
+        final ConceptMapSchema.Validation validation = schema.newValidation();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                validation.accept(parser, token);
+            }
+        }
+        validation.finish();
+    }
+
+    private void validate(final String json) throws Exception {
+        validate(ConceptMapSchema.conceptMap(), json);
+    }
+
+    @Nested
+    @DisplayName("Documents")
+    class DocumentTests {
+
+        @Test
+        @DisplayName("Should accept a valid map and skip fields the schema does not describe")
+        void shouldAcceptValidMap() {
+            assertThatCode(() -> validate(VALID)).doesNotThrowAnyException();
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should accept the bundled datasets")
+        @ValueSource(strings = {"concept-map.json", "concept-map-preview.json"})
+        void shouldAcceptBundledDatasets(final String resource) throws Exception {
+            final ConceptMapSchema.Validation validation = ConceptMapSchema.conceptMap().newValidation();
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource);
+                 JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    validation.accept(parser, token);
+                }
+            }
+
+            assertThatCode(validation::finish).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should report every problem with its element and location")
+        void shouldReportEveryProblem() {
+            final String invalid = VALID
+                .replace("\"id\": \"a\", \"name\": \"A\", \"level\": 0", "\"id\": \"a b\", \"name\": \"A\", \"level\": -1")
+                .replace("\"name\": \"B\", ", "")
+                .replace("\"strength\": 1}", "\"strength\": 1.5}")
+                .replace("\"total_links\": 1", "\"total_links\": 3");
+
+            assertThatThrownBy(() -> validate(invalid))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .containsExactly(
+                        new Problem("nodes", 0, "Field 'id' does not match ^[A-Za-z0-9][A-Za-z0-9._:-]*$ (line 4, column 12)"),
+                        new Problem("nodes", 0, "Field 'level' must be at least 0 (line 4, column 41)"),
+                        new Problem("nodes", 1, "Required field 'name' is missing (line 5, column 5)"),
+                        new Problem("links", 0, "Field 'strength' must be at most 1 (line 7, column 58)"),
+                        new Problem("metadata", -1, "Field 'total_links' is 3 but links has 1 elements (line 2, column 92)")));
+        }
+
+        @Test
+        @DisplayName("Should report wrong types and missing sections without looking inside them")
+        void shouldReportTypes() {
+            assertThatThrownBy(() -> validate("{\"metadata\": {\"version\": 1, \"description\": \"d\"}, \"nodes\": {\"id\": 1}}"))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .extracting(Problem::toString)
+                    .containsExactly(
+                        "metadata: Field 'version' must be a string (line 1, column 26)",
+                        "nodes: Field 'nodes' must be an array (line 1, column 59)",
+                        "links: Required field 'links' is missing (line 1, column 1)"));
+            assertThatThrownBy(() -> validate("{\"metadata\": {\"version\": \"1\", \"description\": \"d\"}, \"nodes\": [\"a\"], \"links\": []}"))
+                .hasMessageContaining("nodes[0]: Element must be an object");
+        }
+    }
+
+    @Nested
+    @DisplayName("Compiler")
+    class CompilerTests {
+
+        @Test
+        @DisplayName("Should reject keywords it cannot check")
+        void shouldRejectUnsupportedKeywords() {
+            assertThatThrownBy(() -> ConceptMapSchema.compile(objectMapper.readTree(
+                    "{\"type\": \"object\", \"properties\": {\"a\": {\"oneOf\": []}}}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("#/properties/a/oneOf");
+            assertThatThrownBy(() -> ConceptMapSchema.compile(objectMapper.readTree(
+                    "{\"type\": \"object\", \"properties\": {\"a\": {\"$ref\": \"#/$defs/missing\"}}}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+            assertThatThrownBy(() -> ConceptMapSchema.compile(objectMapper.readTree("{\"type\": \"array\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should apply shared definitions and integer types")
+        void shouldApplyDefinitions() throws Exception {
+            final ConceptMapSchema schema = ConceptMapSchema.compile(objectMapper.readTree("{\"type\": \"object\","
+                    + "\"properties\": {\"n\": {\"$ref\": \"#/$defs/count\"}, \"m\": {\"$ref\": \"#/$defs/count\"}},"
+                    + "\"$defs\": {\"count\": {\"type\": \"integer\", \"exclusiveMaximum\": 10}}}"));
+
+            assertThatCode(() -> validate(schema, "{\"n\": 2.0, \"m\": 9}")).doesNotThrowAnyException();
+            assertThatThrownBy(() -> validate(schema, "{\"n\": 2.5, \"m\": 10}"))
+                .isInstanceOfSatisfying(ConceptMapValidationException.class, e -> assertThat(e.getProblems())
+                    .extracting(Problem::getMessage)
+                    .containsExactly("Field 'n' must be an integer (line 1, column 7)",
+                        "Field 'm' must be less than 10 (line 1, column 17)"));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the pre-serialized concept map snapshot and its construction by the service.
+ */
+class ConceptMapSnapshotTest {
+
+    private static final String PRETTY_JSON = "{\n  \"metadata\" : {\n    \"version\" : \"1.0\",\n"
+            + "    \"last_updated\" : \"2025-08-16T23:55:00Z\"\n  },\n  \"nodes\" : [ ],\n  \"links\" : [ ]\n}";
+
+    private final ConceptMapService service = new ConceptMapService();
+
+    private ConceptMapSnapshot build(final String json) throws ConceptMapReadException {
+        return service.buildSnapshot(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("Snapshot construction")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Should minify the document once at build time")
+        void shouldMinifyDocument() throws Exception {
+            ConceptMapSnapshot snapshot = build(PRETTY_JSON);
+
+            assertThat(snapshot.asString())
+                .isEqualTo("{\"metadata\":{\"version\":\"1.0\",\"last_updated\":\"2025-08-16T23:55:00Z\"},\"nodes\":[],\"links\":[]}");
+            assertThat(snapshot.getContentLength()).isEqualTo(snapshot.asString().length());
+        }
+
+        @Test
+        @DisplayName("Should take Last-Modified from metadata.last_updated")
+        void shouldUseMetadataLastUpdated() throws Exception {
+            assertThat(build(PRETTY_JSON).getLastModified()).isEqualTo(Instant.parse("2025-08-16T23:55:00Z"));
+        }
+
+        @Test
+        @DisplayName("Should fall back to build time when last_updated is malformed")
+        void shouldFallBackWhenLastUpdatedMalformed() throws Exception {
+            Instant before = Instant.now();
+            ConceptMapSnapshot snapshot = build("{\"metadata\":{\"last_updated\":\"yesterday\"}}");
+
+            assertThat(snapshot.getLastModified()).isAfterOrEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid JSON with ConceptMapReadException")
+        void shouldRejectInvalidJson() {
+            assertThatThrownBy(() -> build("{\"metadata\":"))
+                .isInstanceOf(ConceptMapReadException.class);
+            assertThatThrownBy(() -> build("[1,2,3]"))
+                .isInstanceOf(ConceptMapReadException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject trailing content after the root object")
+        void shouldRejectTrailingContent() {
+            assertThatThrownBy(() -> build("{} {}"))
+                .isInstanceOf(ConceptMapReadException.class);
+        }
+
+        @Test
+        @DisplayName("Should preserve numbers exactly while streaming")
+        void shouldPreserveNumbersExactly() throws Exception {
+            assertThat(build("{ \"strength\" : 2.50, \"size\" : 300 }").asString())
+                .isEqualTo("{\"strength\":2.50,\"size\":300}");
+        }
+
+        @Test
+        @DisplayName("Should cache the default snapshot across calls")
+        void shouldCacheDefaultSnapshot() throws Exception {
+            assertThat(service.getConceptMapSnapshot()).isSameAs(service.getConceptMapSnapshot());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming storage")
+    class StreamingStorageTests {
+
+        @Test
+        @DisplayName("Should keep small snapshots on the heap")
+        void shouldKeepSmallSnapshotsInMemory() throws Exception {
+            ConceptMapSnapshot snapshot = build(PRETTY_JSON);
+
+            assertThat(snapshot.getHeapWeight()).isGreaterThanOrEqualTo(snapshot.getContentLength());
+        }
+
+        @Test
+        @DisplayName("Should spill snapshots above the threshold to files and stream them back")
+        void shouldSpillLargeSnapshotsToFiles() throws Exception {
+            ConceptMapService spilling = ConceptMapService.builder(new ObjectMapper()).spillThresholdBytes(16).build();
+            ConceptMapSnapshot snapshot = spilling.buildSnapshot(
+                new ByteArrayInputStream(PRETTY_JSON.getBytes(StandardCharsets.UTF_8)));
+            Resource body = snapshot.asResource();
+
+            assertThat(snapshot.getHeapWeight()).isZero();
+            assertThat(body).isInstanceOf(FileSystemResource.class);
+            assertThat(body.contentLength()).isEqualTo(snapshot.getContentLength());
+            assertThat(body.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(build(PRETTY_JSON).asString());
+            assertThat(snapshot.getETag()).isEqualTo(build(PRETTY_JSON).getETag());
+        }
+    }
+
+    @Nested
+    @DisplayName("ETag handling")
+    class ETagTests {
+
+        @Test
+        @DisplayName("Should produce a quoted strong ETag that depends only on content")
+        void shouldProduceStableStrongETag() throws Exception {
+            ConceptMapSnapshot first = build(PRETTY_JSON);
+            ConceptMapSnapshot second = build(PRETTY_JSON.replace("\n", " "));
+
+            assertThat(first.getETag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+            assertThat(second.getETag()).isEqualTo(first.getETag());
+            assertThat(build("{\"metadata\":{}}").getETag()).isNotEqualTo(first.getETag());
+        }
+
+        @Test
+        @DisplayName("Should match exact, weak, listed and wildcard If-None-Match values")
+        void shouldMatchIfNoneMatchVariants() throws Exception {
+            ConceptMapSnapshot snapshot = build(PRETTY_JSON);
+            String tag = snapshot.getETag();
+
+            assertThat(snapshot.matchesETag(tag, ContentEncoding.IDENTITY)).isTrue();
+            assertThat(snapshot.matchesETag("W/" + tag, ContentEncoding.IDENTITY)).isTrue();
+            assertThat(snapshot.matchesETag("\"other\", " + tag, ContentEncoding.IDENTITY)).isTrue();
+            assertThat(snapshot.matchesETag("*", ContentEncoding.IDENTITY)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not match absent or different If-None-Match values")
+        void shouldNotMatchOtherValues() throws Exception {
+            ConceptMapSnapshot snapshot = build(PRETTY_JSON);
+
+            assertThat(snapshot.matchesETag(null, ContentEncoding.IDENTITY)).isFalse();
+            assertThat(snapshot.matchesETag("", ContentEncoding.IDENTITY)).isFalse();
+            assertThat(snapshot.matchesETag("\"other\"", ContentEncoding.IDENTITY)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Precompressed variants")
+    class VariantTests {
+
+        private final String verbose = "{\"metadata\":{\"description\":\"" + "scaffolded concept ".repeat(100) + "\"}}";
+
+        @Test
+        @DisplayName("Should store a smaller gzip variant that decompresses to the identity body")
+        void shouldStoreGzipVariant() throws Exception {
+            ConceptMapSnapshot snapshot = build(verbose);
+
+            assertThat(snapshot.getAvailableEncodings()).contains(ContentEncoding.GZIP, ContentEncoding.IDENTITY);
+            assertThat(snapshot.getContentLength(ContentEncoding.GZIP)).isLessThan(snapshot.getContentLength());
+            try (InputStream in = new GZIPInputStream(snapshot.asResource(ContentEncoding.GZIP).getInputStream())) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(snapshot.asString());
+            }
+        }
+
+        @Test
+        @DisplayName("Should give each variant a distinct ETag that matches only that variant")
+        void shouldUseDistinctVariantETags() throws Exception {
+            ConceptMapSnapshot snapshot = build(verbose);
+            String gzipTag = snapshot.getETag(ContentEncoding.GZIP);
+
+            assertThat(gzipTag).isNotEqualTo(snapshot.getETag()).endsWith("-gzip\"");
+            assertThat(snapshot.matchesETag(gzipTag, ContentEncoding.GZIP)).isTrue();
+            assertThat(snapshot.matchesETag(gzipTag, ContentEncoding.IDENTITY)).isFalse();
+            assertThat(snapshot.matchesETag(snapshot.getETag(), ContentEncoding.GZIP)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Accept-Encoding negotiation")
+    class NegotiationTests {
+
+        private final Set<ContentEncoding> both = EnumSet.of(ContentEncoding.GZIP, ContentEncoding.IDENTITY);
+
+        @Test
+        @DisplayName("Should prefer gzip when accepted")
+        void shouldPreferGzip() {
+            assertThat(ContentEncoding.negotiate("gzip, deflate, br", both)).isEqualTo(ContentEncoding.GZIP);
+            assertThat(ContentEncoding.negotiate("*", both)).isEqualTo(ContentEncoding.GZIP);
+            assertThat(ContentEncoding.negotiate("GZIP;q=0.5", both)).isEqualTo(ContentEncoding.GZIP);
+            assertThat(ContentEncoding.negotiate("gzip, identity;q=0", both)).isEqualTo(ContentEncoding.GZIP);
+            assertThat(ContentEncoding.negotiate("identity;q=0.5, *;q=0.8", both)).isEqualTo(ContentEncoding.GZIP);
+        }
+
+        @Test
+        @DisplayName("Should serve identity when gzip is refused, unavailable or less preferred")
+        void shouldFallBackToIdentity() {
+            assertThat(ContentEncoding.negotiate(null, both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("br", both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("gzip;q=0", both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("*;q=1, gzip;q=0", both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("gzip;q=0.5, identity", both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("gzip;q=0.5, *", both)).isEqualTo(ContentEncoding.IDENTITY);
+            assertThat(ContentEncoding.negotiate("gzip", EnumSet.of(ContentEncoding.IDENTITY)))
+                .isEqualTo(ContentEncoding.IDENTITY);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and heap allocation to parse the graph of each bundled dataset.
+ *
+ * <p>{@link #main} attaches the GC profiler, whose {@code gc.alloc.rate.norm} row is the bytes
+ * allocated per graph: an upper bound on what the graph retains, which
+ * {@link DatasetFootprintTest} checks against the share the dataset cache reserves for it. The
+ * snapshot the graph is parsed from is built once per trial and not counted.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.service.DatasetFootprintBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatasetFootprintBenchmark {
+
+    @Param({"concept-map.json", "concept-map-preview.json"})
+    String dataset;
+
+    ConceptMapService service;
+    ConceptMapSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ConceptMapReadException {
+        service = new ConceptMapService();
+        try (InputStream in = DatasetFootprintBenchmark.class.getClassLoader().getResourceAsStream(dataset)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing bundled dataset " + dataset);
+            }
+            snapshot = service.buildSnapshot(in);
+        }
+    }
+
+    @Benchmark
+    public DatasetGraph loadGraph() throws ConceptMapReadException {
+        return service.loadDatasetGraph(snapshot);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DatasetFootprintBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the heap retained by the parsed graph of each bundled dataset against the share that
+ * {@link Dataset#estimateWeight()} reserves for it in the dataset cache.
+ *
+ * <p>{@value #COPIES} graphs are kept alive at once and the heap growth is divided by that
+ * count, which averages out allocation noise. The snapshot they are parsed from exists before
+ * the measurement starts, so the figure covers the domain model, the adjacency index and the
+ * stored node and link objects.</p>
+ *
+ * <p>Tagged {@code large}: heap usage after {@link System#gc()} depends on the collector and on
+ * whatever else the JVM is doing, so the default build skips it and {@code mvn test -P
+ * large-tests} runs it in a JVM of its own. {@link DatasetFootprintBenchmark} reports the
+ * allocation per graph for the same datasets.</p>
+ */
+@Tag("large")
+class DatasetFootprintTest {
+
+    private static final int COPIES = 50;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"concept-map.json", "concept-map-preview.json"})
+    @DisplayName("Should retain no more heap per graph than the cache reserves for it")
+    void shouldStayWithinReservedWeight(final String dataset) throws Exception {
+        ConceptMapService service = new ConceptMapService();
+        ConceptMapSnapshot snapshot;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(dataset)) {
+            assertThat(in).as(dataset).isNotNull();
+            snapshot = service.buildSnapshot(in);
+        }
+
+        List<DatasetGraph> graphs = new ArrayList<>(COPIES);
+        long before = usedHeap();
+        for (int i = 0; i < COPIES; i++) {
+            graphs.add(service.loadDatasetGraph(snapshot));
+        }
+        long perGraph = (usedHeap() - before) / graphs.size();
+
+        assertThat(perGraph).as(dataset)
+            .isPositive()
+            .isLessThanOrEqualTo(Dataset.GRAPH_WEIGHT_FACTOR * snapshot.getContentLength());
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,197 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import edu.ewu.cscd211.conceptmap.model.Link;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the memory-mapped binary graph files written by the concept map service.
+ */
+class DatasetGraphFileTest {
+
+    private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\"},"
+            + "\"nodes\":["
+            + "{\"id\":\"a\",\"name\":\"A\",\"description\":\"first\",\"level\":1,\"group\":\"core\"},"
+            + "{\"id\":\"b\",\"name\":\"B\",\"description\":\"zweite Stufe é\",\"level\":2},"
+            + "{\"id\":\"c\",\"name\":\"C\",\"level\":3}],"
+            + "\"links\":["
+            + "{\"source\":\"a\",\"target\":\"b\",\"type\":\"prerequisite\",\"strength\":0.9},"
+            + "{\"source\":\"b\",\"target\":\"c\",\"type\":\"related\"}]}";
+
+    @TempDir
+    Path graphDirectory;
+
+    private ConceptMapService service;
+    private ConceptMapSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws ConceptMapReadException {
+        service = ConceptMapService.builder(new ObjectMapper())
+            .graphCacheDirectory(graphDirectory.toString())
+            .build();
+        snapshot = service.buildSnapshot(DATASET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> graphFiles() throws IOException {
+        try (Stream<Path> files = Files.list(graphDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".cmgraph")).toList();
+        }
+    }
+
+    @Nested
+    @DisplayName("Round trip")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should write a file on first load and map it on the next")
+        void shouldMapFileOnNextLoad() throws Exception {
+            DatasetGraph parsed = service.loadDatasetGraph(snapshot);
+            assertThat(graphFiles()).hasSize(1);
+
+            DatasetGraph mapped = service.loadDatasetGraph(snapshot);
+
+            assertThat(mapped).isNotSameAs(parsed);
+            assertThat(mapped.getAdjacency().getGraph().isOffHeap()).isTrue();
+            assertThat(mapped.getAdjacency().getNodes()).isEqualTo(parsed.getAdjacency().getNodes());
+            assertThat(mapped.getAdjacency().getLinks()).isEqualTo(parsed.getAdjacency().getLinks());
+            assertThat(mapped.getAdjacency().getNodes().get(1).getDescription()).isEqualTo("zweite Stufe é");
+            assertThat(mapped.getAdjacency().getNodes().get(0).getGroup()).isEqualTo("core");
+            assertThat(mapped.getAdjacency().getNodes().get(2).getLevel()).isEqualTo(3.0);
+            assertThat(mapped.getAdjacency().getNodes().get(2).getSize()).isNaN();
+            assertThat(mapped.getAdjacency().getLinks().get(0).getStrength()).isEqualTo(0.9);
+            assertThat(mapped.getAdjacency().getLinks().get(1).getAttributes())
+                .isEqualTo(parsed.getAdjacency().getLinks().get(1).getAttributes());
+            assertThat(mapped.getMetadata().getDescription()).isEqualTo("sample");
+            assertThat(mapped.metadataJson()).isEqualTo(parsed.metadataJson());
+            assertThat(mapped.nodeJson("a")).isEqualTo(parsed.nodeJson("a")).contains("\"group\":\"core\"");
+            assertThat(mapped.nodeJson("missing")).isNull();
+            assertThat(mapped.linkJson(new Link("a", "b", "prerequisite"))).isEqualTo(parsed.linkJson(0));
+            assertThat(mapped.getAdjacency().getGraph().strength(0)).isEqualTo(0.9f);
+            assertThat(mapped.getAdjacency().neighborhood("b", 1, Direction.BOTH, Set.of("related")).getLinks())
+                .containsExactly(new Link("b", "c", "related"));
+        }
+
+        @Test
+        @DisplayName("Should serve the file it writes on the first load")
+        void shouldServeWrittenFile() throws Exception {
+            DatasetGraph graph = service.loadDatasetGraph(snapshot);
+
+            assertThat(graph.getAdjacency().getGraph().isOffHeap()).isTrue();
+            assertThat(graph.nodeJson("b")).isEqualTo(
+                "{\"id\":\"b\",\"name\":\"B\",\"description\":\"zweite Stufe \u00e9\",\"level\":2}");
+            assertThat(graph.linkJson(1)).isEqualTo("{\"source\":\"b\",\"target\":\"c\",\"type\":\"related\"}");
+        }
+
+        @Test
+        @DisplayName("Should build the concept map of a mapped graph on demand")
+        void shouldBuildConceptMapOnDemand() throws Exception {
+            DatasetGraph parsed = service.loadDatasetGraph(snapshot);
+
+            DatasetGraph mapped = service.loadDatasetGraph(snapshot);
+
+            assertThat(mapped.getConceptMap().isFrozen()).isTrue();
+            assertThat(mapped.getConceptMap().getNodes()).isEqualTo(parsed.getConceptMap().getNodes());
+            assertThat(mapped.getConceptMap().getOutgoingLinks("a")).isEqualTo(parsed.getConceptMap().getOutgoingLinks("a"));
+            assertThat(mapped.getConceptMap()).isNotSameAs(mapped.getConceptMap());
+        }
+
+        @Test
+        @DisplayName("Should export a mapped graph like its concept map")
+        void shouldExportMappedGraph() throws Exception {
+            DatasetGraph mapped = service.loadDatasetGraph(snapshot);
+
+            for (String format : service.getExportFormats()) {
+                ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+                ByteArrayOutputStream built = new ByteArrayOutputStream();
+                mapped.export(service.getExporter(format), streamed);
+                service.exportConceptMap(mapped.getConceptMap(), format, built);
+
+                assertThat(streamed.toString(StandardCharsets.UTF_8)).as(format)
+                    .isEqualTo(built.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should write a new file when the dataset content changes")
+        void shouldWriteNewFileForChangedContent() throws Exception {
+            service.loadDatasetGraph(snapshot);
+            ConceptMapSnapshot changed = service.buildSnapshot(
+                DATASET.replace("\"sample\"", "\"changed\"").getBytes(StandardCharsets.UTF_8));
+
+            DatasetGraph graph = service.loadDatasetGraph(changed);
+
+            assertThat(graph.getMetadata().getDescription()).isEqualTo("changed");
+            assertThat(graphFiles()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should delete the file a dataset's new content supersedes, and only that one")
+        void shouldDeleteSupersededFile() throws Exception {
+            service.loadDatasetGraph("sample", snapshot);
+            service.loadDatasetGraph("sample-copy", snapshot);
+            Path other = graphFiles().stream()
+                .filter(file -> file.getFileName().toString().startsWith("sample-copy-"))
+                .findFirst().orElseThrow();
+            ConceptMapSnapshot changed = service.buildSnapshot(
+                DATASET.replace("\"sample\"", "\"changed\"").getBytes(StandardCharsets.UTF_8));
+
+            DatasetGraph graph = service.loadDatasetGraph("sample", changed);
+
+            assertThat(graph.getMetadata().getDescription()).isEqualTo("changed");
+            assertThat(graphFiles()).hasSize(2).contains(other);
+            assertThat(service.loadDatasetGraph("sample", changed).getAdjacency().getGraph().isOffHeap()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reparse and rewrite a file with a damaged header")
+        void shouldReparseDamagedFile() throws Exception {
+            service.loadDatasetGraph(snapshot);
+            Path file = graphFiles().get(0);
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[8] ^= 1;
+            Files.write(file, bytes);
+
+            DatasetGraph graph = service.loadDatasetGraph(snapshot);
+
+            assertThat(graph.nodeJson("c")).isEqualTo("{\"id\":\"c\",\"name\":\"C\",\"level\":3}");
+            assertThat(Files.readAllBytes(file)).isNotEqualTo(bytes);
+            assertThat(service.loadDatasetGraph(snapshot).getAdjacency().getGraph().isOffHeap()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reparse and rewrite a truncated file")
+        void shouldReparseTruncatedFile() throws Exception {
+            service.loadDatasetGraph(snapshot);
+            Path file = graphFiles().get(0);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+            DatasetGraph graph = service.loadDatasetGraph(snapshot);
+
+            assertThat(graph.nodeJson("c")).isEqualTo("{\"id\":\"c\",\"name\":\"C\",\"level\":3}");
+            assertThat(Files.readAllBytes(file)).isEqualTo(bytes);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.graph.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for dataset queries against a small on-disk dataset.
+ */
+class DatasetQueryServiceTest {
+
+    private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\",\"last_updated\":\"2025-08-16T23:55:00Z\"},"
+            + "\"nodes\":["
+            + "{\"id\":\"a\",\"name\":\"A\",\"description\":\"first\",\"level\":1,\"group\":\"core\"},"
+            + "{\"id\":\"b\",\"name\":\"B\",\"description\":\"second\",\"level\":2},"
+            + "{\"id\":\"c\",\"name\":\"C\",\"description\":\"third\",\"level\":3}],"
+            + "\"links\":["
+            + "{\"source\":\"a\",\"target\":\"b\",\"type\":\"prerequisite\",\"strength\":0.9},"
+            + "{\"source\":\"b\",\"target\":\"c\",\"type\":\"related\"}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dataDirectory;
+
+    private DatasetQueryService queryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dataDirectory.resolve("manifest.json"), "[{\"file\":\"sample.json\"}]", StandardCharsets.UTF_8);
+        Files.writeString(dataDirectory.resolve("sample.json"), DATASET, StandardCharsets.UTF_8);
+        ConceptMapService conceptMapService = new ConceptMapService();
+        DatasetRegistry registry = new DatasetRegistry(conceptMapService, objectMapper, new DefaultResourceLoader(),
+                dataDirectory.resolve("manifest.json").toUri().toString(), 1024 * 1024, 64 * 1024);
+        queryService = new DatasetQueryService(registry, conceptMapService);
+    }
+
+    @Nested
+    @DisplayName("Neighborhoods")
+    class NeighborhoodTests {
+
+        @Test
+        @DisplayName("Should return full node and link objects of the induced subgraph")
+        void shouldReturnFullObjects() throws Exception {
+            JsonNode result = objectMapper.readTree(
+                queryService.getNeighborhood("sample", "a", 1, Direction.BOTH, null).asString());
+
+            assertThat(result.get("center").asText()).isEqualTo("a");
+            assertThat(result.get("nodes")).hasSize(2);
+            assertThat(result.get("nodes").get(0).get("group").asText()).isEqualTo("core");
+            assertThat(result.get("links")).hasSize(1);
+            assertThat(result.get("links").get(0).get("strength").asDouble()).isEqualTo(0.9);
+        }
+
+        @Test
+        @DisplayName("Should cache results per normalized query")
+        void shouldCacheResults() throws Exception {
+            ConceptMapSnapshot first = queryService.getNeighborhood("sample", "b", 1, Direction.OUT, List.of("related", "prerequisite"));
+            ConceptMapSnapshot second = queryService.getNeighborhood("sample", "b", 1, Direction.OUT, List.of(" prerequisite", "related"));
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.getLastModified()).hasToString("2025-08-16T23:55:00Z");
+        }
+
+        @Test
+        @DisplayName("Should report unknown nodes as not found and reject excessive depth")
+        void shouldRejectInvalidQueries() {
+            assertThatThrownBy(() -> queryService.getNeighborhood("sample", "zzz", 1, Direction.BOTH, null))
+                .isInstanceOf(ConceptMapNotFoundException.class);
+            assertThatThrownBy(() -> queryService.getNeighborhood("sample", "a",
+                    DatasetQueryService.MAX_NEIGHBORHOOD_DEPTH + 1, Direction.BOTH, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Projections and details")
+    class ProjectionTests {
+
+        @Test
+        @DisplayName("Should keep only skeleton fields and the metadata")
+        void shouldBuildSkeleton() throws Exception {
+            JsonNode skeleton = objectMapper.readTree(queryService.getSkeleton("sample").asString());
+
+            assertThat(skeleton.get("metadata").get("version").asText()).isEqualTo("1.0");
+            assertThat(skeleton.get("nodes").get(0).fieldNames()).toIterable()
+                .containsExactly("id", "name", "level", "group");
+            assertThat(skeleton.get("links").get(0).fieldNames()).toIterable()
+                .containsExactly("source", "target", "type", "strength");
+        }
+
+        @Test
+        @DisplayName("Should always keep identity fields and preserve exact numbers")
+        void shouldProjectRequestedFields() throws Exception {
+            String projection = queryService.getProjection("sample", List.of("strength")).asString();
+
+            assertThat(projection).contains("{\"id\":\"a\"}", "{\"source\":\"a\",\"target\":\"b\",\"strength\":0.9}");
+            assertThat(queryService.getProjection("sample", List.of("strength"))).isSameAs(
+                queryService.getProjection("sample", List.of(" strength ")));
+        }
+
+        @Test
+        @DisplayName("Should serve complete node and link objects by id and index")
+        void shouldServeDetails() throws Exception {
+            assertThat(queryService.getNodeDetail("sample", "a").asString())
+                .isEqualTo("{\"id\":\"a\",\"name\":\"A\",\"description\":\"first\",\"level\":1,\"group\":\"core\"}");
+            assertThat(queryService.getLinkDetail("sample", 1).asString())
+                .isEqualTo("{\"source\":\"b\",\"target\":\"c\",\"type\":\"related\"}");
+            assertThatThrownBy(() -> queryService.getNodeDetail("sample", "zzz"))
+                .isInstanceOf(ConceptMapNotFoundException.class);
+            assertThatThrownBy(() -> queryService.getLinkDetail("sample", 2))
+                .isInstanceOf(ConceptMapNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMapValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the manifest-driven dataset registry.
+ */
+class DatasetRegistryTest {
+
+    private static final String MANIFEST = "[{\"file\":\"alpha.json\",\"name\":\"Alpha\"},"
+            + "{\"file\":\"beta.json\"},{\"file\":\"missing.json\",\"name\":\"Missing\"}]";
+
+    @TempDir
+    Path dataDirectory;
+
+    private DatasetRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("manifest.json", MANIFEST);
+        write("alpha.json", "{\"metadata\":{\"version\":\"1\",\"description\":\"alpha\"},\"nodes\":[],\"links\":[]}");
+        write("beta.json", "{\"metadata\":{\"version\":\"1\",\"description\":\"beta\"},\"nodes\":[],\"links\":[]}");
+        registry = registryWithBudget(1024 * 1024);
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        Files.writeString(dataDirectory.resolve(file), content, StandardCharsets.UTF_8);
+    }
+
+    private DatasetRegistry registryWithBudget(final long cacheMaxBytes) {
+        return new DatasetRegistry(new ConceptMapService(), new ObjectMapper(), new DefaultResourceLoader(),
+                dataDirectory.resolve("manifest.json").toUri().toString(), cacheMaxBytes, 64 * 1024);
+    }
+
+    @Nested
+    @DisplayName("Manifest")
+    class ManifestTests {
+
+        @Test
+        @DisplayName("Should list datasets in manifest order with ids derived from file names")
+        void shouldListDatasets() throws Exception {
+            assertThat(registry.listDatasets())
+                .extracting(DatasetDescriptor::getId)
+                .containsExactly("alpha", "beta", "missing");
+            assertThat(registry.listDatasets().get(1).getName()).isEqualTo("beta");
+        }
+
+        @Test
+        @DisplayName("Should expose the catalog as a cacheable snapshot")
+        void shouldBuildCatalogSnapshot() throws Exception {
+            ConceptMapSnapshot catalog = registry.getCatalogSnapshot();
+
+            assertThat(catalog.asString()).startsWith("{\"datasets\":[{\"id\":\"alpha\",\"name\":\"Alpha\",\"file\":\"alpha.json\"}");
+            assertThat(registry.getCatalogSnapshot()).isSameAs(catalog);
+        }
+
+        @Test
+        @DisplayName("Should report a malformed manifest as a read failure")
+        void shouldRejectMalformedManifest() throws Exception {
+            write("manifest.json", "{\"file\":\"alpha.json\"}");
+
+            assertThatThrownBy(() -> registryWithBudget(1024).listDatasets())
+                .isInstanceOf(ConceptMapReadException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Lazy loading")
+    class LoadingTests {
+
+        @Test
+        @DisplayName("Should load a dataset on first request and reuse it afterwards")
+        void shouldLoadLazilyAndCache() throws Exception {
+            assertThat(registry.cachedDatasetCount()).isZero();
+
+            ConceptMapSnapshot first = registry.getSnapshot("alpha");
+
+            assertThat(first.asString()).contains("\"alpha\"");
+            assertThat(registry.getSnapshot("alpha")).isSameAs(first);
+            assertThat(registry.cachedDatasetCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should evict cold datasets when the budget is exceeded")
+        void shouldEvictColdDatasets() throws Exception {
+            long alphaWeight = registry.getDataset("alpha").estimateWeight();
+            DatasetRegistry small = registryWithBudget(alphaWeight);
+
+            ConceptMapSnapshot alpha = small.getSnapshot("alpha");
+            small.getSnapshot("beta");
+
+            assertThat(small.cachedDatasetCount()).isEqualTo(1);
+            assertThat(small.getSnapshot("alpha")).isNotSameAs(alpha);
+            assertThat(small.getSnapshot("alpha").getETag()).isEqualTo(alpha.getETag());
+        }
+
+        @Test
+        @DisplayName("Should swap in a reloaded dataset and leave the old instance intact")
+        void shouldSwapInReloadedDataset() throws Exception {
+            Dataset before = registry.getDataset("alpha");
+            write("alpha.json", "{\"metadata\":{\"version\":\"1\",\"description\":\"alpha 2\"},\"nodes\":[],\"links\":[]}");
+
+            Dataset after = registry.reload("alpha");
+
+            assertThat(registry.getDataset("alpha")).isSameAs(after);
+            assertThat(after.getSnapshot().asString()).contains("alpha 2");
+            assertThat(before.getSnapshot().asString()).doesNotContain("alpha 2");
+            assertThat(registry.cachedDatasetCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep serving the cached dataset when a reload breaks the schema")
+        void shouldRejectReloadThatBreaksSchema() throws Exception {
+            Dataset before = registry.getDataset("alpha");
+            write("alpha.json", "{\"metadata\":{\"version\":\"1\",\"description\":\"alpha 2\",\"total_nodes\":1},"
+                    + "\"nodes\":[{\"id\":\"a\",\"name\":\"A\",\"level\":-1}],\"links\":[]}");
+
+            assertThatThrownBy(() -> registry.reload("alpha"))
+                .isInstanceOf(ConceptMapReadException.class)
+                .hasMessageContaining("nodes[0]: Field 'level' must be at least 0")
+                .hasCauseInstanceOf(ConceptMapValidationException.class);
+            assertThat(registry.getDataset("alpha")).isSameAs(before);
+            assertThatThrownBy(() -> registryWithBudget(1024 * 1024).getSnapshot("alpha"))
+                .isInstanceOf(ConceptMapReadException.class);
+        }
+
+        @Test
+        @DisplayName("Should report unknown ids and missing files as not found")
+        void shouldReportMissingDatasets() {
+            assertThatThrownBy(() -> registry.getSnapshot("nope"))
+                .isInstanceOf(ConceptMapNotFoundException.class);
+            assertThatThrownBy(() -> registry.getSnapshot("missing"))
+                .isInstanceOf(ConceptMapNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import edu.ewu.cscd211.conceptmap.model.Node;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads a concept map several times larger than the heap.
+ *
+ * <p>Tagged {@code large}: the default build skips it, and {@code mvn test -P large-tests} runs
+ * it in a 256 MB heap. The generated map is about 500 MB, nearly all of it in the rich fields
+ * that {@link ConceptMapService#mapConceptMapFromJson}, the public loader for maps larger than
+ * the heap, leaves in the file. The other loaders copy those fields onto the heap and are not
+ * expected to pass.</p>
+ */
+@Tag("large")
+class LargeConceptMapLoadTest {
+
+    private static final int NODE_COUNT = 100_000;
+    private static final int NOTE_LENGTH = 5_400;
+    private static final long MIN_FILE_BYTES = 500L * 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private static void writeMap(final Path file) throws IOException {
+        final String note = "x".repeat(NOTE_LENGTH);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("metadata");
+            generator.writeStringField("version", "1.0");
+            generator.writeStringField("description", "generated");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("nodes");
+            for (int i = 0; i < NODE_COUNT; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("id", "n" + i);
+                generator.writeStringField("name", "Node " + i);
+                generator.writeNumberField("level", i % 5);
+                generator.writeStringField("notes", note);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int i = 1; i < NODE_COUNT; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("source", "n" + (i - 1));
+                generator.writeStringField("target", "n" + i);
+                generator.writeStringField("type", "next");
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load a 500 MB map without holding its rich fields on the heap")
+    void shouldLoadMapLargerThanHeap() throws IOException {
+        Path file = directory.resolve("large.json");
+        writeMap(file);
+        assertThat(Files.size(file)).isGreaterThan(MIN_FILE_BYTES);
+
+        ConceptMap conceptMap = new ConceptMapService(new ObjectMapper()).mapConceptMapFromJson(file);
+
+        assertThat(conceptMap.getNodes()).hasSize(NODE_COUNT);
+        assertThat(conceptMap.getLinks()).hasSize(NODE_COUNT - 1);
+        Node last = conceptMap.findNodeById("n" + (NODE_COUNT - 1));
+        assertThat(last.getLevel()).isEqualTo(4.0);
+        assertThat(last.getAttributes().getString("notes")).hasSize(NOTE_LENGTH);
+    }
+}
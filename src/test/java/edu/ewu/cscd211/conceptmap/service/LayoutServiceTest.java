@@ -0,0 +1,215 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.layout.BarnesHutLayout;
+import edu.ewu.cscd211.conceptmap.layout.Layout;
+import edu.ewu.cscd211.conceptmap.layout.LayoutEngine;
+import edu.ewu.cscd211.conceptmap.layout.LayoutGraph;
+import edu.ewu.cscd211.conceptmap.layout.LayoutOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for server-side layouts and their persistence.
+ */
+class LayoutServiceTest {
+
+    private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\",\"last_updated\":\"2025-08-16T23:55:00Z\"},"
+            + "\"nodes\":["
+            + "{\"id\":\"stack\",\"name\":\"Stack\",\"size\":100,\"x\":5,\"examples\":[\"Undo history\"]},"
+            + "{\"id\":\"queue\",\"name\":\"Queue\",\"level\":\"2\"},"
+            + "{\"id\":\"deque\",\"name\":\"Deque\",\"_radius\":20}],"
+            + "\"links\":[{\"source\":\"stack\",\"target\":\"queue\",\"type\":\"related\"},"
+            + "{\"source\":\"queue\",\"target\":\"deque\",\"type\":\"related\"}]}";
+
+    private static final LayoutOptions OPTIONS = new LayoutOptions(800, 600, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dataDirectory;
+
+    @TempDir
+    Path layoutDirectory;
+
+    private ConceptMapService conceptMapService;
+    private DatasetRegistry registry;
+    private LayoutService layoutService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dataDirectory.resolve("manifest.json"), "[{\"file\":\"sample.json\"}]", StandardCharsets.UTF_8);
+        Files.writeString(dataDirectory.resolve("sample.json"), DATASET, StandardCharsets.UTF_8);
+        conceptMapService = new ConceptMapService();
+        registry = newRegistry();
+        layoutService = new LayoutService(registry, conceptMapService, layoutDirectory.toString());
+    }
+
+    private DatasetRegistry newRegistry() {
+        return new DatasetRegistry(conceptMapService, objectMapper, new DefaultResourceLoader(),
+                dataDirectory.resolve("manifest.json").toUri().toString(), 1024 * 1024, 64 * 1024);
+    }
+
+    private List<Path> layoutFiles() throws IOException {
+        try (Stream<Path> files = Files.list(layoutDirectory)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should place and size every node while keeping its other fields")
+    void shouldLayOutNodes() throws Exception {
+        JsonNode result = objectMapper.readTree(layoutService.getLayout("sample", null, OPTIONS).asString());
+
+        assertThat(result.get("layout").get("engine").asText()).isEqualTo("force");
+        assertThat(result.get("layout").get("width").asInt()).isEqualTo(800);
+        assertThat(result.get("links")).hasSize(2);
+        JsonNode stack = result.get("nodes").get(0);
+        assertThat(stack.get("examples").get(0).asText()).isEqualTo("Undo history");
+        assertThat(stack.get("x").asDouble()).isNotEqualTo(5.0);
+        assertThat(stack.get("_radius").asDouble()).isEqualTo(16.0);
+        assertThat(result.get("nodes").get(1).get("_radius").asDouble()).isEqualTo(10.93);
+        assertThat(result.get("nodes").get(2).get("_radius").asDouble()).isEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("Should persist layouts and reuse them after a restart")
+    void shouldPersistLayouts() throws Exception {
+        ConceptMapSnapshot computed = layoutService.getLayout("sample", null, OPTIONS);
+        assertThat(layoutService.getLayout("sample", null, OPTIONS)).isSameAs(computed);
+        assertThat(layoutFiles()).hasSize(1);
+        Path file = layoutFiles().get(0);
+        assertThat(Files.readString(file)).startsWith("{\"nodes\":[\"stack\",\"queue\",\"deque\"]");
+
+        LayoutService restarted = new LayoutService(newRegistry(), conceptMapService, layoutDirectory.toString());
+        ConceptMapSnapshot reloaded = restarted.getLayout("sample", null, OPTIONS);
+
+        assertThat(reloaded.asString()).isEqualTo(computed.asString());
+        assertThat(layoutFiles()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should recompute when a persisted layout is damaged")
+    void shouldRecomputeDamagedLayouts() throws Exception {
+        ConceptMapSnapshot computed = layoutService.getLayout("sample", null, OPTIONS);
+        Files.writeString(layoutFiles().get(0), "{\"nodes\":[\"other\"],\"x\":[1],\"y\":[2]}", StandardCharsets.UTF_8);
+
+        LayoutService restarted = new LayoutService(newRegistry(), conceptMapService, layoutDirectory.toString());
+
+        assertThat(restarted.getLayout("sample", null, OPTIONS).asString()).isEqualTo(computed.asString());
+        assertThat(Files.readString(layoutFiles().get(0))).contains("\"stack\"");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown engines, anchors and datasets")
+    void shouldRejectInvalidRequests() {
+        assertThatThrownBy(() -> layoutService.getLayout("sample", "spring", OPTIONS))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> layoutService.getLayout("sample", null, new LayoutOptions(800, 600, "missing")))
+            .isInstanceOf(ConceptMapNotFoundException.class);
+        assertThatThrownBy(() -> layoutService.getLayout("missing", null, OPTIONS))
+            .isInstanceOf(ConceptMapNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should round the canvas so nearby sizes share one layout")
+    void shouldQuantizeCanvasSizes() throws Exception {
+        ConceptMapSnapshot computed = layoutService.getLayout("sample", null, OPTIONS);
+        ConceptMapSnapshot nearby = layoutService.getLayout("sample", null, new LayoutOptions(810, 590, null));
+        JsonNode smallest = objectMapper.readTree(
+                layoutService.getLayout("sample", null, new LayoutOptions(LayoutOptions.MIN_SIZE, 20000, null)).asString());
+
+        assertThat(nearby).isSameAs(computed);
+        assertThat(layoutFiles()).hasSize(2);
+        assertThat(smallest.get("layout").get("width").asInt()).isEqualTo(LayoutService.CANVAS_STEP);
+        assertThat(smallest.get("layout").get("height").asInt()).isEqualTo(LayoutOptions.MAX_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should compute a layout once for concurrent requests")
+    void shouldComputeConcurrentRequestsOnce() throws Exception {
+        SlowEngine engine = new SlowEngine();
+        LayoutService service = new LayoutService(registry, conceptMapService, layoutDirectory.toString(), List.of(engine));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getLayout("sample", null, OPTIONS).asString();
+                }));
+            }
+            start.countDown();
+            String first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(engine.computations.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should delete layouts for earlier content and bound the files per dataset")
+    void shouldPruneLayoutFiles() throws Exception {
+        layoutService.getLayout("sample", null, OPTIONS);
+        Files.writeString(dataDirectory.resolve("sample.json"), DATASET.replace("sample", "changed"), StandardCharsets.UTF_8);
+
+        LayoutService changed = new LayoutService(newRegistry(), conceptMapService, layoutDirectory.toString());
+        changed.getLayout("sample", null, OPTIONS);
+        assertThat(layoutFiles()).hasSize(1);
+
+        for (int i = 0; i <= LayoutService.MAX_LAYOUT_FILES_PER_DATASET; i++) {
+            int width = LayoutOptions.MAX_SIZE - i * LayoutService.CANVAS_STEP;
+            changed.getLayout("sample", null, new LayoutOptions(width, 600, null));
+        }
+        assertThat(layoutFiles()).hasSize(LayoutService.MAX_LAYOUT_FILES_PER_DATASET);
+    }
+
+    /** Counts computations and holds each one long enough for concurrent requests to overlap. */
+    private static final class SlowEngine implements LayoutEngine {
+
+        private final LayoutEngine delegate = new BarnesHutLayout();
+        private final AtomicInteger computations = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Layout compute(final LayoutGraph graph, final LayoutOptions options) {
+            computations.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.compute(graph, options);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ewu.cscd211.conceptmap.model.ConceptMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speedup of parallel ingest over sequential parsing against pool size.
+ *
+ * <p>Each trial writes a synthetic catalog with 500,000 nodes and 500,000 links, one million
+ * elements in all, and loads it from the mapped file. {@code sequential} is the single-pass
+ * reader; {@code parallel} cuts the arrays into chunks and parses them on a pool of the given
+ * size.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.service.ParallelIngestBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ParallelIngestBenchmark {
+
+    private static final int ELEMENTS = 1_000_000;
+    private static final String[] TYPES = {"prerequisite", "related", "extends"};
+
+    @State(Scope.Benchmark)
+    public static class CatalogFile {
+
+        Path file;
+        ConceptMapService service;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("ingest-benchmark", ".json");
+            writeCatalog(file, ELEMENTS / 2, 211L);
+            // Sequential unless a pool is passed
+            service = ConceptMapService.builder(new ObjectMapper()).parallelIngestMinBytes(Long.MAX_VALUE).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8"})
+        int parallelism;
+
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public ConceptMap sequential(final CatalogFile catalog) throws IOException {
+        return catalog.service.loadConceptMapFromJson(catalog.file);
+    }
+
+    @Benchmark
+    public ConceptMap parallel(final CatalogFile catalog, final Pool pool) throws IOException {
+        return catalog.service.loadConceptMapFromJson(catalog.file, pool.pool);
+    }
+
+    /** Writes courses with a description and level each, linked to a random earlier course. */
+    static void writeCatalog(final Path file, final int nodes, final long seed) throws IOException {
+        final Random random = new Random(seed);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("metadata");
+            generator.writeStringField("version", "1.0");
+            generator.writeStringField("description", "synthetic catalog");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("nodes");
+            for (int i = 0; i < nodes; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("id", "course-" + i);
+                generator.writeStringField("name", "Course " + i);
+                generator.writeStringField("description", "Covers topic " + random.nextInt(10_000) + " in depth");
+                generator.writeNumberField("level", random.nextInt(5));
+                generator.writeStringField("group", "department-" + i / 200);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int i = 0; i < nodes; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("source", "course-" + i);
+                generator.writeStringField("target", "course-" + (i == 0 ? 1 : random.nextInt(i)));
+                generator.writeStringField("type", TYPES[random.nextInt(TYPES.length)]);
+                generator.writeNumberField("strength", random.nextInt(100) / 100.0);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelIngestBenchmark.class.getSimpleName()).build()).run();
+    }
+}
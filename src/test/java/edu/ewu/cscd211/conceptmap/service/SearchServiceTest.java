@@ -0,0 +1,83 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for dataset search against a small on-disk dataset.
+ */
+class SearchServiceTest {
+
+    private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\",\"last_updated\":\"2025-08-16T23:55:00Z\"},"
+            + "\"nodes\":["
+            + "{\"id\":\"stack\",\"name\":\"Stack\",\"description\":\"Last in, first out collection.\","
+            + "\"examples\":[\"Undo history\",{\"title\":\"Call stack frames\"}]},"
+            + "{\"id\":\"queue\",\"name\":\"Queue\",\"description\":\"First in, first out collection.\"}],"
+            + "\"links\":[{\"source\":\"stack\",\"target\":\"queue\",\"type\":\"related\"}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dataDirectory;
+
+    private DatasetRegistry registry;
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dataDirectory.resolve("manifest.json"), "[{\"file\":\"sample.json\"}]", StandardCharsets.UTF_8);
+        Files.writeString(dataDirectory.resolve("sample.json"), DATASET, StandardCharsets.UTF_8);
+        ConceptMapService conceptMapService = new ConceptMapService();
+        registry = new DatasetRegistry(conceptMapService, objectMapper, new DefaultResourceLoader(),
+                dataDirectory.resolve("manifest.json").toUri().toString(), 1024 * 1024, 64 * 1024);
+        searchService = new SearchService(registry, conceptMapService);
+    }
+
+    @Test
+    @DisplayName("Should search the first dataset by default and index strings nested in array fields")
+    void shouldSearchRichFields() throws Exception {
+        JsonNode result = objectMapper.readTree(searchService.search(null, "Undo frames", 10).asString());
+
+        assertThat(result.get("dataset").asText()).isEqualTo("sample");
+        assertThat(result.get("query").asText()).isEqualTo("undo frames");
+        assertThat(result.get("hits")).hasSize(1);
+        assertThat(result.get("hits").get(0).get("id").asText()).isEqualTo("stack");
+        assertThat(result.get("hits").get(0).get("field").asText()).isEqualTo("details");
+    }
+
+    @Test
+    @DisplayName("Should cache results per normalized query and rebuild after a reload")
+    void shouldCacheAndRebuild() throws Exception {
+        ConceptMapSnapshot first = searchService.search("sample", "collection", 10);
+        assertThat(searchService.search("sample", "  COLLECTION!", 10)).isSameAs(first);
+
+        registry.evict("sample");
+        ConceptMapSnapshot reloaded = searchService.search("sample", "collection", 10);
+
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.asString()).isEqualTo(first.asString());
+    }
+
+    @Test
+    @DisplayName("Should reject empty queries and unknown datasets")
+    void shouldRejectInvalidQueries() {
+        assertThatThrownBy(() -> searchService.search("sample", " ?! ", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("sample", "stack", SearchService.MAX_LIMIT + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("missing", "stack", 10))
+            .isInstanceOf(ConceptMapNotFoundException.class);
+    }
+}
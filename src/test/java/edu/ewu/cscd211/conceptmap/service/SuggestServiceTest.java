@@ -0,0 +1,116 @@
+package edu.ewu.cscd211.conceptmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for name suggestions against small on-disk datasets.
+ */
+class SuggestServiceTest {
+
+    private static final String DATASET = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"sample\",\"last_updated\":\"2025-08-16T23:55:00Z\"},"
+            + "\"nodes\":["
+            + "{\"id\":\"stack\",\"name\":\"Stack\"},"
+            + "{\"id\":\"static-method\",\"name\":\"Static Method\"},"
+            + "{\"id\":\"queue\",\"name\":\"Queue\"}],"
+            + "\"links\":[{\"source\":\"stack\",\"target\":\"queue\",\"type\":\"related\"},"
+            + "{\"source\":\"static-method\",\"target\":\"stack\",\"type\":\"related\"}]}";
+    private static final String OTHER = "{\"metadata\":{\"version\":\"1.0\",\"description\":\"other\"},"
+            + "\"nodes\":[{\"id\":\"stream\",\"name\":\"Stream\"}],\"links\":[]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dataDirectory;
+
+    private DatasetRegistry registry;
+    private SuggestService suggestService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dataDirectory.resolve("manifest.json"),
+                "[{\"file\":\"sample.json\"},{\"file\":\"other.json\"}]", StandardCharsets.UTF_8);
+        Files.writeString(dataDirectory.resolve("sample.json"), DATASET, StandardCharsets.UTF_8);
+        Files.writeString(dataDirectory.resolve("other.json"), OTHER, StandardCharsets.UTF_8);
+        ConceptMapService conceptMapService = new ConceptMapService();
+        registry = new DatasetRegistry(conceptMapService, objectMapper, new DefaultResourceLoader(),
+                dataDirectory.resolve("manifest.json").toUri().toString(), 1024 * 1024, 64 * 1024);
+        suggestService = new SuggestService(registry, conceptMapService);
+    }
+
+    @Test
+    @DisplayName("Should suggest from the first dataset of the manifest by default, best connected first")
+    void shouldSuggestFromDefaultDataset() throws Exception {
+        JsonNode result = objectMapper.readTree(suggestService.suggest(null, "Sta", SuggestService.DEFAULT_LIMIT).asString());
+
+        assertThat(result.get("dataset").asText()).isEqualTo("sample");
+        assertThat(result.get("prefix").asText()).isEqualTo("sta");
+        assertThat(result.get("suggestions")).hasSize(2);
+        assertThat(result.get("suggestions").get(0).get("id").asText()).isEqualTo("stack");
+        assertThat(result.get("suggestions").get(0).get("degree").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should suggest from the requested dataset")
+    void shouldSuggestFromRequestedDataset() throws Exception {
+        JsonNode result = objectMapper.readTree(suggestService.suggest("other", "st", SuggestService.DEFAULT_LIMIT).asString());
+
+        assertThat(result.get("dataset").asText()).isEqualTo("other");
+        assertThat(result.get("suggestions")).hasSize(1);
+        assertThat(result.get("suggestions").get(0).get("id").asText()).isEqualTo("stream");
+    }
+
+    @Test
+    @DisplayName("Should return at most limit suggestions and accept limits from 1 to the maximum")
+    void shouldHonorLimitBounds() throws Exception {
+        JsonNode one = objectMapper.readTree(suggestService.suggest("sample", "sta", 1).asString());
+        JsonNode most = objectMapper.readTree(suggestService.suggest("sample", "sta", SuggestService.MAX_LIMIT).asString());
+
+        assertThat(one.get("suggestions")).hasSize(1);
+        assertThat(most.get("suggestions")).hasSize(2);
+        assertThatThrownBy(() -> suggestService.suggest("sample", "sta", 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> suggestService.suggest("sample", "sta", SuggestService.MAX_LIMIT + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should cache answers per normalized prefix and rebuild after a reload")
+    void shouldCacheAndRebuild() throws Exception {
+        ConceptMapSnapshot first = suggestService.suggest("sample", "sta", 5);
+        assertThat(suggestService.suggest("sample", "  STA!", 5)).isSameAs(first);
+        assertThat(suggestService.suggest("sample", "sta", 4)).isNotSameAs(first);
+
+        registry.evict("sample");
+        ConceptMapSnapshot reloaded = suggestService.suggest("sample", "sta", 5);
+
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.asString()).isEqualTo(first.asString());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid prefixes and unknown datasets")
+    void shouldRejectInvalidRequests() {
+        assertThat(SuggestService.isValidPrefix("sta")).isTrue();
+        assertThat(SuggestService.isValidPrefix(null)).isFalse();
+        assertThat(SuggestService.isValidPrefix(" ?! ")).isFalse();
+        assertThat(SuggestService.isValidPrefix("a".repeat(SuggestService.MAX_PREFIX_LENGTH + 1))).isFalse();
+        assertThatThrownBy(() -> suggestService.suggest("sample", " ?! ", 5))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> suggestService.suggest("missing", "sta", 5))
+            .isInstanceOf(ConceptMapNotFoundException.class);
+    }
+}
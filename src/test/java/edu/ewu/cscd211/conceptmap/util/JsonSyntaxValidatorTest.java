@@ -0,0 +1,106 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the streaming JSON syntax validator.
+ */
+class JsonSyntaxValidatorTest {
+
+    private static final String[] NO_FIELDS = new String[0];
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonSyntaxValidator validator = new JsonSyntaxValidator(StreamReadConstraints.defaults());
+
+    private boolean jacksonAccepts(final String json) {
+        try {
+            objectMapper.readTree(json);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Nested
+    @DisplayName("Syntax")
+    class SyntaxTests {
+
+        @ParameterizedTest
+        @DisplayName("Should accept exactly what the object mapper accepts")
+        @ValueSource(strings = {
+            "{\"a\":[1,-0.5e+3,true,false,null,\"\\u00e9\\n\"]}", "{} trailing", "123", "123abc", "1]",
+            "truex", "true]", "[01]", "[+1]", "[.5]", "[1.]", "[1e]", "[NaN]", "[\"\\x\"]", "[\"\t\"]",
+            "[1,]", "{\"a\":1,}", "{\"a\" 1}", "{'a':1}", "[1 2]", "[\f1]", "[\"\uD83D\uDE00\"]", "{\"a\":{}}}"
+        })
+        void shouldMatchObjectMapper(final String json) {
+            final boolean accepted = jacksonAccepts(json);
+
+            assertThat(validator.validate(json, NO_FIELDS) == JsonSyntaxValidator.VALID)
+                .as("string %s", json).isEqualTo(accepted);
+            assertThat(validator.validate(json.getBytes(StandardCharsets.UTF_8), NO_FIELDS) == JsonSyntaxValidator.VALID)
+                .as("bytes %s", json).isEqualTo(accepted);
+        }
+
+        @Test
+        @DisplayName("Should enforce the nesting and number limits of its constraints")
+        void shouldEnforceConstraints() {
+            final JsonSyntaxValidator strict = new JsonSyntaxValidator(
+                StreamReadConstraints.builder().maxNestingDepth(2).maxNumberLength(3).build());
+
+            assertThat(strict.validate("[[1]]", NO_FIELDS)).isEqualTo(JsonSyntaxValidator.VALID);
+            assertThat(strict.validate("[[[1]]]", NO_FIELDS)).isEqualTo(JsonSyntaxValidator.INVALID);
+            assertThat(strict.validate("[1234]", NO_FIELDS)).isEqualTo(JsonSyntaxValidator.INVALID);
+        }
+
+        @Test
+        @DisplayName("Should describe the first error with its line and column")
+        void shouldDescribeFirstError() {
+            assertThat(validator.validate("{\n  \"a\": [1,\n  ]\n}", NO_FIELDS)).isEqualTo(JsonSyntaxValidator.INVALID);
+            assertThat(validator.describeError()).endsWith("(line 3, column 3)");
+            assertThat(validator.validate(" \n ", NO_FIELDS)).isEqualTo(JsonSyntaxValidator.EMPTY);
+        }
+    }
+
+    @Nested
+    @DisplayName("Allocation")
+    class AllocationTests {
+
+        @Test
+        @DisplayName("Should allocate nothing per call once warmed up")
+        void shouldNotAllocateWhenWarm() {
+            assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+            final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            assumeTrue(threads.isThreadAllocatedMemoryEnabled());
+            final byte[] json = ("{\"metadata\":{\"version\":\"1.0\"},\"nodes\":[{\"id\":\"a\",\"level\":2.5}],"
+                + "\"links\":[]}").getBytes(StandardCharsets.UTF_8);
+            final String[] fields = {"metadata", "links"};
+            for (int i = 0; i < 10_000; i++) {
+                validator.validate(json, fields);
+            }
+
+            final long thread = Thread.currentThread().getId();
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 10_000; i++) {
+                validator.validate(json, fields);
+            }
+            final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+            assertThat(validator.hasAllFields()).isTrue();
+            // Allow for the measurement itself, far below one byte per call
+            assertThat(allocated).isLessThan(1_000);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming validation against the tree-building validation it replaced.
+ *
+ * <p>{@code tree*} are the old implementations: trim, then {@code readTree}, and for required
+ * fields a second {@code readTree}. {@code streaming*} are the current ones. The run includes
+ * the GC profiler so that allocation per call is reported too; the streaming side should show
+ * close to zero bytes per operation.</p>
+ *
+ * <pre>{@code
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     edu.ewu.cscd211.conceptmap.util.JsonValidationBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonValidationBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String[] FIELDS = {"metadata", "nodes", "links"};
+
+    @Param({"10", "1000"})
+    int nodes;
+
+    String json;
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("metadata");
+            generator.writeStringField("version", "1.0");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("nodes");
+            for (int i = 0; i < nodes; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("id", "course-" + i);
+                generator.writeStringField("name", "Course " + i);
+                generator.writeNumberField("level", i % 5);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int i = 1; i < nodes; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("source", "course-" + i);
+                generator.writeStringField("target", "course-" + (i - 1));
+                generator.writeNumberField("strength", 0.5);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        bytes = out.toByteArray();
+        json = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public boolean treeIsValid() {
+        if (json.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            OBJECT_MAPPER.readTree(json);
+            return true;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean streamingIsValid() {
+        return JsonValidationUtils.isValidJson(json);
+    }
+
+    @Benchmark
+    public boolean streamingIsValidBytes() {
+        return JsonValidationUtils.isValidJson(bytes);
+    }
+
+    @Benchmark
+    public boolean treeHasRequiredFields() throws JsonProcessingException {
+        if (json.trim().isEmpty()) {
+            throw new IllegalArgumentException("JSON string cannot be empty");
+        }
+        OBJECT_MAPPER.readTree(json);
+        final JsonNode node = OBJECT_MAPPER.readTree(json);
+        for (final String field : FIELDS) {
+            if (!node.has(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean streamingHasRequiredFields() {
+        return JsonValidationUtils.hasRequiredFields(json, FIELDS);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonValidationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -8,8 +8,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -98,7 +100,7 @@ class JsonValidationUtilsTest {
         void shouldThrowExceptionForNullInput() {
             NullPointerException exception = assertThrows(
                 NullPointerException.class,
-                () -> JsonValidationUtils.isValidJson(null),
+                () -> JsonValidationUtils.isValidJson((String) null),
                 "Should throw NullPointerException for null input"
             );
             
@@ -123,7 +125,7 @@ class JsonValidationUtilsTest {
         void shouldThrowForNullJson() {
             NullPointerException exception = assertThrows(
                 NullPointerException.class,
-                () -> JsonValidationUtils.validateJsonOrThrow(null),
+                () -> JsonValidationUtils.validateJsonOrThrow((String) null),
                 "Should throw NullPointerException for null JSON"
             );
             
@@ -232,4 +234,88 @@ class JsonValidationUtilsTest {
             assertEquals("Required fields array cannot be null", exception.getMessage());
         }
     }
+
+    @Nested
+    @DisplayName("Byte and Stream Input Tests")
+    class ByteAndStreamInputTests {
+
+        @Test
+        @DisplayName("Should validate UTF-8 bytes and streams like strings")
+        void shouldValidateBytesAndStreams() throws Exception {
+            final byte[] valid = "{\"name\":\"Schleife \u00fc\",\"items\":[1,2.5e3,true,null]}"
+                .getBytes(StandardCharsets.UTF_8);
+            final byte[] invalid = "{\"name\":}".getBytes(StandardCharsets.UTF_8);
+
+            assertTrue(JsonValidationUtils.isValidJson(valid));
+            assertTrue(JsonValidationUtils.isValidJson(new ByteArrayInputStream(valid)));
+            assertFalse(JsonValidationUtils.isValidJson(invalid));
+            assertFalse(JsonValidationUtils.isValidJson(new ByteArrayInputStream(invalid)));
+            assertFalse(JsonValidationUtils.isValidJson(new byte[0]));
+        }
+
+        @Test
+        @DisplayName("Should locate syntax errors in streamed input across buffer refills")
+        void shouldLocateStreamErrors() {
+            final String json = "{\n  \"padding\": \"" + "x".repeat(20_000) + "\",\n  \"key\": tru\n}";
+            final ByteArrayInputStream stream = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+
+            final IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> JsonValidationUtils.validateJsonOrThrow(stream)
+            );
+
+            assertThat(exception.getMessage()).startsWith("Invalid JSON format:").endsWith("(line 3, column 13)");
+        }
+
+        @Test
+        @DisplayName("Should report whitespace-only bytes as empty")
+        void shouldReportBlankBytesAsEmpty() {
+            final IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> JsonValidationUtils.validateJsonOrThrow(" \n\t".getBytes(StandardCharsets.UTF_8))
+            );
+
+            assertEquals("JSON string cannot be empty", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("Single-pass Required Field Tests")
+    class SinglePassRequiredFieldTests {
+
+        @Test
+        @DisplayName("Should only count fields of the root object")
+        void shouldOnlyCountTopLevelFields() {
+            final String json = "{\"metadata\":{\"version\":\"1.0\"},\"nodes\":[{\"id\":\"a\"}]}";
+
+            assertTrue(JsonValidationUtils.hasRequiredFields(json, "metadata", "nodes"));
+            assertFalse(JsonValidationUtils.hasRequiredFields(json, "metadata", "version"));
+            assertFalse(JsonValidationUtils.hasRequiredFields(json, "id"));
+            assertFalse(JsonValidationUtils.hasRequiredFields(ARRAY_JSON, "key"));
+            assertTrue(JsonValidationUtils.hasRequiredFields(ARRAY_JSON));
+        }
+
+        @Test
+        @DisplayName("Should match escaped and non-ASCII field names in every input form")
+        void shouldMatchEscapedNames() throws Exception {
+            final String json = "{\"caf\\u00e9\":1,\"na\\\"me\":2,\"gr\u00fc\u00dfe\":3}";
+            final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+            assertTrue(JsonValidationUtils.hasRequiredFields(json, "caf\u00e9", "na\"me", "gr\u00fc\u00dfe"));
+            assertTrue(JsonValidationUtils.hasRequiredFields(bytes, "caf\u00e9", "na\"me", "gr\u00fc\u00dfe"));
+            assertTrue(JsonValidationUtils.hasRequiredFields(new ByteArrayInputStream(bytes), "gr\u00fc\u00dfe", "caf\u00e9"));
+            assertFalse(JsonValidationUtils.hasRequiredFields(bytes, "cafe", (String) null));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid JSON even when the fields are present")
+        void shouldRejectInvalidJsonWithFields() {
+            final IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> JsonValidationUtils.hasRequiredFields("{\"key\":1,}", "key")
+            );
+
+            assertThat(exception.getMessage()).startsWith("Invalid JSON format:");
+        }
+    }
 }
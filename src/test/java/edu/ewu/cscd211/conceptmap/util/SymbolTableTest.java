@@ -0,0 +1,66 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the string interning symbol table.
+ */
+class SymbolTableTest {
+
+    private final SymbolTable table = new SymbolTable();
+
+    @Nested
+    @DisplayName("Interning")
+    class InterningTests {
+
+        @Test
+        @DisplayName("Should assign dense symbols and keep the first instance of each string")
+        void shouldAssignDenseSymbols() {
+            String first = new String("PREREQUISITE");
+
+            assertThat(table.intern(first)).isZero();
+            assertThat(table.intern("RELATED_TO")).isEqualTo(1);
+            assertThat(table.intern(new String("PREREQUISITE"))).isZero();
+            assertThat(table.canonical(new String("PREREQUISITE"))).isSameAs(first);
+            assertThat(table.name(1)).isEqualTo("RELATED_TO");
+            assertThat(table.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should look up without assigning and reject unknown symbols")
+        void shouldLookUpWithoutAssigning() {
+            table.intern("a");
+
+            assertThat(table.lookup("a")).isZero();
+            assertThat(table.lookup("b")).isEqualTo(SymbolTable.NO_SYMBOL);
+            assertThat(table.lookup(null)).isEqualTo(SymbolTable.NO_SYMBOL);
+            assertThat(table.canonical(null)).isNull();
+            assertThat(table.size()).isEqualTo(1);
+            assertThatThrownBy(() -> table.name(1)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> table.intern(null)).isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        @DisplayName("Should give each string exactly one symbol under concurrent interning")
+        void shouldInternConcurrently() {
+            List<Integer> symbols = IntStream.range(0, 20_000).parallel()
+                .map(i -> table.intern("node-" + (i % 5_000)))
+                .boxed()
+                .toList();
+
+            Set<Integer> distinct = symbols.stream().collect(Collectors.toSet());
+            assertThat(distinct).hasSize(5_000).allMatch(symbol -> symbol >= 0 && symbol < 5_000);
+            assertThat(IntStream.range(0, 5_000).mapToObj(table::name).distinct()).hasSize(5_000);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package edu.ewu.cscd211.conceptmap.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the weight-bounded LRU cache.
+ */
+class WeightedLruCacheTest {
+
+    private final WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, String::length);
+
+    @Nested
+    @DisplayName("Construction")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Should reject a negative budget and a null weigher")
+        void shouldRejectInvalidArguments() {
+            assertThatThrownBy(() -> new WeightedLruCache<String, String>(-1, String::length))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new WeightedLruCache<String, String>(1, null))
+                .isInstanceOf(NullPointerException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("Should evict the least recently used entries when over budget")
+        void shouldEvictLeastRecentlyUsed() {
+            cache.put("a", "aaaa");
+            cache.put("b", "bbbb");
+            cache.get("a");
+            cache.put("c", "cccc");
+
+            assertThat(cache.get("b")).isNull();
+            assertThat(cache.get("a")).isEqualTo("aaaa");
+            assertThat(cache.get("c")).isEqualTo("cccc");
+            assertThat(cache.totalWeight()).isEqualTo(8);
+        }
+
+        @Test
+        @DisplayName("Should refuse values heavier than the whole budget")
+        void shouldRefuseOversizedValues() {
+            cache.put("a", "aaaa");
+
+            assertThat(cache.put("big", "x".repeat(11))).isFalse();
+            assertThat(cache.get("big")).isNull();
+            assertThat(cache.get("a")).isEqualTo("aaaa");
+        }
+
+        @Test
+        @DisplayName("Should replace the weight of an existing key")
+        void shouldReplaceExistingKeyWeight() {
+            cache.put("a", "aaaa");
+            cache.put("a", "aa");
+
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(cache.totalWeight()).isEqualTo(2);
+            assertThat(cache.remove("a")).isEqualTo("aa");
+            assertThat(cache.totalWeight()).isZero();
+        }
+    }
+}